@@ -2,6 +2,7 @@ package de.unibremen.informatik.st.libvcs4j;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a single commit.
@@ -67,6 +68,20 @@ public interface Commit extends VCSModelElement {
 	 */
 	List<Issue> getIssues();
 
+	/**
+	 * Returns the issues referenced by this commit (see {@link #getIssues()})
+	 * as future. Engines that resolve issues asynchronously complete the
+	 * returned future as soon as the issues are available, allowing clients
+	 * to proceed with other work in the meantime. The default implementation
+	 * returns a completed future of {@link #getIssues()}.
+	 *
+	 * @return
+	 * 		The issues referenced by this commit as future.
+	 */
+	default CompletableFuture<List<Issue>> getIssuesAsync() {
+		return CompletableFuture.completedFuture(getIssues());
+	}
+
 	/**
 	 * Returns whether this commit is a merge commit. That is, it has more than
 	 * one parent (see {@link #getParentIds()}).
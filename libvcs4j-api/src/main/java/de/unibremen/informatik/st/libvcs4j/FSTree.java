@@ -8,21 +8,24 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.Set;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Allows to represent a collection of {@link VCSFile} instances as a file
- * system tree with a generic value that may be attached to a file.
+ * system tree with a generic value that may be attached to a file. The
+ * aggregated value of a directory (see {@link #getValue()}) is computed once
+ * and cached until the directory is changed by
+ * {@link #update(RevisionRange, Function, BinaryOperator)}.
  *
  * @param <V>
  * 		The type of the values attached to the files.
@@ -98,7 +101,7 @@ public class FSTree<V> {
 	/**
 	 * The parent of a tree. Is {@code null} for the root node.
 	 */
-	private final FSTree<V> parent;
+	private FSTree<V> parent;
 
 	/**
 	 * The relative path of the referenced file (if {@link #file} is present)
@@ -109,6 +112,11 @@ public class FSTree<V> {
 	 */
 	private final String path;
 
+	/**
+	 * The name of the referenced file or directory (see {@link #getName()}).
+	 */
+	private final String name;
+
 	/**
 	 * The referenced file. Is {@code null} if {@link #nodes} is present.
 	 */
@@ -125,12 +133,25 @@ public class FSTree<V> {
 	 */
 	private final List<FSTree<V>> nodes;
 
+	/**
+	 * Name -> node of {@link #nodes}. If multiple nodes have the same name
+	 * (which may happen in compacted trees), the first one is stored. Is
+	 * {@code null} if {@link #file} is present.
+	 */
+	private final Map<String, FSTree<V>> index;
+
 	/**
 	 * Is used to calculate the value of a directory by aggregating the values
 	 * of all sub files and directories.
 	 */
 	private final BinaryOperator<V> aggregator;
 
+	/**
+	 * The cached aggregated value of a directory. Is {@code null} if the
+	 * value has not been computed yet (or has been invalidated).
+	 */
+	private Optional<V> aggregate = null;
+
 	/**
 	 * Creates a file with given parent, {@link VCSFile}, and value function.
 	 *
@@ -148,9 +169,12 @@ public class FSTree<V> {
 			final Function<VCSFile, V> pValueOf) {
 		parent = pParent;
 		file = Validate.notNull(pFile);
-		path = file.toRelativePath().toString();
+		final Path relativePath = file.toRelativePath();
+		path = relativePath.toString();
+		name = relativePath.getFileName().toString();
 		value = Validate.notNull(pValueOf).apply(file);
 		nodes = null;
+		index = null;
 		aggregator = null;
 	}
 
@@ -163,22 +187,51 @@ public class FSTree<V> {
 	 * 		nodes.
 	 * @param pPath
 	 *      The relative path of the directory to create.
+	 * @param pName
+	 *      The name of the directory to create.
 	 * @param pAggregator
 	 * 		The aggregation function used to calculate the value of a
 	 * 		directory. The function must not handle {@code null} values.
 	 * @throws NullPointerException
-	 *      If {@code pPath} or {@code pAggregator} is {@code null}.
+	 *      If {@code pPath}, {@code pName}, or {@code pAggregator} is
+	 *      {@code null}.
 	 */
 	private FSTree(final FSTree<V> pParent, final String pPath,
-			final BinaryOperator<V> pAggregator) {
+			final String pName, final BinaryOperator<V> pAggregator) {
 		parent = pParent;
 		path = Validate.notNull(pPath);
+		name = Validate.notNull(pName);
 		nodes = new ArrayList<>();
+		index = new HashMap<>();
 		aggregator = Validate.notNull(pAggregator);
 		file = null;
 		value = null;
 	}
 
+	/**
+	 * Creates a directory with given parent, relative path, and aggregation
+	 * function. The name of the directory is derived from {@code pPath}.
+	 *
+	 * @param pParent
+	 * 		The parent of the directory to create. Pass {@code null} for root
+	 * 		nodes.
+	 * @param pPath
+	 *      The relative path of the directory to create.
+	 * @param pAggregator
+	 * 		The aggregation function used to calculate the value of a
+	 * 		directory. The function must not handle {@code null} values.
+	 * @throws NullPointerException
+	 *      If {@code pPath} or {@code pAggregator} is {@code null}.
+	 */
+	private FSTree(final FSTree<V> pParent, final String pPath,
+			final BinaryOperator<V> pAggregator) {
+		this(pParent, pPath, pPath.equals(EMPTY_DIRECTORY) ||
+				pPath.equals(ROOT_DIRECTORY)
+						? pPath
+						: Paths.get(pPath).getFileName().toString(),
+				pAggregator);
+	}
+
 	/**
 	 * Creates a tree from the given list of {@link VCSFile} instances.
 	 * {@code null} values and duplicates (according to
@@ -207,58 +260,50 @@ public class FSTree<V> {
 		Validate.notNull(pValueOf);
 		Validate.notNull(pAggregator);
 
-		final Set<FSTree<V>> treesWithoutParent = new HashSet<>();
-		final Map<String, FSTree<V>> cache = new HashMap<>();
-		pFiles.stream().filter(Objects::nonNull).distinct().forEach(f -> {
-			// (1) "home/user/file.txt" -> "home", "user", "file.txt"
-			final Path relativePath = f.toRelativePath();
-			final List<String> parts = new ArrayList<>();
-			relativePath.forEach(p -> parts.add(p.toString()));
-
-			// (2) For each directory ("home", "user")...
-			FSTree<V> parent = null;
-			for (int i = 0; i < parts.size() - 1; i++) {
-				final String path = String.join(
-						File.separator, parts.subList(0, i + 1));
-				FSTree<V> dir = cache.get(path);
-				if (dir == null) {
-					dir = new FSTree<>(parent, path, pAggregator);
-					cache.put(path, dir);
-					if (parent != null) {
-						parent.nodes.add(dir);
-					}
-				}
-				if (parent == null) {
-					treesWithoutParent.add(dir);
-				}
-				parent = dir;
-			}
-
-			// (3) Add file ("file.txt").
-			final String relativePathStr = relativePath.toString();
-			FSTree<V> file = cache.get(relativePathStr);
-			if (file == null) {
-				file = new FSTree<>(parent, f, pValueOf);
-				cache.put(relativePathStr, file);
-				if (parent != null) {
-					parent.nodes.add(file);
-				}
-			}
-			if (parent == null) {
-				treesWithoutParent.add(file);
-			}
-		});
+		// Collects the root nodes. Paths are built incrementally from the
+		// names of their directories (see `insert`).
+		final FSTree<V> container = new FSTree<>(
+				null, ROOT_DIRECTORY, pAggregator);
+		pFiles.stream().filter(Objects::nonNull).distinct().forEach(f ->
+				container.insert(f, pValueOf, false));
+		return toRoot(container);
+	}
 
-		if (treesWithoutParent.isEmpty()) {
-			return new FSTree<>(null, EMPTY_DIRECTORY, pAggregator);
-		} else if (treesWithoutParent.size() > 1) {
-			final FSTree<V> root = new FSTree<>(
-					null, ROOT_DIRECTORY, pAggregator);
-			root.nodes.addAll(treesWithoutParent);
+	/**
+	 * Returns the root node of a tree whose root nodes are stored in the
+	 * virtual root directory {@code pContainer}. That is, an "empty"
+	 * directory if {@code pContainer} is empty, the only node of
+	 * {@code pContainer} (detached from {@code pContainer}), or a virtual
+	 * root directory ({@link #ROOT_DIRECTORY}) containing the nodes of
+	 * {@code pContainer}.
+	 *
+	 * @param pContainer
+	 * 		The virtual root directory storing the root nodes.
+	 * @param <V>
+	 *     	The type of the values attached to files.
+	 * @return
+	 * 		The root node of the tree.
+	 */
+	private static <V> FSTree<V> toRoot(final FSTree<V> pContainer) {
+		if (pContainer.nodes.isEmpty()) {
+			return pContainer.path.equals(EMPTY_DIRECTORY)
+					? pContainer
+					: new FSTree<>(null, EMPTY_DIRECTORY,
+							pContainer.aggregator);
+		} else if (pContainer.nodes.size() == 1) {
+			final FSTree<V> root = pContainer.nodes.get(0);
+			root.parent = null;
 			return root;
-		} else {
-			return treesWithoutParent.iterator().next();
+		} else if (pContainer.path.equals(ROOT_DIRECTORY)) {
+			return pContainer;
 		}
+		final FSTree<V> root = new FSTree<>(
+				null, ROOT_DIRECTORY, pContainer.aggregator);
+		pContainer.nodes.forEach(node -> {
+			node.parent = root;
+			root.addNode(node);
+		});
+		return root;
 	}
 
 	/**
@@ -308,9 +353,7 @@ public class FSTree<V> {
 	 * 		The name of this file or directory.
 	 */
 	public String getName() {
-		return isVirtualRoot()
-				? path
-				: Paths.get(path).getFileName().toString();
+		return name;
 	}
 
 	/**
@@ -335,23 +378,49 @@ public class FSTree<V> {
 	 * 		{@link Optional} is returned.
 	 */
 	public Optional<V> getValue() {
-		final List<V> values = new ArrayList<>();
-		final Visitor<V> visitor = new Visitor<V>() {
-			@Override
-			protected void visitFile(final FSTree<V> pTree) {
-				if (pTree.value != null) {
-					values.add(pTree.value);
+		if (isFile()) {
+			return Optional.ofNullable(value);
+		}
+		if (aggregate == null) {
+			aggregate();
+		}
+		return aggregate;
+	}
+
+	/**
+	 * Computes the aggregated values of this directory and all of its
+	 * (recursively) sub directories whose values are not cached yet. The
+	 * directories are processed in a single post-order pass such that the
+	 * value of a directory is aggregated from the (cached) values of its
+	 * direct sub nodes.
+	 */
+	private void aggregate() {
+		// Parents are pushed to `postOrder` before their sub directories and,
+		// thus, are popped after them.
+		final Deque<FSTree<V>> stack = new ArrayDeque<>();
+		final Deque<FSTree<V>> postOrder = new ArrayDeque<>();
+		stack.push(this);
+		while (!stack.isEmpty()) {
+			final FSTree<V> dir = stack.pop();
+			postOrder.push(dir);
+			dir.nodes.stream()
+					.filter(n -> n.isDirectory() && n.aggregate == null)
+					.forEach(stack::push);
+		}
+		while (!postOrder.isEmpty()) {
+			final FSTree<V> dir = postOrder.pop();
+			V result = null;
+			for (final FSTree<V> node : dir.nodes) {
+				final V v = node.isFile()
+						? node.value
+						: node.aggregate.orElse(null);
+				if (v != null) {
+					result = result == null
+							? v
+							: dir.aggregator.apply(result, v);
 				}
-				super.visitFile(pTree);
 			}
-		};
-		visitor.visit(this);
-		if (values.isEmpty()) {
-			return Optional.empty();
-		} else if (values.size() == 1) {
-			return Optional.ofNullable(values.get(0));
-		} else {
-			return values.stream().reduce(aggregator);
+			dir.aggregate = Optional.ofNullable(result);
 		}
 	}
 
@@ -389,18 +458,7 @@ public class FSTree<V> {
 	 * 		All (recursively) sub directories of this tree.
 	 */
 	public List<FSTree<V>> getAllDirectories() {
-		final List<FSTree<V>> directories = new ArrayList<>();
-		final Visitor<V> visitor = new Visitor<V>() {
-			@Override
-			protected void visitDirectory(final FSTree<V> pDirectory) {
-				if (pDirectory != FSTree.this) {
-					directories.add(pDirectory);
-				}
-				super.visitDirectory(pDirectory);
-			}
-		};
-		visitor.visit(this);
-		return directories;
+		return collect(FSTree::isDirectory);
 	}
 
 	/**
@@ -424,18 +482,39 @@ public class FSTree<V> {
 	 * 		Al (recursively) sub files of this tree.
 	 */
 	public List<FSTree<V>> getAllFiles() {
-		final List<FSTree<V>> files = new ArrayList<>();
-		final Visitor<V> visitor = new Visitor<V>() {
-			@Override
-			protected void visitFile(FSTree<V> pFile) {
-				if (pFile != FSTree.this) {
-					files.add(pFile);
+		return collect(FSTree::isFile);
+	}
+
+	/**
+	 * Returns all (recursively) sub nodes of this tree (in pre-order)
+	 * matching {@code pFilter}. This tree itself is not included.
+	 *
+	 * @param pFilter
+	 * 		The filter to apply.
+	 * @return
+	 * 		All (recursively) sub nodes matching {@code pFilter}.
+	 */
+	private List<FSTree<V>> collect(final Predicate<FSTree<V>> pFilter) {
+		final List<FSTree<V>> result = new ArrayList<>();
+		if (isFile()) {
+			return result;
+		}
+		final Deque<FSTree<V>> stack = new ArrayDeque<>();
+		for (int i = nodes.size() - 1; i >= 0; i--) {
+			stack.push(nodes.get(i));
+		}
+		while (!stack.isEmpty()) {
+			final FSTree<V> node = stack.pop();
+			if (pFilter.test(node)) {
+				result.add(node);
+			}
+			if (node.isDirectory()) {
+				for (int i = node.nodes.size() - 1; i >= 0; i--) {
+					stack.push(node.nodes.get(i));
 				}
-				super.visitFile(pFile);
 			}
-		};
-		visitor.visit(this);
-		return files;
+		}
+		return result;
 	}
 
 	/**
@@ -495,9 +574,7 @@ public class FSTree<V> {
 					return tail.isEmpty() && hasFileName(head)
 							? Optional.of(this) : Optional.empty();
 				} else {
-					return nodes.stream()
-							.filter(n -> n.hasFileName(head))
-							.findFirst()
+					return Optional.ofNullable(index.get(head))
 							.map(n -> n.navigateTo(tail))
 							.filter(Optional::isPresent)
 							.map(Optional::get);
@@ -557,7 +634,7 @@ public class FSTree<V> {
 				// compactedNode may be an empty directory.
 				final FSTree<T> compactedNode = compact(node, compacted);
 				if (compactedNode.isFile() || !compactedNode.nodes.isEmpty()) {
-					compacted.nodes.add(compactedNode);
+					compacted.addNode(compactedNode);
 				}
 			});
 		}
@@ -565,6 +642,182 @@ public class FSTree<V> {
 		return compacted;
 	}
 
+	/**
+	 * Applies the file changes of {@code pRange} (see
+	 * {@link RevisionRange#getFileChanges()}) to this tree. That is, removed
+	 * files are removed (including directories that become empty), added
+	 * files are added, and modified files are replaced. Only the values of
+	 * changed files are computed, and only the aggregated values of their
+	 * parent directories are invalidated. Unchanged files keep their
+	 * {@link VCSFile} instances. This tree is updated in place, but the root
+	 * node of the updated tree may differ from this tree---for instance, if a
+	 * file is added next to the only root directory. Must not be called on
+	 * compacted trees (see {@link #compact()}).
+	 *
+	 * @param pRange
+	 * 		The range whose file changes are applied.
+	 * @param pValueOf
+	 * 		The function that is used to map a file to its value. The function
+	 * 		may return {@code null}.
+	 * @param pAggregator
+	 * 		The aggregation function used to calculate the value of new
+	 * 		directories. The function must not handle {@code null} values.
+	 * @return
+	 * 		The root node of the updated tree.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IllegalStateException
+	 * 		If this tree is not a root node.
+	 */
+	public FSTree<V> update(final RevisionRange pRange,
+			final Function<VCSFile, V> pValueOf,
+			final BinaryOperator<V> pAggregator)
+			throws NullPointerException, IllegalStateException {
+		Validate.notNull(pRange);
+		Validate.notNull(pValueOf);
+		Validate.notNull(pAggregator);
+		Validate.validateState(isRoot(), "'%s' is not a root node", path);
+
+		final FSTree<V> container;
+		if (isVirtualRoot()) {
+			container = this;
+		} else {
+			container = new FSTree<>(null, ROOT_DIRECTORY, pAggregator);
+			parent = container;
+			container.addNode(this);
+		}
+		for (final FileChange fileChange : pRange.getFileChanges()) {
+			final Optional<VCSFile> oldFile = fileChange.getOldFile();
+			final Optional<VCSFile> newFile = fileChange.getNewFile();
+			if (oldFile.isPresent() && !(newFile.isPresent() &&
+					oldFile.get().toRelativePath().equals(
+							newFile.get().toRelativePath()))) {
+				container.remove(oldFile.get().toRelativePath());
+			}
+			newFile.ifPresent(f -> container.insert(f, pValueOf, true));
+		}
+		return toRoot(container);
+	}
+
+	/**
+	 * Inserts {@code pFile} into this directory which is supposed to be a
+	 * virtual root directory. Missing directories are created. If there
+	 * already is a file with the same path, it is replaced if
+	 * {@code pReplace} is {@code true} and kept otherwise.
+	 *
+	 * @param pFile
+	 * 		The file to insert.
+	 * @param pValueOf
+	 * 		The function that is used to map a file to its value.
+	 * @param pReplace
+	 * 		Whether to replace an existing file.
+	 */
+	private void insert(final VCSFile pFile,
+			final Function<VCSFile, V> pValueOf, final boolean pReplace) {
+		final Path relativePath = pFile.toRelativePath();
+		final int numParts = relativePath.getNameCount();
+
+		// (1) "home/user/file.txt" -> "home", "user"
+		FSTree<V> dir = this;
+		for (int i = 0; i < numParts - 1; i++) {
+			final String dirName = relativePath.getName(i).toString();
+			FSTree<V> sub = dir.index.get(dirName);
+			if (sub == null || sub.isFile()) {
+				sub = new FSTree<>(dir, dir == this
+						? dirName
+						: dir.path + File.separator + dirName,
+						dirName, aggregator);
+				dir.addNode(sub);
+			}
+			dir = sub;
+		}
+
+		// (2) "file.txt"
+		final String fileName = relativePath.getFileName().toString();
+		final FSTree<V> existing = dir.index.get(fileName);
+		if (existing != null && existing.isFile()) {
+			if (!pReplace) {
+				return;
+			}
+			final FSTree<V> file = new FSTree<>(dir, pFile, pValueOf);
+			dir.nodes.set(dir.nodes.indexOf(existing), file);
+			dir.index.put(fileName, file);
+		} else {
+			dir.addNode(new FSTree<>(dir, pFile, pValueOf));
+		}
+		dir.invalidate();
+	}
+
+	/**
+	 * Removes the file located at {@code pRelativePath} from this directory
+	 * which is supposed to be a virtual root directory. Directories that
+	 * become empty are removed as well. Does nothing if there is no such
+	 * file.
+	 *
+	 * @param pRelativePath
+	 * 		The relative path of the file to remove.
+	 */
+	private void remove(final Path pRelativePath) {
+		FSTree<V> node = this;
+		for (final Path part : pRelativePath) {
+			node = node.isDirectory()
+					? node.index.get(part.toString())
+					: null;
+			if (node == null) {
+				return;
+			}
+		}
+		if (!node.isFile()) {
+			return;
+		}
+		FSTree<V> dir = node.parent;
+		dir.removeNode(node);
+		while (dir != this && dir.nodes.isEmpty()) {
+			final FSTree<V> p = dir.parent;
+			p.removeNode(dir);
+			dir = p;
+		}
+		dir.invalidate();
+	}
+
+	/**
+	 * Adds {@code pNode} to the sub nodes of this directory.
+	 *
+	 * @param pNode
+	 * 		The node to add.
+	 */
+	private void addNode(final FSTree<V> pNode) {
+		nodes.add(pNode);
+		index.putIfAbsent(pNode.name, pNode);
+	}
+
+	/**
+	 * Removes {@code pNode} from the sub nodes of this directory.
+	 *
+	 * @param pNode
+	 * 		The node to remove.
+	 */
+	private void removeNode(final FSTree<V> pNode) {
+		nodes.remove(pNode);
+		if (index.get(pNode.name) == pNode) {
+			index.remove(pNode.name);
+			nodes.stream()
+					.filter(n -> n.name.equals(pNode.name))
+					.findFirst()
+					.ifPresent(n -> index.put(n.name, n));
+		}
+	}
+
+	/**
+	 * Invalidates the cached aggregated values of this directory and all of
+	 * its parents.
+	 */
+	private void invalidate() {
+		for (FSTree<V> dir = this; dir != null; dir = dir.parent) {
+			dir.aggregate = null;
+		}
+	}
+
 	/**
 	 * Returns whether the filename of this tree matches the given filename.
 	 *
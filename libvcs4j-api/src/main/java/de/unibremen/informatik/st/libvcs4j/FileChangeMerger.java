@@ -0,0 +1,239 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static de.unibremen.informatik.st.libvcs4j.FileChange.Type.ADD;
+import static de.unibremen.informatik.st.libvcs4j.FileChange.Type.MODIFY;
+import static de.unibremen.informatik.st.libvcs4j.FileChange.Type.RELOCATE;
+import static de.unibremen.informatik.st.libvcs4j.FileChange.Type.REMOVE;
+
+/**
+ * Merges the file changes of the commits of a {@link RevisionRange} (see
+ * {@link RevisionRange#getFileChanges()}). The file changes of a commit are
+ * indexed by path such that each accumulated file change is matched in
+ * constant time. Thus, merging takes linear time in the total number of file
+ * changes.
+ */
+final class FileChangeMerger {
+
+	/**
+	 * The range whose file changes are merged.
+	 */
+	private final RevisionRange range;
+
+	/**
+	 * The file changes of the commit that is currently merged.
+	 */
+	private FileChange[] toProcess;
+
+	/**
+	 * Flags the elements of {@link #toProcess} that have been matched.
+	 */
+	private boolean[] matched;
+
+	/**
+	 * Path of old file -> indices of {@link #toProcess} (ascending).
+	 */
+	private final Map<Path, Deque<Integer>> byOldPath = new HashMap<>();
+
+	/**
+	 * Path of new file -> indices of {@link #toProcess} (ascending).
+	 */
+	private final Map<Path, Deque<Integer>> byNewPath = new HashMap<>();
+
+	/**
+	 * Path of new file -> indices of the additions in {@link #toProcess}
+	 * (ascending).
+	 */
+	private final Map<Path, Deque<Integer>> addsByNewPath = new HashMap<>();
+
+	FileChangeMerger(final RevisionRange pRange) {
+		range = pRange;
+	}
+
+	/**
+	 * Merges the file changes of all commits of {@link #range}.
+	 */
+	List<FileChange> merge() {
+		final List<Commit> commits = range.getCommits();
+		final VCSEngine engine = range.getVCSEngine();
+		final VCSModelFactory factory = engine.getModelFactory();
+		List<FileChange> accum = commits.get(0).getFileChanges();
+		for (int i = 1; i < commits.size(); i++) {
+			index(commits.get(i).getFileChanges());
+			final List<FileChange> next = new ArrayList<>(
+					accum.size() + toProcess.length);
+			for (final FileChange change : accum) {
+				final FileChange.Type type = change.getType();
+				final int match;
+				if (type == ADD) {
+					match = first(byOldPath, pathOf(change.getNewFile()));
+				} else if (type == REMOVE) {
+					match = first(byNewPath, pathOf(change.getOldFile()));
+				} else {
+					// Additions are matched with their new path (this
+					// indicates a bug), all other changes with their old path.
+					final Path path = pathOf(change.getNewFile());
+					match = first(byOldPath, addsByNewPath, path);
+				}
+				if (match < 0) {
+					next.add(change);
+					continue;
+				}
+				final FileChange other = toProcess[match];
+				matched[match] = true;
+				validate(change, other);
+				if (type == ADD && other.getType() == REMOVE) {
+					continue;
+				}
+				next.add(factory.createFileChange(
+						change.getOldFile().orElse(null),
+						other.getNewFile().orElse(null),
+						engine));
+			}
+			for (int j = 0; j < toProcess.length; j++) {
+				if (!matched[j]) {
+					next.add(toProcess[j]);
+				}
+			}
+			accum = next;
+		}
+		return postprocess(accum);
+	}
+
+	/**
+	 * Replaces the accumulated file changes such that the revisions of the
+	 * referenced files match with the predecessor and successor revision of
+	 * {@link #range}. File changes whose files already match are kept.
+	 */
+	private List<FileChange> postprocess(final List<FileChange> pChanges) {
+		final Revision predRev = range.getPredecessorRevision().orElse(null);
+		final Revision rev = range.getRevision();
+		final VCSEngine engine = range.getVCSEngine();
+		final VCSModelFactory factory = engine.getModelFactory();
+		final List<FileChange> result = new ArrayList<>(pChanges.size());
+		for (final FileChange change : pChanges) {
+			final VCSFile oldFile = change.getOldFile().orElse(null);
+			final VCSFile newFile = change.getNewFile().orElse(null);
+			VCSFile newOldFile = oldFile;
+			if (oldFile != null) {
+				Validate.validateState(predRev != null);
+				if (!oldFile.getRevision().getId().equals(predRev.getId())) {
+					newOldFile = factory.createVCSFile(
+							oldFile.getRelativePath(), predRev, engine);
+				}
+			}
+			VCSFile newNewFile = newFile;
+			if (newFile != null &&
+					!newFile.getRevision().getId().equals(rev.getId())) {
+				newNewFile = factory.createVCSFile(
+						newFile.getRelativePath(), rev, engine);
+			}
+			result.add(newOldFile == oldFile && newNewFile == newFile
+					? change
+					: factory.createFileChange(newOldFile, newNewFile, engine));
+		}
+		return result;
+	}
+
+	/**
+	 * Replaces {@link #toProcess} with {@code pChanges} and rebuilds the
+	 * indices.
+	 */
+	private void index(final List<FileChange> pChanges) {
+		toProcess = pChanges.toArray(new FileChange[0]);
+		matched = new boolean[toProcess.length];
+		byOldPath.clear();
+		byNewPath.clear();
+		addsByNewPath.clear();
+		for (int i = 0; i < toProcess.length; i++) {
+			final FileChange change = toProcess[i];
+			final int idx = i;
+			change.getOldFile().ifPresent(file -> byOldPath
+					.computeIfAbsent(file.toRelativePath(),
+							__ -> new ArrayDeque<>())
+					.add(idx));
+			change.getNewFile().ifPresent(file -> {
+				final Path path = file.toRelativePath();
+				byNewPath.computeIfAbsent(path, __ -> new ArrayDeque<>())
+						.add(idx);
+				if (change.getType() == ADD) {
+					addsByNewPath.computeIfAbsent(path,
+							__ -> new ArrayDeque<>()).add(idx);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns the smallest unmatched index of {@code pPath} in
+	 * {@code pIndex}, or -1 if there is no such index. Matched indices are
+	 * dropped on the fly.
+	 */
+	private int first(final Map<Path, Deque<Integer>> pIndex,
+			final Path pPath) {
+		final Deque<Integer> indices = pIndex.get(pPath);
+		if (indices == null) {
+			return -1;
+		}
+		while (!indices.isEmpty() && matched[indices.peekFirst()]) {
+			indices.pollFirst();
+		}
+		return indices.isEmpty() ? -1 : indices.peekFirst();
+	}
+
+	/**
+	 * Returns the smallest unmatched index of {@code pPath} in {@code pA}
+	 * and {@code pB}, or -1 if there is no such index.
+	 */
+	private int first(final Map<Path, Deque<Integer>> pA,
+			final Map<Path, Deque<Integer>> pB, final Path pPath) {
+		final int a = first(pA, pPath);
+		final int b = first(pB, pPath);
+		return a < 0 ? b : b < 0 ? a : Math.min(a, b);
+	}
+
+	private static Path pathOf(final Optional<VCSFile> pFile) {
+		return pFile.orElseThrow(IllegalStateException::new)
+				.toRelativePath();
+	}
+
+	/**
+	 * Validates that {@code pOther} may be applied onto {@code pChange}.
+	 */
+	private static void validate(final FileChange pChange,
+			final FileChange pOther) {
+		final FileChange.Type type = pChange.getType();
+		final FileChange.Type oType = pOther.getType();
+		if (type == ADD || type == REMOVE) {
+			final Path path = type == ADD
+					? pathOf(pChange.getNewFile())
+					: pathOf(pChange.getOldFile());
+			Validate.validateState(
+					!(type == ADD && oType == ADD),
+					"'%s' has been added after being added",
+					path);
+			Validate.validateState(
+					!(type == REMOVE && oType == REMOVE),
+					"'%s' has been removed after being removed",
+					path);
+		} else {
+			final Path path = pathOf(pChange.getNewFile());
+			Validate.validateState(
+					!(type == MODIFY && oType == ADD),
+					"'%s' has been added after being modified",
+					path);
+			Validate.validateState(
+					!(type == RELOCATE && oType == ADD),
+					"'%s' has been added after being relocated to this path",
+					path);
+		}
+	}
+}
@@ -4,14 +4,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * This engine is supposed to extract issues from an issue tracker, such as
@@ -41,6 +39,39 @@ public interface ITEngine {
 	 */
 	Optional<Issue> getIssueById(String id) throws IOException;
 
+	/**
+	 * Returns the issues with the given ids (see {@link Issue#getId()}). Ids
+	 * without an issue are not contained in the returned map. This method
+	 * does not fail if {@code ids} is {@code null} or contains {@code null}
+	 * values.
+	 *
+	 * The default implementation calls {@link #getIssueById(String)} for each
+	 * (distinct) id. Engines should override this method if they are able to
+	 * retrieve multiple issues with fewer requests.
+	 *
+	 * @param ids
+	 *      The ids of the issues to fetch.
+	 * @return
+	 *      Id -> issue (in the order of {@code ids}).
+	 * @throws IOException
+	 *      If an error occurred while retrieving the issues.
+	 */
+	default Map<String, Issue> getIssuesById(final Collection<String> ids)
+			throws IOException {
+		final Map<String, Issue> issues = new LinkedHashMap<>();
+		if (ids != null) {
+			for (final String id : new LinkedHashSet<>(ids)) {
+				if (id != null) {
+					final Optional<Issue> issue = getIssueById(id);
+					if (issue.isPresent()) {
+						issues.put(id, issue.get());
+					}
+				}
+			}
+		}
+		return issues;
+	}
+
 	/**
 	 * Returns the factory used to create issue tracker model instances.
 	 *
@@ -85,8 +116,8 @@ public interface ITEngine {
 	 * {@link Issue#getId()}) twice.
 	 *
 	 * The default implementation parses the commit messages using
-	 * {@link #parseIssueIds(String)} and creates an {@link Issue} instance for
-	 * each id found using {@link #getIssueById(String)}.
+	 * {@link #parseIssueIds(String)} and retrieves the issues of all ids found
+	 * at once using {@link #getIssuesById(Collection)}.
 	 *
 	 * @param commits
 	 *      The commits to parse.
@@ -97,22 +128,15 @@ public interface ITEngine {
 	 */
 	default List<Issue> getIssuesFor(final List<Commit> commits)
 			throws IOException {
-		final List<String> ids =
-				(commits == null ? Collections.<Commit>emptyList() : commits)
-						.stream()
-						.filter(Objects::nonNull)
-						.map(Commit::getMessage)
-						.map(this::parseIssueIds)
-						.flatMap(Collection::stream)
-						.collect(Collectors.toList());
-		final Map<String, Issue> issues = new HashMap<>();
-		for (final String id : ids) {
-			if (!issues.containsKey(id)) {
-				issues.put(id, getIssueById(id).orElse(null));
+		final Set<String> ids = new LinkedHashSet<>();
+		if (commits != null) {
+			for (final Commit commit : commits) {
+				if (commit != null) {
+					ids.addAll(parseIssueIds(commit.getMessage()));
+				}
 			}
 		}
-		issues.values().removeIf(Objects::isNull);
-		return new ArrayList<>(issues.values());
+		return new ArrayList<>(getIssuesById(ids).values());
 	}
 
 	/**
@@ -141,9 +165,12 @@ public interface ITEngine {
 
 	/**
 	 * Parses the given text and returns all referenced issue ids. This method
-	 * does not fail if {@code text} is {@code null}.
+	 * does not fail if {@code text} is {@code null}. The returned ids are
+	 * distinct: an id referenced multiple times is returned once (at the
+	 * position of its first reference).
 	 *
-	 * The default implementation searches for patterns like '#6'.
+	 * The default implementation searches for patterns like '#6' (see
+	 * {@link IssueIdParser#DEFAULT}).
 	 *
 	 * @param text
 	 *      The text to parse.
@@ -151,17 +178,6 @@ public interface ITEngine {
 	 *      The referenced issue ids.
 	 */
 	default List<String> parseIssueIds(final String text) {
-		final List<String> ids = new ArrayList<>();
-		if (text != null) {
-			final Matcher matcher = Pattern
-					.compile("#(\\d+)")
-					.matcher(text);
-			while (matcher.find()) {
-				String id = matcher.group();
-				id = id.substring(1, id.length());
-				ids.add(id);
-			}
-		}
-		return ids;
+		return IssueIdParser.DEFAULT.parse(text);
 	}
 }
@@ -0,0 +1,317 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extracts issue ids from texts (usually commit messages). Supports the
+ * reference styles listed in {@link Style}. All enabled styles are
+ * recognized in a single pass without regular expressions. The extracted
+ * ids are distinct and ordered by their first occurrence. The style of an
+ * extracted id is determined by its form (see {@link #styleOf(String)}) such
+ * that issue trackers are able to skip styles they do not support.
+ *
+ * Instances are immutable and, therefore, thread-safe.
+ */
+public final class IssueIdParser {
+
+	/**
+	 * The supported reference styles.
+	 */
+	public enum Style {
+
+		/**
+		 * References like '#6' (Github, Gitlab). The id is the number without
+		 * the leading '#'.
+		 */
+		HASH,
+
+		/**
+		 * Keys like 'PROJ-123' (Jira). A key starts at a word boundary with
+		 * an uppercase letter, followed by at least one uppercase letter,
+		 * digit, or underscore, a dash, and a number. The id is the key.
+		 */
+		KEY,
+
+		/**
+		 * References of merge requests like '!6' (Gitlab). The id is the
+		 * reference including the leading '!'.
+		 */
+		MERGE_REQUEST
+	}
+
+	/**
+	 * Recognizes {@link Style#HASH} only. Used by
+	 * {@link ITEngine#parseIssueIds(String)}.
+	 */
+	public static final IssueIdParser DEFAULT = of(Style.HASH);
+
+	/**
+	 * Numbers with more digits may not fit into an int.
+	 */
+	private static final int MAX_INT_DIGITS = 9;
+
+	/* Enabled styles. */
+	private final boolean hash;
+	private final boolean key;
+	private final boolean mergeRequest;
+
+	private IssueIdParser(final Set<Style> pStyles) {
+		hash = pStyles.contains(Style.HASH);
+		key = pStyles.contains(Style.KEY);
+		mergeRequest = pStyles.contains(Style.MERGE_REQUEST);
+	}
+
+	/**
+	 * Creates a parser that recognizes the given styles.
+	 *
+	 * @param pStyle
+	 * 		A style to recognize.
+	 * @param pStyles
+	 * 		Further styles to recognize.
+	 * @return
+	 * 		The created parser.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public static IssueIdParser of(final Style pStyle, final Style... pStyles)
+			throws NullPointerException {
+		final Set<Style> styles = EnumSet.of(Validate.notNull(pStyle));
+		Arrays.stream(Validate.notNull(pStyles))
+				.map(Validate::notNull)
+				.forEach(styles::add);
+		return new IssueIdParser(styles);
+	}
+
+	/**
+	 * Returns the styles recognized by this parser.
+	 *
+	 * @return
+	 * 		The styles recognized by this parser.
+	 */
+	public Set<Style> getStyles() {
+		final Set<Style> styles = EnumSet.noneOf(Style.class);
+		if (hash) {
+			styles.add(Style.HASH);
+		}
+		if (key) {
+			styles.add(Style.KEY);
+		}
+		if (mergeRequest) {
+			styles.add(Style.MERGE_REQUEST);
+		}
+		return styles;
+	}
+
+	/**
+	 * Returns the style of an id extracted by a parser (see
+	 * {@link #parse(String)}). Ids starting with '!' are
+	 * {@link Style#MERGE_REQUEST}s, ids consisting of digits only are
+	 * {@link Style#HASH} references, and all other ids are {@link Style#KEY}s.
+	 *
+	 * @param pId
+	 * 		The id whose style is requested.
+	 * @return
+	 * 		The style of {@code pId}.
+	 * @throws NullPointerException
+	 * 		If {@code pId} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pId} is empty.
+	 */
+	public static Style styleOf(final String pId)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.notEmpty(pId);
+		if (pId.charAt(0) == '!') {
+			return Style.MERGE_REQUEST;
+		}
+		return skipDigits(pId, 0) == pId.length() ? Style.HASH : Style.KEY;
+	}
+
+	/**
+	 * Returns the distinct ids referenced by {@code pText}. This method does
+	 * not fail if {@code pText} is {@code null}.
+	 *
+	 * @param pText
+	 * 		The text to parse.
+	 * @return
+	 * 		The ids referenced by {@code pText}.
+	 */
+	public List<String> parse(final String pText) {
+		return parseAll(Collections.singletonList(pText));
+	}
+
+	/**
+	 * Returns the distinct ids referenced by any of the given texts. This
+	 * method does not fail if {@code pTexts} is {@code null} or contains
+	 * {@code null} values.
+	 *
+	 * @param pTexts
+	 * 		The texts to parse.
+	 * @return
+	 * 		The ids referenced by {@code pTexts}.
+	 */
+	public List<String> parseAll(final Collection<String> pTexts) {
+		final Ids ids = new Ids();
+		if (pTexts != null) {
+			for (final String text : pTexts) {
+				if (text != null) {
+					scan(text, ids);
+				}
+			}
+		}
+		return ids.list;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("IssueIdParser(styles=%s)", getStyles());
+	}
+
+	/**
+	 * Scans {@code pText} and adds the referenced ids to {@code pIds}.
+	 */
+	private void scan(final String pText, final Ids pIds) {
+		final int length = pText.length();
+		int i = 0;
+		while (i < length) {
+			final char c = pText.charAt(i);
+			if ((c == '#' && hash) || (c == '!' && mergeRequest)) {
+				final int end = skipDigits(pText, i + 1);
+				if (end > i + 1) {
+					if (c == '#') {
+						pIds.addNumber(pText, i + 1, end, pIds.hashes, "");
+					} else {
+						pIds.addNumber(pText, i + 1, end, pIds.mergeRequests,
+								"!");
+					}
+					i = end;
+					continue;
+				}
+			} else if (key && isUpper(c) && (i == 0 ||
+					!Character.isLetterOrDigit(pText.charAt(i - 1)))) {
+				int end = i + 1;
+				while (end < length && isKeyChar(pText.charAt(end))) {
+					end++;
+				}
+				if (end - i >= 2 && end < length &&
+						pText.charAt(end) == '-') {
+					final int numberEnd = skipDigits(pText, end + 1);
+					if (numberEnd > end + 1 && (numberEnd == length ||
+							!Character.isLetterOrDigit(
+									pText.charAt(numberEnd)))) {
+						pIds.addString(pText.substring(i, numberEnd));
+						i = numberEnd;
+						continue;
+					}
+				}
+				// A word can not contain another key.
+				i = end;
+				continue;
+			}
+			i++;
+		}
+	}
+
+	private static int skipDigits(final String pText, final int pFrom) {
+		int i = pFrom;
+		while (i < pText.length() && isDigit(pText.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isDigit(final char pChar) {
+		return pChar >= '0' && pChar <= '9';
+	}
+
+	private static boolean isUpper(final char pChar) {
+		return pChar >= 'A' && pChar <= 'Z';
+	}
+
+	private static boolean isKeyChar(final char pChar) {
+		return isUpper(pChar) || isDigit(pChar) || pChar == '_';
+	}
+
+	/**
+	 * Collects distinct ids. Numbers are deduplicated with {@link IntSet}s
+	 * to avoid creating strings for repeated references. Numbers that can
+	 * not be represented unambiguously as int (leading zeros, too many
+	 * digits) and keys are deduplicated with a {@link HashSet}.
+	 */
+	private static class Ids {
+		private final List<String> list = new ArrayList<>();
+		private final IntSet hashes = new IntSet();
+		private final IntSet mergeRequests = new IntSet();
+		private Set<String> strings = null;
+
+		private void addNumber(final String pText, final int pFrom,
+				final int pTo, final IntSet pSet, final String pPrefix) {
+			final int numDigits = pTo - pFrom;
+			if (numDigits > MAX_INT_DIGITS ||
+					(numDigits > 1 && pText.charAt(pFrom) == '0')) {
+				addString(pPrefix + pText.substring(pFrom, pTo));
+				return;
+			}
+			int number = 0;
+			for (int i = pFrom; i < pTo; i++) {
+				number = number * 10 + (pText.charAt(i) - '0');
+			}
+			if (pSet.add(number)) {
+				list.add(pPrefix + pText.substring(pFrom, pTo));
+			}
+		}
+
+		private void addString(final String pId) {
+			if (strings == null) {
+				strings = new HashSet<>();
+			}
+			if (strings.add(pId)) {
+				list.add(pId);
+			}
+		}
+	}
+
+	/**
+	 * A minimal open addressing hash set of non-negative ints.
+	 */
+	private static class IntSet {
+		private static final int EMPTY = -1;
+		private int[] table = null;
+		private int size = 0;
+
+		private boolean add(final int pValue) {
+			if (table == null) {
+				table = new int[8];
+				Arrays.fill(table, EMPTY);
+			} else if ((size + 1) * 2 > table.length) {
+				final int[] old = table;
+				table = new int[old.length * 2];
+				Arrays.fill(table, EMPTY);
+				size = 0;
+				for (final int value : old) {
+					if (value != EMPTY) {
+						add(value);
+					}
+				}
+			}
+			final int mask = table.length - 1;
+			final int hash = pValue * 0x9E3779B9;
+			int i = (hash ^ (hash >>> 16)) & mask;
+			while (table[i] != EMPTY) {
+				if (table[i] == pValue) {
+					return false;
+				}
+				i = (i + 1) & mask;
+			}
+			table[i] = pValue;
+			size++;
+			return true;
+		}
+	}
+}
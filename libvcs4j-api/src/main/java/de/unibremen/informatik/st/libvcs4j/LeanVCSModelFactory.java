@@ -0,0 +1,458 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link VCSModelFactory} that keeps the memory footprint of revisions,
+ * files, commits, and ranges small. Use it if many revisions are kept alive
+ * at the same time (for instance, to map the files of subsequent
+ * revisions). Differences to the default implementation:
+ *
+ * <ul>
+ *     <li>Relative paths are interned in a path table that is shared among
+ *     all elements created by this factory. A {@link Revision} stores the
+ *     ids of its paths only, and revisions whose paths do not differ from
+ *     the previously created revision share the same id array.</li>
+ *     <li>{@link VCSFile}s are flyweights consisting of a path id, a
+ *     revision, and an engine. They do not cache their contents, which is
+ *     left to the engine (see {@link VCSEngine#readContent(VCSFile)} and
+ *     {@link VCSEngine#readLineIndex(VCSFile)}). Only the information
+ *     whether a file is binary is memoized. The files of a revision (see
+ *     {@link Revision#getFiles()}) are created on first access.</li>
+ *     <li>List getters return unmodifiable views instead of copies.</li>
+ * </ul>
+ *
+ * This class is thread-safe.
+ */
+public class LeanVCSModelFactory implements VCSModelFactory {
+
+	/**
+	 * The path table shared among all elements created by this factory.
+	 */
+	private final PathTable paths = new PathTable();
+
+	/**
+	 * The path ids of the most recently created revision. Subsequent
+	 * revisions with the same paths share this array.
+	 */
+	private final AtomicReference<int[]> lastPathIds =
+			new AtomicReference<>(new int[0]);
+
+	/**
+	 * Returns the number of distinct paths interned so far.
+	 *
+	 * @return
+	 * 		The number of distinct paths interned so far.
+	 */
+	public int getNumPaths() {
+		return paths.size();
+	}
+
+	@Override
+	public Commit createAsyncCommit(final String id, final String author,
+			final String message, final LocalDateTime dateTime,
+			final List<String> parentIds, final List<FileChange> fileChanges,
+			final CompletableFuture<List<Issue>> issues,
+			final VCSEngine engine)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.notEmpty(id);
+		Validate.notNull(author);
+		Validate.notNull(message);
+		Validate.notNull(dateTime);
+		Validate.notNull(issues);
+		Validate.notNull(engine);
+		return new LeanCommit(id, author, message, dateTime,
+				view(parentIds), view(fileChanges),
+				issues.thenApply(this::view), engine);
+	}
+
+	@Override
+	public Revision createRevision(final String id, final List<String> files,
+			final VCSEngine engine) throws NullPointerException,
+			IllegalArgumentException {
+		Validate.notEmpty(id);
+		Validate.notNull(engine);
+		final List<String> _files = createCopy(files);
+		int[] ids = new int[_files.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = paths.intern(_files.get(i));
+		}
+		final int[] last = lastPathIds.get();
+		if (Arrays.equals(ids, last)) {
+			ids = last;
+		} else {
+			lastPathIds.set(ids);
+		}
+		return new LeanRevision(id, ids, engine);
+	}
+
+	@Override
+	public RevisionRange createRevisionRange(final int ordinal,
+			final Revision revision, final Revision predecessorRevision,
+			final List<Commit> commits, final VCSEngine engine)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.isPositive(ordinal, "Ordinal (%d) < 1");
+		Validate.notNull(revision);
+		Validate.notNull(engine);
+		final List<Commit> _commits = view(commits);
+		Validate.notEmpty(_commits, "There must be at least one commit");
+		return new LeanRevisionRange(ordinal, revision, predecessorRevision,
+				_commits, engine);
+	}
+
+	@Override
+	public VCSFile createVCSFile(final String relativePath,
+			final Revision revision, final VCSEngine engine)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.notNull(relativePath);
+		Validate.notNull(revision);
+		Validate.notNull(engine);
+		return new LeanFile(paths, paths.intern(relativePath), revision,
+				engine);
+	}
+
+	/**
+	 * Creates an unmodifiable copy of {@code pList} (see
+	 * {@link #createCopy(List)}).
+	 */
+	private <T> List<T> view(final List<T> pList) {
+		final List<T> copy = createCopy(pList);
+		return copy.isEmpty()
+				? Collections.emptyList()
+				: Collections.unmodifiableList(copy);
+	}
+
+	/**
+	 * Maps paths to ids and vice versa.
+	 */
+	private static class PathTable {
+
+		/**
+		 * Path -> id.
+		 */
+		private final Map<String, Integer> ids = new HashMap<>();
+
+		/**
+		 * Id -> path. Replaced (not modified) when growing.
+		 */
+		private volatile String[] table = new String[1024];
+
+		private int size = 0;
+
+		private synchronized int intern(final String pPath) {
+			final Integer id = ids.get(pPath);
+			if (id != null) {
+				return id;
+			}
+			String[] tmp = table;
+			if (size == tmp.length) {
+				tmp = Arrays.copyOf(tmp, tmp.length * 2);
+			}
+			tmp[size] = pPath;
+			// Publish the new entry (and array).
+			table = tmp;
+			ids.put(pPath, size);
+			return size++;
+		}
+
+		private String get(final int pId) {
+			return table[pId];
+		}
+
+		private synchronized int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * A file that consists of a path id, a revision, and an engine. Reads its
+	 * content and line index from the engine.
+	 */
+	private static class LeanFile implements VCSFile {
+		private final PathTable paths;
+		private final int pathId;
+		private final Revision revision;
+		private final VCSEngine engine;
+
+		/**
+		 * Whether this file is binary. Is {@code null} until requested.
+		 */
+		private volatile Boolean binary = null;
+
+		private LeanFile(final PathTable pPaths, final int pPathId,
+				final Revision pRevision, final VCSEngine pEngine) {
+			paths = pPaths;
+			pathId = pPathId;
+			revision = pRevision;
+			engine = pEngine;
+		}
+
+		@Override
+		public String getRelativePath() {
+			return paths.get(pathId);
+		}
+
+		@Override
+		public Revision getRevision() {
+			return revision;
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			return engine;
+		}
+
+		@Override
+		public String readContent() throws IOException {
+			return engine.readContent(this);
+		}
+
+		@Override
+		public LineIndex readLineIndex() throws IOException {
+			return engine.readLineIndex(this);
+		}
+
+		@Override
+		public List<String> readLinesWithEOL() throws IOException {
+			return readLineIndex();
+		}
+
+		@Override
+		public boolean isBinary() throws IOException {
+			Boolean result = binary;
+			if (result == null) {
+				result = VCSFile.super.isBinary();
+				binary = result;
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("VCSFile(relativePath=%s, revision=%s)",
+					getRelativePath(), getRevision().getId());
+		}
+	}
+
+	/**
+	 * A revision that stores the path ids of its files.
+	 */
+	private class LeanRevision implements Revision {
+		private final String id;
+		private final int[] pathIds;
+		private final VCSEngine engine;
+
+		/**
+		 * The files of this revision. Is {@code null} until requested.
+		 */
+		private volatile List<VCSFile> files = null;
+
+		private LeanRevision(final String pId, final int[] pPathIds,
+				final VCSEngine pEngine) {
+			id = pId;
+			pathIds = pPathIds;
+			engine = pEngine;
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public List<VCSFile> getFiles() {
+			List<VCSFile> result = files;
+			if (result == null) {
+				final VCSFile[] array = new VCSFile[pathIds.length];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = new LeanFile(paths, pathIds[i], this, engine);
+				}
+				synchronized (this) {
+					if (files == null) {
+						files = Collections.unmodifiableList(
+								Arrays.asList(array));
+					}
+					result = files;
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			return engine;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Revision(id=%s, output=%s, files=%d)",
+					getId(), getOutput().toString(), pathIds.length);
+		}
+	}
+
+	/**
+	 * A commit whose list getters return unmodifiable views.
+	 */
+	private static class LeanCommit implements Commit {
+		private final String id;
+		private final String author;
+		private final String message;
+		private final LocalDateTime dateTime;
+		private final List<String> parentIds;
+		private final List<FileChange> fileChanges;
+		private final CompletableFuture<List<Issue>> issues;
+		private final VCSEngine engine;
+
+		private LeanCommit(final String pId, final String pAuthor,
+				final String pMessage, final LocalDateTime pDateTime,
+				final List<String> pParentIds,
+				final List<FileChange> pFileChanges,
+				final CompletableFuture<List<Issue>> pIssues,
+				final VCSEngine pEngine) {
+			id = pId;
+			author = pAuthor;
+			message = pMessage;
+			dateTime = pDateTime;
+			parentIds = pParentIds;
+			fileChanges = pFileChanges;
+			issues = pIssues;
+			engine = pEngine;
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public String getAuthor() {
+			return author;
+		}
+
+		@Override
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public LocalDateTime getDateTime() {
+			return dateTime;
+		}
+
+		@Override
+		public List<String> getParentIds() {
+			return parentIds;
+		}
+
+		@Override
+		public List<FileChange> getFileChanges() {
+			return fileChanges;
+		}
+
+		@Override
+		public List<Issue> getIssues() {
+			return PendingIssues.join(issues);
+		}
+
+		@Override
+		public CompletableFuture<List<Issue>> getIssuesAsync() {
+			return issues;
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			return engine;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Commit(id=%s, author=%s, message=%s, " +
+							"dateTime=%s, parentIds=%s, fileChanges=%d, " +
+							"issues=%s)", getId(), getAuthor(),
+					getMessage(), getDateTime().toString(),
+					Arrays.deepToString(getParentIds().toArray()),
+					getFileChanges().size(),
+					issues.isDone() && !issues.isCompletedExceptionally()
+							? String.valueOf(issues.join().size())
+							: "?");
+		}
+	}
+
+	/**
+	 * A range that memoizes its file changes and whose list getters return
+	 * unmodifiable views.
+	 */
+	private static class LeanRevisionRange implements RevisionRange {
+		private final int ordinal;
+		private final Revision revision;
+		private final Revision predecessorRevision;
+		private final List<Commit> commits;
+		private final VCSEngine engine;
+		private volatile List<FileChange> fileChanges = null;
+
+		private LeanRevisionRange(final int pOrdinal,
+				final Revision pRevision, final Revision pPredecessorRevision,
+				final List<Commit> pCommits, final VCSEngine pEngine) {
+			ordinal = pOrdinal;
+			revision = pRevision;
+			predecessorRevision = pPredecessorRevision;
+			commits = pCommits;
+			engine = pEngine;
+		}
+
+		@Override
+		public int getOrdinal() {
+			return ordinal;
+		}
+
+		@Override
+		public Revision getRevision() {
+			return revision;
+		}
+
+		@Override
+		public Optional<Revision> getPredecessorRevision() {
+			return Optional.ofNullable(predecessorRevision);
+		}
+
+		@Override
+		public List<Commit> getCommits() {
+			return commits;
+		}
+
+		@Override
+		public List<FileChange> getFileChanges() {
+			List<FileChange> result = fileChanges;
+			if (result == null) {
+				result = Collections.unmodifiableList(
+						RevisionRange.super.getFileChanges());
+				fileChanges = result;
+			}
+			return result;
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			return engine;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("RevisionRange(ordinal=%d, " +
+					"revision=%s, predecessorRevision=%s, commits=%d, " +
+					"first=%b)", getOrdinal(), getRevision().getId(),
+					getPredecessorRevision().map(Revision::getId)
+							.orElse(null),
+					getCommits().size(), isFirst());
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Waits for the issues of commits whose issues are resolved asynchronously
+ * (see {@link Commit#getIssuesAsync()}). Shared by the model factories of
+ * this package.
+ */
+final class PendingIssues {
+
+	private PendingIssues() {
+	}
+
+	/**
+	 * Waits for {@code pIssues} to complete and returns its result. If
+	 * {@code pIssues} has been completed exceptionally due to an
+	 * {@link IOException}, the exception is rethrown as
+	 * {@link UncheckedIOException} rather than wrapped in a
+	 * {@link CompletionException}.
+	 *
+	 * @param pIssues
+	 * 		The issues to wait for.
+	 * @return
+	 * 		The result of {@code pIssues}.
+	 * @throws UncheckedIOException
+	 * 		If {@code pIssues} has been completed with an {@link IOException}
+	 * 		or {@link UncheckedIOException}.
+	 * @throws CompletionException
+	 * 		If {@code pIssues} has been completed with any other exception.
+	 */
+	static List<Issue> join(final CompletableFuture<List<Issue>> pIssues)
+			throws UncheckedIOException, CompletionException {
+		try {
+			return pIssues.join();
+		} catch (final CompletionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw new UncheckedIOException((IOException) e.getCause());
+			} else if (e.getCause() instanceof UncheckedIOException) {
+				throw (UncheckedIOException) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
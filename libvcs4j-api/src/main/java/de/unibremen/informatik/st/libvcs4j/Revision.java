@@ -1,7 +1,11 @@
 package de.unibremen.informatik.st.libvcs4j;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -89,4 +93,27 @@ public interface Revision extends VCSModelElement {
 				.filter(f -> f.getRelativePath().matches(regex))
 				.collect(Collectors.toList());
 	}
+
+	/**
+	 * Reads the contents of all files (see {@link #getFiles()}) that match
+	 * {@code filter} in one go (see {@link VCSEngine#readAllBytes(Collection)}).
+	 * For instance, call {@code readAllBytes(f -> f.getRelativePath()
+	 * .endsWith(".java"))} to read all Java files of this revision.
+	 *
+	 * @param filter
+	 * 		The filter used to select the files to read.
+	 * @return
+	 * 		The contents of all files that match {@code filter}.
+	 * @throws NullPointerException
+	 * 		If {@code filter} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents.
+	 */
+	default Map<VCSFile, byte[]> readAllBytes(final Predicate<VCSFile> filter)
+			throws NullPointerException, IOException {
+		Validate.notNull(filter);
+		return getVCSEngine().readAllBytes(getFiles().stream()
+				.filter(filter)
+				.collect(Collectors.toList()));
+	}
 }
@@ -1,13 +1,9 @@
 package de.unibremen.informatik.st.libvcs4j;
 
-import java.nio.file.Path;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -80,7 +76,12 @@ public interface RevisionRange extends VCSModelElement {
 	 * Returns all files that have changed between
 	 * {@link #getPredecessorRevision()} and {@link #getRevision()}. The
 	 * default implementation, if necessary, merges the file changes of all
-	 * commits listed in {@link #getCommits()}.
+	 * commits listed in {@link #getCommits()}. Merging indexes the file
+	 * changes of each commit by path and, thus, takes linear time in the
+	 * total number of file changes. Ranges created by
+	 * {@link VCSModelFactory#createRevisionRange(int, Revision, Revision,
+	 * List, VCSEngine)} merge only once and return copies of the memoized
+	 * result afterwards.
 	 *
 	 * @return
 	 * 		The list of file changes.
@@ -89,130 +90,7 @@ public interface RevisionRange extends VCSModelElement {
 		if (getCommits().size() == 1) {
 			return getCommits().get(0).getFileChanges();
 		} else {
-			// Accumulates the result
-			final List<FileChange> accum = new ArrayList<>(
-					getCommits().get(0).getFileChanges());
-			// Merge subsequent commits one after another
-			for (int i = 1; i < getCommits().size(); i++) {
-				// Try to find a match in this list
-				final List<FileChange> toProcess = new ArrayList<>(
-						getCommits().get(i).getFileChanges());
-				// Use a ListIterator to remove/set the current value
-				final ListIterator<FileChange> iter = accum.listIterator();
-				while (iter.hasNext()) {
-					final FileChange change = iter.next();
-					final FileChange.Type type = change.getType();
-					// Used to export the match from within a lambda
-					final Deque<FileChange> matches = new ArrayDeque<>();
-					if (type == ADD || type == REMOVE) {
-						final Path path = type == ADD
-								? change.getNewFile()
-									.orElseThrow(IllegalStateException::new)
-									.toRelativePath()
-								: change.getOldFile()
-									.orElseThrow(IllegalStateException::new)
-									.toRelativePath();
-						toProcess.stream().filter(c ->
-								(type == ADD
-										? c.getOldFile()
-										: c.getNewFile())
-								.map(VCSFile::toRelativePath)
-								.map(p -> p.equals(path))
-								.orElse(false))
-						.findAny().ifPresent(match -> {
-							final FileChange.Type oType = match.getType();
-							Validate.validateState(
-									!(type == ADD && oType == ADD),
-									"'%s' has been added after being added",
-									path);
-							Validate.validateState(
-									!(type == REMOVE && oType == REMOVE),
-									"'%s' has been removed after being removed",
-									path);
-							toProcess.remove(match);
-							if (oType == REMOVE) {
-								iter.remove();
-							} else {
-								matches.add(match);
-							}
-						});
-					} else {
-						final Path path = change.getNewFile()
-								.orElseThrow(IllegalStateException::new)
-								.toRelativePath();
-						toProcess.stream().filter(c ->
-								(c.getType() != ADD
-										? c.getOldFile()
-										: c.getNewFile()) // < indicates a bug
-								.map(VCSFile::toRelativePath)
-								.map(p -> p.equals(path))
-								.orElse(false)
-						).findAny().ifPresent(match -> {
-							final FileChange.Type oType = match.getType();
-							Validate.validateState(
-									!(type == MODIFY && oType == ADD),
-									"'%s' has been added after being modified",
-									path);
-							Validate.validateState(
-									!(type == RELOCATE && oType == ADD),
-									"'%s' has been added after being relocated to this path",
-									path);
-							toProcess.remove(match);
-							matches.add(match);
-						});
-					}
-					Validate.validateState(matches.size() <= 1,
-							"Unexpected number of matches (%d)",
-							matches.size());
-					if (!matches.isEmpty()) {
-						final FileChange match = matches.poll();
-						final VCSEngine engine = getVCSEngine();
-						iter.set(engine.getModelFactory().createFileChange(
-								change.getOldFile().orElse(null),
-								match.getNewFile().orElse(null),
-								engine));
-					}
-				}
-				accum.addAll(toProcess);
-			}
-			// Postprocessing: Replace accumulated file changes such that the
-			// revisions of the referenced files match with the predecessor and
-			// successor revision of this range.
-			final Revision predRev = getPredecessorRevision().orElse(null);
-			final Revision rev = getRevision();
-			final VCSEngine engine = getVCSEngine();
-			final VCSModelFactory factory = engine.getModelFactory();
-			final ListIterator<FileChange> it = accum.listIterator();
-			while (it.hasNext()) {
-				final FileChange change = it.next();
-				final VCSFile newOldFile = change.getOldFile()
-						.map(file -> {
-							Validate.validateState(predRev != null);
-							final String relPath = file.getRelativePath();
-							final boolean revMatch = file.getRevision()
-									.getId().equals(predRev.getId());
-							return revMatch
-									? file
-									: factory.createVCSFile(
-											relPath, predRev, engine);
-						})
-						.orElse(null);
-				final VCSFile newNewFile = change.getNewFile()
-						.map(file -> {
-							final String relPath = file.getRelativePath();
-							final boolean revMatch = file.getRevision()
-									.getId().equals(rev.getId());
-							return revMatch
-									? file
-									: factory.createVCSFile(
-											relPath, rev, engine);
-						})
-						.orElse(null);
-				final FileChange newChange = factory.createFileChange(
-						newOldFile, newNewFile, engine);
-				it.set(newChange);
-			}
-			return accum;
+			return new FileChangeMerger(this).merge();
 		}
 	}
 
@@ -433,7 +311,7 @@ public interface RevisionRange extends VCSModelElement {
 			throws NullPointerException {
 		Validate.notNull(predecessor);
 		final VCSEngine engine = getVCSEngine();
-		final List<Commit> commits = predecessor.getCommits();
+		final List<Commit> commits = new ArrayList<>(predecessor.getCommits());
 		commits.addAll(getCommits());
 		return engine.getModelFactory().createRevisionRange(getOrdinal(),
 				getRevision(),
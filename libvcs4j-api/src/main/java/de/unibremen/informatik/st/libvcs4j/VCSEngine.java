@@ -1,5 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
@@ -11,8 +12,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -49,8 +53,12 @@ import java.util.Optional;
  * Note 2: {@link #readAllBytes(VCSFile)}, {@link #readLineInfo(VCSFile)}, and
  * {@link #computeDiff(FileChange)} are stateless operations. That is, one may
  * read any file in any state.
+ *
+ * Note 3: Some engines keep native resources (file handles, sessions, and so
+ * on) open while processing a repository. Call {@link #close()} (or use a
+ * try-with-resources statement) to release them.
  */
-public interface VCSEngine extends Iterable<RevisionRange> {
+public interface VCSEngine extends Iterable<RevisionRange>, Closeable {
 
 	/**
 	 * Extracts the next revision range, if any. If necessary, the first call
@@ -82,6 +90,37 @@ public interface VCSEngine extends Iterable<RevisionRange> {
 	byte[] readAllBytes(VCSFile file) throws NullPointerException,
 			IllegalArgumentException, IOException;
 
+	/**
+	 * Reads the contents of the given files. Other than calling
+	 * {@link #readAllBytes(VCSFile)} for each file, engines may read the files
+	 * of a revision in one go---for instance, by walking the tree of a
+	 * revision only once. Like {@link #readAllBytes(VCSFile)}, this method
+	 * does not depend on the current state of this engine. The default
+	 * implementation reads one file after another.
+	 *
+	 * @param files
+	 * 		The files to read the contents from.
+	 * @return
+	 * 		The contents of each file (in the iteration order of
+	 * 		{@code files}).
+	 * @throws NullPointerException
+	 * 		If {@code files} is {@code null} or contains {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If any of the given files is unknown to this engine.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents.
+	 */
+	default Map<VCSFile, byte[]> readAllBytes(
+			final Collection<VCSFile> files) throws NullPointerException,
+			IllegalArgumentException, IOException {
+		Validate.noNullElements(files);
+		final Map<VCSFile, byte[]> contents = new LinkedHashMap<>();
+		for (final VCSFile file : files) {
+			contents.put(file, readAllBytes(file));
+		}
+		return contents;
+	}
+
 	/**
 	 * Reads the line information of the given file.
 	 *
@@ -109,6 +148,60 @@ public interface VCSEngine extends Iterable<RevisionRange> {
 	 */
 	Optional<Charset> guessCharset(VCSFile file) throws IOException;
 
+	/**
+	 * Reads the content of the given file as String (see
+	 * {@link VCSFile#readContent()}). The default implementation uses
+	 * {@link VCSFile#readAllBytes()} and {@link VCSFile#guessCharset()} to
+	 * create an appropriate String. If {@link VCSFile#guessCharset()} returns
+	 * an empty optional the system default charset is used as fallback.
+	 * Engines may override this method to share decoded contents among files.
+	 *
+	 * @param file
+	 * 		The file to read the content from.
+	 * @return
+	 * 		The content of {@code file} as String.
+	 * @throws NullPointerException
+	 * 		If {@code file} is {@code null}.
+	 * @throws BinaryFileException
+	 * 		If {@code file} is binary (see {@link VCSFile#isBinary()}).
+	 * @throws IOException
+	 * 		If an error occurred while reading the content.
+	 */
+	default String readContent(final VCSFile file) throws NullPointerException,
+			IOException {
+		Validate.notNull(file);
+		if (file.isBinary()) {
+			throw new BinaryFileException(String.format(
+					"'%s' is a binary file", file.getPath()));
+		}
+		final Charset charset = file.guessCharset()
+				.orElse(Charset.defaultCharset());
+		return new String(file.readAllBytes(), charset);
+	}
+
+	/**
+	 * Creates the line index of the given file (see
+	 * {@link VCSFile#readLineIndex()}). The default implementation indexes
+	 * {@link VCSFile#readContent()}. Engines may override this method to
+	 * share line indices among files.
+	 *
+	 * @param file
+	 * 		The file to index.
+	 * @return
+	 * 		The line index of {@code file}.
+	 * @throws NullPointerException
+	 * 		If {@code file} is {@code null}.
+	 * @throws BinaryFileException
+	 * 		If {@code file} is binary (see {@link VCSFile#isBinary()}).
+	 * @throws IOException
+	 * 		If an error occurred while reading the content.
+	 */
+	default VCSFile.LineIndex readLineIndex(final VCSFile file)
+			throws NullPointerException, IOException {
+		Validate.notNull(file);
+		return VCSFile.LineIndex.of(file.readContent());
+	}
+
 	/**
 	 * Returns the currently checked out revision.
 	 *
@@ -226,6 +319,17 @@ public interface VCSEngine extends Iterable<RevisionRange> {
 	 */
 	void setModelFactory(VCSModelFactory factory) throws NullPointerException;
 
+	/**
+	 * Releases all resources held by this engine. Engines reacquire released
+	 * resources on demand, that is, an engine remains usable after being
+	 * closed. The default implementation does nothing.
+	 *
+	 * @throws IOException
+	 * 		If an error occurred while releasing resources.
+	 */
+	@Override
+	default void close() throws IOException {}
+
 	/**
 	 * Returns a {@link FilenameFilter} that is supposed to exclude VCS
 	 * specific files and directories. The default implementation creates a
@@ -7,14 +7,17 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.AbstractList;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Scanner;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
@@ -325,9 +328,9 @@ public interface VCSFile extends VCSModelElement {
 		 * 		If an error occurred while reading the file content.
 		 */
 		public Optional<Position> nextLine() throws IOException {
-			final List<String> lines = getFile().readLines();
-			Validate.validateState(lines.size() >= getLine());
-			if (lines.size() == getLine()) {
+			final LineIndex index = getFile().readLineIndex();
+			Validate.validateState(index.getNumLines() >= getLine());
+			if (index.getNumLines() == getLine()) {
 				return Optional.empty();
 			}
 			return getFile().positionOf(getLine() + 1, 1, getTabSize());
@@ -344,8 +347,8 @@ public interface VCSFile extends VCSModelElement {
 		 * 		If an error occurred while reading the file content.
 		 */
 		public Optional<Position> previousLine() throws IOException {
-			final List<String> lines = getFile().readLines();
-			Validate.validateState(lines.size() >= getLine());
+			final LineIndex index = getFile().readLineIndex();
+			Validate.validateState(index.getNumLines() >= getLine());
 			if (getLine() == 1) {
 				return Optional.empty();
 			}
@@ -375,9 +378,9 @@ public interface VCSFile extends VCSModelElement {
 		 * 		If an error occurred while reading the file content.
 		 */
 		public Position endOfLine() throws IOException {
-			final List<String> lines = getFile().readLines();
-			Validate.validateState(lines.size() >= getLine());
-			final int lastColumn = lines.get(getLine() - 1).length();
+			final LineIndex index = getFile().readLineIndex();
+			Validate.validateState(index.getNumLines() >= getLine());
+			final int lastColumn = index.getLength(getLine());
 			return getFile().positionOf(getLine(), lastColumn, getTabSize())
 					.orElseThrow(IllegalStateException::new);
 		}
@@ -688,6 +691,247 @@ public interface VCSFile extends VCSModelElement {
 		}
 	}
 
+	/**
+	 * Maps offsets to lines and vice versa. Stores the offsets of all lines
+	 * of a file such that conversions between offsets and lines are binary
+	 * searches (similar to conqat's {@code LineOffsetConverter}). Lines are
+	 * split as in {@link VCSFile#readLinesWithEOL()}. That is, '\n', '\r\n', and
+	 * '\r' are supported and the last line is not necessarily terminated by an
+	 * EOL. An index is an unmodifiable list of the lines (including EOLs) of
+	 * the indexed content. Use {@link VCSFile#readLineIndex()} to get the
+	 * (memorized) index of a file.
+	 */
+	final class LineIndex extends AbstractList<String> implements RandomAccess {
+
+		/**
+		 * The indexed content.
+		 */
+		private final String content;
+
+		/**
+		 * The (zero based) offset of the first character of each line.
+		 * Contains the length of {@link #content} as sentinel at index
+		 * {@link #numLines}.
+		 */
+		private final int[] begins;
+
+		/**
+		 * The (zero based, exclusive) offset of the last character of each
+		 * line excluding EOL characters.
+		 */
+		private final int[] ends;
+
+		/**
+		 * The number of lines.
+		 */
+		private final int numLines;
+
+		private LineIndex(final String pContent, final int[] pBegins,
+				final int[] pEnds, final int pNumLines) {
+			content = pContent;
+			begins = pBegins;
+			ends = pEnds;
+			numLines = pNumLines;
+			begins[numLines] = content.length();
+		}
+
+		/**
+		 * Creates the index of the given content.
+		 *
+		 * @param content
+		 * 		The content to index.
+		 * @return
+		 * 		The index of {@code content}.
+		 * @throws NullPointerException
+		 * 		If {@code content} is {@code null}.
+		 */
+		public static LineIndex of(final String content)
+				throws NullPointerException {
+			Validate.notNull(content);
+			final int len = content.length();
+			int[] begins = new int[16];
+			int[] ends = new int[16];
+			int num = 0;
+			int begin = 0;
+			int i = 0;
+			while (i < len) {
+				final char c = content.charAt(i);
+				if (c != '\n' && c != '\r') {
+					i++;
+					continue;
+				}
+				final int end = i;
+				i += c == '\r' && i + 1 < len &&
+						content.charAt(i + 1) == '\n' ? 2 : 1;
+				if (num + 1 >= begins.length) {
+					begins = Arrays.copyOf(begins, begins.length * 2);
+					ends = Arrays.copyOf(ends, ends.length * 2);
+				}
+				begins[num] = begin;
+				ends[num] = end;
+				num++;
+				begin = i;
+			}
+			if (begin < len) { // last line without EOL
+				if (num + 1 >= begins.length) {
+					begins = Arrays.copyOf(begins, begins.length + 1);
+					ends = Arrays.copyOf(ends, ends.length + 1);
+				}
+				begins[num] = begin;
+				ends[num] = len;
+				num++;
+			}
+			return new LineIndex(content, begins, ends, num);
+		}
+
+		/**
+		 * Creates the index of the given lines (including EOLs). Returns
+		 * {@code lines} if it is an index already.
+		 *
+		 * @param lines
+		 * 		The lines to index (see {@link VCSFile#readLinesWithEOL()}).
+		 * @return
+		 * 		The index of {@code lines}.
+		 * @throws NullPointerException
+		 * 		If {@code lines} is {@code null}.
+		 */
+		public static LineIndex of(final List<String> lines)
+				throws NullPointerException {
+			Validate.notNull(lines);
+			return lines instanceof LineIndex
+					? (LineIndex) lines
+					: of(String.join("", lines));
+		}
+
+		/**
+		 * Returns the indexed content.
+		 *
+		 * @return
+		 * 		The indexed content.
+		 */
+		public String getContent() {
+			return content;
+		}
+
+		/**
+		 * Returns the number of lines.
+		 *
+		 * @return
+		 * 		The number of lines.
+		 */
+		public int getNumLines() {
+			return numLines;
+		}
+
+		/**
+		 * Returns the number of characters of the indexed content.
+		 *
+		 * @return
+		 * 		The number of characters of the indexed content.
+		 */
+		public int getLength() {
+			return content.length();
+		}
+
+		/**
+		 * Returns the line (starting at 1) of the character at the given
+		 * (zero based) offset. EOL characters belong to the line they
+		 * terminate.
+		 *
+		 * @param offset
+		 * 		The offset of a character.
+		 * @return
+		 * 		The line of the character at {@code offset}.
+		 * @throws IndexOutOfBoundsException
+		 * 		If {@code offset < 0} or {@code offset >= getLength()}.
+		 */
+		public int getLine(final int offset)
+				throws IndexOutOfBoundsException {
+			if (offset < 0 || offset >= content.length()) {
+				throw new IndexOutOfBoundsException(String.format(
+						"Offset: %d, length: %d", offset, content.length()));
+			}
+			final int idx = Arrays.binarySearch(begins, 0, numLines, offset);
+			// Use the insertion point if `offset` is not the first character
+			// of a line.
+			return idx >= 0 ? idx + 1 : -idx - 1;
+		}
+
+		/**
+		 * Returns the (zero based) offset of the first character of the
+		 * given line (starting at 1).
+		 *
+		 * @param line
+		 * 		The line whose offset is requested.
+		 * @return
+		 * 		The offset of the first character of {@code line}.
+		 * @throws IndexOutOfBoundsException
+		 * 		If {@code line < 1} or {@code line > getNumLines()}.
+		 */
+		public int getOffset(final int line)
+				throws IndexOutOfBoundsException {
+			checkLine(line);
+			return begins[line - 1];
+		}
+
+		/**
+		 * Returns the number of characters of the given line (starting at 1)
+		 * including EOL characters.
+		 *
+		 * @param line
+		 * 		The line whose length is requested.
+		 * @return
+		 * 		The number of characters of {@code line} including EOLs.
+		 * @throws IndexOutOfBoundsException
+		 * 		If {@code line < 1} or {@code line > getNumLines()}.
+		 */
+		public int getLengthWithEOL(final int line)
+				throws IndexOutOfBoundsException {
+			checkLine(line);
+			return begins[line] - begins[line - 1];
+		}
+
+		/**
+		 * Returns the number of characters of the given line (starting at 1)
+		 * excluding EOL characters.
+		 *
+		 * @param line
+		 * 		The line whose length is requested.
+		 * @return
+		 * 		The number of characters of {@code line} excluding EOLs.
+		 * @throws IndexOutOfBoundsException
+		 * 		If {@code line < 1} or {@code line > getNumLines()}.
+		 */
+		public int getLength(final int line)
+				throws IndexOutOfBoundsException {
+			checkLine(line);
+			return ends[line - 1] - begins[line - 1];
+		}
+
+		/**
+		 * Returns the line at the given (zero based) index including EOL
+		 * characters.
+		 */
+		@Override
+		public String get(final int index) throws IndexOutOfBoundsException {
+			checkLine(index + 1);
+			return content.substring(begins[index], begins[index + 1]);
+		}
+
+		@Override
+		public int size() {
+			return numLines;
+		}
+
+		private void checkLine(final int line)
+				throws IndexOutOfBoundsException {
+			if (line < 1 || line > numLines) {
+				throw new IndexOutOfBoundsException(String.format(
+						"Line: %d, lines: %d", line, numLines));
+			}
+		}
+	}
+
 	/**
 	 * Returns the relative path of this file as it was like when its
 	 * corresponding revision was checked out by {@link VCSEngine#next()}.
@@ -832,6 +1076,23 @@ public interface VCSFile extends VCSModelElement {
 		return lines;
 	}
 
+	/**
+	 * Returns the line index of this file (see {@link LineIndex}). The default
+	 * implementation indexes {@link #readContent()}. Implementations should
+	 * memorize the index as it is used by all positions and ranges of this
+	 * file.
+	 *
+	 * @return
+	 * 		The line index of this file.
+	 * @throws BinaryFileException
+	 * 		If this file is binary (see {@link #isBinary()}).
+	 * @throws IOException
+	 * 		If an error occurred while reading the file content.
+	 */
+	default LineIndex readLineIndex() throws IOException {
+		return LineIndex.of(readContent());
+	}
+
 	/**
 	 * Reads the line information of this file.
 	 *
@@ -1034,33 +1295,25 @@ public interface VCSFile extends VCSModelElement {
 		Validate.notNegative(offset);
 		Validate.isPositive(tabSize);
 
-		final List<String> lines = readLinesWithEOL();
-
-		int line = 1;
-		int offsetInLine = offset;
-		while (line <= lines.size()) {
-			final String lineStr = lines.get(line - 1);
-			final int lineLen = lineStr.length();
-			if (lineLen <= offsetInLine) {
-				line++;
-				offsetInLine -= lineLen;
-			} else {
-				String offsetStr = lineStr.substring(0, offsetInLine + 1);
-				if (offsetStr.endsWith("\n") || offsetStr.endsWith("\r")) {
-					return Optional.empty();
-				}
-				offsetStr = offsetStr.substring(0, offsetStr.length() - 1);
-				int column = 1;
-				for (char c : offsetStr.toCharArray()) {
-					column = c == '\t'
-							? ( (column-1)/tabSize + 1 ) * tabSize + 1
-							: column + 1;
-				}
-				return Optional.of(new Position(this, line, column, offset,
-						offsetInLine, tabSize));
-			}
+		final LineIndex index = readLineIndex();
+		if (offset >= index.getLength()) {
+			return Optional.empty();
 		}
-		return Optional.empty();
+		final String content = index.getContent();
+		final char ch = content.charAt(offset);
+		if (ch == '\n' || ch == '\r') {
+			return Optional.empty();
+		}
+		final int line = index.getLine(offset);
+		final int lineBegin = index.getOffset(line);
+		int column = 1;
+		for (int i = lineBegin; i < offset; i++) {
+			column = content.charAt(i) == '\t'
+					? ( (column-1)/tabSize + 1 ) * tabSize + 1
+					: column + 1;
+		}
+		return Optional.of(new Position(this, line, column, offset,
+				offset - lineBegin, tabSize));
 	}
 
 	/**
@@ -1093,27 +1346,23 @@ public interface VCSFile extends VCSModelElement {
 		Validate.isPositive(tabSize);
 
 		// We need the lines with EOL to compute the corresponding offset.
-		final List<String> lines = readLinesWithEOL();
-		if (line > lines.size()) {
+		final LineIndex index = readLineIndex();
+		if (line > index.getNumLines()) {
 			return Optional.empty();
 		}
 
-		final int lineIdx = line - 1;
-		final String lineStr = lines.get(lineIdx);
+		final String content = index.getContent();
+		final int lineBegin = index.getOffset(line);
+		final int lineLength = index.getLengthWithEOL(line);
 		int col = 1;
-		for (int offsetInLine = 0; offsetInLine < lineStr.length();
+		for (int offsetInLine = 0; offsetInLine < lineLength;
 				offsetInLine++) {
-			final char c = lineStr.charAt(offsetInLine);
+			final char c = content.charAt(lineBegin + offsetInLine);
 			if (c == '\n' || c == '\r' || col > column) {
 				return Optional.empty();
 			} else if (col == column) {
-				final int offset = offsetInLine +
-						lines.subList(0, lineIdx).stream()
-								.map(String::length)
-								.mapToInt(Integer::intValue)
-								.sum();
-				return Optional.of(new Position(this, line, column, offset,
-						offsetInLine, tabSize));
+				return Optional.of(new Position(this, line, column,
+						lineBegin + offsetInLine, offsetInLine, tabSize));
 			}
 			col = c == '\t'
 					? ( (col-1)/tabSize + 1 ) * tabSize + 1
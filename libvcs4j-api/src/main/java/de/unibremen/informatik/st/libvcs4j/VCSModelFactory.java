@@ -1,6 +1,7 @@
 package de.unibremen.informatik.st.libvcs4j;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.ref.SoftReference;
 import java.nio.charset.Charset;
 import java.time.LocalDateTime;
@@ -9,6 +10,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -72,14 +74,61 @@ public interface VCSModelFactory {
 			final List<String> parentIds, final List<FileChange> fileChanges,
 			final List<Issue> issues, final VCSEngine engine)
 			throws NullPointerException, IllegalArgumentException {
+		return createAsyncCommit(id, author, message, dateTime, parentIds,
+				fileChanges, CompletableFuture.completedFuture(issues),
+				engine);
+	}
+
+	/**
+	 * Creates a new {@link Commit} whose issues are resolved asynchronously.
+	 * {@link Commit#getIssues()} of the created commit blocks until
+	 * {@code issues} has been completed. Apart from that, this method
+	 * behaves like {@link #createCommit(String, String, String,
+	 * LocalDateTime, List, List, List, VCSEngine)}.
+	 *
+	 * @param id
+	 * 		The id of the commit to create.
+	 * @param author
+	 * 		The author of the commit to create.
+	 * @param message
+	 * 		The message of the commit to create.
+	 * @param dateTime
+	 * 		The datetime of the commit to create.
+	 * @param parentIds
+	 * 		The parent ids of the commit to create.
+	 * @param fileChanges
+	 * 		The file changes of the commit to create.
+	 * @param issues
+	 * 		The (pending) issues of the commit to create. If completed
+	 * 		exceptionally, {@link Commit#getIssues()} throws an
+	 * 		{@link UncheckedIOException} (if caused by an {@link IOException})
+	 * 		or a {@link java.util.concurrent.CompletionException}.
+	 * @param engine
+	 * 		The engine of the commit to create.
+	 * @return
+	 * 		The created {@link Commit} instance.
+	 * @throws NullPointerException
+	 * 		If {@code id}, {@code author}, {@code message}, {@code dateTime},
+	 * 		{@code issues}, or {@code engine} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code id} is empty.
+	 */
+	default Commit createAsyncCommit(final String id, final String author,
+			final String message, final LocalDateTime dateTime,
+			final List<String> parentIds, final List<FileChange> fileChanges,
+			final CompletableFuture<List<Issue>> issues,
+			final VCSEngine engine)
+			throws NullPointerException, IllegalArgumentException {
 		Validate.notEmpty(id);
 		Validate.notNull(author);
 		Validate.notNull(message);
 		Validate.notNull(dateTime);
+		Validate.notNull(issues);
 		Validate.notNull(engine);
 		final List<String> _parentIds = createCopy(parentIds);
 		final List<FileChange> _fileChanges = createCopy(fileChanges);
-		final List<Issue> _issues = createCopy(issues);
+		final CompletableFuture<List<Issue>> _issues =
+				issues.thenApply(this::createCopy);
 		return new Commit() {
 			@Override
 			public String getId() {
@@ -113,7 +162,12 @@ public interface VCSModelFactory {
 
 			@Override
 			public List<Issue> getIssues() {
-				return new ArrayList<>(_issues);
+				return new ArrayList<>(PendingIssues.join(_issues));
+			}
+
+			@Override
+			public CompletableFuture<List<Issue>> getIssuesAsync() {
+				return _issues.thenApply(ArrayList::new);
 			}
 
 			@Override
@@ -125,10 +179,14 @@ public interface VCSModelFactory {
 			public String toString() {
 				return String.format("Commit(id=%s, author=%s, message=%s, " +
 								"dateTime=%s, parentIds=%s, fileChanges=%d, " +
-								"issues=%d)", getId(), getAuthor(),
+								"issues=%s)", getId(), getAuthor(),
 						getMessage(), getDateTime().toString(),
 						Arrays.deepToString(getParentIds().toArray()),
-						getFileChanges().size(), getIssues().size());
+						getFileChanges().size(),
+						// Do not block on pending issues.
+						_issues.isDone() && !_issues.isCompletedExceptionally()
+								? String.valueOf(_issues.join().size())
+								: "?");
 			}
 		};
 	}
@@ -156,6 +214,15 @@ public interface VCSModelFactory {
 				"At least one of the given files must not be null");
 		Validate.notNull(engine);
 		return new FileChange() {
+
+			/**
+			 * Caches the line changes of this file change (see
+			 * {@link #computeDiff()}). Use a {@link SoftReference} to avoid
+			 * an {@link OutOfMemoryError} due to diffs of large files.
+			 */
+			private SoftReference<List<LineChange>> diffCache =
+					new SoftReference<>(null);
+
 			@Override
 			public Optional<VCSFile> getOldFile() {
 				return Optional.ofNullable(oldFile);
@@ -171,6 +238,16 @@ public interface VCSModelFactory {
 				return engine;
 			}
 
+			@Override
+			public List<LineChange> computeDiff() throws IOException {
+				List<LineChange> lineChanges = diffCache.get();
+				if (lineChanges == null) {
+					lineChanges = FileChange.super.computeDiff();
+					diffCache = new SoftReference<>(lineChanges);
+				}
+				return new ArrayList<>(lineChanges);
+			}
+
 			@Override
 			public String toString() {
 				return String.format("FileChange(oldFile=%s, newFile=%s)",
@@ -418,6 +495,14 @@ public interface VCSModelFactory {
 		final List<Commit> _commits = createCopy(commits);
 		Validate.notEmpty(_commits, "There must be at least one commit");
 		return new RevisionRange() {
+
+			/**
+			 * Memoizes the merged file changes (see
+			 * {@link RevisionRange#getFileChanges()}).
+			 */
+			private final AtomicReference<List<FileChange>> fileChanges =
+					new AtomicReference<>(null);
+
 			@Override
 			public int getOrdinal() {
 				return ordinal;
@@ -438,6 +523,16 @@ public interface VCSModelFactory {
 				return new ArrayList<>(_commits);
 			}
 
+			@Override
+			public List<FileChange> getFileChanges() {
+				List<FileChange> changes = fileChanges.get();
+				if (changes == null) {
+					changes = RevisionRange.super.getFileChanges();
+					fileChanges.compareAndSet(null, changes);
+				}
+				return new ArrayList<>(changes);
+			}
+
 			@Override
 			public VCSEngine getVCSEngine() {
 				return engine;
@@ -477,14 +572,6 @@ public interface VCSModelFactory {
 		Validate.notNull(engine);
 		return new VCSFile() {
 
-			/**
-			 * Caches the contents of this file (see {@link #readAllBytes()}).
-			 * Use a {@link SoftReference} to avoid an {@link OutOfMemoryError}
-			 * due to hundrets of thousands of cached file contents.
-			 */
-			private SoftReference<byte[]> contentsCache =
-					new SoftReference<>(null);
-
 			/**
 			 * Caches the charset of this file (see {@link #guessCharset()}).
 			 */
@@ -510,16 +597,6 @@ public interface VCSModelFactory {
 				return engine;
 			}
 
-			@Override
-			public byte[] readAllBytes() throws IOException {
-				byte[] bytes = contentsCache.get();
-				if (bytes == null) {
-					bytes = VCSFile.super.readAllBytes();
-					contentsCache = new SoftReference<>(bytes);
-				}
-				return bytes;
-			}
-
 			@Override
 			public Optional<Charset> guessCharset() throws IOException {
 				if (charsetCache == null) {
@@ -529,6 +606,21 @@ public interface VCSModelFactory {
 				return Optional.ofNullable(charsetCache.get());
 			}
 
+			@Override
+			public String readContent() throws IOException {
+				return engine.readContent(this);
+			}
+
+			@Override
+			public LineIndex readLineIndex() throws IOException {
+				return engine.readLineIndex(this);
+			}
+
+			@Override
+			public List<String> readLinesWithEOL() throws IOException {
+				return readLineIndex();
+			}
+
 			@Override
 			public boolean isBinary() throws IOException {
 				if (binary == null) {
@@ -6,6 +6,7 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -83,4 +84,77 @@ public class FSTreeTest {
 				.orElseThrow(AssertionError::new);
 		assertThat(file.getRoot()).isSameAs(root);
 	}
+
+	@Test
+	public void valueIsComputedOnce() {
+		VCSFile a = mock(VCSFile.class);
+		when(a.toRelativePath()).thenReturn(Paths.get("dir1", "A.java"));
+		VCSFile b = mock(VCSFile.class);
+		when(b.toRelativePath()).thenReturn(Paths.get("dir2", "B.java"));
+
+		AtomicInteger numAggregations = new AtomicInteger();
+		FSTree<Integer> tree = FSTree.of(
+				Arrays.asList(a, b),
+				f -> 1,
+				(i1, i2) -> {
+					numAggregations.incrementAndGet();
+					return i1 + i2;
+				});
+
+		assertThat(tree.getValue()).hasValue(2);
+		assertThat(tree.getValue()).hasValue(2);
+		assertThat(tree.navigateTo("dir1"))
+				.flatMap(FSTree::getValue)
+				.hasValue(1);
+		assertThat(numAggregations.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void update() {
+		VCSFile a = mock(VCSFile.class);
+		when(a.toRelativePath()).thenReturn(Paths.get("src", "A.java"));
+		VCSFile b = mock(VCSFile.class);
+		when(b.toRelativePath()).thenReturn(Paths.get("src", "b", "B.java"));
+		VCSFile a2 = mock(VCSFile.class);
+		when(a2.toRelativePath()).thenReturn(Paths.get("src", "A.java"));
+		VCSFile c = mock(VCSFile.class);
+		when(c.toRelativePath()).thenReturn(Paths.get("test", "C.java"));
+
+		FSTree<Integer> tree = FSTree.of(
+				Arrays.asList(a, b),
+				f -> f == a2 ? 5 : 1,
+				Integer::sum);
+		assertThat(tree.getPath()).isEqualTo("src");
+		assertThat(tree.getValue()).hasValue(2);
+
+		FileChange modify = mock(FileChange.class);
+		when(modify.getOldFile()).thenReturn(Optional.of(a));
+		when(modify.getNewFile()).thenReturn(Optional.of(a2));
+		FileChange remove = mock(FileChange.class);
+		when(remove.getOldFile()).thenReturn(Optional.of(b));
+		when(remove.getNewFile()).thenReturn(Optional.empty());
+		FileChange add = mock(FileChange.class);
+		when(add.getOldFile()).thenReturn(Optional.empty());
+		when(add.getNewFile()).thenReturn(Optional.of(c));
+		RevisionRange range = mock(RevisionRange.class);
+		when(range.getFileChanges()).thenReturn(
+				Arrays.asList(modify, remove, add));
+
+		FSTree<Integer> updated = tree.update(range,
+				f -> f == a2 ? 5 : 1,
+				Integer::sum);
+		assertThat(updated.getPath()).isEqualTo(FSTree.ROOT_DIRECTORY);
+		assertThat(updated.getValue()).hasValue(6);
+		assertThat(updated.navigateTo("src/b")).isEmpty();
+		assertThat(updated.navigateTo("src/A.java"))
+				.flatMap(FSTree::getFile)
+				.hasValue(a2);
+		assertThat(updated.navigateTo("test"))
+				.flatMap(FSTree::getValue)
+				.hasValue(1);
+		assertThat(updated.getAllFiles())
+				.extracting(FSTree::getFile)
+				.extracting(Optional::get)
+				.containsExactly(a2, c);
+	}
 }
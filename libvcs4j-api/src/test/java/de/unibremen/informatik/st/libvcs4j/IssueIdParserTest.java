@@ -0,0 +1,73 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static de.unibremen.informatik.st.libvcs4j.IssueIdParser.Style.HASH;
+import static de.unibremen.informatik.st.libvcs4j.IssueIdParser.Style.KEY;
+import static de.unibremen.informatik.st.libvcs4j.IssueIdParser.Style.MERGE_REQUEST;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IssueIdParserTest {
+
+	@Test
+	public void hash() {
+		assertThat(IssueIdParser.DEFAULT.parse("#1, #2foo#3 bar #4"))
+				.containsExactly("1", "2", "3", "4");
+		assertThat(IssueIdParser.DEFAULT.parse("# #x PROJ-1 !2 #"))
+				.isEmpty();
+		assertThat(IssueIdParser.DEFAULT.parse(null))
+				.isEmpty();
+	}
+
+	@Test
+	public void duplicates() {
+		assertThat(IssueIdParser.DEFAULT.parse("#1 #2 #1 #2 #4 #2"))
+				.containsExactly("1", "2", "4");
+		// Leading zeros and large numbers are kept as is.
+		assertThat(IssueIdParser.DEFAULT.parse(
+				"#007 #7 #007 #12345678901 #12345678901"))
+				.containsExactly("007", "7", "12345678901");
+	}
+
+	@Test
+	public void manyIds() {
+		final List<String> texts = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			texts.add("Fix #" + (i % 700));
+		}
+		final List<String> ids = IssueIdParser.DEFAULT.parseAll(texts);
+		assertThat(ids).hasSize(700);
+		assertThat(ids.get(699)).isEqualTo("699");
+	}
+
+	@Test
+	public void keys() {
+		final IssueIdParser parser = IssueIdParser.of(KEY);
+		assertThat(parser.parse("PROJ-1: fix AB_2-77, XPROJ-2 and PROJ-1"))
+				.containsExactly("PROJ-1", "AB_2-77", "XPROJ-2");
+		assertThat(parser.parse("aPROJ-3 A-1 PROJ-4x Proj-5 PROJ- #6"))
+				.isEmpty();
+	}
+
+	@Test
+	public void multipleStyles() {
+		final IssueIdParser parser = IssueIdParser.of(HASH, KEY, MERGE_REQUEST);
+		assertThat(parser.getStyles())
+				.containsExactlyInAnyOrder(HASH, KEY, MERGE_REQUEST);
+		assertThat(parser.parseAll(Arrays.asList(
+				"Merge !4 (fixes #4 and CORE-4)", null, "Revert !4, #5")))
+				.containsExactly("!4", "4", "CORE-4", "5");
+	}
+
+	@Test
+	public void styleOf() {
+		assertThat(IssueIdParser.styleOf("4")).isEqualTo(HASH);
+		assertThat(IssueIdParser.styleOf("007")).isEqualTo(HASH);
+		assertThat(IssueIdParser.styleOf("!4")).isEqualTo(MERGE_REQUEST);
+		assertThat(IssueIdParser.styleOf("CORE-4")).isEqualTo(KEY);
+	}
+}
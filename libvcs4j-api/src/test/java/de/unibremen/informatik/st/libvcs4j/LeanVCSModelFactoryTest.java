@@ -0,0 +1,112 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LeanVCSModelFactoryTest {
+
+	private final LeanVCSModelFactory factory = new LeanVCSModelFactory();
+
+	private final VCSEngine engine = mock(VCSEngine.class);
+
+	{
+		when(engine.getModelFactory()).thenReturn(factory);
+	}
+
+	@Test
+	public void pathsAreInterned() {
+		final Revision r1 = factory.createRevision("1",
+				Arrays.asList(new String("a/A.java"), new String("b/B.java")),
+				engine);
+		final Revision r2 = factory.createRevision("2",
+				Arrays.asList(new String("a/A.java"), new String("c/C.java")),
+				engine);
+		assertThat(factory.getNumPaths()).isEqualTo(3);
+		assertThat(r2.getFiles().get(0).getRelativePath())
+				.isSameAs(r1.getFiles().get(0).getRelativePath());
+		assertThat(r2.getFiles().get(0).getRevision()).isSameAs(r2);
+		assertThat(r2.getFiles().get(1).getRelativePath())
+				.isEqualTo("c/C.java");
+		assertThat(factory.createVCSFile("b/B.java", r2, engine)
+				.getRelativePath())
+				.isSameAs(r1.getFiles().get(1).getRelativePath());
+	}
+
+	@Test
+	public void filesAreCreatedOnce() {
+		final Revision revision = factory.createRevision("1",
+				Arrays.asList("A.java", null, "B.java"), engine);
+		final List<VCSFile> files = revision.getFiles();
+		assertThat(files).hasSize(2);
+		assertThat(revision.getFiles().get(1)).isSameAs(files.get(1));
+		assertThatThrownBy(() -> files.remove(0))
+				.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	public void listsAreUnmodifiableViews() {
+		final Revision revision = factory.createRevision("1",
+				Collections.singletonList("A.java"), engine);
+		final FileChange change = factory.createFileChange(null,
+				revision.getFiles().get(0), engine);
+		final Commit commit = factory.createCommit("1", "author", "message",
+				LocalDateTime.of(2020, 1, 1, 0, 0), null,
+				Collections.singletonList(change), null, engine);
+		assertThat(commit.getFileChanges()).containsExactly(change);
+		assertThat(commit.getFileChanges()).isSameAs(commit.getFileChanges());
+		assertThat(commit.getIssues()).isEmpty();
+		assertThatThrownBy(() -> commit.getParentIds().add("0"))
+				.isInstanceOf(UnsupportedOperationException.class);
+
+		final RevisionRange range = factory.createRevisionRange(1, revision,
+				null, Collections.singletonList(commit), engine);
+		assertThat(range.getCommits()).containsExactly(commit);
+		assertThat(range.getFileChanges()).isSameAs(range.getFileChanges());
+		assertThat(range.merge(range).getCommits())
+				.containsExactly(commit, commit);
+	}
+
+	@Test
+	public void contentIsReadFromEngine() throws IOException {
+		final Revision revision = factory.createRevision("1",
+				Collections.singletonList("A.java"), engine);
+		final VCSFile file = revision.getFiles().get(0);
+		final VCSFile.LineIndex index = VCSFile.LineIndex.of("a\nb\n");
+		when(engine.readContent(file)).thenReturn("a\nb\n");
+		when(engine.readLineIndex(file)).thenReturn(index);
+
+		assertThat(file.readContent()).isEqualTo("a\nb\n");
+		assertThat(file.readLineIndex()).isSameAs(index);
+		assertThat(file.readLinesWithEOL()).containsExactly("a\n", "b\n");
+		verify(engine, times(1)).readContent(file);
+		verify(engine, times(2)).readLineIndex(file);
+	}
+
+	@Test
+	public void binaryIsMemoized() throws IOException {
+		final Revision revision = factory.createRevision("1",
+				Collections.singletonList("A.java"), engine);
+		final VCSFile file = revision.getFiles().get(0);
+		when(engine.getOutput()).thenReturn(Paths.get("output"));
+		when(engine.readAllBytes(file)).thenReturn(
+				"class A {}".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(file.isBinary()).isFalse();
+		assertThat(file.isBinary()).isFalse();
+		verify(engine, times(1)).readAllBytes(file);
+	}
+}
@@ -26,10 +26,11 @@ public class PositionTest {
 				"first line",
 				"second line",
 				"third line"));
-		when(oldFile.readLinesWithEOL()).thenReturn(Arrays.asList(
-				"first line\n",
-				"second line\n",
-				"third line"));
+		when(oldFile.readLineIndex()).thenReturn(
+				VCSFile.LineIndex.of(Arrays.asList(
+						"first line\n",
+						"second line\n",
+						"third line")));
 		when(oldFile.positionOf(2, 8, 4)).thenCallRealMethod();
 
 		Revision newRevision = mock(Revision.class);
@@ -42,10 +43,11 @@ public class PositionTest {
 				"first line",
 				"new line",
 				"second line"));
-		when(newFile.readLinesWithEOL()).thenReturn(Arrays.asList(
-				"first line\n",
-				"new line\n",
-				"second line"));
+		when(newFile.readLineIndex()).thenReturn(
+				VCSFile.LineIndex.of(Arrays.asList(
+						"first line\n",
+						"new line\n",
+						"second line")));
 		when(newFile.positionOf(anyInt(), anyInt(), anyInt()))
 				.thenCallRealMethod();
 
@@ -82,7 +84,7 @@ public class PositionTest {
 
 		VCSFile file = mock(VCSFile.class);
 		when(file.readLines()).thenReturn(lines);
-		when(file.readLinesWithEOL()).thenReturn(linesEOL);
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(linesEOL));
 		when(file.positionOf(1, 2, 3)).thenCallRealMethod();
 		when(file.positionOf(2, 1, 3)).thenCallRealMethod();
 
@@ -104,7 +106,7 @@ public class PositionTest {
 
 		VCSFile file = mock(VCSFile.class);
 		when(file.readLines()).thenReturn(lines);
-		when(file.readLinesWithEOL()).thenReturn(linesEOL);
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(linesEOL));
 		when(file.positionOf(2, 2, 3)).thenCallRealMethod();
 		when(file.positionOf(1, 1, 3)).thenCallRealMethod();
 
@@ -126,7 +128,7 @@ public class PositionTest {
 
 		VCSFile file = mock(VCSFile.class);
 		when(file.readLines()).thenReturn(lines);
-		when(file.readLinesWithEOL()).thenReturn(lines);
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(lines));
 		when(file.positionOf(1, 7, 8)).thenCallRealMethod();
 		when(file.positionOf(1, 1, 8)).thenCallRealMethod();
 
@@ -147,7 +149,7 @@ public class PositionTest {
 
 		VCSFile file = mock(VCSFile.class);
 		when(file.readLines()).thenReturn(lines);
-		when(file.readLinesWithEOL()).thenReturn(lines);
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(lines));
 		when(file.positionOf(1, 9, 7)).thenCallRealMethod();
 		when(file.positionOf(1, 21, 7)).thenCallRealMethod();
 
@@ -168,7 +170,7 @@ public class PositionTest {
 
 		VCSFile file = mock(VCSFile.class);
 		when(file.readLines()).thenReturn(lines);
-		when(file.readLinesWithEOL()).thenReturn(linesEOL);
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(linesEOL));
 		when(file.positionOf(1, 2, 4)).thenCallRealMethod();
 		when(file.positionOf(2, 1, 4)).thenCallRealMethod();
 
@@ -184,7 +186,7 @@ public class PositionTest {
 
 		VCSFile file = mock(VCSFile.class);
 		when(file.readLines()).thenReturn(lines);
-		when(file.readLinesWithEOL()).thenReturn(linesEOL);
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(linesEOL));
 		when(file.positionOf(2, 2, 4)).thenCallRealMethod();
 		when(file.positionOf(1, 1, 4)).thenCallRealMethod();
 
@@ -197,8 +199,8 @@ public class PositionTest {
 	public void mapToExistingPosition() throws IOException {
 		VCSFile file = mock(VCSFile.class);
 		when(file.getRelativePath()).thenReturn("File.java");
-		when(file.readLinesWithEOL()).thenReturn(
-				Arrays.asList("some\n", "content"));
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(
+				Arrays.asList("some\n", "content")));
 
 		VCSFile.Position position = mock(VCSFile.Position.class);
 		when(position.getLine()).thenReturn(2);
@@ -225,8 +227,8 @@ public class PositionTest {
 	public void mapToNotExistingPosition() throws IOException {
 		VCSFile file = mock(VCSFile.class);
 		when(file.getRelativePath()).thenReturn("File.java");
-		when(file.readLinesWithEOL()).thenReturn(
-				Arrays.asList("come\n", "content"));
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(
+				Arrays.asList("come\n", "content")));
 
 		VCSFile.Position position = mock(VCSFile.Position.class);
 		when(position.getLine()).thenReturn(1);
@@ -283,7 +285,7 @@ public class PositionTest {
 		List<String> linesEOL = Arrays.asList("foo\n", "\tbar");
 
 		VCSFile file = mock(VCSFile.class);
-		when(file.readLinesWithEOL()).thenReturn(linesEOL);
+		when(file.readLineIndex()).thenReturn(VCSFile.LineIndex.of(linesEOL));
 		when(file.positionOf(6, 4)).thenCallRealMethod();
 
 		VCSFile.Position position = file.positionOf(6, 4)
@@ -301,7 +303,7 @@ public class PositionTest {
 		VCSFile file = mock(VCSFile.class);
 		when(file.readAllBytes()).thenReturn(content.getBytes());
 		when(file.readContent()).thenCallRealMethod();
-		when(file.readLinesWithEOL()).thenCallRealMethod();
+		when(file.readLineIndex()).thenCallRealMethod();
 		when(file.positionOf(2, 4)).thenCallRealMethod();
 
 		VCSFile.Position position = file.positionOf(2, 4)
@@ -13,6 +13,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RevisionRangeTest {
@@ -400,4 +402,42 @@ public class RevisionRangeTest {
         when(range.isFirst()).thenCallRealMethod();
         assertThat(range.isFirst()).isTrue();
     }
+
+    @Test
+    public void mergedFileChangesAreMemoized() {
+        VCSModelFactory factory = new VCSModelFactory() {};
+        VCSEngine engine = mock(VCSEngine.class);
+        when(engine.getModelFactory()).thenReturn(factory);
+
+        Revision rev1 = mock(Revision.class);
+        when(rev1.getId()).thenReturn("1");
+        Revision rev2 = mock(Revision.class);
+        when(rev2.getId()).thenReturn("2");
+        Revision rev3 = mock(Revision.class);
+        when(rev3.getId()).thenReturn("3");
+
+        VCSFile file1 = factory.createVCSFile("file", rev1, engine);
+        VCSFile file2 = factory.createVCSFile("file", rev2, engine);
+        VCSFile file3 = factory.createVCSFile("file", rev3, engine);
+
+        Commit c1 = mock(Commit.class);
+        when(c1.getFileChanges()).thenReturn(singletonList(
+                factory.createFileChange(file1, file2, engine)));
+        Commit c2 = mock(Commit.class);
+        when(c2.getFileChanges()).thenReturn(singletonList(
+                factory.createFileChange(file2, file3, engine)));
+
+        RevisionRange range = factory.createRevisionRange(
+                1, rev3, rev1, Arrays.asList(c1, c2), engine);
+        List<FileChange> changes = range.getFileChanges();
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).getType()).isEqualTo(FileChange.Type.MODIFY);
+        assertThat(changes.get(0).getOldFile()).containsSame(file1);
+        assertThat(changes.get(0).getNewFile()).containsSame(file3);
+
+        changes.clear();
+        assertThat(range.getFileChanges()).hasSize(1);
+        verify(c1, times(1)).getFileChanges();
+        verify(c2, times(1)).getFileChanges();
+    }
 }
@@ -374,4 +374,56 @@ public class VCSFileTest {
 		assertThat(position.getOffset()).isEqualTo(99);
 		assertThat(position.getTabSize()).isEqualTo(4);
 	}
+
+	@Test
+	public void lineIndexMatchesReadLinesWithEOL() throws IOException {
+		final String[] contents = { "", "\n", "a", "a\n", "a\r", "\r\n\r\n",
+				"first\nsecond\rthird\r\nforth", "a\n\nb\r\rc\r\n" };
+		for (String content : contents) {
+			VCSFile file = new VCSFileMock(content);
+			List<String> lines = file.readLinesWithEOL();
+			VCSFile.LineIndex index = file.readLineIndex();
+			assertThat(index.getNumLines()).isEqualTo(lines.size());
+			assertThat(index.getLength()).isEqualTo(content.length());
+			int offset = 0;
+			for (int i = 0; i < lines.size(); i++) {
+				String line = lines.get(i);
+				assertThat(index.getOffset(i + 1)).isEqualTo(offset);
+				assertThat(index.getLengthWithEOL(i + 1))
+						.isEqualTo(line.length());
+				assertThat(index.getLength(i + 1)).isEqualTo(
+						line.replaceAll("[\r\n]", "").length());
+				for (int j = 0; j < line.length(); j++) {
+					assertThat(index.getLine(offset + j)).isEqualTo(i + 1);
+				}
+				offset += line.length();
+			}
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void lineIndexOutOfBounds() throws IOException {
+		VCSFile.LineIndex index = new VCSFileMock("a\nb").readLineIndex();
+		index.getLine(3);
+	}
+
+	@Test
+	public void positionNavigation() throws IOException {
+		VCSFile file = new VCSFileMock("first\n\tsecond\r\nthird");
+		VCSFile.Position p = file.positionOf(2, 5, 4)
+				.orElseThrow(AssertionError::new);
+		assertThat(p.getOffset()).isEqualTo(7);
+		assertThat(p.endOfLine().getOffset()).isEqualTo(9);
+		assertThat(p.nextLine().map(VCSFile.Position::getOffset))
+				.hasValue(15);
+		assertThat(p.previousLine().map(VCSFile.Position::getOffset))
+				.hasValue(0);
+		assertThat(p.nextLine().flatMap(n -> {
+			try {
+				return n.nextLine();
+			} catch (IOException e) {
+				throw new AssertionError(e);
+			}
+		})).isEmpty();
+	}
 }
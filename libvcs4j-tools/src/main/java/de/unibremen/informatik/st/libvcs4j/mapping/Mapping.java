@@ -534,9 +534,13 @@ public class Mapping<T> {
 											fileChange.get().getType(),
 											range.getFile().getRelativePath())));
 
+					// Line changes of fileChange.
+					final List<LineChange> lineChanges =
+							fileChange.get().computeDiff();
+
 					// Move begin to next line if necessary.
-					final boolean beginDeleted = fileChange.get()
-							.computeDiff().stream().anyMatch(lc ->
+					final boolean beginDeleted = lineChanges.stream()
+							.anyMatch(lc ->
 									lc.getType() == LineChange.Type.DELETE &&
 									lc.getLine() == range.getBegin().getLine());
 					Optional<VCSFile.Position> begin = Optional.empty();
@@ -553,8 +557,8 @@ public class Mapping<T> {
 					}
 
 					// Move end to previous line if necessary.
-					final boolean endDeleted = fileChange.get()
-							.computeDiff().stream().anyMatch(lc ->
+					final boolean endDeleted = lineChanges.stream()
+							.anyMatch(lc ->
 									lc.getType() == LineChange.Type.DELETE &&
 									lc.getLine() == range.getEnd().getLine());
 					Optional<VCSFile.Position> end = Optional.empty();
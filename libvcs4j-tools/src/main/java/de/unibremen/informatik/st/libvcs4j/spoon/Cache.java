@@ -1,5 +1,9 @@
 package de.unibremen.informatik.st.libvcs4j.spoon;
 
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtType;
@@ -8,9 +12,16 @@ import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtTypeReference;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
@@ -19,26 +30,103 @@ import java.util.function.Function;
  * references (such as {@link CtTypeReference}, {@link CtFieldReference}, and
  * {@link CtExecutableReference}). A single instance of this class may be
  * shared between several scanners.
+ *
+ * Each reference is resolved at most once per key. Lookups of a key that is
+ * being resolved by another thread wait for the result, whereas lookups of
+ * other keys proceed without blocking. References are resolved without
+ * holding any lock.
  */
 public class Cache {
 
+	/**
+	 * Statistics of a {@link Cache} (see {@link #getStats()}).
+	 */
+	@Value
+	public static class Stats {
+
+		/**
+		 * Number of lookups answered from the cache (including lookups that
+		 * waited for another thread to resolve the same key).
+		 */
+		long hits;
+
+		/**
+		 * Number of lookups that resolved a reference.
+		 */
+		long misses;
+
+		/**
+		 * Total time, in nanoseconds, spent in resolving references.
+		 */
+		long resolveTimeNanos;
+
+		/**
+		 * Number of cached entries.
+		 */
+		int size;
+
+		/**
+		 * Returns the ratio of hits to lookups. Returns {@code 0} if there
+		 * were no lookups yet.
+		 *
+		 * @return
+		 * 		The ratio of hits to lookups.
+		 */
+		public double getHitRate() {
+			final long lookups = hits + misses;
+			return lookups == 0 ? 0 : (double) hits / lookups;
+		}
+	}
+
 	/**
 	 * Qualified name ({@link CtTypeReference#getQualifiedName()}) ->
 	 * {@link CtType}.
 	 */
-	private final Map<String, CtType> types = new HashMap<>();
+	private final Map<String, CompletableFuture<Optional<CtType>>> types =
+			new ConcurrentHashMap<>();
 
 	/**
 	 * Qualified name ({@link CtFieldReference#getQualifiedName()}) ->
 	 * {@link CtField}.
 	 */
-	private final Map<String, CtField> fields = new HashMap<>();
+	private final Map<String, CompletableFuture<Optional<CtField>>> fields =
+			new ConcurrentHashMap<>();
 
 	/**
 	 * Signature ({@link CtExecutableReference#getSignature()}) ->
 	 * {@link CtExecutable}.
 	 */
-	private final Map<String, CtExecutable> executables = new HashMap<>();
+	private final Map<String, CompletableFuture<Optional<CtExecutable>>>
+			executables = new ConcurrentHashMap<>();
+
+	/**
+	 * Whether references that can not be resolved are cached as well. If
+	 * disabled, such references are resolved on each lookup.
+	 */
+	@Getter
+	private final boolean cacheUnresolved;
+
+	/* Statistics. */
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder resolveTimeNanos = new LongAdder();
+
+	/**
+	 * Creates a cache that caches unresolvable references as well.
+	 */
+	public Cache() {
+		this(true);
+	}
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param cacheUnresolved
+	 * 		Whether references that can not be resolved are cached as well.
+	 */
+	public Cache(final boolean cacheUnresolved) {
+		this.cacheUnresolved = cacheUnresolved;
+	}
 
 	/**
 	 * Returns the type referenced by {@code reference}. Returns an empty
@@ -86,20 +174,108 @@ public class Cache {
 				CtExecutableReference::getDeclaration);
 	}
 
-	private <E, K, V> Optional<V> lookup(final E element, final Map<K, V> map,
-			final Function<E, K> toKey, final Function<E, V> resolve) {
-		return Optional.ofNullable(element)
-				.map(toKey)
-				.map(key -> {
-					synchronized (map) {
-						V value = map.get(key);
-						// allow null mappings
-						if (value == null && !map.containsKey(key)) {
-							value = resolve.apply(element);
-							map.put(key, value);
-						}
-						return value;
-					}
-				});
+	/**
+	 * Returns the current statistics of this cache.
+	 *
+	 * @return
+	 * 		The current statistics of this cache.
+	 */
+	public Stats getStats() {
+		return new Stats(hits.sum(), misses.sum(), resolveTimeNanos.sum(),
+				types.size() + fields.size() + executables.size());
+	}
+
+	/**
+	 * Removes all entries that resolve to an element declared in one of the
+	 * given top-level types as well as all unresolved entries, which may be
+	 * resolvable now. Allows to keep this cache after some types have been
+	 * removed from, or replaced in, the model this cache has been used with.
+	 *
+	 * @param types
+	 * 		The top-level types that have been removed from the model.
+	 * @throws NullPointerException
+	 * 		If {@code types} is {@code null}.
+	 */
+	public void invalidate(@NonNull final Collection<CtType<?>> types)
+			throws NullPointerException {
+		final Set<CtType<?>> removed =
+				Collections.newSetFromMap(new IdentityHashMap<>());
+		removed.addAll(types);
+		invalidate(this.types, removed);
+		invalidate(fields, removed);
+		invalidate(executables, removed);
+	}
+
+	private <V extends CtElement> void invalidate(
+			final Map<String, CompletableFuture<Optional<V>>> map,
+			final Set<CtType<?>> removed) {
+		map.values().removeIf(future -> !future.isDone() ||
+				future.isCompletedExceptionally() ||
+				future.join()
+						.map(value -> removed.contains(topLevelTypeOf(value)))
+						.orElse(true));
+	}
+
+	private static CtType<?> topLevelTypeOf(final CtElement element) {
+		final CtType<?> type = element instanceof CtType
+				? (CtType<?>) element
+				: element.getParent(CtType.class);
+		return type == null ? null : type.getTopLevelType();
+	}
+
+	private <E, V> Optional<V> lookup(final E element,
+			final Map<String, CompletableFuture<Optional<V>>> map,
+			final Function<E, String> toKey, final Function<E, V> resolve) {
+		final String key = element == null ? null : toKey.apply(element);
+		if (key == null) {
+			return Optional.empty();
+		}
+		CompletableFuture<Optional<V>> future = map.get(key);
+		if (future == null) {
+			final CompletableFuture<Optional<V>> created =
+					new CompletableFuture<>();
+			future = map.putIfAbsent(key, created);
+			if (future == null) {
+				misses.increment();
+				return resolve(element, key, map, created, resolve);
+			}
+		}
+		hits.increment();
+		try {
+			return future.join();
+		} catch (final CompletionException e) {
+			// The resolving thread has already thrown the cause.
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Resolves {@code element} and completes {@code future}, which has been
+	 * put into {@code map} by the calling thread.
+	 */
+	private <E, V> Optional<V> resolve(final E element, final String key,
+			final Map<String, CompletableFuture<Optional<V>>> map,
+			final CompletableFuture<Optional<V>> future,
+			final Function<E, V> resolve) {
+		final long start = System.nanoTime();
+		try {
+			final Optional<V> value = Optional.ofNullable(
+					resolve.apply(element));
+			if (!value.isPresent() && !cacheUnresolved) {
+				map.remove(key, future);
+			}
+			future.complete(value);
+			return value;
+		} catch (final RuntimeException | Error e) {
+			// Do not cache failures.
+			map.remove(key, future);
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			resolveTimeNanos.add(System.nanoTime() - start);
+		}
 	}
 }
@@ -5,8 +5,8 @@ import lombok.NonNull;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.*;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.Optional;
 
 import static spoon.reflect.cu.SourcePosition.NOPOSITION;
@@ -72,7 +72,7 @@ public abstract class ElementExtractor extends Scanner {
 
 	/**
 	 * Maps a Spoon position ({@link SourcePosition}) to the {@link VCSFile}
-	 * that contains this position.
+	 * that contains this position (see {@link Environment#findFile(File)}).
 	 *
 	 * @param position
 	 * 		The spoon position to map.
@@ -81,25 +81,8 @@ public abstract class ElementExtractor extends Scanner {
 	 */
 	public Optional<VCSFile> findFile(final SourcePosition position) {
 		return Optional.ofNullable(position)
-				// Make position canonical.
-				.map(p -> {
-					try {
-						return p.getFile().getCanonicalFile();
-					} catch (final IOException e) {
-						throw new UncheckedIOException(e);
-					}
-				})
-				// Compare with canonicalized vcs files.
-				.map(p -> environment.getRevision().getFiles().stream()
-						.filter(f -> {
-							try {
-								return f.toFile().getCanonicalFile().equals(p);
-							} catch (final IOException e) {
-								throw new UncheckedIOException(e);
-							}
-						})
-						.findFirst())
-				.map(f -> f.orElse(null));
+				.map(SourcePosition::getFile)
+				.flatMap(environment::findFile);
 	}
 
 	/**
@@ -122,6 +105,11 @@ public abstract class ElementExtractor extends Scanner {
 	 * if {@link #findFile(SourcePosition)} is unable to find the corresponding
 	 * {@link VCSFile}.
 	 *
+	 * The file is read with the engine of its revision (see
+	 * {@link VCSFile#getVCSEngine()}), which is not threadsafe. Thus, the
+	 * file accesses of all extractors sharing an {@link Environment} are
+	 * serialized on the environment.
+	 *
 	 * @param element
 	 * 		The element to create the range for.
 	 * @return
@@ -143,16 +131,18 @@ public abstract class ElementExtractor extends Scanner {
 		final int sourceStart = element.getPosition().getSourceStart();
 		final int sourceEnd = element.getPosition().getSourceEnd();
 		final int tabSize = tabSizeOf(element);
-		final VCSFile.Position begin = file.get()
-				.positionOf(sourceStart, tabSize)
-				.orElseThrow(() -> new IOException(String.format(
+		final Optional<VCSFile.Position> begin;
+		final Optional<VCSFile.Position> end;
+		synchronized (environment) {
+			begin = file.get().positionOf(sourceStart, tabSize);
+			end = file.get().positionOf(sourceEnd, tabSize);
+		}
+		return Optional.of(new VCSFile.Range(
+				begin.orElseThrow(() -> new IOException(String.format(
 						"Begin position (%d) of element '%s' does not exist",
-						sourceStart, element)));
-		final VCSFile.Position end = file.get()
-				.positionOf(sourceEnd, tabSize)
-				.orElseThrow(() -> new IOException(String.format(
+						sourceStart, element))),
+				end.orElseThrow(() -> new IOException(String.format(
 						"End position (%d) of element '%s' does not exist",
-						sourceEnd, element)));
-		return Optional.of(new VCSFile.Range(begin, end));
+						sourceEnd, element)))));
 	}
 }
@@ -3,7 +3,12 @@ package de.unibremen.informatik.st.libvcs4j.spoon;
 import de.unibremen.informatik.st.libvcs4j.Revision;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.spoon.metric.ModelMetrics;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.ToString;
 import lombok.Value;
 import spoon.reflect.CtModel;
 import spoon.reflect.cu.CompilationUnit;
@@ -24,20 +29,111 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Composes a {@link CtModel} and a {@link RevisionRange} into a single class
- * that allows to map between Spoon and LibVCS4j objects.
+ * that allows to map between Spoon and LibVCS4j objects. The canonical paths
+ * of the files of {@link #getRevision()} and of the compilation units of
+ * {@link #getCtModel()} are determined once, on first use, and shared by all
+ * lookups (see {@link #findFile(File)} and
+ * {@link #findReferencedFiles(VCSFile)}). The same applies to the metrics
+ * of {@link #getCtModel()} (see {@link #getMetrics()}).
  */
 @Value
 public class Environment {
-	private final Cache cache = new Cache();
+	@NonNull
+	private final Cache cache;
 	@NonNull
 	private final CtModel ctModel;
 	@NonNull
 	private final RevisionRange revisionRange;
 
+	/**
+	 * Canonical path -> file of {@link #getRevision()}.
+	 */
+	@Getter(value = AccessLevel.PRIVATE, lazy = true)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private final Map<Path, VCSFile> canonicalPathToFile = indexFiles();
+
+	/**
+	 * Compilation unit of {@link #getCtModel()} -> canonical path.
+	 */
+	@Getter(value = AccessLevel.PRIVATE, lazy = true)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private final Map<CompilationUnit, Path> unitToCanonicalPath =
+			indexUnits();
+
+	/**
+	 * Canonical path -> compilation unit of {@link #getCtModel()}.
+	 */
+	@Getter(value = AccessLevel.PRIVATE, lazy = true)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private final Map<Path, CompilationUnit> canonicalPathToUnit =
+			reverse(getUnitToCanonicalPath());
+
+	/**
+	 * Caches the results of {@link #findFile(File)}. Spoon positions of the
+	 * same compilation unit share their {@link File}, thus, most lookups do
+	 * not need to canonicalize a path.
+	 */
+	@Getter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private final Map<File, Optional<VCSFile>> fileLookups =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * The metrics of {@link #getCtModel()}. Gathered once, on first use, and
+	 * shared by all detectors of this environment.
+	 */
+	@Getter(lazy = true)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private final ModelMetrics metrics = new ModelMetrics(ctModel, cache);
+
+	/**
+	 * Creates a new environment with an empty {@link Cache}.
+	 *
+	 * @param ctModel
+	 * 		The model of {@code revisionRange}.
+	 * @param revisionRange
+	 * 		The currently checked out range.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public Environment(@NonNull final CtModel ctModel,
+			@NonNull final RevisionRange revisionRange)
+			throws NullPointerException {
+		this(ctModel, revisionRange, new Cache());
+	}
+
+	/**
+	 * Creates a new environment that uses the given {@link Cache}. Allows to
+	 * reuse the cache of a model that has been updated in place (see
+	 * {@link EnvironmentBuilder#setIncremental(boolean)}).
+	 *
+	 * @param ctModel
+	 * 		The model of {@code revisionRange}.
+	 * @param revisionRange
+	 * 		The currently checked out range.
+	 * @param cache
+	 * 		The cache to use.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public Environment(@NonNull final CtModel ctModel,
+			@NonNull final RevisionRange revisionRange,
+			@NonNull final Cache cache) throws NullPointerException {
+		this.ctModel = ctModel;
+		this.revisionRange = revisionRange;
+		this.cache = cache;
+	}
+
 	/**
 	 * Shortcut for {@code getRevisionRange().getRevision()}.
 	 *
@@ -48,6 +144,38 @@ public class Environment {
 		return revisionRange.getRevision();
 	}
 
+	/**
+	 * Shortcut for {@code getCache().getStats()}.
+	 *
+	 * @return
+	 * 		The statistics returned by {@code getCache().getStats()}.
+	 */
+	public Cache.Stats getCacheStats() {
+		return cache.getStats();
+	}
+
+	/**
+	 * Returns the file of {@link #getRevision()} whose canonical path equals
+	 * the canonical path of {@code file}. Returns an empty {@link Optional}
+	 * if {@code file} is {@code null} or if there is no such file.
+	 *
+	 * @param file
+	 * 		The file to look up.
+	 * @return
+	 * 		The file of {@link #getRevision()} that corresponds to
+	 * 		{@code file}.
+	 * @throws UncheckedIOException
+	 * 		If an error occurred while canonicalizing {@code file}.
+	 */
+	public Optional<VCSFile> findFile(final File file)
+			throws UncheckedIOException {
+		if (file == null) {
+			return Optional.empty();
+		}
+		return fileLookups.computeIfAbsent(file, f -> Optional.ofNullable(
+				getCanonicalPathToFile().get(canonicalPathOf(f))));
+	}
+
 	/**
 	 * Returns all files referenced by {@code file}.
 	 *
@@ -57,44 +185,13 @@ public class Environment {
 	 * 		The files referenced by {@code file}.
 	 */
 	public List<VCSFile> findReferencedFiles(@NonNull final VCSFile file) {
-		final CompilationUnitFactory factory = ctModel.getRootPackage()
-				.getFactory().CompilationUnit();
-		final Map<String, CompilationUnit> compilationUnits = factory.getMap();
-
-		// Make compilation unit paths canonical.
-		final Map<Path, CompilationUnit> cPathToUnit = new HashMap<>();
-		try {
-			for (String path : compilationUnits.keySet()) {
-				final CompilationUnit unit = compilationUnits.get(path);
-				final Path cPath = new File(path).getCanonicalFile().toPath();
-				cPathToUnit.put(cPath, unit);
-			}
-		} catch (final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-		// Reverse map of `cPathToUnit`.
-		final Map<CompilationUnit, Path> unitToCPath = new IdentityHashMap<>();
-		cPathToUnit.forEach((p, u) -> unitToCPath.put(u, p));
-
-		// Make VCS file paths canonical.
-		final Map<VCSFile, Path> fileToCPath = new IdentityHashMap<>();
-		try {
-			final Revision revision = revisionRange.getRevision();
-			for (final VCSFile vFile : revision.getFiles()) {
-				final Path cPath = vFile.toFile().getCanonicalFile().toPath();
-				fileToCPath.put(vFile, cPath);
-			}
-		} catch (final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-		// Reverse map of `fileToCPath`.
-		final Map<Path, VCSFile> cPathToFile = new HashMap<>();
-		fileToCPath.forEach((f, p) -> cPathToFile.put(p, f));
+		final Optional<CompilationUnit> unit = Optional.ofNullable(
+				getCanonicalPathToUnit().get(canonicalPathOf(file.toFile())));
+		final Map<CompilationUnit, Path> unitToCPath =
+				getUnitToCanonicalPath();
 
 		// Find files referenced by `file`.
-		final List<CompilationUnit> referencedUnits =
-				Optional.ofNullable(fileToCPath.get(file))
-				.map(cPathToUnit::get)
+		final List<CompilationUnit> referencedUnits = unit
 				.map(cu -> cu.getDeclaredTypes().stream()
 						.map(CtElement::getReferencedTypes)
 						.flatMap(Collection::stream)
@@ -105,11 +202,42 @@ public class Environment {
 						.collect(Collectors.toList()))
 				.orElseGet(ArrayList::new);
 		final List<VCSFile> referencedFiles = new ArrayList<>();
-		for (final CompilationUnit unit : referencedUnits) {
-			Optional.ofNullable(unitToCPath.get(unit))
-					.map(cPathToFile::get)
+		for (final CompilationUnit referencedUnit : referencedUnits) {
+			Optional.ofNullable(unitToCPath.get(referencedUnit))
+					.map(getCanonicalPathToFile()::get)
 					.ifPresent(referencedFiles::add);
 		}
 		return referencedFiles;
 	}
+
+	private Map<Path, VCSFile> indexFiles() {
+		final Map<Path, VCSFile> index = new HashMap<>();
+		for (final VCSFile vFile : revisionRange.getRevision().getFiles()) {
+			index.put(canonicalPathOf(vFile.toFile()), vFile);
+		}
+		return index;
+	}
+
+	private Map<CompilationUnit, Path> indexUnits() {
+		final CompilationUnitFactory factory = ctModel.getRootPackage()
+				.getFactory().CompilationUnit();
+		final Map<CompilationUnit, Path> index = new IdentityHashMap<>();
+		factory.getMap().forEach((path, unit) ->
+				index.put(unit, canonicalPathOf(new File(path))));
+		return index;
+	}
+
+	private static <K, V> Map<V, K> reverse(final Map<K, V> map) {
+		final Map<V, K> reverse = new HashMap<>();
+		map.forEach((k, v) -> reverse.put(v, k));
+		return reverse;
+	}
+
+	private static Path canonicalPathOf(final File file) {
+		try {
+			return file.getCanonicalFile().toPath();
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
@@ -1,22 +1,51 @@
 package de.unibremen.informatik.st.libvcs4j.spoon;
 
+import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Revision;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import spoon.Launcher;
+import spoon.SpoonModelBuilder;
 import spoon.reflect.CtModel;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtTypeReference;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static java.lang.System.currentTimeMillis;
 
 /**
  * Allows to build and update a Spoon {@link CtModel}. The resultant model is
  * managed by an instance of {@link Environment} (see {@link #getEnvironment()}
- * and {@link #update(RevisionRange)}).
+ * and {@link #update(RevisionRange)}). If incremental updates are enabled
+ * (see {@link #setIncremental(boolean)}), the model of the previous call of
+ * {@link #update(RevisionRange)} is patched in place rather than rebuilt from
+ * scratch. Thus, the {@link CtModel} (and {@link Cache}) of the previous
+ * {@link Environment} is mutated and shared with the returned one. Do not
+ * use the previous environment after an incremental update.
  */
 @Slf4j
 public class EnvironmentBuilder {
@@ -39,11 +68,58 @@ public class EnvironmentBuilder {
 	@Setter
 	private boolean comments = true;
 
+	/**
+	 * Enables or disables the caching of references that can not be
+	 * resolved (see {@link Cache#Cache(boolean)}). The default value is
+	 * {@code true}.
+	 */
+	@Getter
+	@Setter
+	private boolean cacheUnresolved = true;
+
+	/**
+	 * Enables or disables incremental updates. If enabled,
+	 * {@link #update(RevisionRange)} reuses the model of its previous call
+	 * and re-parses only the files changed by the given range, the files
+	 * referencing the types declared in changed files, and the files
+	 * referencing types that have been added by the given range. The model of
+	 * the previous call is mutated in place. The model is rebuilt
+	 * from scratch if the given range does not succeed the range of the
+	 * previous call, if more than {@link #incrementalThreshold} files would
+	 * have to be parsed, if a 'package-info.java' file has changed, or if
+	 * the model can not be updated. The default value is {@code false}.
+	 *
+	 * The types of unchanged files are passed to the compiler as bytecode
+	 * (see {@link #binaries}) rather than as source files. Thus, unchanged
+	 * files are neither parsed nor resolved by an incremental update. In
+	 * turn, a full build compiles the bytecode of all files once.
+	 */
+	@Getter
+	@Setter
+	private boolean incremental = false;
+
+	/**
+	 * The maximum number of files that are parsed in an incremental update
+	 * (see {@link #incremental}). The default value is {@code 100}.
+	 */
+	@Getter
+	@Setter
+	private int incrementalThreshold = 100;
+
 	/**
 	 * The environment of the last call of {@link #update(RevisionRange)}.
 	 */
 	private Environment environment = null;
 
+	/**
+	 * The temporary directory storing the bytecode of the types of
+	 * {@link #environment} if incremental updates are enabled (see
+	 * {@link #incremental}). The classpath of incremental updates. Is
+	 * {@code null} if the bytecode is not available. Each full build
+	 * replaces this directory.
+	 */
+	private Path binaries = null;
+
 	/**
 	 * Returns the {@link Environment} of the last call of
 	 * {@link #update(RevisionRange)}.
@@ -70,25 +146,362 @@ public class EnvironmentBuilder {
 	 */
 	public Environment update(@NonNull final RevisionRange range)
 			throws BuildException {
+		if (incremental && environment != null) {
+			final long current = currentTimeMillis();
+			try {
+				final Optional<Environment> updated =
+						updateIncrementally(range);
+				if (updated.isPresent()) {
+					environment = updated.get();
+					log.info("Model updated in {} milliseconds",
+							currentTimeMillis() - current);
+					return environment;
+				}
+			} catch (final Exception e) {
+				log.info("Unable to update model incrementally", e);
+			}
+		}
+		return build(range);
+	}
+
+	/**
+	 * Builds the model of {@code range} from scratch.
+	 */
+	private Environment build(final RevisionRange range)
+			throws BuildException {
 		final Revision revision = range.getRevision();
 		log.info("Building Spoon model for revision {}", revision.getId());
 		log.info("Enable auto imports: {}", autoImports);
 		log.info("Enable comments: {}", comments);
 		final long current = currentTimeMillis();
+		deleteBinaries();
 		final Launcher launcher = new Launcher();
 		launcher.addInputResource(revision.getOutput().toString());
 		launcher.getEnvironment().setNoClasspath(true);
 		launcher.getEnvironment().setAutoImports(autoImports);
 		launcher.getEnvironment().setCommentEnabled(comments);
 		try {
-			environment = new Environment(launcher.buildModel(), range);
+			environment = new Environment(launcher.buildModel(), range,
+					new Cache(cacheUnresolved));
 			log.info("Model built in {} milliseconds",
 					currentTimeMillis() - current);
-			return environment;
 		} catch (final Exception e) {
 			environment = null;
 			log.info("Unable to build model", e);
 			throw new BuildException(e);
 		}
+		if (incremental) {
+			try {
+				compileBinaries(launcher.getModelBuilder());
+			} catch (final Exception e) {
+				log.info("Unable to compile bytecode", e);
+				deleteBinaries();
+			}
+		}
+		return environment;
+	}
+
+	/**
+	 * Patches the model of {@link #environment} in place such that it
+	 * reflects {@code range}. Returns an empty {@link Optional} if the model
+	 * can not be updated incrementally (see {@link #incremental}). If an empty
+	 * {@link Optional} is returned or an exception is thrown, the model of
+	 * {@link #environment} may be corrupted.
+	 */
+	private Optional<Environment> updateIncrementally(
+			final RevisionRange range) throws IOException {
+		final Revision previous = environment.getRevision();
+		final Revision revision = range.getRevision();
+		final Factory factory = environment.getCtModel()
+				.getRootPackage().getFactory();
+		final spoon.compiler.Environment spoonEnv = factory.getEnvironment();
+		if (!range.getPredecessorRevision()
+				.map(Revision::getId)
+				.filter(previous.getId()::equals)
+				.isPresent() ||
+				!previous.getOutput().equals(revision.getOutput()) ||
+				spoonEnv.isAutoImports() != autoImports ||
+				spoonEnv.isCommentEnabled() != comments ||
+				binaries == null) {
+			return Optional.empty();
+		}
+
+		final Map<Path, CompilationUnit> units = unitsOf(factory);
+		// Qualified names of the top-level types of the previous model.
+		final Set<String> previousTypes = new HashSet<>();
+		units.values().forEach(unit -> unit.getDeclaredTypes().stream()
+				.map(CtType::getQualifiedName)
+				.forEach(previousTypes::add));
+
+		// Collect the units to remove and the files to parse.
+		final Set<CompilationUnit> stale = identitySet();
+		final Set<Path> toParse = new LinkedHashSet<>();
+		for (final FileChange change : range.getFileChanges()) {
+			final Optional<VCSFile> oldFile = change.getOldFile()
+					.filter(EnvironmentBuilder::isJavaFile);
+			final Optional<VCSFile> newFile = change.getNewFile()
+					.filter(EnvironmentBuilder::isJavaFile);
+			if (oldFile.filter(EnvironmentBuilder::isPackageInfo).isPresent()
+					|| newFile.filter(EnvironmentBuilder::isPackageInfo)
+					.isPresent()) {
+				log.info("Package info has changed");
+				return Optional.empty();
+			}
+			if (oldFile.isPresent()) {
+				final Path path = canonicalPathOf(oldFile.get().toFile());
+				Optional.ofNullable(units.get(path)).ifPresent(stale::add);
+			}
+			if (newFile.isPresent()) {
+				final Path path = canonicalPathOf(newFile.get().toFile());
+				Optional.ofNullable(units.get(path)).ifPresent(stale::add);
+				toParse.add(path);
+			}
+		}
+
+		// Units referencing a type declared in a stale unit are re-parsed as
+		// well because they may contain resolved information (for instance,
+		// the type of an expression) derived from the removed type.
+		final Set<String> staleTypes = new HashSet<>();
+		stale.forEach(unit -> unit.getDeclaredTypes().stream()
+				.map(CtType::getQualifiedName)
+				.forEach(staleTypes::add));
+		if (!staleTypes.isEmpty()) {
+			for (final Map.Entry<Path, CompilationUnit> entry :
+					units.entrySet()) {
+				final CompilationUnit unit = entry.getValue();
+				if (!stale.contains(unit) && referencedTypesOf(unit)
+						.map(CtTypeReference::getQualifiedName)
+						.anyMatch(staleTypes::contains)) {
+					stale.add(unit);
+					toParse.add(entry.getKey());
+				}
+			}
+		}
+		if (toParse.size() > incrementalThreshold) {
+			log.info("Too many files to parse ({})", toParse.size());
+			return Optional.empty();
+		}
+
+		log.info("Updating Spoon model for revision {} ({} files to parse)",
+				revision.getId(), toParse.size());
+		final List<CtType<?>> removed = new ArrayList<>();
+		remove(factory, stale, removed);
+		// Otherwise, the compiler would resolve references to removed types.
+		deleteBinariesOf(staleTypes);
+		parse(factory, toParse);
+
+		// Units with references to types that did not exist before (and,
+		// thus, could not be resolved) are re-parsed such that the
+		// references resolve. Keep in mind that a unit may refer to a type
+		// that is declared in a default or wildcard imported package by its
+		// simple name only.
+		final Map<Path, CompilationUnit> parsed = unitsOf(factory);
+		final Set<String> addedTypes = new HashSet<>();
+		parsed.entrySet().stream()
+				.filter(entry -> toParse.contains(entry.getKey()))
+				.map(Map.Entry::getValue)
+				.map(CompilationUnit::getDeclaredTypes)
+				.flatMap(List::stream)
+				.filter(type -> !previousTypes.contains(
+						type.getQualifiedName()))
+				.map(CtType::getSimpleName)
+				.forEach(addedTypes::add);
+		final Set<CompilationUnit> unresolved = identitySet();
+		final Set<Path> toReparse = new LinkedHashSet<>();
+		if (!addedTypes.isEmpty()) {
+			for (final Map.Entry<Path, CompilationUnit> entry :
+					parsed.entrySet()) {
+				if (!toParse.contains(entry.getKey()) &&
+						referencedTypesOf(entry.getValue()).anyMatch(ref ->
+								addedTypes.contains(ref.getSimpleName()) &&
+								!previousTypes.contains(
+										ref.getQualifiedName()))) {
+					unresolved.add(entry.getValue());
+					toReparse.add(entry.getKey());
+				}
+			}
+		}
+		if (!toReparse.isEmpty()) {
+			if (toParse.size() + toReparse.size() > incrementalThreshold) {
+				log.info("Too many files to parse ({})",
+						toParse.size() + toReparse.size());
+				return Optional.empty();
+			}
+			log.info("Re-parsing {} files referencing added types",
+					toReparse.size());
+			remove(factory, unresolved, removed);
+			parse(factory, toReparse);
+		}
+
+		Cache cache = environment.getCache();
+		if (cache.isCacheUnresolved() == cacheUnresolved) {
+			cache.invalidate(removed);
+		} else {
+			cache = new Cache(cacheUnresolved);
+		}
+		return Optional.of(
+				new Environment(factory.getModel(), range, cache));
+	}
+
+	/**
+	 * Returns the compilation units of the model of {@code factory} by
+	 * canonical path.
+	 */
+	private static Map<Path, CompilationUnit> unitsOf(final Factory factory)
+			throws IOException {
+		final Map<Path, CompilationUnit> units = new HashMap<>();
+		for (final Map.Entry<String, CompilationUnit> entry :
+				factory.CompilationUnit().getMap().entrySet()) {
+			units.put(canonicalPathOf(new File(entry.getKey())),
+					entry.getValue());
+		}
+		return units;
+	}
+
+	/**
+	 * Returns the top-level types referenced by the types of {@code unit}.
+	 */
+	private static Stream<CtTypeReference<?>> referencedTypesOf(
+			final CompilationUnit unit) {
+		return unit.getDeclaredTypes().stream()
+				.map(CtType::getReferencedTypes)
+				.flatMap(Set::stream)
+				.map(CtTypeReference::getTopLevelType);
+	}
+
+	/**
+	 * Removes the types of {@code units} and, afterwards, empty packages from
+	 * the model of {@code factory}. The removed types are added to
+	 * {@code removed}.
+	 */
+	private static void remove(final Factory factory,
+			final Set<CompilationUnit> units,
+			final List<CtType<?>> removed) {
+		final Set<CtPackage> packages = identitySet();
+		for (final CompilationUnit unit : units) {
+			for (final CtType<?> type :
+					new ArrayList<>(unit.getDeclaredTypes())) {
+				packages.add(type.getPackage());
+				type.delete();
+				removed.add(type);
+			}
+		}
+		factory.CompilationUnit().getMap().values().removeIf(units::contains);
+		final CtPackage root = factory.getModel().getRootPackage();
+		for (CtPackage pkg : packages) {
+			while (pkg != null && pkg != root && pkg.getTypes().isEmpty()
+					&& pkg.getPackages().isEmpty()) {
+				final CtPackage parent = pkg.getDeclaringPackage();
+				pkg.delete();
+				pkg = parent;
+			}
+		}
+	}
+
+	/**
+	 * Parses {@code toParse} into the model of {@code factory} and updates
+	 * the bytecode of the parsed types in {@link #binaries}. The types of all
+	 * other compilation units of the model are read from {@link #binaries}.
+	 * Otherwise, they would be unknown to the compiler (noclasspath mode) and
+	 * references to them would not be resolved.
+	 */
+	private void parse(final Factory factory, final Set<Path> toParse)
+			throws IOException {
+		if (toParse.isEmpty()) {
+			return;
+		}
+		final spoon.compiler.Environment spoonEnv = factory.getEnvironment();
+		final String[] classpath = spoonEnv.getSourceClasspath();
+		final SpoonModelBuilder builder = new Launcher()
+				.createCompiler(factory);
+		toParse.stream()
+				.map(Path::toFile)
+				.filter(File::isFile)
+				.forEach(builder::addInputSource);
+		try {
+			builder.setSourceClasspath(binaries.toString());
+			builder.build();
+			compileBinaries(builder);
+		} finally {
+			// Keep the environment of the model as if built from scratch.
+			spoonEnv.setSourceClasspath(classpath);
+		}
+	}
+
+	/**
+	 * Compiles the input sources of {@code builder} to {@link #binaries}.
+	 * Creates {@link #binaries} if necessary.
+	 */
+	private void compileBinaries(final SpoonModelBuilder builder)
+			throws IOException {
+		if (binaries == null) {
+			binaries = Files.createTempDirectory("libvcs4j-spoon");
+		}
+		final long current = currentTimeMillis();
+		builder.setBinaryOutputDirectory(binaries.toFile());
+		// Returns false if there are compile errors, which is usual in
+		// noclasspath mode. The bytecode is generated anyway.
+		builder.compile(SpoonModelBuilder.InputType.FILES);
+		log.info("Bytecode compiled in {} milliseconds",
+				currentTimeMillis() - current);
+	}
+
+	/**
+	 * Deletes the bytecode of the top-level types {@code qualifiedNames}
+	 * (including their nested types) from {@link #binaries}.
+	 */
+	private void deleteBinariesOf(final Set<String> qualifiedNames)
+			throws IOException {
+		for (final String name : qualifiedNames) {
+			final int dot = name.lastIndexOf('.');
+			final Path dir = dot < 0 ? binaries : binaries.resolve(
+					name.substring(0, dot).replace('.', File.separatorChar));
+			final String simpleName = name.substring(dot + 1);
+			if (Files.isDirectory(dir)) {
+				try (DirectoryStream<Path> files = Files.newDirectoryStream(
+						dir, String.format("{%s.class,%s$*.class}",
+								simpleName, simpleName))) {
+					for (final Path file : files) {
+						Files.delete(file);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes {@link #binaries} (if any).
+	 */
+	private void deleteBinaries() {
+		if (binaries == null) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(binaries)) {
+			paths.sorted(Comparator.reverseOrder())
+					.map(Path::toFile)
+					.forEach(File::delete);
+		} catch (final IOException e) {
+			log.info("Unable to delete bytecode", e);
+		}
+		binaries = null;
+	}
+
+	/**
+	 * Spoon elements implement {@link Object#equals(Object)} by structure.
+	 */
+	private static <T> Set<T> identitySet() {
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	private static boolean isJavaFile(final VCSFile file) {
+		return file.getRelativePath().endsWith(".java");
+	}
+
+	private static boolean isPackageInfo(final VCSFile file) {
+		return file.toRelativePath().endsWith("package-info.java");
+	}
+
+	private static Path canonicalPathOf(final File file) throws IOException {
+		return file.getCanonicalFile().toPath();
 	}
 }
@@ -50,6 +50,22 @@ public abstract class CodeSmellDetector extends ElementExtractor {
 	 */
 	public abstract CodeSmell.Definition getDefinition();
 
+	/**
+	 * Returns whether this detector is unit-local, that is, whether the code
+	 * smells detected in a top-level type depend on the elements of this
+	 * type (and the declarations they reference) only. Unit-local detectors
+	 * yield the same code smells if each top-level type is scanned
+	 * separately, which allows {@link DetectionEngine} to split the model. The
+	 * default implementation returns {@code false}.
+	 *
+	 * @return
+	 * 		{@code true} if this detector is unit-local, {@code false}
+	 * 		otherwise.
+	 */
+	public boolean isUnitLocal() {
+		return false;
+	}
+
 	/**
 	 * Returns a copy of the code smells of this detector.
 	 *
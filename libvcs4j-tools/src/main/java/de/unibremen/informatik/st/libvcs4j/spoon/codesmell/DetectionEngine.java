@@ -0,0 +1,220 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.codesmell;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import de.unibremen.informatik.st.libvcs4j.spoon.ElementExtractor;
+import de.unibremen.informatik.st.libvcs4j.spoon.Environment;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * Runs several {@link CodeSmellDetector}s on the model of an
+ * {@link Environment} concurrently. Detectors are created with factories
+ * (see {@link #add(Function)}) because a detector is not threadsafe (see
+ * {@link de.unibremen.informatik.st.libvcs4j.spoon.Scanner}) and
+ * unit-local detectors (see {@link CodeSmellDetector#isUnitLocal()}) are
+ * instantiated once per chunk of top-level types. Detectors that are not
+ * unit-local scan the whole model in a task of their own.
+ *
+ * The detected code smells are merged deterministically: grouped by
+ * detector in the order the detectors have been added and, within a
+ * unit-local detector, ordered by the top-level types in the order they are
+ * visited by {@link spoon.reflect.visitor.CtScanner}.
+ *
+ * The model of the environment must not be modified while
+ * {@link #run()} is running. Detectors read the files of the revision of
+ * the environment with the engine of the revision (see
+ * {@link ElementExtractor#createRange(CtElement)}), which is not threadsafe.
+ * These reads are serialized on the environment. Thus, the engine must not
+ * be used by other threads (for instance, to proceed to the next revision)
+ * while {@link #run()} is running.
+ */
+@Slf4j
+public class DetectionEngine {
+
+	/**
+	 * The number of chunks per thread a unit-local detector is split into.
+	 * Allows to balance the load if types differ in size.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/**
+	 * Numbers the worker threads of all engines.
+	 */
+	private static final AtomicInteger threadCounter = new AtomicInteger();
+
+	/**
+	 * The environment to analyze.
+	 */
+	@Getter
+	@NonNull
+	private final Environment environment;
+
+	/**
+	 * The maximum number of threads.
+	 */
+	@Getter
+	private final int parallelism;
+
+	/**
+	 * Creates the detectors to run.
+	 */
+	private final List<Function<Environment, ? extends CodeSmellDetector>>
+			factories = new ArrayList<>();
+
+	/**
+	 * Creates a new engine that uses as many threads as processors are
+	 * available.
+	 *
+	 * @param environment
+	 * 		The environment to analyze.
+	 * @throws NullPointerException
+	 * 		If {@code environment} is {@code null}.
+	 */
+	public DetectionEngine(@NonNull final Environment environment)
+			throws NullPointerException {
+		this(environment, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new engine that uses at most {@code parallelism} threads.
+	 *
+	 * @param environment
+	 * 		The environment to analyze.
+	 * @param parallelism
+	 * 		The maximum number of threads ({@code > 0}).
+	 * @throws NullPointerException
+	 * 		If {@code environment} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code parallelism <= 0}.
+	 */
+	public DetectionEngine(@NonNull final Environment environment,
+			final int parallelism) throws NullPointerException,
+			IllegalArgumentException {
+		this.environment = environment;
+		this.parallelism = Validate.isPositive(parallelism,
+				"Parallelism <= 0");
+	}
+
+	/**
+	 * Adds a detector. {@code factory} is called with {@link #environment}
+	 * and must return a new detector on each call, for example,
+	 * {@code env -> new LongMethodDetector(env, 40)}.
+	 *
+	 * @param factory
+	 * 		Creates the detector to add.
+	 * @return
+	 * 		This engine.
+	 * @throws NullPointerException
+	 * 		If {@code factory} is {@code null}.
+	 */
+	public DetectionEngine add(@NonNull final Function<Environment,
+			? extends CodeSmellDetector> factory) throws NullPointerException {
+		factories.add(factory);
+		return this;
+	}
+
+	/**
+	 * Runs all detectors and returns the detected code smells (see
+	 * {@link DetectionEngine} for the order).
+	 *
+	 * @return
+	 * 		The detected code smells.
+	 * @throws InterruptedException
+	 * 		If the calling thread has been interrupted while waiting for the
+	 * 		detectors.
+	 * @throws RuntimeException
+	 * 		If a detector failed. The exception of the detector is rethrown.
+	 */
+	public List<CodeSmell> run() throws InterruptedException {
+		final long current = currentTimeMillis();
+		final List<CtType<?>> types = new ArrayList<>();
+		collectTypes(environment.getCtModel().getRootPackage(), types);
+		final int numChunks = Math.min(types.size(),
+				parallelism * CHUNKS_PER_THREAD);
+
+		final List<Callable<List<CodeSmell>>> tasks = new ArrayList<>();
+		for (final Function<Environment, ? extends CodeSmellDetector> factory
+				: factories) {
+			final CodeSmellDetector detector = factory.apply(environment);
+			if (detector.isUnitLocal() && numChunks > 1) {
+				for (int i = 0; i < numChunks; i++) {
+					final List<CtType<?>> chunk = types.subList(
+							i * types.size() / numChunks,
+							(i + 1) * types.size() / numChunks);
+					// Reuse `detector` for the first chunk.
+					final CodeSmellDetector chunkDetector = i == 0
+							? detector : factory.apply(environment);
+					tasks.add(() -> {
+						chunk.forEach(chunkDetector::scan);
+						return chunkDetector.getCodeSmells();
+					});
+				}
+			} else {
+				tasks.add(() -> {
+					detector.scan(environment.getCtModel());
+					return detector.getCodeSmells();
+				});
+			}
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				Math.max(1, Math.min(parallelism, tasks.size())),
+				runnable -> {
+					final Thread thread = new Thread(runnable,
+							"libvcs4j-detection-" +
+									threadCounter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		try {
+			final List<Future<List<CodeSmell>>> futures =
+					new ArrayList<>(tasks.size());
+			tasks.forEach(task -> futures.add(executor.submit(task)));
+			final List<CodeSmell> codeSmells = new ArrayList<>();
+			for (final Future<List<CodeSmell>> future : futures) {
+				codeSmells.addAll(future.get());
+			}
+			log.info("Ran {} detectors ({} tasks) in {} milliseconds",
+					factories.size(), tasks.size(),
+					currentTimeMillis() - current);
+			return codeSmells;
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Collects the top-level types of {@code pkg} and its subpackages in the
+	 * order they are visited by {@link spoon.reflect.visitor.CtScanner}
+	 * (subpackages first).
+	 */
+	private static void collectTypes(final CtPackage pkg,
+			final List<CtType<?>> types) {
+		pkg.getPackages().forEach(sub -> collectTypes(sub, types));
+		types.addAll(pkg.getTypes());
+	}
+}
@@ -8,12 +8,12 @@ import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Metric;
 import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Threshold;
 import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Thresholds;
 import de.unibremen.informatik.st.libvcs4j.spoon.metric.ATFD;
+import de.unibremen.informatik.st.libvcs4j.spoon.metric.ModelMetrics;
 import de.unibremen.informatik.st.libvcs4j.spoon.metric.NOA;
 import de.unibremen.informatik.st.libvcs4j.spoon.metric.TCC;
 import de.unibremen.informatik.st.libvcs4j.spoon.metric.WMC;
 import lombok.NonNull;
 import spoon.reflect.declaration.CtClass;
-import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtInterface;
 import spoon.reflect.declaration.CtType;
 
@@ -33,10 +33,14 @@ public class GodClassDetector extends CodeSmellDetector {
 	private final int atfdThreshold;
 	private final BigDecimal tccThreshold;
 
-	private final NOA noa = new NOA();
-	private final WMC wmc = new WMC();
-	private final ATFD atfd = new ATFD(getCache());
-	private final TCC tcc = new TCC(getCache());
+	/**
+	 * The metrics are gathered once per environment (see
+	 * {@link Environment#getMetrics()}).
+	 */
+	private final NOA noa;
+	private final WMC wmc;
+	private final ATFD atfd;
+	private final TCC tcc;
 
 	public GodClassDetector(@NonNull final Environment environment,
 			final int noaThreshold, final int wmcThreshold,
@@ -48,6 +52,11 @@ public class GodClassDetector extends CodeSmellDetector {
 		this.atfdThreshold = Validate.notNegative(atfdThreshold);
 		Validate.isTrue(tccThreshold.compareTo(BigDecimal.ZERO) >= 0);
 		this.tccThreshold = tccThreshold;
+		final ModelMetrics metrics = environment.getMetrics();
+		noa = metrics.getNoa();
+		wmc = metrics.getWmc();
+		atfd = metrics.getAtfd();
+		tcc = metrics.getTcc();
 	}
 
 	public GodClassDetector(@NonNull final Environment environment)
@@ -56,15 +65,6 @@ public class GodClassDetector extends CodeSmellDetector {
 				DEFAULT_ATFD_THRESHOLD, DEFAULT_TCC_THRESHOLD);
 	}
 
-	@Override
-	public void visitRoot(final CtElement element) {
-		noa.scan(element);
-		wmc.scan(element);
-		atfd.scan(element);
-		tcc.scan(element);
-		super.visitRoot(element);
-	}
-
 	@Override
 	public <T> void visitCtClass(final CtClass<T> ctClass) {
 		visitType(ctClass);
@@ -99,6 +99,11 @@ public class GodClassDetector extends CodeSmellDetector {
 			}
 	}
 
+	@Override
+	public boolean isUnitLocal() {
+		return true;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		final Threshold nth = new Threshold(
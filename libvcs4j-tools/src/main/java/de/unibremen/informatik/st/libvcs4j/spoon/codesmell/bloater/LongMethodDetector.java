@@ -62,6 +62,11 @@ public class LongMethodDetector extends CodeSmellDetector {
 
 	}
 
+	@Override
+	public boolean isUnitLocal() {
+		return true;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		final Threshold th = new Threshold(
@@ -10,7 +10,6 @@ import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Thresholds;
 import de.unibremen.informatik.st.libvcs4j.spoon.metric.NOP;
 import lombok.NonNull;
 import spoon.reflect.declaration.CtConstructor;
-import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtParameter;
@@ -24,25 +23,24 @@ public class LongParameterListDetector extends CodeSmellDetector {
 
 	private final int threshold;
 
-	private final NOP nop = new NOP();
+	/**
+	 * Is gathered once per environment (see
+	 * {@link Environment#getMetrics()}).
+	 */
+	private final NOP nop;
 
 	public LongParameterListDetector(@NonNull final Environment environment,
 			final int threshold) throws NullPointerException,
 			IllegalArgumentException {
 		super(environment);
 		this.threshold = Validate.notNegative(threshold);
+		nop = environment.getMetrics().getNop();
 	}
 
 	public LongParameterListDetector(Environment environment) {
 		this(environment, DEFAULT_THRESHOLD);
 	}
 
-	@Override
-	public void visitRoot(final CtElement element) {
-		nop.scan(element);
-		super.visitRoot(element);
-	}
-
 	@Override
 	public <T> void visitCtMethod(final CtMethod<T> method) {
 		visitExecutable(method);
@@ -65,6 +63,11 @@ public class LongParameterListDetector extends CodeSmellDetector {
 		}
 	}
 
+	@Override
+	public boolean isUnitLocal() {
+		return true;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		final Threshold th = new Threshold(
@@ -96,6 +96,11 @@ public class CommentsDetector extends CodeSmellDetector {
         }
     }
 
+    @Override
+    public boolean isUnitLocal() {
+        return true;
+    }
+
     @Override
     public CodeSmell.Definition getDefinition() {
         final Threshold rth = new Threshold(
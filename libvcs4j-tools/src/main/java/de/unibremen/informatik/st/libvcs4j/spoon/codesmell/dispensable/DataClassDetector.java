@@ -80,6 +80,11 @@ public class DataClassDetector extends CodeSmellDetector {
 		super.visitCtMethod(method);
 	}
 
+	@Override
+	public boolean isUnitLocal() {
+		return true;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		return new CodeSmell.Definition("Data Class", new Thresholds());
@@ -10,7 +10,6 @@ import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Thresholds;
 import de.unibremen.informatik.st.libvcs4j.spoon.metric.MCC;
 import lombok.NonNull;
 import spoon.reflect.code.CtSwitch;
-import spoon.reflect.declaration.CtElement;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,13 +21,18 @@ public class SwitchStatementDetector extends CodeSmellDetector {
 
     private final int mccThreshold;
 
-    private final MCC mcc = new MCC();
+    /**
+     * Is gathered once per environment (see
+     * {@link Environment#getMetrics()}).
+     */
+    private final MCC mcc;
 
     public SwitchStatementDetector(@NonNull final Environment environment,
             final int mccThreshold) throws NullPointerException,
             IllegalArgumentException {
         super(environment);
         this.mccThreshold = Validate.notNegative(mccThreshold);
+        mcc = environment.getMetrics().getMcc();
     }
 
     public SwitchStatementDetector(@NonNull final Environment environment)
@@ -36,12 +40,6 @@ public class SwitchStatementDetector extends CodeSmellDetector {
         this(environment, DEFAULT_MCC_THRESHOLD);
     }
 
-    @Override
-    public void visitRoot(final CtElement element) {
-        mcc.scan(element);
-        super.visitRoot(element);
-    }
-
     @Override
     public <S> void visitCtSwitch(CtSwitch<S> switchStatement) {
         super.visitCtSwitch(switchStatement);
@@ -61,6 +59,11 @@ public class SwitchStatementDetector extends CodeSmellDetector {
 
     }
 
+    @Override
+    public boolean isUnitLocal() {
+        return true;
+    }
+
     @Override
     public CodeSmell.Definition getDefinition() {
         final Threshold threshold = new Threshold(
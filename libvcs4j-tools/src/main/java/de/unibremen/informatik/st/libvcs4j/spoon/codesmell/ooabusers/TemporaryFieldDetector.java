@@ -93,6 +93,11 @@ public class TemporaryFieldDetector extends CodeSmellDetector {
                         executable, __ -> new HashSet<>()).add(field));
     }
 
+    @Override
+    public boolean isUnitLocal() {
+        return true;
+    }
+
     @Override
     public CodeSmell.Definition getDefinition() {
         return new CodeSmell.Definition("Temporary Field", new Thresholds());
@@ -0,0 +1,125 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import de.unibremen.informatik.st.libvcs4j.spoon.Scanner;
+import lombok.NonNull;
+import spoon.reflect.declaration.CtElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fuses several {@link Gatherer}s into a single traversal. Each visited
+ * element is entered by all gatherers before the traversal descends into the
+ * children of the element, and is finished by all gatherers in reverse order
+ * afterwards. Thus, the traversal adds no stack frames per gatherer and
+ * nesting level. Afterwards, the metrics of the gatherers are the same as if
+ * each gatherer had scanned the model separately (see
+ * {@link Gatherer#visitRoot(CtElement)}).
+ *
+ * The dependencies of a gatherer (for example, the {@link MCC} gatherer of a
+ * {@link WMC} gatherer) participate in the traversal as well and, therefore,
+ * must not be scanned separately.
+ */
+public class CompositeGatherer extends Scanner {
+
+	/**
+	 * The participating gatherers (including their dependencies) in the
+	 * order an element is entered by them.
+	 */
+	private final List<Gatherer<?>> gatherers;
+
+	/**
+	 * Whether a traversal is running.
+	 */
+	private boolean active = false;
+
+	/**
+	 * Creates a composite of the given gatherers and their dependencies (see
+	 * {@link Gatherer#dependencies()}).
+	 *
+	 * @param gatherers
+	 * 		The gatherers to fuse.
+	 * @throws NullPointerException
+	 * 		If {@code gatherers} is {@code null} or contains {@code null}.
+	 */
+	public CompositeGatherer(@NonNull final Collection<Gatherer<?>> gatherers)
+			throws NullPointerException {
+		final Set<Gatherer<?>> visited =
+				Collections.newSetFromMap(new IdentityHashMap<>());
+		final List<Gatherer<?>> postOrder = new ArrayList<>();
+		gatherers.forEach(g -> collect(g, visited, postOrder));
+		// A gatherer must enter an element before its dependencies, which
+		// finish (that is, store their metrics of) the element first.
+		Collections.reverse(postOrder);
+		this.gatherers = Collections.unmodifiableList(postOrder);
+	}
+
+	/**
+	 * Creates a composite of the given gatherers and their dependencies (see
+	 * {@link Gatherer#dependencies()}).
+	 *
+	 * @param gatherers
+	 * 		The gatherers to fuse.
+	 * @throws NullPointerException
+	 * 		If {@code gatherers} is {@code null} or contains {@code null}.
+	 */
+	public CompositeGatherer(@NonNull final Gatherer<?>... gatherers)
+			throws NullPointerException {
+		this(Arrays.asList(gatherers));
+	}
+
+	/**
+	 * Returns the participating gatherers (including their dependencies).
+	 *
+	 * @return
+	 * 		The participating gatherers.
+	 */
+	public List<Gatherer<?>> getGatherers() {
+		return gatherers;
+	}
+
+	@Override
+	public void visitRoot(final CtElement element) {
+		gatherers.forEach(Gatherer::beginFusion);
+		active = true;
+		try {
+			scan(element);
+		} finally {
+			active = false;
+			gatherers.forEach(Gatherer::endFusion);
+		}
+	}
+
+	@Override
+	public void scan(final CtElement element) {
+		if (!active) {
+			super.scan(element);
+		} else if (element != null) {
+			final Runnable[] exits = new Runnable[gatherers.size()];
+			for (int i = 0; i < exits.length; i++) {
+				exits[i] = gatherers.get(i).enter(element);
+			}
+			element.accept(this);
+			for (int i = exits.length - 1; i >= 0; i--) {
+				if (exits[i] != null) {
+					exits[i].run();
+				}
+			}
+		}
+	}
+
+	private static void collect(@NonNull final Gatherer<?> gatherer,
+			final Set<Gatherer<?>> visited,
+			final List<Gatherer<?>> postOrder) {
+		if (visited.add(gatherer)) {
+			gatherer.dependencies().forEach(d ->
+					collect(d, visited, postOrder));
+			postOrder.add(gatherer);
+		}
+	}
+}
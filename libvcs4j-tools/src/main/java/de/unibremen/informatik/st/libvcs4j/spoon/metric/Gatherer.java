@@ -11,8 +11,10 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.visitor.CtScanner;
 
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.BinaryOperator;
@@ -39,6 +41,20 @@ public abstract class Gatherer<T extends Number> extends Scanner {
 	 */
 	private final Map<CtElement, T> metrics = new IdentityHashMap<>();
 
+	/**
+	 * Whether this gatherer participates in a fused traversal (see
+	 * {@link CompositeGatherer}). If so, this gatherer does not descend into
+	 * the children of the visited elements itself.
+	 */
+	private boolean fused = false;
+
+	/**
+	 * Finishes the element that is currently entered in a fused traversal
+	 * (see {@link #enter(CtElement)}). Is {@code null} if the element has not
+	 * been visited with {@code visitNode}.
+	 */
+	private Runnable exit = null;
+
 	/**
 	 * Creates a gatherer with given cache (see {@link Scanner#cache}).
 	 *
@@ -53,9 +69,78 @@ public abstract class Gatherer<T extends Number> extends Scanner {
 
 	@Override
 	public void visitRoot(final CtElement element) {
+		reset();
+		super.visitRoot(element);
+	}
+
+	@Override
+	public void scan(final CtElement element) {
+		// The children of an element are visited by the fused traversal.
+		if (!fused) {
+			super.scan(element);
+		}
+	}
+
+	/**
+	 * Discards all gathered metrics. Subclasses that store further
+	 * information must call this method when overriding it.
+	 */
+	protected void reset() {
 		stack.clear();
 		metrics.clear();
-		super.visitRoot(element);
+	}
+
+	/**
+	 * Returns the gatherers whose metrics are read by this gatherer while
+	 * visiting an element (usually in a callback, see
+	 * {@link #visitNode(CtElement, Consumer, Consumer, BinaryOperator,
+	 * Number)}). A {@link CompositeGatherer} finishes an element with the
+	 * dependencies of a gatherer before the gatherer itself, such that their
+	 * metrics of the element are available in the callback. The default
+	 * implementation returns an empty list.
+	 *
+	 * @return
+	 * 		The gatherers this gatherer depends on.
+	 */
+	protected List<Gatherer<?>> dependencies() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Prepares this gatherer for a fused traversal. Discards all gathered
+	 * metrics.
+	 */
+	void beginFusion() {
+		reset();
+		fused = true;
+	}
+
+	/**
+	 * Finishes a fused traversal.
+	 */
+	void endFusion() {
+		fused = false;
+		exit = null;
+	}
+
+	/**
+	 * Visits {@code element} as part of a fused traversal without descending
+	 * into its children. The returned action must be run once the children
+	 * of {@code element} have been visited. It runs the callback of
+	 * {@code element} (if any) and stores the metric of {@code element}.
+	 *
+	 * @param element
+	 * 		The element to visit.
+	 * @return
+	 * 		The action that finishes {@code element}, or {@code null} if
+	 * 		{@code element} has not been visited with {@code visitNode}.
+	 */
+	Runnable enter(final CtElement element) {
+		exit = null;
+		element.accept(this);
+		final Runnable result = exit;
+		exit = null;
+		return result;
 	}
 
 	/**
@@ -151,15 +236,8 @@ public abstract class Gatherer<T extends Number> extends Scanner {
 			@NonNull final Consumer<E> superCall,
 			@NonNull final BinaryOperator<T> propagation,
 			@NonNull final T initValue) throws NullPointerException {
-		Validate.validateState(!metrics.containsKey(element),
-				"Element '%s' has already been visited", element);
-		stack.push(initValue);
-		superCall.accept(element);
-		final T metric = stack.pop();
-		metrics.put(element, metric);
-		if (!stack.isEmpty()) {
-			stack.push(propagation.apply(metric, stack.pop()));
-		}
+		gather(element, () -> superCall.accept(element), null, propagation,
+				initValue);
 	}
 
 	/**
@@ -193,10 +271,47 @@ public abstract class Gatherer<T extends Number> extends Scanner {
 			@NonNull final Consumer<E> callBack,
 			@NonNull final BinaryOperator<T> propagation,
 			@NonNull final T initValue) throws NullPointerException {
-		visitNode(element, __ -> {
-			superCall.accept(element);
-			callBack.accept(element);
-		}, propagation, initValue);
+		gather(element, () -> superCall.accept(element),
+				() -> callBack.accept(element), propagation, initValue);
+	}
+
+	/**
+	 * Implements {@link #visitNode(CtElement, Consumer, BinaryOperator,
+	 * Number)}. {@code descent} visits the children of {@code element} and
+	 * {@code callBack} (may be {@code null}) is called afterwards. In a fused
+	 * traversal, the children are visited by the traversal and finishing
+	 * {@code element} is deferred to {@link #exit}.
+	 */
+	private void gather(final CtElement element, final Runnable descent,
+			final Runnable callBack, final BinaryOperator<T> propagation,
+			final T initValue) {
+		Validate.validateState(!metrics.containsKey(element),
+				"Element '%s' has already been visited", element);
+		stack.push(initValue);
+		if (fused) {
+			Validate.validateState(exit == null,
+					"Element '%s' has already been entered", element);
+			exit = () -> finish(element, callBack, propagation);
+		} else {
+			descent.run();
+			finish(element, callBack, propagation);
+		}
+	}
+
+	/**
+	 * Calls {@code callBack} (if not {@code null}), stores the metric of
+	 * {@code element}, and propagates it to the parent of {@code element}.
+	 */
+	private void finish(final CtElement element, final Runnable callBack,
+			final BinaryOperator<T> propagation) {
+		if (callBack != null) {
+			callBack.run();
+		}
+		final T metric = stack.pop();
+		metrics.put(element, metric);
+		if (!stack.isEmpty()) {
+			stack.push(propagation.apply(metric, stack.pop()));
+		}
 	}
 
 	/**
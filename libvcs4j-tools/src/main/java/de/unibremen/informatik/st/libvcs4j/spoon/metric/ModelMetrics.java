@@ -0,0 +1,47 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import de.unibremen.informatik.st.libvcs4j.spoon.Cache;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import spoon.reflect.CtModel;
+
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * Gathers the metrics of this package for a {@link CtModel} in a single
+ * traversal (see {@link CompositeGatherer}). The gatherers of this class must
+ * not be scanned again, but may be read concurrently.
+ */
+@Slf4j
+@Getter
+public class ModelMetrics {
+
+	private final NOA noa = new NOA();
+	private final MCC mcc = new MCC();
+	private final WMC wmc = new WMC(mcc);
+	private final ATFD atfd;
+	private final TCC tcc;
+	private final NOM nom = new NOM();
+	private final NOP nop = new NOP();
+
+	/**
+	 * Gathers the metrics of {@code model}.
+	 *
+	 * @param model
+	 * 		The model to gather the metrics of.
+	 * @param cache
+	 * 		The cache that is used to speedup lookups.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public ModelMetrics(@NonNull final CtModel model,
+			@NonNull final Cache cache) throws NullPointerException {
+		atfd = new ATFD(cache);
+		tcc = new TCC(cache);
+		final long current = currentTimeMillis();
+		new CompositeGatherer(noa, wmc, atfd, tcc, nom, nop).scan(model);
+		log.info("Gathered metrics in {} milliseconds",
+				currentTimeMillis() - current);
+	}
+}
@@ -9,7 +9,6 @@ import spoon.reflect.code.CtFieldRead;
 import spoon.reflect.code.CtFieldWrite;
 import spoon.reflect.code.CtInvocation;
 import spoon.reflect.declaration.CtClass;
-import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtEnum;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtInterface;
@@ -60,9 +59,9 @@ public class TCC extends DecimalGatherer {
 	}
 
 	@Override
-	public void visitRoot(final CtElement element) {
+	protected void reset() {
+		super.reset();
 		typeInfo.clear();
-		super.visitRoot(element);
 	}
 
 	@Override
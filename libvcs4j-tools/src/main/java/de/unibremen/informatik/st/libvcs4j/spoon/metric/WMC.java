@@ -1,11 +1,14 @@
 package de.unibremen.informatik.st.libvcs4j.spoon.metric;
 
+import lombok.NonNull;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtEnum;
 import spoon.reflect.declaration.CtInterface;
 import spoon.reflect.declaration.CtType;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,7 +20,28 @@ public class WMC extends IntGatherer {
 	/**
 	 * Weight methods and constructors with their MCC metric.
 	 */
-	private final MCC mcc = new MCC();
+	private final MCC mcc;
+
+	/**
+	 * Creates a WMC gatherer with its own MCC gatherer.
+	 */
+	public WMC() {
+		this(new MCC());
+	}
+
+	/**
+	 * Creates a WMC gatherer that weights methods and constructors with the
+	 * metrics of {@code mcc}. Allows to share the MCC gatherer with others
+	 * (see {@link CompositeGatherer}).
+	 *
+	 * @param mcc
+	 * 		The MCC gatherer to use.
+	 * @throws NullPointerException
+	 * 		If {@code mcc} is {@code null}.
+	 */
+	public WMC(@NonNull final MCC mcc) throws NullPointerException {
+		this.mcc = mcc;
+	}
 
 	@Override
 	public String name() {
@@ -49,24 +73,35 @@ public class WMC extends IntGatherer {
 		super.visitRoot(element);
 	}
 
+	@Override
+	protected List<Gatherer<?>> dependencies() {
+		return Collections.singletonList(mcc);
+	}
+
 	@Override
 	public <T> void visitCtClass(final CtClass<T> ctClass) {
-		visitNode(ctClass, super::visitCtClass, (__, parent) -> parent,
-				mcc.metricOf(ctClass).map(i -> i - 1)
-				.orElseThrow(IllegalStateException::new));
+		visitNode(ctClass, super::visitCtClass, this::visitType,
+				(__, parent) -> parent, 0);
 	}
 
 	@Override
 	public <T> void visitCtInterface(final CtInterface<T> ctInterface) {
-		visitNode(ctInterface, super::visitCtInterface, (__, parent) -> parent,
-				mcc.metricOf(ctInterface).map(i -> i - 1)
-				.orElseThrow(IllegalStateException::new));
+		visitNode(ctInterface, super::visitCtInterface, this::visitType,
+				(__, parent) -> parent, 0);
 	}
 
 	@Override
 	public <T extends Enum<?>> void visitCtEnum(final CtEnum<T> ctEnum) {
-		visitNode(ctEnum, super::visitCtEnum, (__, parent) -> parent,
-				mcc.metricOf(ctEnum).map(i -> i - 1)
+		visitNode(ctEnum, super::visitCtEnum, this::visitType,
+				(__, parent) -> parent, 0);
+	}
+
+	/**
+	 * Sets the metric of {@code type} once {@link #mcc} has gathered the
+	 * metric of {@code type}.
+	 */
+	private void visitType(final CtType type) {
+		set(mcc.metricOf(type).map(i -> i - 1)
 				.orElseThrow(IllegalStateException::new));
 	}
 }
@@ -0,0 +1,116 @@
+package de.unibremen.informatik.st.libvcs4j.spoon;
+
+import org.junit.Test;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheTest {
+
+	@Test
+	public void resolveOncePerKey() {
+		CtType type = mock(CtType.class);
+		CtTypeReference reference = reference("A", type);
+		Cache cache = new Cache();
+
+		assertThat(cache.getOrResolve(reference)).containsSame(type);
+		assertThat(cache.getOrResolve(reference)).containsSame(type);
+		assertThat(cache.getOrResolve((CtTypeReference) null)).isEmpty();
+		verify(reference, times(1)).getDeclaration();
+
+		Cache.Stats stats = cache.getStats();
+		assertThat(stats.getHits()).isEqualTo(1);
+		assertThat(stats.getMisses()).isEqualTo(1);
+		assertThat(stats.getSize()).isEqualTo(1);
+		assertThat(stats.getHitRate()).isEqualTo(0.5);
+	}
+
+	@Test
+	public void unresolvedReferences() {
+		CtTypeReference reference = reference("A", null);
+
+		Cache cache = new Cache();
+		assertThat(cache.getOrResolve(reference)).isEmpty();
+		assertThat(cache.getOrResolve(reference)).isEmpty();
+		verify(reference, times(1)).getDeclaration();
+
+		Cache noNegatives = new Cache(false);
+		assertThat(noNegatives.getOrResolve(reference)).isEmpty();
+		assertThat(noNegatives.getOrResolve(reference)).isEmpty();
+		verify(reference, times(3)).getDeclaration();
+		assertThat(noNegatives.getStats().getSize()).isZero();
+	}
+
+	@Test
+	public void otherKeysDoNotBlock() throws Exception {
+		CountDownLatch resolving = new CountDownLatch(1);
+		CompletableFuture<CtType> blocker = new CompletableFuture<>();
+		CtType a = mock(CtType.class);
+		CtTypeReference refA = mock(CtTypeReference.class);
+		when(refA.getQualifiedName()).thenReturn("A");
+		when(refA.getDeclaration()).thenAnswer(invocation -> {
+			resolving.countDown();
+			return blocker.join();
+		});
+		CtType b = mock(CtType.class);
+		CtTypeReference refB = reference("B", b);
+		Cache cache = new Cache();
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Optional<CtType>> first =
+					executor.submit(() -> cache.getOrResolve(refA));
+			assertThat(resolving.await(10, TimeUnit.SECONDS)).isTrue();
+			Future<Optional<CtType>> second =
+					executor.submit(() -> cache.getOrResolve(refA));
+
+			// `A` is being resolved, `B` must not wait for it.
+			assertThat(cache.getOrResolve(refB)).containsSame(b);
+			assertThat(first.isDone()).isFalse();
+
+			blocker.complete(a);
+			assertThat(first.get(10, TimeUnit.SECONDS)).containsSame(a);
+			assertThat(second.get(10, TimeUnit.SECONDS)).containsSame(a);
+			verify(refA, times(1)).getDeclaration();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void failuresAreNotCached() {
+		CtTypeReference reference = mock(CtTypeReference.class);
+		when(reference.getQualifiedName()).thenReturn("A");
+		when(reference.getDeclaration())
+				.thenThrow(new IllegalStateException());
+		Cache cache = new Cache();
+
+		assertThatThrownBy(() -> cache.getOrResolve(reference))
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> cache.getOrResolve(reference))
+				.isInstanceOf(IllegalStateException.class);
+		verify(reference, times(2)).getDeclaration();
+		assertThat(cache.getStats().getSize()).isZero();
+	}
+
+	private static CtTypeReference reference(String name, CtType type) {
+		CtTypeReference reference = mock(CtTypeReference.class);
+		when(reference.getQualifiedName()).thenReturn(name);
+		when(reference.getDeclaration()).thenReturn(type);
+		return reference;
+	}
+}
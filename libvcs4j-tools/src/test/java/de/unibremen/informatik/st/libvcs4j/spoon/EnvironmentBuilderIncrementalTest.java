@@ -0,0 +1,259 @@
+package de.unibremen.informatik.st.libvcs4j.spoon;
+
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import lombok.AllArgsConstructor;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtFieldReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EnvironmentBuilderIncrementalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	private Revision r1;
+	private Revision r2;
+	private EnvironmentBuilder builder;
+
+	@Before
+	public void setUp() throws IOException {
+		for (String name : Arrays.asList("A", "B", "C", "D")) {
+			copy("original-files", name);
+		}
+		r1 = revision("1");
+		r2 = revision("2");
+		builder = new EnvironmentBuilder();
+		builder.setIncremental(true);
+	}
+
+	@Test
+	public void changedAndDependentFilesAreReparsed() throws Exception {
+		Environment e1 = builder.update(range(null, r1));
+		CtModel model = e1.getCtModel();
+		CtType<?> a = type(model, "A");
+		CtType<?> b = type(model, "B");
+		CtType<?> c = type(model, "C");
+		assertThat(e1.getCache().getOrResolve(c.getReference()))
+				.containsSame(c);
+
+		copy("changed-files", "C");
+		copy("changed-files", "D");
+		Environment e2 = builder.update(range(r1, r2,
+				new Modify(r1, r2, "C.java"), new Modify(r1, r2, "D.java")));
+
+		assertThat(e2.getCtModel()).isSameAs(model);
+		assertThat(e2.getCache()).isSameAs(e1.getCache());
+		assertThat(model.getAllTypes()).hasSize(4);
+		// Unchanged and independent.
+		assertThat(type(model, "A")).isSameAs(a);
+		// Unchanged but references `C`.
+		assertThat(type(model, "B")).isNotSameAs(b);
+
+		CtType<?> newC = type(model, "C");
+		assertThat(newC).isNotSameAs(c);
+		assertThat(e2.getCache().getOrResolve(c.getReference()))
+				.containsSame(newC);
+		CtField<?> val = newC.getField("val");
+		assertThat(val.getType().getSimpleName()).isEqualTo("float");
+		List<CtFieldReference> refs = type(model, "B")
+				.getElements(new TypeFilter<>(CtFieldReference.class));
+		assertThat(refs).hasSize(1);
+		assertThat(refs.get(0).getDeclaration()).isSameAs(val);
+
+		CtType<?> d = type(model, "D");
+		assertThat(d.getFields()).hasSize(2);
+		assertThat(d.getMethodsByName("func")).hasSize(1);
+	}
+
+	@Test
+	public void fallbackToFullBuild() throws Exception {
+		CtModel model = builder.update(range(null, r1)).getCtModel();
+		copy("changed-files", "C");
+
+		// Not a successor of `r1`.
+		CtModel m2 = builder.update(range(null, r2,
+				new Modify(r1, r2, "C.java"))).getCtModel();
+		assertThat(m2).isNotSameAs(model);
+
+		// Too many files (`C` and `B`).
+		builder.setIncrementalThreshold(1);
+		CtModel m3 = builder.update(range(r2, r1,
+				new Modify(r2, r1, "C.java"))).getCtModel();
+		assertThat(m3).isNotSameAs(m2);
+		assertThat(type(m3, "C").getField("val").getType().getSimpleName())
+				.isEqualTo("float");
+	}
+
+	@Test
+	public void referencesToUnchangedFilesAreResolved() throws Exception {
+		CtModel model = builder.update(range(null, r1)).getCtModel();
+		CtType<?> a = type(model, "A");
+
+		copy("cross-file", "D");
+		builder.update(range(r1, r2, new Modify(r1, r2, "D.java")));
+
+		// `A` is passed to the compiler, but not added to the model again.
+		assertThat(model.getAllTypes()).hasSize(4);
+		assertThat(type(model, "A")).isSameAs(a);
+		assertThat(invocationTypes(type(model, "D")))
+				.containsExactly("int");
+		assertSameAsFullBuild(model);
+	}
+
+	@Test
+	public void referencesToAddedTypesAreResolved() throws Exception {
+		copy("cross-file", "G");
+		CtModel model = builder.update(range(null, r1)).getCtModel();
+		CtType<?> g = type(model, "G");
+
+		copy("cross-file", "H");
+		builder.update(range(r1, r2, new Add(r2, "H.java")));
+
+		assertThat(model.getAllTypes()).hasSize(6);
+		// Unchanged but references the added type `H`.
+		assertThat(type(model, "G")).isNotSameAs(g);
+		assertThat(invocationTypes(type(model, "G")))
+				.containsExactly("int");
+		assertSameAsFullBuild(model);
+	}
+
+	private void assertSameAsFullBuild(CtModel model) throws Exception {
+		CtModel full = new EnvironmentBuilder()
+				.update(range(null, r2))
+				.getCtModel();
+		assertThat(model.getAllTypes()).hasSameSizeAs(full.getAllTypes());
+		for (CtType<?> expected : full.getAllTypes()) {
+			CtType<?> actual = type(model, expected.getSimpleName());
+			assertThat(actual.toString()).isEqualTo(expected.toString());
+			assertThat(invocationTypes(actual))
+					.isEqualTo(invocationTypes(expected));
+		}
+	}
+
+	private static List<String> invocationTypes(CtType<?> type) {
+		return type.getElements(new TypeFilter<>(CtInvocation.class))
+				.stream()
+				.map(CtInvocation::getType)
+				.map(String::valueOf)
+				.collect(Collectors.toList());
+	}
+
+	private void copy(String dir, String name) throws IOException {
+		try (InputStream in = getClass().getResourceAsStream(
+				"/incremental/" + dir + "/" + name + ".java")) {
+			Files.copy(in, folder.getRoot().toPath().resolve(name + ".java"),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private Revision revision(String id) {
+		Revision revision = mock(Revision.class);
+		when(revision.getId()).thenReturn(id);
+		when(revision.getOutput()).thenReturn(folder.getRoot().toPath());
+		return revision;
+	}
+
+	private RevisionRange range(Revision predecessor, Revision revision,
+			FileChange... changes) {
+		RevisionRange range = mock(RevisionRange.class);
+		when(range.getRevision()).thenReturn(revision);
+		when(range.getPredecessorRevision())
+				.thenReturn(Optional.ofNullable(predecessor));
+		when(range.getFileChanges()).thenReturn(Arrays.asList(changes));
+		return range;
+	}
+
+	private static CtType<?> type(CtModel model, String name) {
+		return model.getAllTypes().stream()
+				.filter(t -> t.getSimpleName().equals(name))
+				.findFirst()
+				.orElseThrow(AssertionError::new);
+	}
+
+	@AllArgsConstructor
+	class FileMock implements VCSFile {
+		private final Revision revision;
+		private final String relPath;
+
+		@Override
+		public String getRelativePath() {
+			return relPath;
+		}
+
+		@Override
+		public Revision getRevision() {
+			return revision;
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			return revision.getVCSEngine();
+		}
+	}
+
+	@AllArgsConstructor
+	class Add implements FileChange {
+		private final Revision newRevision;
+		private final String relPath;
+
+		@Override
+		public Optional<VCSFile> getOldFile() {
+			return Optional.empty();
+		}
+
+		@Override
+		public Optional<VCSFile> getNewFile() {
+			return Optional.of(new FileMock(newRevision, relPath));
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			return newRevision.getVCSEngine();
+		}
+	}
+
+	@AllArgsConstructor
+	class Modify implements FileChange {
+		private final Revision oldRevision;
+		private final Revision newRevision;
+		private final String relPath;
+
+		@Override
+		public Optional<VCSFile> getOldFile() {
+			return Optional.of(new FileMock(oldRevision, relPath));
+		}
+
+		@Override
+		public Optional<VCSFile> getNewFile() {
+			return Optional.of(new FileMock(newRevision, relPath));
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			return newRevision.getVCSEngine();
+		}
+	}
+}
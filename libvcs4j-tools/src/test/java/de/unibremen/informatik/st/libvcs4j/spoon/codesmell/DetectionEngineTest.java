@@ -0,0 +1,144 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.codesmell;
+
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import de.unibremen.informatik.st.libvcs4j.spoon.Environment;
+import de.unibremen.informatik.st.libvcs4j.spoon.EnvironmentBuilder;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.bloater.GodClassDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.bloater.LongMethodDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.bloater.LongParameterListDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.coupler.CycleDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.dispensable.CommentsDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.dispensable.DataClassDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.ooabusers.SwitchStatementDetector;
+import de.unibremen.informatik.st.libvcs4j.testutils.ResourceExtractor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DetectionEngineTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<Function<Environment, ? extends CodeSmellDetector>>
+			factories = Arrays.asList(
+					GodClassDetector::new,
+					DataClassDetector::new,
+					env -> new LongMethodDetector(env, 4),
+					LongParameterListDetector::new,
+					CycleDetector::new,
+					SwitchStatementDetector::new,
+					CommentsDetector::new);
+
+	@Test
+	public void sameResultsAsSequentialScan() throws Exception {
+		Environment environment = createEnvironment();
+
+		List<CodeSmell> expected = new ArrayList<>();
+		for (Function<Environment, ? extends CodeSmellDetector> factory
+				: factories) {
+			CodeSmellDetector detector = factory.apply(environment);
+			detector.scan(environment.getCtModel());
+			expected.addAll(detector.getCodeSmells());
+		}
+		assertThat(expected).isNotEmpty();
+
+		for (int parallelism : Arrays.asList(1, 3, 16)) {
+			DetectionEngine engine = new DetectionEngine(environment,
+					parallelism);
+			factories.forEach(engine::add);
+			assertThat(keys(engine.run())).isEqualTo(keys(expected));
+		}
+	}
+
+	@Test
+	public void sameResultsWithGitEngine() throws Exception {
+		Path repository = new ResourceExtractor()
+				.extractTarGZ("gson/gson.tar.gz")
+				.resolve("gson");
+		VCSEngine vcs = VCSEngineBuilder
+				.ofGit(repository.toString())
+				.withTarget(folder.getRoot().toPath().resolve("target"))
+				.withFrom("c744ccd51cdea2e92b3e06abc44336943281cddd")
+				.withTo("c744ccd51cdea2e92b3e06abc44336943281cddd")
+				.build();
+		RevisionRange range = vcs.next().orElseThrow(AssertionError::new);
+		Environment environment = new EnvironmentBuilder().update(range);
+
+		// Run concurrently first such that files are read through the
+		// engine rather than its caches.
+		DetectionEngine engine = new DetectionEngine(environment, 16);
+		factories.forEach(engine::add);
+		List<CodeSmell> actual = engine.run();
+
+		List<CodeSmell> expected = new ArrayList<>();
+		for (Function<Environment, ? extends CodeSmellDetector> factory
+				: factories) {
+			CodeSmellDetector detector = factory.apply(environment);
+			detector.scan(environment.getCtModel());
+			expected.addAll(detector.getCodeSmells());
+		}
+		assertThat(expected).isNotEmpty();
+		assertThat(keys(actual)).isEqualTo(keys(expected));
+	}
+
+	@Test
+	public void detectorFailure() throws Exception {
+		DetectionEngine engine = new DetectionEngine(createEnvironment(), 2)
+				.add(DataClassDetector::new)
+				.add(env -> new DataClassDetector(env) {
+					@Override
+					public void visitRoot(final CtElement element) {
+						throw new IllegalStateException("failure");
+					}
+				});
+		assertThatThrownBy(engine::run)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("failure");
+	}
+
+	private Environment createEnvironment() throws Exception {
+		RevisionMock revision = new RevisionMock(folder);
+		revision.addFile(Paths.get("godclass", "GodClass.java"));
+		revision.addFile(Paths.get("dataclass", "Triple.java"));
+		revision.addFile(Paths.get("long_method",
+				"LongMethodWithComments.java"));
+		revision.addFile(Paths.get("lpl", "LongParameterList.java"));
+		revision.addFile(Paths.get("cycle", "Cycle.java"));
+		revision.addFile(Paths.get("comments", "Comments.java"));
+
+		RevisionRange revisionRange = mock(RevisionRange.class);
+		when(revisionRange.getRevision()).thenReturn(revision);
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(folder.getRoot().getAbsolutePath());
+		CtModel model = launcher.buildModel();
+		return new Environment(model, revisionRange);
+	}
+
+	private static List<String> keys(List<CodeSmell> codeSmells) {
+		return codeSmells.stream()
+				.map(cs -> cs.getDefinition().getName() + " " +
+						cs.getSignature().orElse("") + " " +
+						cs.getRanges())
+				.collect(Collectors.toList());
+	}
+}
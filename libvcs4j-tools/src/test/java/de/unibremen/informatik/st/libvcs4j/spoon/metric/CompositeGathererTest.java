@@ -0,0 +1,117 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.RevisionMock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtCase;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompositeGathererTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void sameMetricsAsSeparateScans() throws IOException {
+		CtModel model = buildModel();
+
+		NOA noa = new NOA();
+		MCC mcc = new MCC();
+		WMC wmc = new WMC(mcc);
+		ATFD atfd = new ATFD();
+		TCC tcc = new TCC();
+		NOM nom = new NOM();
+		NOP nop = new NOP();
+		new CompositeGatherer(noa, wmc, atfd, tcc, nom, nop).scan(model);
+
+		NOA sNoa = new NOA();
+		MCC sMcc = new MCC();
+		WMC sWmc = new WMC();
+		ATFD sAtfd = new ATFD();
+		TCC sTcc = new TCC();
+		NOM sNom = new NOM();
+		NOP sNop = new NOP();
+		sNoa.scan(model);
+		sMcc.scan(model);
+		sWmc.scan(model);
+		sAtfd.scan(model);
+		sTcc.scan(model);
+		sNom.scan(model);
+		sNop.scan(model);
+
+		List<CtType> types = model.getElements(new TypeFilter<>(CtType.class));
+		assertThat(types).isNotEmpty();
+		for (CtType type : types) {
+			assertThat(noa.NOAOf(type)).isEqualTo(sNoa.NOAOf(type));
+			assertThat(mcc.MCCOf(type)).isEqualTo(sMcc.MCCOf(type));
+			assertThat(wmc.WMCOf(type)).isEqualTo(sWmc.WMCOf(type));
+			assertThat(atfd.ATFDOf(type)).isEqualTo(sAtfd.ATFDOf(type));
+			assertThat(tcc.TCCOf(type)).isEqualTo(sTcc.TCCOf(type));
+			assertThat(nom.NOMOf(type)).isEqualTo(sNom.NOMOf(type));
+		}
+		List<CtExecutable> executables =
+				model.getElements(new TypeFilter<>(CtExecutable.class));
+		assertThat(executables).isNotEmpty();
+		for (CtExecutable executable : executables) {
+			assertThat(mcc.MCCOf(executable))
+					.isEqualTo(sMcc.MCCOf(executable));
+			assertThat(nop.NOPOf(executable))
+					.isEqualTo(sNop.NOPOf(executable));
+		}
+		List<CtCase> cases = model.getElements(new TypeFilter<>(CtCase.class));
+		assertThat(cases).isNotEmpty();
+		for (CtCase ctCase : cases) {
+			assertThat(mcc.MCCOf(ctCase)).isEqualTo(sMcc.MCCOf(ctCase));
+		}
+	}
+
+	@Test
+	public void dependenciesAreVisitedOnce() {
+		MCC mcc = new MCC();
+		WMC wmc = new WMC(mcc);
+		NOA noa = new NOA();
+		CompositeGatherer composite =
+				new CompositeGatherer(mcc, noa, wmc, wmc);
+
+		List<Gatherer<?>> gatherers = composite.getGatherers();
+		assertThat(gatherers).hasSize(3);
+		assertThat(gatherers.indexOf(wmc))
+				.isLessThan(gatherers.indexOf(mcc));
+	}
+
+	@Test
+	public void rescan() throws IOException {
+		CtModel model = buildModel();
+		WMC wmc = new WMC();
+		CompositeGatherer composite = new CompositeGatherer(wmc);
+		composite.scan(model);
+		composite.scan(model);
+
+		WMC sWmc = new WMC();
+		sWmc.scan(model);
+		for (CtType type : model.getElements(new TypeFilter<>(CtType.class))) {
+			assertThat(wmc.WMCOf(type)).isEqualTo(sWmc.WMCOf(type));
+		}
+	}
+
+	private CtModel buildModel() throws IOException {
+		RevisionMock revision = new RevisionMock(folder);
+		revision.addFile(Paths.get("godclass", "GodClass.java"));
+		revision.addFile(Paths.get("switch-statement", "A.java"));
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(folder.getRoot().getAbsolutePath());
+		return launcher.buildModel();
+	}
+}
@@ -0,0 +1,6 @@
+public class D {
+
+	int sum() {
+		return new A().func(1, 2);
+	}
+}
@@ -0,0 +1,6 @@
+public class G {
+
+	int get(H h) {
+		return h.value();
+	}
+}
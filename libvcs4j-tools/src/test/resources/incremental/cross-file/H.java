@@ -0,0 +1,6 @@
+public class H {
+
+	int value() {
+		return 0;
+	}
+}
@@ -1,9 +1,14 @@
 package de.unibremen.informatik.st.libvcs4j;
 
+import de.unibremen.informatik.st.libvcs4j.engine.AbstractITEngine;
+import de.unibremen.informatik.st.libvcs4j.engine.CachingITEngine;
 import de.unibremen.informatik.st.libvcs4j.github.GithubEngine;
 import de.unibremen.informatik.st.libvcs4j.gitlab.GitlabEngine;
+import org.kohsuke.github.GitHubBuilder;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 @SuppressWarnings({"WeakerAccess", "unused"})
 public class ITEngineBuilder {
@@ -26,6 +31,16 @@ public class ITEngineBuilder {
 
 	private String token;
 
+	private boolean cache = false;
+
+	private int cacheCapacity = CachingITEngine.DEFAULT_CAPACITY;
+
+	private Duration cacheTTL = CachingITEngine.DEFAULT_TTL;
+
+	private Path cacheStore;
+
+	private IssueIdParser issueIdParser = IssueIdParser.DEFAULT;
+
 	////////////////////////////// Constructors ///////////////////////////////
 
 	public ITEngineBuilder(final String pRepository) {
@@ -90,7 +105,50 @@ public class ITEngineBuilder {
 		return this;
 	}
 
+	public ITEngineBuilder withIssueIdParser(final IssueIdParser pParser) {
+		issueIdParser = Validate.notNull(pParser);
+		return this;
+	}
+
+	public ITEngineBuilder withCache() {
+		cache = true;
+		return this;
+	}
+
+	public ITEngineBuilder withCacheCapacity(final int pCapacity) {
+		cacheCapacity = Validate.isPositive(pCapacity);
+		cache = true;
+		return this;
+	}
+
+	public ITEngineBuilder withCacheTTL(final Duration pTTL) {
+		cacheTTL = Validate.notNull(pTTL);
+		cache = true;
+		return this;
+	}
+
+	public ITEngineBuilder withCacheStore(final Path pStore) {
+		cacheStore = Validate.notNull(pStore);
+		cache = true;
+		return this;
+	}
+
 	public ITEngine build() throws IOException {
+		final AbstractITEngine itEngine = buildEngine();
+		itEngine.setIssueIdParser(issueIdParser);
+		if (!cache) {
+			return itEngine;
+		}
+		final CachingITEngine cachingEngine =
+				new CachingITEngine(itEngine, cacheCapacity);
+		cachingEngine.setTTL(cacheTTL);
+		if (cacheStore != null) {
+			cachingEngine.setStore(cacheStore);
+		}
+		return cachingEngine;
+	}
+
+	private AbstractITEngine buildEngine() throws IOException {
 		if (engine == Engine.GITLAB) {
 			if (token != null) {
 				return new GitlabEngine(host, repository, token);
@@ -99,7 +157,16 @@ public class ITEngineBuilder {
 						"Gitlab engine requires token");
 			}
 		} else if (engine == Engine.GITHUB) {
-			if (token != null) {
+			if (host != null) {
+				final GitHubBuilder builder =
+						new GitHubBuilder().withEndpoint(host);
+				if (token != null) {
+					builder.withOAuthToken(token);
+				} else if (username != null || password != null) {
+					builder.withPassword(username, password);
+				}
+				return new GithubEngine(builder.build(), repository);
+			} else if (token != null) {
 				return new GithubEngine(repository, token);
 			} else if (username != null || password != null) {
 				return new GithubEngine(repository, username, password);
@@ -1,6 +1,10 @@
 package de.unibremen.informatik.st.libvcs4j;
 
+import de.unibremen.informatik.st.libvcs4j.diff.DiffAlgorithm;
 import de.unibremen.informatik.st.libvcs4j.engine.AbstractIntervalVCSEngine;
+import de.unibremen.informatik.st.libvcs4j.engine.AbstractVSCEngine;
+import de.unibremen.informatik.st.libvcs4j.engine.ChangesCache;
+import de.unibremen.informatik.st.libvcs4j.engine.IssueResolver;
 import de.unibremen.informatik.st.libvcs4j.filesystem.SingleEngine;
 import de.unibremen.informatik.st.libvcs4j.git.GitEngine;
 import de.unibremen.informatik.st.libvcs4j.hg.HGEngine;
@@ -146,6 +150,53 @@ public class VCSEngineBuilder {
 	 */
 	private ITEngine itEngine = null;
 
+	/**
+	 * Stores whether revisions are served from the object database of the
+	 * VCS rather than being checked out.
+	 */
+	private boolean virtualWorktree = false;
+
+	/**
+	 * Stores whether only the changed files of a revision are written to the
+	 * working copy.
+	 */
+	private boolean incrementalCheckout = false;
+
+	/**
+	 * Stores whether the line information of files is carried forward.
+	 */
+	private boolean incrementalBlame = false;
+
+	/**
+	 * Stores the algorithm that is used to compute line changes ({@code null}
+	 * for the engine's default).
+	 */
+	private DiffAlgorithm diffAlgorithm = null;
+
+	/**
+	 * Stores the file of the persistent changes cache ({@code null} if
+	 * disabled).
+	 */
+	private Path changesCache = null;
+
+	/**
+	 * Stores the interval of the file index consistency check ({@code 0} if
+	 * disabled).
+	 */
+	private int fileIndexCheckInterval = 0;
+
+	/**
+	 * Stores the resolver used to look up issues in the background
+	 * ({@code null} if disabled).
+	 */
+	private IssueResolver issueResolver = null;
+
+	/**
+	 * Stores the factory of the created engines ({@code null} to use the
+	 * default factory).
+	 */
+	private VCSModelFactory modelFactory = null;
+
 	////////////////////////////// Constructors ///////////////////////////////
 
 	/**
@@ -549,11 +600,166 @@ public class VCSEngineBuilder {
 		return this;
 	}
 
+	/**
+	 * Enables the virtual worktree mode. That is, revisions are not checked
+	 * out, but served straight from the object database of the VCS (see
+	 * {@link AbstractVSCEngine#setVirtualWorktree(boolean)}). Currently, only
+	 * {@link GitEngine} supports this mode.
+	 *
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withVirtualWorktree() {
+		virtualWorktree = true;
+		return this;
+	}
+
+	/**
+	 * Enables the incremental checkout mode. That is, after checking out the
+	 * first revision, only the files that have changed between two
+	 * consecutive revisions are written to the working copy (see
+	 * {@link AbstractVSCEngine#setIncrementalCheckout(boolean)}).
+	 *
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withIncrementalCheckout() {
+		incrementalCheckout = true;
+		return this;
+	}
+
+	/**
+	 * Enables the incremental blame mode. That is, the line information of a
+	 * file is computed with the underlying VCS once and, afterwards, is
+	 * updated with the line diff of the file (see
+	 * {@link AbstractVSCEngine#setIncrementalBlame(boolean)}).
+	 *
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withIncrementalBlame() {
+		incrementalBlame = true;
+		return this;
+	}
+
+	/**
+	 * Sets the algorithm that is used to compute the line changes of a file
+	 * change (see {@link AbstractVSCEngine#setDiffAlgorithm(DiffAlgorithm)}).
+	 *
+	 * @param diffAlgorithm
+	 * 		The algorithm to use.
+	 * @return
+	 * 		This builder.
+	 * @throws NullPointerException
+	 * 		If {@code diffAlgorithm} is {@code null}.
+	 */
+	public VCSEngineBuilder withDiffAlgorithm(
+			final DiffAlgorithm diffAlgorithm) throws NullPointerException {
+		this.diffAlgorithm = Validate.notNull(diffAlgorithm);
+		return this;
+	}
+
+	/**
+	 * Enables the persistent changes cache. That is, the changes between two
+	 * revisions and the metadata of commits are stored in {@code file} and
+	 * reused by subsequent runs on the same repository and root (see
+	 * {@link AbstractVSCEngine#setChangesCache(ChangesCache)}).
+	 *
+	 * @param file
+	 * 		The file to store the cache in.
+	 * @return
+	 * 		This builder.
+	 * @throws NullPointerException
+	 * 		If {@code file} is {@code null}.
+	 */
+	public VCSEngineBuilder withChangesCache(final Path file)
+			throws NullPointerException {
+		changesCache = Validate.notNull(file);
+		return this;
+	}
+
+	/**
+	 * Sets the interval of the file index consistency check. That is, the
+	 * files of every {@code interval}-th revision are listed from the working
+	 * copy instead of being derived from the files of the previous revision
+	 * (see {@link AbstractVSCEngine#setFileIndexCheckInterval(int)}).
+	 *
+	 * @param interval
+	 * 		The interval of the consistency check; {@code 0} to disable it.
+	 * @return
+	 * 		This builder.
+	 * @throws IllegalArgumentException
+	 * 		If {@code interval < 0}.
+	 */
+	public VCSEngineBuilder withFileIndexCheckInterval(final int interval)
+			throws IllegalArgumentException {
+		Validate.isTrue(interval >= 0, "Interval < 0");
+		fileIndexCheckInterval = interval;
+		return this;
+	}
+
+	/**
+	 * Enables the asynchronous lookup of issues (see
+	 * {@link AbstractVSCEngine#setIssueResolver(IssueResolver)}) with at
+	 * most {@code maxConcurrency} concurrent requests. Has no effect unless
+	 * an {@link ITEngine} is set (see {@link #withITEngine(ITEngine)}). All
+	 * engines created by this builder share the same resolver.
+	 *
+	 * @param maxConcurrency
+	 * 		The maximum number of concurrent requests.
+	 * @return
+	 * 		This builder.
+	 * @throws IllegalArgumentException
+	 * 		If {@code maxConcurrency <= 0}.
+	 */
+	public VCSEngineBuilder withAsyncIssues(final int maxConcurrency)
+			throws IllegalArgumentException {
+		issueResolver = new IssueResolver(maxConcurrency);
+		return this;
+	}
+
+	/**
+	 * Sets the resolver used to look up issues in the background (see
+	 * {@link AbstractVSCEngine#setIssueResolver(IssueResolver)}). Allows to
+	 * share a resolver, and therefore its concurrency limit, among multiple
+	 * builders. {@code null} values are permitted.
+	 *
+	 * @param resolver
+	 * 		The resolver; {@code null} to look up issues synchronously.
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withIssueResolver(final IssueResolver resolver) {
+		issueResolver = resolver;
+		return this;
+	}
+
+	/**
+	 * Sets the factory used by the created engines to instantiate model
+	 * elements (see {@link VCSEngine#setModelFactory(VCSModelFactory)}). For
+	 * instance, use a {@link LeanVCSModelFactory} to reduce the memory
+	 * footprint of revisions that are kept alive. {@code null} values are
+	 * permitted and select the default factory.
+	 *
+	 * @param factory
+	 * 		The factory to use.
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withModelFactory(final VCSModelFactory factory) {
+		modelFactory = factory;
+		return this;
+	}
+
 	/**
 	 * Creates the engine.
 	 *
 	 * @return
 	 * 		The created engine.
+	 * @throws UnsupportedOperationException
+	 * 		If the virtual worktree mode is enabled (see
+	 * 		{@link #withVirtualWorktree()}), but not supported by the
+	 * 		configured engine.
 	 */
 	public VCSEngine build() {
 		final VCSEngine vcsEngine;
@@ -659,9 +865,35 @@ public class VCSEngineBuilder {
 			Runtime.getRuntime().addShutdownHook(new DeleteTask(target));
 		}
 
+		if (modelFactory != null) {
+			vcsEngine.setModelFactory(modelFactory);
+		}
 		if (itEngine != null) {
 			vcsEngine.setITEngine(itEngine);
 		}
+		if (virtualWorktree) {
+			((AbstractVSCEngine) vcsEngine).setVirtualWorktree(true);
+		}
+		if (incrementalCheckout) {
+			((AbstractVSCEngine) vcsEngine).setIncrementalCheckout(true);
+		}
+		if (incrementalBlame) {
+			((AbstractVSCEngine) vcsEngine).setIncrementalBlame(true);
+		}
+		if (diffAlgorithm != null) {
+			((AbstractVSCEngine) vcsEngine).setDiffAlgorithm(diffAlgorithm);
+		}
+		if (changesCache != null) {
+			((AbstractVSCEngine) vcsEngine).setChangesCache(
+					new ChangesCache(changesCache));
+		}
+		if (fileIndexCheckInterval > 0) {
+			((AbstractVSCEngine) vcsEngine).setFileIndexCheckInterval(
+					fileIndexCheckInterval);
+		}
+		if (issueResolver != null) {
+			((AbstractVSCEngine) vcsEngine).setIssueResolver(issueResolver);
+		}
 		return vcsEngine;
 	}
 
@@ -0,0 +1,197 @@
+package de.unibremen.informatik.st.libvcs4j.diff;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Computes the differences between two sequences of lines. Lines are
+ * identified by int ids (see {@link LineInterner}) such that comparing two
+ * lines is a single int comparison rather than a string comparison.
+ *
+ * Implementations must be stateless and thread-safe.
+ */
+public interface DiffAlgorithm {
+
+	/**
+	 * Computes the edits that transform {@code pA} into {@code pB}. The
+	 * returned edits are sorted in ascending order, do not overlap, and are
+	 * not adjacent to each other.
+	 *
+	 * @param pA
+	 * 		The ids of the old lines.
+	 * @param pB
+	 * 		The ids of the new lines.
+	 * @return
+	 * 		The edits that transform {@code pA} into {@code pB}.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	List<Edit> diff(int[] pA, int[] pB) throws NullPointerException;
+
+	/**
+	 * A region of the old sequence ({@code [beginA, endA)}) that is replaced
+	 * with a region of the new sequence ({@code [beginB, endB)}). A region
+	 * may be empty. That is, an edit with an empty old region inserts lines
+	 * and an edit with an empty new region deletes lines.
+	 */
+	final class Edit {
+
+		private final int beginA;
+
+		private final int endA;
+
+		private final int beginB;
+
+		private final int endB;
+
+		/**
+		 * Creates a new edit.
+		 *
+		 * @param pBeginA
+		 * 		The begin (inclusive) of the old region.
+		 * @param pEndA
+		 * 		The end (exclusive) of the old region.
+		 * @param pBeginB
+		 * 		The begin (inclusive) of the new region.
+		 * @param pEndB
+		 * 		The end (exclusive) of the new region.
+		 * @throws IllegalArgumentException
+		 * 		If any of the given arguments is negative or if a region ends
+		 * 		before it begins.
+		 */
+		public Edit(final int pBeginA, final int pEndA, final int pBeginB,
+				final int pEndB) throws IllegalArgumentException {
+			Validate.notNegative(pBeginA, "Begin of old region < 0");
+			Validate.notNegative(pBeginB, "Begin of new region < 0");
+			Validate.isTrue(pEndA >= pBeginA, "Invalid old region");
+			Validate.isTrue(pEndB >= pBeginB, "Invalid new region");
+			beginA = pBeginA;
+			endA = pEndA;
+			beginB = pBeginB;
+			endB = pEndB;
+		}
+
+		public int getBeginA() {
+			return beginA;
+		}
+
+		public int getEndA() {
+			return endA;
+		}
+
+		public int getBeginB() {
+			return beginB;
+		}
+
+		public int getEndB() {
+			return endB;
+		}
+
+		/**
+		 * Returns the number of deleted lines.
+		 *
+		 * @return
+		 * 		The number of deleted lines.
+		 */
+		public int getLengthA() {
+			return endA - beginA;
+		}
+
+		/**
+		 * Returns the number of inserted lines.
+		 *
+		 * @return
+		 * 		The number of inserted lines.
+		 */
+		public int getLengthB() {
+			return endB - beginB;
+		}
+
+		@Override
+		public boolean equals(final Object pObject) {
+			if (!(pObject instanceof Edit)) {
+				return false;
+			}
+			final Edit other = (Edit) pObject;
+			return beginA == other.beginA && endA == other.endA &&
+					beginB == other.beginB && endB == other.endB;
+		}
+
+		@Override
+		public int hashCode() {
+			return ((beginA * 31 + endA) * 31 + beginB) * 31 + endB;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Edit(a=[%d, %d), b=[%d, %d))",
+					beginA, endA, beginB, endB);
+		}
+
+		/**
+		 * Sorts the given edits, slides ambiguous edits down as far as
+		 * possible, and merges adjacent edits. Sliding an edit does not change
+		 * its size, but aligns the results with Git and JGit which prefer, for
+		 * instance, to insert "{@code }, empty line}" rather than
+		 * "{@code empty line, }}" after an existing {@code }}. Used by
+		 * implementations that produce edits in arbitrary order.
+		 *
+		 * @param pEdits
+		 * 		The edits to normalize.
+		 * @param pA
+		 * 		The ids of the old lines.
+		 * @param pB
+		 * 		The ids of the new lines.
+		 * @return
+		 * 		The normalized edits.
+		 */
+		static List<Edit> normalize(final List<Edit> pEdits, final int[] pA,
+				final int[] pB) {
+			final List<Edit> sorted = new ArrayList<>(pEdits.size());
+			pEdits.stream()
+					.filter(e -> e.getLengthA() > 0 || e.getLengthB() > 0)
+					.sorted(Comparator.comparingInt(Edit::getBeginA)
+							.thenComparingInt(Edit::getBeginB))
+					.forEach(sorted::add);
+
+			// Slide down, starting with the last edit.
+			int maxA = pA.length, maxB = pB.length;
+			for (int i = sorted.size() - 1; i >= 0; i--) {
+				final Edit edit = sorted.get(i);
+				int beginA = edit.beginA, endA = edit.endA;
+				int beginB = edit.beginB, endB = edit.endB;
+				while (endA < maxA && endB < maxB &&
+						pA[beginA] == pA[endA] && pB[beginB] == pB[endB]) {
+					beginA++;
+					endA++;
+					beginB++;
+					endB++;
+				}
+				if (beginA != edit.beginA) {
+					sorted.set(i, new Edit(beginA, endA, beginB, endB));
+				}
+				maxA = beginA;
+				maxB = beginB;
+			}
+
+			// Merge adjacent edits.
+			final List<Edit> edits = new ArrayList<>(sorted.size());
+			Edit last = null;
+			for (final Edit edit : sorted) {
+				if (last != null && last.endA == edit.beginA &&
+						last.endB == edit.beginB) {
+					last = new Edit(last.beginA, edit.endA,
+							last.beginB, edit.endB);
+					edits.set(edits.size() - 1, last);
+				} else {
+					last = edit;
+					edits.add(last);
+				}
+			}
+			return edits;
+		}
+	}
+}
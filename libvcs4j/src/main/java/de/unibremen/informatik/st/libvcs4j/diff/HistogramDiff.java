@@ -0,0 +1,269 @@
+package de.unibremen.informatik.st.libvcs4j.diff;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Implements the histogram diff algorithm as known from JGit and Git
+ * ({@code git diff --histogram}). The algorithm counts the occurrences of
+ * the lines of the old region, selects the longest common run of lines that
+ * contains the least frequent line as anchor, and recursively diffs the
+ * regions before and after the anchor. Preferring rare lines (for instance,
+ * method signatures rather than closing braces) usually yields diffs that
+ * are easier to read than the ones computed by {@link MyersDiff}. Regions
+ * whose lines all occur more than {@link #getMaxChainLength()} times are
+ * diffed with {@link MyersDiff}.
+ *
+ * The results are not necessarily minimal.
+ */
+public class HistogramDiff implements DiffAlgorithm {
+
+	/**
+	 * The default maximum number of occurrences of an anchor line.
+	 */
+	public static final int DEFAULT_MAX_CHAIN_LENGTH = 64;
+
+	/**
+	 * The maximum number of occurrences of an anchor line.
+	 */
+	private final int maxChainLength;
+
+	/**
+	 * Creates a new histogram diff with
+	 * {@link #DEFAULT_MAX_CHAIN_LENGTH}.
+	 */
+	public HistogramDiff() {
+		this(DEFAULT_MAX_CHAIN_LENGTH);
+	}
+
+	/**
+	 * Creates a new histogram diff with given maximum number of occurrences
+	 * of an anchor line.
+	 *
+	 * @param pMaxChainLength
+	 * 		The maximum number of occurrences of an anchor line
+	 * 		({@code > 0}).
+	 * @throws IllegalArgumentException
+	 * 		If {@code pMaxChainLength < 1}.
+	 */
+	public HistogramDiff(final int pMaxChainLength)
+			throws IllegalArgumentException {
+		maxChainLength = Validate.isPositive(pMaxChainLength,
+				"Max chain length < 1");
+	}
+
+	/**
+	 * Returns the maximum number of occurrences of an anchor line.
+	 *
+	 * @return
+	 * 		The maximum number of occurrences of an anchor line.
+	 */
+	public int getMaxChainLength() {
+		return maxChainLength;
+	}
+
+	@Override
+	public List<Edit> diff(@NonNull final int[] pA, @NonNull final int[] pB)
+			throws NullPointerException {
+		final List<Edit> edits = new ArrayList<>();
+		final Deque<int[]> regions = new ArrayDeque<>();
+		regions.push(new int[] { 0, pA.length, 0, pB.length });
+		while (!regions.isEmpty()) {
+			final int[] region = regions.pop();
+			if (region.length == 5) {
+				// Fallback.
+				MyersDiff.diff(pA, region[0], region[1], pB, region[2],
+						region[3], edits, regions);
+			} else {
+				diff(pA, region[0], region[1], pB, region[2], region[3],
+						edits, regions);
+			}
+		}
+		return Edit.normalize(edits, pA, pB);
+	}
+
+	/**
+	 * Diffs the region {@code [pBeginA, pEndA)} of {@code pA} with the region
+	 * {@code [pBeginB, pEndB)} of {@code pB}. Adds trivial results to
+	 * {@code pEdits}. Otherwise, the regions are divided at the selected
+	 * anchor and the resulting subregions are pushed to {@code pRegions}.
+	 * Regions that are to be diffed with {@link MyersDiff} are marked with a
+	 * fifth element.
+	 */
+	private void diff(final int[] pA, int pBeginA, int pEndA,
+			final int[] pB, int pBeginB, int pEndB, final List<Edit> pEdits,
+			final Deque<int[]> pRegions) {
+		// Skip common prefix.
+		while (pBeginA < pEndA && pBeginB < pEndB &&
+				pA[pBeginA] == pB[pBeginB]) {
+			pBeginA++;
+			pBeginB++;
+		}
+		// Skip common suffix.
+		while (pBeginA < pEndA && pBeginB < pEndB &&
+				pA[pEndA - 1] == pB[pEndB - 1]) {
+			pEndA--;
+			pEndB--;
+		}
+		if (pBeginA == pEndA || pBeginB == pEndB) {
+			if (pBeginA != pEndA || pBeginB != pEndB) {
+				pEdits.add(new Edit(pBeginA, pEndA, pBeginB, pEndB));
+			}
+			return;
+		}
+
+		final Histogram histogram = new Histogram(pA, pBeginA, pEndA);
+		int bestBeginA = -1, bestEndA = -1, bestBeginB = -1, bestEndB = -1;
+		int bestCount = maxChainLength + 1;
+		boolean tooManyOccurrences = false;
+
+		for (int b = pBeginB; b < pEndB; ) {
+			final int slot = histogram.find(pB[b]);
+			if (slot < 0) {
+				b++;
+				continue;
+			}
+			final int count = histogram.counts[slot];
+			if (count > maxChainLength) {
+				tooManyOccurrences = true;
+				b++;
+				continue;
+			}
+			if (count > bestCount) {
+				b++;
+				continue;
+			}
+			int nextB = b + 1;
+			for (int a = histogram.heads[slot]; a >= 0;
+					a = histogram.next[a - pBeginA]) {
+				int beginA = a, endA = a + 1, beginB = b, endB = b + 1;
+				int runCount = count;
+				while (beginA > pBeginA && beginB > pBeginB &&
+						pA[beginA - 1] == pB[beginB - 1]) {
+					beginA--;
+					beginB--;
+					runCount = Math.min(runCount,
+							histogram.count(pA[beginA]));
+				}
+				while (endA < pEndA && endB < pEndB &&
+						pA[endA] == pB[endB]) {
+					runCount = Math.min(runCount,
+							histogram.count(pA[endA]));
+					endA++;
+					endB++;
+				}
+				if (runCount < bestCount || (runCount == bestCount &&
+						endA - beginA > bestEndA - bestBeginA)) {
+					bestBeginA = beginA;
+					bestEndA = endA;
+					bestBeginB = beginB;
+					bestEndB = endB;
+					bestCount = runCount;
+				}
+				nextB = Math.max(nextB, endB);
+			}
+			b = nextB;
+		}
+
+		if (bestBeginA < 0) {
+			if (tooManyOccurrences) {
+				pRegions.push(new int[] {
+						pBeginA, pEndA, pBeginB, pEndB, 0 });
+			} else {
+				// Nothing in common.
+				pEdits.add(new Edit(pBeginA, pEndA, pBeginB, pEndB));
+			}
+			return;
+		}
+		pRegions.push(new int[] { bestEndA, pEndA, bestEndB, pEndB });
+		pRegions.push(new int[] {
+				pBeginA, bestBeginA, pBeginB, bestBeginB });
+	}
+
+	/**
+	 * Counts the occurrences of the lines of a region and chains the
+	 * positions of equal lines. Uses open addressing to avoid boxing.
+	 */
+	private static class Histogram {
+
+		/**
+		 * Slot -> line id.
+		 */
+		private final int[] ids;
+
+		/**
+		 * Slot -> number of occurrences ({@code 0} if the slot is free).
+		 */
+		private final int[] counts;
+
+		/**
+		 * Slot -> first position (absolute index).
+		 */
+		private final int[] heads;
+
+		/**
+		 * Relative index -> next position with the same line (absolute
+		 * index, {@code -1} if there is none).
+		 */
+		private final int[] next;
+
+		private final int mask;
+
+		private Histogram(final int[] pA, final int pBegin, final int pEnd) {
+			final int size = pEnd - pBegin;
+			final int capacity =
+					Integer.highestOneBit(Math.max(size, 1)) * 4;
+			ids = new int[capacity];
+			counts = new int[capacity];
+			heads = new int[capacity];
+			next = new int[size];
+			mask = capacity - 1;
+			// Iterate backwards to chain positions in ascending order.
+			for (int i = pEnd - 1; i >= pBegin; i--) {
+				final int slot = slotOf(pA[i]);
+				if (counts[slot] == 0) {
+					ids[slot] = pA[i];
+					next[i - pBegin] = -1;
+				} else {
+					next[i - pBegin] = heads[slot];
+				}
+				heads[slot] = i;
+				counts[slot]++;
+			}
+		}
+
+		/**
+		 * Returns the slot of the given id or the free slot the id belongs
+		 * to.
+		 */
+		private int slotOf(final int pId) {
+			int slot = (pId * 0x9E3779B9) & mask;
+			while (counts[slot] != 0 && ids[slot] != pId) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		/**
+		 * Returns the slot of the given id or {@code -1} if the id does not
+		 * occur.
+		 */
+		private int find(final int pId) {
+			final int slot = slotOf(pId);
+			return counts[slot] == 0 ? -1 : slot;
+		}
+
+		/**
+		 * Returns the number of occurrences of the given id.
+		 */
+		private int count(final int pId) {
+			final int slot = find(pId);
+			return slot < 0 ? 0 : counts[slot];
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package de.unibremen.informatik.st.libvcs4j.diff;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Splits texts into lines and maps each line to an int id such that equal
+ * lines (of all texts passed to the same interner) share the same id. Lines
+ * are hashed and compared in place, that is, without creating a
+ * {@link String} for each line. Strings are created on demand only (see
+ * {@link Lines#getLine(int)}).
+ *
+ * Lines are separated by {@code \n} or {@code \r\n}. The separators are not
+ * part of a line. In accordance with {@link String#split(String)}, trailing
+ * empty lines are discarded and a text without any separator consists of
+ * exactly one line (even if it is empty).
+ *
+ * This class is not thread-safe.
+ */
+public class LineInterner {
+
+	/**
+	 * Lines without any line.
+	 */
+	public static final Lines NO_LINES =
+			new Lines("", new int[0], new int[0], new int[0]);
+
+	/**
+	 * Slot -> id + 1 ({@code 0} if the slot is free).
+	 */
+	private int[] table = new int[64];
+
+	/**
+	 * Id -> text containing the first occurrence of the line.
+	 */
+	private String[] texts = new String[32];
+
+	/**
+	 * Id -> begin of the first occurrence of the line.
+	 */
+	private int[] begins = new int[32];
+
+	/**
+	 * Id -> end of the first occurrence of the line.
+	 */
+	private int[] ends = new int[32];
+
+	/**
+	 * Id -> hash of the line.
+	 */
+	private int[] hashes = new int[32];
+
+	/**
+	 * The number of distinct lines.
+	 */
+	private int size = 0;
+
+	/**
+	 * Splits the given text into lines and interns them.
+	 *
+	 * @param pText
+	 * 		The text to split.
+	 * @return
+	 * 		The interned lines of {@code pText}.
+	 * @throws NullPointerException
+	 * 		If {@code pText} is {@code null}.
+	 */
+	public Lines intern(@NonNull final String pText)
+			throws NullPointerException {
+		int numLines = 0;
+		int[] lineBegins = new int[16];
+		int[] lineEnds = new int[16];
+		int begin = 0;
+		final int length = pText.length();
+		for (int i = 0; i <= length; i++) {
+			if (i < length && pText.charAt(i) != '\n') {
+				continue;
+			}
+			if (i == length && numLines == 0) {
+				// No separator at all.
+				lineBegins[0] = 0;
+				lineEnds[0] = length;
+				numLines = 1;
+				break;
+			}
+			final int end = i < length && i > begin &&
+					pText.charAt(i - 1) == '\r' ? i - 1 : i;
+			if (numLines == lineBegins.length) {
+				lineBegins = Arrays.copyOf(lineBegins, numLines * 2);
+				lineEnds = Arrays.copyOf(lineEnds, numLines * 2);
+			}
+			lineBegins[numLines] = begin;
+			lineEnds[numLines] = end;
+			numLines++;
+			begin = i + 1;
+		}
+		// Discard trailing empty lines (if separated).
+		int nonEmpty = numLines;
+		while (numLines > 1 && nonEmpty > 0 &&
+				lineBegins[nonEmpty - 1] == lineEnds[nonEmpty - 1]) {
+			nonEmpty--;
+		}
+		final int[] ids = new int[nonEmpty];
+		for (int i = 0; i < nonEmpty; i++) {
+			ids[i] = intern(pText, lineBegins[i], lineEnds[i]);
+		}
+		return new Lines(pText, Arrays.copyOf(lineBegins, nonEmpty),
+				Arrays.copyOf(lineEnds, nonEmpty), ids);
+	}
+
+	/**
+	 * Interns a single line that has been split already. Ids are shared with
+	 * the lines of the texts passed to {@link #intern(String)}.
+	 *
+	 * @param pLine
+	 * 		The line to intern (without line separator).
+	 * @return
+	 * 		The id of {@code pLine}.
+	 * @throws NullPointerException
+	 * 		If {@code pLine} is {@code null}.
+	 */
+	public int internLine(@NonNull final String pLine)
+			throws NullPointerException {
+		return intern(pLine, 0, pLine.length());
+	}
+
+	/**
+	 * Returns the number of distinct lines interned so far.
+	 *
+	 * @return
+	 * 		The number of distinct lines interned so far.
+	 */
+	public int size() {
+		return size;
+	}
+
+	////////////////////////////////// Utils //////////////////////////////////
+
+	/**
+	 * Returns the id of the line {@code [pBegin, pEnd)} of {@code pText}.
+	 */
+	private int intern(final String pText, final int pBegin, final int pEnd) {
+		int hash = 0;
+		for (int i = pBegin; i < pEnd; i++) {
+			hash = 31 * hash + pText.charAt(i);
+		}
+		final int mask = table.length - 1;
+		int slot = (hash * 0x9E3779B9) >>> 7 & mask;
+		while (table[slot] != 0) {
+			final int id = table[slot] - 1;
+			if (hashes[id] == hash &&
+					ends[id] - begins[id] == pEnd - pBegin &&
+					texts[id].regionMatches(begins[id], pText, pBegin,
+							pEnd - pBegin)) {
+				return id;
+			}
+			slot = (slot + 1) & mask;
+		}
+		final int id = size++;
+		if (id == texts.length) {
+			texts = Arrays.copyOf(texts, id * 2);
+			begins = Arrays.copyOf(begins, id * 2);
+			ends = Arrays.copyOf(ends, id * 2);
+			hashes = Arrays.copyOf(hashes, id * 2);
+		}
+		texts[id] = pText;
+		begins[id] = pBegin;
+		ends[id] = pEnd;
+		hashes[id] = hash;
+		table[slot] = id + 1;
+		if (size * 2 > table.length) {
+			rehash();
+		}
+		return id;
+	}
+
+	/**
+	 * Doubles the size of {@link #table}.
+	 */
+	private void rehash() {
+		table = new int[table.length * 2];
+		final int mask = table.length - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = (hashes[id] * 0x9E3779B9) >>> 7 & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = id + 1;
+		}
+	}
+
+	/**
+	 * The interned lines of a text.
+	 */
+	public static final class Lines {
+
+		private final String text;
+
+		private final int[] begins;
+
+		private final int[] ends;
+
+		private final int[] ids;
+
+		private Lines(final String pText, final int[] pBegins,
+				final int[] pEnds, final int[] pIds) {
+			text = pText;
+			begins = pBegins;
+			ends = pEnds;
+			ids = pIds;
+		}
+
+		/**
+		 * Returns the number of lines.
+		 *
+		 * @return
+		 * 		The number of lines.
+		 */
+		public int size() {
+			return ids.length;
+		}
+
+		/**
+		 * Returns the ids of the lines. The returned array must not be
+		 * modified.
+		 *
+		 * @return
+		 * 		The ids of the lines.
+		 */
+		public int[] getIds() {
+			return ids;
+		}
+
+		/**
+		 * Returns the line (without line separator) at the given index.
+		 *
+		 * @param pIndex
+		 * 		The index of the line (starting with 0).
+		 * @return
+		 * 		The line at index {@code pIndex}.
+		 * @throws IndexOutOfBoundsException
+		 * 		If {@code pIndex < 0 || pIndex >= size()}.
+		 */
+		public String getLine(final int pIndex)
+				throws IndexOutOfBoundsException {
+			return text.substring(begins[pIndex], ends[pIndex]);
+		}
+	}
+}
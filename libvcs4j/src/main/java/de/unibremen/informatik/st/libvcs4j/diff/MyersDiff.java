@@ -0,0 +1,174 @@
+package de.unibremen.informatik.st.libvcs4j.diff;
+
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Implements the O(ND) difference algorithm of Eugene W. Myers ("An O(ND)
+ * Difference Algorithm and Its Variations", Algorithmica 1, 1986) with the
+ * linear space refinement described in section 4b of the paper. That is,
+ * instead of storing all furthest reaching paths, the algorithm searches
+ * the middle snake of a region in forward and reverse direction at the same
+ * time and divides the region at the middle snake. Common prefixes and
+ * suffixes of a region are skipped upfront. Regions are processed with an
+ * explicit stack, so large inputs do not overflow the call stack.
+ *
+ * The results are minimal with respect to the number of inserted and deleted
+ * lines.
+ */
+public class MyersDiff implements DiffAlgorithm {
+
+	@Override
+	public List<Edit> diff(@NonNull final int[] pA, @NonNull final int[] pB)
+			throws NullPointerException {
+		final List<Edit> edits = new ArrayList<>();
+		final Deque<int[]> regions = new ArrayDeque<>();
+		regions.push(new int[] { 0, pA.length, 0, pB.length });
+		while (!regions.isEmpty()) {
+			final int[] region = regions.pop();
+			diff(pA, region[0], region[1], pB, region[2], region[3],
+					edits, regions);
+		}
+		return Edit.normalize(edits, pA, pB);
+	}
+
+	/**
+	 * Diffs the region {@code [pBeginA, pEndA)} of {@code pA} with the region
+	 * {@code [pBeginB, pEndB)} of {@code pB}. Adds trivial results to
+	 * {@code pEdits}. Otherwise, the regions are divided at their middle
+	 * snake and the resulting subregions are pushed to {@code pRegions}.
+	 */
+	static void diff(final int[] pA, int pBeginA, int pEndA,
+			final int[] pB, int pBeginB, int pEndB, final List<Edit> pEdits,
+			final Deque<int[]> pRegions) {
+		// Skip common prefix.
+		while (pBeginA < pEndA && pBeginB < pEndB &&
+				pA[pBeginA] == pB[pBeginB]) {
+			pBeginA++;
+			pBeginB++;
+		}
+		// Skip common suffix.
+		while (pBeginA < pEndA && pBeginB < pEndB &&
+				pA[pEndA - 1] == pB[pEndB - 1]) {
+			pEndA--;
+			pEndB--;
+		}
+		if (pBeginA == pEndA || pBeginB == pEndB) {
+			if (pBeginA != pEndA || pBeginB != pEndB) {
+				pEdits.add(new Edit(pBeginA, pEndA, pBeginB, pEndB));
+			}
+			return;
+		}
+
+		final int[] split = middleSnake(
+				pA, pBeginA, pEndA, pB, pBeginB, pEndB);
+		if (split == null) {
+			// Nothing in common.
+			pEdits.add(new Edit(pBeginA, pEndA, pBeginB, pEndB));
+			return;
+		}
+		pRegions.push(new int[] { split[0], pEndA, split[1], pEndB });
+		pRegions.push(new int[] { pBeginA, split[0], pBeginB, split[1] });
+	}
+
+	/**
+	 * Searches the middle snake of the given regions and returns the point
+	 * (absolute indices {@code {x, y}}) at which the regions should be
+	 * divided. Returns {@code null} if the regions have no line in common.
+	 * The regions must not be empty and must not share a common prefix or
+	 * suffix.
+	 */
+	private static int[] middleSnake(final int[] pA, final int pBeginA,
+			final int pEndA, final int[] pB, final int pBeginB,
+			final int pEndB) {
+		final int n = pEndA - pBeginA;
+		final int m = pEndB - pBeginB;
+		final int maxD = (n + m + 1) / 2;
+		final int offset = maxD;
+		final int length = 2 * maxD + 2;
+		// Furthest reaching x per diagonal (forward and reverse).
+		final int[] forward = new int[length];
+		final int[] reverse = new int[length];
+		Arrays.fill(forward, -1);
+		Arrays.fill(reverse, -1);
+		forward[offset + 1] = 0;
+		reverse[offset + 1] = 0;
+		final int delta = n - m;
+		// If delta is odd, the forward path overlaps the reverse path.
+		final boolean front = (delta & 1) != 0;
+		// Offsets to skip diagonals that left the bounds.
+		int k1start = 0, k1end = 0, k2start = 0, k2end = 0;
+
+		for (int d = 0; d < maxD; d++) {
+			for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+				final int k1Offset = offset + k1;
+				int x1;
+				if (k1 == -d || (k1 != d &&
+						forward[k1Offset - 1] < forward[k1Offset + 1])) {
+					x1 = forward[k1Offset + 1];
+				} else {
+					x1 = forward[k1Offset - 1] + 1;
+				}
+				int y1 = x1 - k1;
+				while (x1 < n && y1 < m &&
+						pA[pBeginA + x1] == pB[pBeginB + y1]) {
+					x1++;
+					y1++;
+				}
+				forward[k1Offset] = x1;
+				if (x1 > n) {
+					k1end += 2;
+				} else if (y1 > m) {
+					k1start += 2;
+				} else if (front) {
+					final int k2Offset = offset + delta - k1;
+					if (k2Offset >= 0 && k2Offset < length &&
+							reverse[k2Offset] != -1 &&
+							x1 >= n - reverse[k2Offset]) {
+						return new int[] { pBeginA + x1, pBeginB + y1 };
+					}
+				}
+			}
+
+			for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+				final int k2Offset = offset + k2;
+				int x2;
+				if (k2 == -d || (k2 != d &&
+						reverse[k2Offset - 1] < reverse[k2Offset + 1])) {
+					x2 = reverse[k2Offset + 1];
+				} else {
+					x2 = reverse[k2Offset - 1] + 1;
+				}
+				int y2 = x2 - k2;
+				while (x2 < n && y2 < m &&
+						pA[pEndA - x2 - 1] == pB[pEndB - y2 - 1]) {
+					x2++;
+					y2++;
+				}
+				reverse[k2Offset] = x2;
+				if (x2 > n) {
+					k2end += 2;
+				} else if (y2 > m) {
+					k2start += 2;
+				} else if (!front) {
+					final int k1Offset = offset + delta - k2;
+					if (k1Offset >= 0 && k1Offset < length &&
+							forward[k1Offset] != -1) {
+						final int x1 = forward[k1Offset];
+						final int y1 = offset + x1 - k1Offset;
+						if (x1 >= n - x2) {
+							return new int[] {
+									pBeginA + x1, pBeginB + y1 };
+						}
+					}
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -1,14 +1,20 @@
 package de.unibremen.informatik.st.libvcs4j.engine;
 
 import de.unibremen.informatik.st.libvcs4j.ITEngine;
+import de.unibremen.informatik.st.libvcs4j.IssueIdParser;
 import de.unibremen.informatik.st.libvcs4j.ItModelFactory;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import lombok.NonNull;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 public abstract class AbstractITEngine implements ITEngine {
 
 	private final String repository;
 	private ItModelFactory modelFactory = new ItModelFactory() {};
+	private IssueIdParser issueIdParser = IssueIdParser.DEFAULT;
 
 	public AbstractITEngine(final String pRepository) {
 		this.repository = Validate.notEmpty(pRepository);
@@ -28,4 +34,61 @@ public abstract class AbstractITEngine implements ITEngine {
 	public void setModelFactory(@NonNull final ItModelFactory factory) {
 		modelFactory = factory;
 	}
+
+	/**
+	 * Returns the parser used by {@link #parseIssueIds(String)}.
+	 *
+	 * @return
+	 * 		The parser used by {@link #parseIssueIds(String)}.
+	 */
+	public IssueIdParser getIssueIdParser() {
+		return issueIdParser;
+	}
+
+	/**
+	 * Returns the reference styles (see {@link IssueIdParser.Style}) this
+	 * engine is able to resolve (see
+	 * {@link #setIssueIdParser(IssueIdParser)}). The default implementation
+	 * supports {@link IssueIdParser.Style#HASH} only.
+	 *
+	 * @return
+	 * 		The reference styles this engine is able to resolve.
+	 */
+	public Set<IssueIdParser.Style> getSupportedStyles() {
+		return EnumSet.of(IssueIdParser.Style.HASH);
+	}
+
+	/**
+	 * Sets the parser used by {@link #parseIssueIds(String)}. Allows, for
+	 * example, to recognize '!6' references of Gitlab merge requests in
+	 * addition to '#6' references. The styles of {@code pParser} must be
+	 * supported by this engine (see {@link #getSupportedStyles()}).
+	 *
+	 * @param pParser
+	 * 		The parser to use.
+	 * @throws NullPointerException
+	 * 		If {@code pParser} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pParser} recognizes a style that is not supported by
+	 * 		this engine.
+	 */
+	public void setIssueIdParser(@NonNull final IssueIdParser pParser)
+			throws NullPointerException, IllegalArgumentException {
+		final Set<IssueIdParser.Style> unsupported =
+				EnumSet.noneOf(IssueIdParser.Style.class);
+		unsupported.addAll(pParser.getStyles());
+		unsupported.removeAll(getSupportedStyles());
+		Validate.isTrue(unsupported.isEmpty(),
+				"Unsupported issue id styles: %s", unsupported);
+		issueIdParser = pParser;
+	}
+
+	/**
+	 * Returns the ids referenced by {@code pText} (see
+	 * {@link #setIssueIdParser(IssueIdParser)}).
+	 */
+	@Override
+	public List<String> parseIssueIds(final String pText) {
+		return issueIdParser.parse(pText);
+	}
 }
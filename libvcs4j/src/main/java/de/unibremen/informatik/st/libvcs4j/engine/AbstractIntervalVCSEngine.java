@@ -1,5 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j.engine;
 
+import com.google.common.collect.Iterators;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalIntervalException;
@@ -9,6 +10,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -125,6 +127,35 @@ public abstract class AbstractIntervalVCSEngine extends AbstractVSCEngine {
 		return revisions;
 	}
 
+	/**
+	 * Same as {@link #listRevisionsImpl()}, but yields the revisions of an
+	 * interval while retrieving them if the corresponding engine supports it
+	 * (see {@link #listRevisionsLazyImpl(LocalDateTime, LocalDateTime)} and
+	 * {@link #listRevisionsLazyImpl(String, String)}). A range interval stops
+	 * retrieving revisions after its end index.
+	 */
+	@Override
+	protected final Iterator<String> listRevisionsLazyImpl()
+			throws IOException {
+		final Iterator<String> revisions;
+		if (isDateTimeInterval()) {
+			revisions = listRevisionsLazyImpl(since, until);
+		} else if (isRevisionInterval()) {
+			revisions = listRevisionsLazyImpl(from, to);
+		} else if (isRangeInterval()) {
+			revisions = listRevisionsLazyImpl(
+					VCSEngineBuilder.DEFAULT_SINCE,
+					VCSEngineBuilder.DEFAULT_UNTIL);
+			IllegalReturnException.notNull(revisions);
+			Iterators.advance(revisions, startIdx);
+			return Iterators.limit(revisions, endIdx - startIdx);
+		} else {
+			return listRevisionsImpl().iterator();
+		}
+		IllegalReturnException.notNull(revisions);
+		return revisions;
+	}
+
 	private List<String> listRevisionsImpl(final int startIdx,
 			final int endIdx) throws IOException {
 		final List<String> revs = listRevisionsImpl(
@@ -147,4 +178,28 @@ public abstract class AbstractIntervalVCSEngine extends AbstractVSCEngine {
 	protected abstract LocalDateTime validateMapDateTime(LocalDateTime dt);
 
 	protected abstract String validateMapIntervalRevision(String revision);
+
+	/**
+	 * Returns a cursor over the revisions in the given datetime interval. The
+	 * default implementation iterates
+	 * {@link #listRevisionsImpl(LocalDateTime, LocalDateTime)}.
+	 */
+	protected Iterator<String> listRevisionsLazyImpl(final LocalDateTime since,
+			final LocalDateTime until) throws IOException {
+		final List<String> revisions = listRevisionsImpl(since, until);
+		IllegalReturnException.noNullElements(revisions);
+		return revisions.iterator();
+	}
+
+	/**
+	 * Returns a cursor over the revisions in the given revision interval. The
+	 * default implementation iterates
+	 * {@link #listRevisionsImpl(String, String)}.
+	 */
+	protected Iterator<String> listRevisionsLazyImpl(final String from,
+			final String to) throws IOException {
+		final List<String> revisions = listRevisionsImpl(from, to);
+		IllegalReturnException.noNullElements(revisions);
+		return revisions.iterator();
+	}
 }
@@ -1,8 +1,8 @@
 package de.unibremen.informatik.st.libvcs4j.engine;
 
-import bmsi.util.Diff;
 import com.ibm.icu.text.CharsetDetector;
 import com.ibm.icu.text.CharsetMatch;
+import de.unibremen.informatik.st.libvcs4j.BinaryFileException;
 import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.ITEngine;
@@ -15,11 +15,15 @@ import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.VCSModelFactory;
 import de.unibremen.informatik.st.libvcs4j.Validate;
+import de.unibremen.informatik.st.libvcs4j.diff.DiffAlgorithm;
+import de.unibremen.informatik.st.libvcs4j.diff.LineInterner;
+import de.unibremen.informatik.st.libvcs4j.diff.MyersDiff;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalReturnException;
 import lombok.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
@@ -30,15 +34,22 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -53,6 +64,12 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	private static final Logger log = LoggerFactory
 			.getLogger(AbstractVSCEngine.class);
 
+	/**
+	 * The default algorithm of {@link #computeDiff(FileChange)}.
+	 */
+	private static final DiffAlgorithm DEFAULT_DIFF_ALGORITHM =
+			new MyersDiff();
+
 	/* VCS related configurations. */
 	private final String repository;
 	private final String root;
@@ -60,18 +77,49 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 
 	/* External engines. */
 	private ITEngine itEngine = null;
+	/* Resolves issues in the background; `null` if disabled. */
+	private IssueResolver issueResolver = null;
 
 	/* Factories. */
 	private VCSModelFactory modelFactory = new VCSModelFactory() {};
 
+	/* Serve revisions from the VCS's object database (no checkout). */
+	private boolean virtualWorktree = false;
+
+	/* Update the working copy with the changes of a revision only. */
+	private boolean incrementalCheckout = false;
+
+	/* Shares the contents of files among revisions. */
+	private BlobCache blobCache = new BlobCache(BlobCache.DEFAULT_CAPACITY);
+
+	/* Computes the line changes of a file change. */
+	private DiffAlgorithm diffAlgorithm = DEFAULT_DIFF_ALGORITHM;
+
+	/* Carries line attribution forward; `null` if disabled. */
+	private IncrementalBlame incrementalBlame = null;
+
+	/* Persists changes and commit metadata among runs; `null` if disabled. */
+	private ChangesCache changesCache = null;
+
+	/* Full listing every n-th revision to verify `fileIndex`; 0 = never. */
+	private int fileIndexCheckInterval = 0;
+
 	/* Internal state of this engine. */
 	private int ordinal = 1;
 	private boolean initialized = false;
-	private List<String> revisions = null;
+	/* Revisions fetched from `revisionCursor` so far. */
+	private final List<String> revisions = new ArrayList<>();
+	/* Index of `revisions` for constant time membership checks. */
+	private final Set<String> revisionIndex = new HashSet<>();
+	/* Yields the remaining revisions; `null` if not initialized yet. */
+	private Iterator<String> revisionCursor = null;
+	private boolean revisionCursorExhausted = false;
 	private int revisionIdx = -1;
 	private String revision = null;
 	private Revision currentRevision = null;
 	private Path tmpOutputDir = null;
+	/* Sorted files (relative to `getOutput()`) of the current revision. */
+	private SortedSet<String> fileIndex = null;
 
 	public AbstractVSCEngine(
 	        final String pRepository, final String pRoot, final Path pTarget)
@@ -118,19 +166,40 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		Validate.validateState(revisionIdx >= 0, // just to be sure
 				"Attribute `revisionIdx` must not be negative");
 		// there are not more revisions available
-		if (revisionIdx >= revisions.size()) {
+		if (!fetchRevisions(revisionIdx + 1)) {
 			revisionIdx = revisions.size(); // prevent overflows
+			if (changesCache != null) {
+				changesCache.save();
+			}
 			return Optional.empty();
 		}
 
-		log.info("Checking out {} ({}/{})",
-				revisions.get(revisionIdx),
-				revisionIdx+1,
-				revisions.size());
-		checkoutImpl(revisions.get(revisionIdx));
+		// Changes computed for an incremental checkout are reused below.
+		Changes incrementalChanges = null;
+		if (virtualWorktree) {
+			log.info("Switching to {} ({}/{})",
+					revisions.get(revisionIdx),
+					revisionIdx+1,
+					numRevisionsToString());
+		} else if (incrementalCheckout && revisionIdx > 0) {
+			log.info("Updating to {} ({}/{})",
+					revisions.get(revisionIdx),
+					revisionIdx+1,
+					numRevisionsToString());
+			incrementalChanges = computeChanges(
+					revisions.get(revisionIdx - 1),
+					revisions.get(revisionIdx));
+			applyChanges(incrementalChanges, revisions.get(revisionIdx));
+		} else {
+			log.info("Checking out {} ({}/{})",
+					revisions.get(revisionIdx),
+					revisionIdx+1,
+					numRevisionsToString());
+			checkoutImpl(revisions.get(revisionIdx));
+		}
 		revision = revisions.get(revisionIdx);
 
-		if (!getOutput().toFile().exists()) {
+		if (!virtualWorktree && !getOutput().toFile().exists()) {
 			Validate.notEquals(getTarget(), getOutput());
 			log.info("Creating missing output directory");
 			Path closestParent = getOutput().getParent();
@@ -150,14 +219,24 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		// the first revision can only have additions
 		if (revisionIdx == 0) {
 			changes = new Changes();
-			listFilesInOutput().stream()
+			final Path output = getOutput();
+			resetFileIndex().stream()
+					.map(output::resolve)
 					.map(Path::toString)
 					.forEach(f -> changes.getAdded().add(f));
 		} else {
-			changes = createChangesImpl(getPreviousRevision(), revision);
+			changes = incrementalChanges != null
+					? incrementalChanges
+					: computeChanges(getPreviousRevision(), revision);
+			// Apply the changes before add-remove pairs of the same file
+			// (case-insensitive file systems) are mapped to modifications.
+			updateFileIndex(changes);
 			mapChanges(changes);
 		}
 		final RevisionRange range = createRevisionRange(changes);
+		if (incrementalBlame != null) {
+			incrementalBlame.update(range);
+		}
 		currentRevision = range.getRevision();
 		return Optional.of(range);
 	}
@@ -165,20 +244,66 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	@Override
 	public final byte[] readAllBytes(final VCSFile pFile) throws
             NullPointerException, IllegalArgumentException, IOException {
-		Validate.notNull(pFile);
-		final String rev = pFile.getRevision().getId();
+		return readEntry(pFile).getBytes();
+	}
+
+	@Override
+	public final Map<VCSFile, byte[]> readAllBytes(
+			final Collection<VCSFile> pFiles) throws NullPointerException,
+			IllegalArgumentException, IOException {
+		Validate.noNullElements(pFiles);
 		init();
-		Validate.isTrue(revisions.contains(rev));
-		if (revision != null && revision.equals(rev)) {
-			Validate.isTrue(pFile.toFile().isFile(),
-					"'%s' is not a file", pFile.toPath());
-			return Files.readAllBytes(pFile.toPath());
-		} else {
-			final byte[] bytes = readAllBytesImpl(
-					pFile.getRelativePath(), rev);
-			IllegalReturnException.notNull(bytes);
-			return bytes;
+
+		// Group the files that are not cached yet by revision.
+		final Map<VCSFile, BlobCache.Entry> entries = new HashMap<>();
+		final Map<String, List<VCSFile>> missing = new LinkedHashMap<>();
+		for (final VCSFile file : pFiles) {
+			final String rev = file.getRevision().getId();
+			Validate.isTrue(isRevision(rev));
+			if (!virtualWorktree && revision != null && revision.equals(rev)) {
+				entries.put(file, readEntry(file));
+			} else {
+				missing.computeIfAbsent(rev, __ -> new ArrayList<>())
+						.add(file);
+			}
+		}
+		for (final Map.Entry<String, List<VCSFile>> group :
+				missing.entrySet()) {
+			final String rev = group.getKey();
+			final List<String> paths = group.getValue().stream()
+					.map(VCSFile::getRelativePath)
+					.distinct()
+					.collect(Collectors.toList());
+			final Map<String, String> keys = createBlobKeys(paths, rev);
+			IllegalReturnException.notNull(keys);
+			final Map<String, BlobCache.Entry> path2Entry = new HashMap<>();
+			final List<String> read = new ArrayList<>();
+			for (final String path : paths) {
+				final String key = keys.get(path);
+				IllegalReturnException.notNull(key);
+				final Optional<BlobCache.Entry> cached = blobCache.get(key);
+				if (cached.isPresent()) {
+					path2Entry.put(path, cached.get());
+				} else {
+					read.add(path);
+				}
+			}
+			if (!read.isEmpty()) {
+				final Map<String, byte[]> bytes = readAllBytesImpl(read, rev);
+				IllegalReturnException.notNull(bytes);
+				for (final String path : read) {
+					final byte[] b = bytes.get(path);
+					IllegalReturnException.notNull(b);
+					path2Entry.put(path, blobCache.put(keys.get(path), b));
+				}
+			}
+			group.getValue().forEach(f ->
+					entries.put(f, path2Entry.get(f.getRelativePath())));
 		}
+
+		final Map<VCSFile, byte[]> contents = new LinkedHashMap<>();
+		pFiles.forEach(f -> contents.put(f, entries.get(f).getBytes()));
+		return contents;
 	}
 
 	@Override
@@ -187,9 +312,19 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		Validate.notNull(pFile);
 		final String rev = pFile.getRevision().getId();
 		init();
-		Validate.isTrue(revisions.contains(rev));
+		Validate.isTrue(isRevision(rev));
+		if (incrementalBlame != null) {
+			final Optional<List<LineInfo>> cached =
+					incrementalBlame.get(pFile, this);
+			if (cached.isPresent()) {
+				return cached.get();
+			}
+		}
 		final List<LineInfo> lineInfo = readLineInfoImpl(pFile);
 		IllegalReturnException.noNullElements(lineInfo);
+		if (incrementalBlame != null) {
+			incrementalBlame.put(pFile, lineInfo);
+		}
 		return lineInfo;
 	}
 
@@ -200,7 +335,11 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 			public boolean hasNext() {
 				try {
 					init();
-					return (revisionIdx + 1) < revisions.size();
+					final boolean hasNext = fetchRevisions(revisionIdx + 2);
+					if (!hasNext && changesCache != null) {
+						changesCache.save();
+					}
+					return hasNext;
 				} catch (final IOException e) {
 					throw new UncheckedIOException(
 							"Unable to init engine", e);
@@ -228,45 +367,42 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	public List<LineChange> computeDiff(final FileChange fileChange)
 			throws NullPointerException, IOException {
 		Validate.notNull(fileChange);
-		final String LINE_SEPARATOR = "\\r?\\n";
 
+		final LineInterner interner = new LineInterner();
 		final Optional<VCSFile> oldFile = fileChange.getOldFile();
-		final String[] old = oldFile.isPresent()
-				? oldFile.get().readContent().split(LINE_SEPARATOR)
-				: new String[0];
+		final LineInterner.Lines old = oldFile.isPresent()
+				? interner.intern(oldFile.get().readContent())
+				: LineInterner.NO_LINES;
 		final Optional<VCSFile> nevFile = fileChange.getNewFile();
-		final String[] nev = nevFile.isPresent()
-				? nevFile.get().readContent().split(LINE_SEPARATOR)
-				: new String[0];
+		final LineInterner.Lines nev = nevFile.isPresent()
+				? interner.intern(nevFile.get().readContent())
+				: LineInterner.NO_LINES;
 
-		final Diff diff = new Diff(old, nev);
-		Diff.change change = diff.diff_2(false);
+		final List<DiffAlgorithm.Edit> edits =
+				getDiffAlgorithm().diff(old.getIds(), nev.getIds());
+		IllegalReturnException.noNullElements(edits);
 		final List<LineChange> lineChanges = new ArrayList<>();
-		while (change != null) {
-			final Diff.change c = change;
-			for (int i = 0; i < change.deleted; i++) {
-				final int line = c.line0 + i + 1;
+		for (final DiffAlgorithm.Edit edit : edits) {
+			for (int i = edit.getBeginA(); i < edit.getEndA(); i++) {
 				final LineChange lineChange =
 						getModelFactory().createLineChange(
-								LineChange.Type.DELETE, line, old[line - 1],
+								LineChange.Type.DELETE, i + 1, old.getLine(i),
 								oldFile.orElseThrow(() ->
 										new IllegalStateException(
 												"Missing old file.")),
 								this);
 				lineChanges.add(lineChange);
 			}
-			for (int i = 0; i < change.inserted; i++) {
-				final int line = c.line1 + i + 1;
+			for (int i = edit.getBeginB(); i < edit.getEndB(); i++) {
 				final LineChange lineChange =
 						getModelFactory().createLineChange(
-								LineChange.Type.INSERT, line, nev[line - 1],
+								LineChange.Type.INSERT, i + 1, nev.getLine(i),
 								nevFile.orElseThrow(() ->
 										new IllegalStateException(
 												"Missing new file.")),
 								this);
 				lineChanges.add(lineChange);
 			}
-			change = change.link;
 		}
 
 		return lineChanges;
@@ -282,21 +418,87 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		return Optional.ofNullable(itEngine);
 	}
 
+	/**
+	 * Sets the resolver used to look up the issues of commits (see
+	 * {@link #setITEngine(ITEngine)}) in the background. If set, the lookup
+	 * of the issues of a commit is submitted to the resolver when the commit
+	 * is created, and the engine proceeds without waiting for it;
+	 * {@link Commit#getIssues()} blocks until the issues are available. If the
+	 * queue of the resolver is full, the lookup runs in the thread that
+	 * creates the commit (see {@link IssueResolver}). If not set, the issues
+	 * of a commit are looked up while the commit is created. That is, the
+	 * engine does not return the next revision range before the issues of
+	 * all of its commits are available. The resolver may be shared among
+	 * multiple engines and is not closed by {@link #close()}.
+	 *
+	 * @param pResolver
+	 * 		The resolver to use; {@code null} to look up issues synchronously.
+	 */
+	public void setIssueResolver(final IssueResolver pResolver) {
+		issueResolver = pResolver;
+	}
+
+	/**
+	 * Returns the resolver used to look up issues in the background.
+	 *
+	 * @return
+	 * 		The resolver used to look up issues in the background.
+	 */
+	public Optional<IssueResolver> getIssueResolver() {
+		return Optional.ofNullable(issueResolver);
+	}
+
 	@Override
 	public Optional<Charset> guessCharset(final VCSFile file)
 			throws IOException {
-		final CharsetDetector detector = new CharsetDetector();
-		detector.setText(file.readAllBytes());
-		final CharsetMatch match = detector.detect();
-		Charset charset;
-		try {
-			charset = Optional.ofNullable(match)
-					.map(m -> Charset.forName(m.getName()))
-					.orElse(null);
-		} catch (final Exception e) {
-			charset = null;
+		final BlobCache.Entry entry = readEntry(file);
+		Optional<Charset> charset = entry.getCharset();
+		if (charset == null) {
+			final CharsetDetector detector = new CharsetDetector();
+			detector.setText(entry.getBytes());
+			final CharsetMatch match = detector.detect();
+			try {
+				charset = Optional.ofNullable(match)
+						.map(m -> Charset.forName(m.getName()));
+			} catch (final Exception e) {
+				charset = Optional.empty();
+			}
+			entry.setCharset(charset);
 		}
-		return Optional.ofNullable(charset);
+		return charset;
+	}
+
+	@Override
+	public String readContent(final VCSFile file) throws
+			NullPointerException, IOException {
+		Validate.notNull(file);
+		if (file.isBinary()) {
+			throw new BinaryFileException(String.format(
+					"'%s' is a binary file", file.getPath()));
+		}
+		final BlobCache.Entry entry = readEntry(file);
+		String content = entry.getContent();
+		if (content == null) {
+			final Charset charset = file.guessCharset()
+					.orElse(Charset.defaultCharset());
+			content = new String(entry.getBytes(), charset);
+			entry.setContent(content);
+		}
+		return content;
+	}
+
+	@Override
+	public VCSFile.LineIndex readLineIndex(final VCSFile file) throws
+			NullPointerException, IOException {
+		Validate.notNull(file);
+		final String content = file.readContent();
+		final BlobCache.Entry entry = readEntry(file);
+		VCSFile.LineIndex index = entry.getLineIndex();
+		if (index == null || index.getLength() != content.length()) {
+			index = VCSFile.LineIndex.of(content);
+			entry.setLineIndex(index);
+		}
+		return index;
 	}
 
 	@Override
@@ -310,6 +512,309 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		modelFactory = factory;
 	}
 
+	/**
+	 * Returns whether this engine serves revisions straight from the object
+	 * database of the underlying VCS rather than checking them out (see
+	 * {@link #setVirtualWorktree(boolean)}).
+	 *
+	 * @return
+	 * 		{@code true} if revisions are not checked out, {@code false}
+	 * 		otherwise.
+	 */
+	public boolean isVirtualWorktree() {
+		return virtualWorktree;
+	}
+
+	/**
+	 * Enables or disables the virtual worktree mode. If enabled,
+	 * {@link #next()} does not check out revisions. Instead, the files of a
+	 * revision are listed from the object database of the underlying VCS and
+	 * their contents are read on demand. Consequently, {@link #getOutput()}
+	 * may not exist and {@link VCSFile#toFile()} may point to files that do
+	 * not exist. Must be set before the first call of {@link #next()}.
+	 *
+	 * @param pVirtualWorktree
+	 * 		{@code true} to enable the virtual worktree mode, {@code false} to
+	 * 		disable it.
+	 * @throws UnsupportedOperationException
+	 * 		If {@code pVirtualWorktree} is {@code true}, but this engine does
+	 * 		not support the virtual worktree mode.
+	 * @throws IllegalStateException
+	 * 		If this engine has already been initialized.
+	 */
+	public void setVirtualWorktree(final boolean pVirtualWorktree)
+			throws UnsupportedOperationException, IllegalStateException {
+		if (pVirtualWorktree && !supportsVirtualWorktree()) {
+			throw new UnsupportedOperationException(String.format(
+					"%s does not support virtual worktrees",
+					getClass().getSimpleName()));
+		}
+		Validate.validateState(!initialized,
+				"Engine has already been initialized");
+		virtualWorktree = pVirtualWorktree;
+	}
+
+	/**
+	 * Returns whether this engine updates the working copy incrementally (see
+	 * {@link #setIncrementalCheckout(boolean)}).
+	 *
+	 * @return
+	 * 		{@code true} if only changed files are written, {@code false}
+	 * 		otherwise.
+	 */
+	public boolean isIncrementalCheckout() {
+		return incrementalCheckout;
+	}
+
+	/**
+	 * Enables or disables the incremental checkout mode. If enabled, only the
+	 * first revision is checked out with the underlying VCS. For all
+	 * subsequent revisions, {@link #next()} removes, relocates, and rewrites
+	 * the files that have changed (see {@link RevisionRange#getFileChanges()})
+	 * and leaves all other files untouched. Thus, the costs of switching to
+	 * the next revision depend on the number of changed files rather than on
+	 * the size of the tree. Keep in mind that files outside of
+	 * {@link #getOutput()} are not updated and that the metadata of the
+	 * working copy (e.g., the index of Git) no longer reflects the files on
+	 * disk. Has no effect in virtual worktree mode (see
+	 * {@link #setVirtualWorktree(boolean)}). Must be set before the first call
+	 * of {@link #next()}.
+	 *
+	 * @param pIncrementalCheckout
+	 * 		{@code true} to enable the incremental checkout mode, {@code false}
+	 * 		to disable it.
+	 * @throws IllegalStateException
+	 * 		If this engine has already been initialized.
+	 */
+	public void setIncrementalCheckout(final boolean pIncrementalCheckout)
+			throws IllegalStateException {
+		Validate.validateState(!initialized,
+				"Engine has already been initialized");
+		incrementalCheckout = pIncrementalCheckout;
+	}
+
+	/**
+	 * Returns whether the incremental blame mode is enabled.
+	 *
+	 * @return
+	 * 		{@code true} if the line information of files is carried forward,
+	 * 		{@code false} otherwise.
+	 */
+	public boolean isIncrementalBlame() {
+		return incrementalBlame != null;
+	}
+
+	/**
+	 * Enables or disables the incremental blame mode. If enabled, the line
+	 * information of a file (see {@link #readLineInfo(VCSFile)}) is computed
+	 * with the underlying VCS once and, afterwards, is carried forward from
+	 * one revision to the next. Files that have changed (see
+	 * {@link RevisionRange#getFileChanges()}) are updated with their line
+	 * diff, whereby inserted lines are attributed to the latest commit of a
+	 * range. Thus, reading the line information of all files of all revisions
+	 * becomes linear in the number of changes. Keep in mind that the lines
+	 * changed by a merge commit are attributed to the merge commit and that
+	 * lines are numbered according to {@link VCSFile#readLines()}. Line
+	 * information of files that do not belong to the current revision is not
+	 * carried forward. Must be set before the first call of {@link #next()}.
+	 *
+	 * @param pIncrementalBlame
+	 * 		{@code true} to enable the incremental blame mode, {@code false} to
+	 * 		disable it.
+	 * @throws IllegalStateException
+	 * 		If this engine has already been initialized.
+	 */
+	public void setIncrementalBlame(final boolean pIncrementalBlame)
+			throws IllegalStateException {
+		Validate.validateState(!initialized,
+				"Engine has already been initialized");
+		incrementalBlame = pIncrementalBlame ? new IncrementalBlame() : null;
+	}
+
+	/**
+	 * Returns the cache that stores the contents of the files read by this
+	 * engine.
+	 *
+	 * @return
+	 * 		The cache that stores the contents of files.
+	 */
+	public BlobCache getBlobCache() {
+		return blobCache;
+	}
+
+	/**
+	 * Sets the cache that stores the contents of the files read by this
+	 * engine (see {@link #readAllBytes(VCSFile)},
+	 * {@link #guessCharset(VCSFile)}, and {@link #readContent(VCSFile)}).
+	 * Engines processing the same repository may share a cache. Use a cache
+	 * with capacity 0 to disable caching.
+	 *
+	 * @param pBlobCache
+	 * 		The cache to use.
+	 * @throws NullPointerException
+	 * 		If {@code pBlobCache} is {@code null}.
+	 */
+	public void setBlobCache(@NonNull final BlobCache pBlobCache)
+			throws NullPointerException {
+		blobCache = pBlobCache;
+	}
+
+	/**
+	 * Returns the algorithm that is used to compute the line changes of a
+	 * file change (see {@link #computeDiff(FileChange)}).
+	 *
+	 * @return
+	 * 		The algorithm that is used to compute line changes.
+	 */
+	public DiffAlgorithm getDiffAlgorithm() {
+		return diffAlgorithm;
+	}
+
+	/**
+	 * Sets the algorithm that is used to compute the line changes of a file
+	 * change (see {@link #computeDiff(FileChange)}). Defaults to
+	 * {@link MyersDiff} which computes minimal diffs. Consider
+	 * {@link de.unibremen.informatik.st.libvcs4j.diff.HistogramDiff} for
+	 * diffs that are closer to the ones of {@code git diff --histogram}.
+	 *
+	 * @param pDiffAlgorithm
+	 * 		The algorithm to use.
+	 * @throws NullPointerException
+	 * 		If {@code pDiffAlgorithm} is {@code null}.
+	 */
+	public void setDiffAlgorithm(@NonNull final DiffAlgorithm pDiffAlgorithm)
+			throws NullPointerException {
+		diffAlgorithm = pDiffAlgorithm;
+	}
+
+	/**
+	 * Returns the persistent cache of changes and commit metadata, if any.
+	 *
+	 * @return
+	 * 		The persistent cache of changes and commit metadata.
+	 */
+	public Optional<ChangesCache> getChangesCache() {
+		return Optional.ofNullable(changesCache);
+	}
+
+	/**
+	 * Sets the persistent cache of changes and commit metadata. If set, the
+	 * changes between two revisions (see
+	 * {@link #createChangesImpl(String, String)}) and the metadata of commits
+	 * (see {@link #createCommitImpl(String, List, List)}) are looked up in the
+	 * cache before being computed with the underlying VCS. The cache is
+	 * loaded when this engine is initialized and saved when all revisions
+	 * have been processed or this engine is closed (see {@link #close()}).
+	 * Must be set before the first call of {@link #next()}.
+	 *
+	 * @param pChangesCache
+	 * 		The cache to use or {@code null} to disable caching.
+	 * @throws IllegalStateException
+	 * 		If this engine has already been initialized.
+	 */
+	public void setChangesCache(final ChangesCache pChangesCache)
+			throws IllegalStateException {
+		Validate.validateState(!initialized,
+				"Engine has already been initialized");
+		changesCache = pChangesCache;
+	}
+
+	/**
+	 * Returns the interval of the file index consistency check (see
+	 * {@link #setFileIndexCheckInterval(int)}).
+	 *
+	 * @return
+	 * 		The interval of the consistency check; {@code 0} if disabled.
+	 */
+	public int getFileIndexCheckInterval() {
+		return fileIndexCheckInterval;
+	}
+
+	/**
+	 * Sets the interval of the file index consistency check. The files of the
+	 * first revision are listed with {@link #listFilesInOutput()} (or
+	 * {@link #listFilesImpl(String)} in virtual worktree mode). For all
+	 * further revisions, the files are derived from the files of the previous
+	 * revision and the changes between both revisions. If {@code pInterval}
+	 * is positive, the files of every {@code pInterval}-th revision are
+	 * listed again, replacing (and, if necessary, fixing) the derived files.
+	 * Must be set before the first call of {@link #next()}.
+	 *
+	 * @param pInterval
+	 * 		The interval of the consistency check; {@code 0} to disable it.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pInterval < 0}.
+	 * @throws IllegalStateException
+	 * 		If this engine has already been initialized.
+	 */
+	public void setFileIndexCheckInterval(final int pInterval)
+			throws IllegalArgumentException, IllegalStateException {
+		Validate.isTrue(pInterval >= 0, "Interval < 0");
+		Validate.validateState(!initialized,
+				"Engine has already been initialized");
+		fileIndexCheckInterval = pInterval;
+	}
+
+	/**
+	 * Saves the persistent cache of changes and commit metadata (see
+	 * {@link #setChangesCache(ChangesCache)}) and the issue store of a
+	 * {@link CachingITEngine} (see {@link #setITEngine(ITEngine)}), if any.
+	 *
+	 * @throws IOException
+	 * 		If an error occurred while saving a cache.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (changesCache != null && initialized) {
+			changesCache.save();
+		}
+		if (itEngine instanceof CachingITEngine) {
+			((CachingITEngine) itEngine).save();
+		}
+	}
+
+	/**
+	 * Sets the ordinal of the first {@link RevisionRange} (see
+	 * {@link RevisionRange#getOrdinal()}). Used by
+	 * {@link ParallelRevisionWalker} whose engines process a slice of the
+	 * revisions only.
+	 *
+	 * @param pOrdinal
+	 * 		The ordinal of the first range ({@code >= 1}).
+	 * @throws IllegalArgumentException
+	 * 		If {@code pOrdinal < 1}.
+	 * @throws IllegalStateException
+	 * 		If this engine has already been initialized.
+	 */
+	void setOrdinal(final int pOrdinal) throws IllegalArgumentException,
+			IllegalStateException {
+		Validate.isPositive(pOrdinal, "Ordinal < 1");
+		Validate.validateState(!initialized,
+				"Engine has already been initialized");
+		ordinal = pOrdinal;
+	}
+
+	/**
+	 * Sets the revisions to process (see {@link #listRevisions()}) instead
+	 * of listing the revisions of the configured interval. Used by
+	 * {@link ParallelRevisionWalker} whose engines process a slice of the
+	 * revisions listed by another engine.
+	 *
+	 * @param pRevisions
+	 * 		The revisions to process.
+	 * @throws NullPointerException
+	 * 		If {@code pRevisions} is {@code null} or contains {@code null}.
+	 * @throws IllegalStateException
+	 * 		If this engine has already been initialized.
+	 */
+	void setRevisions(final List<String> pRevisions)
+			throws NullPointerException, IllegalStateException {
+		Validate.noNullElements(pRevisions);
+		Validate.validateState(!initialized,
+				"Engine has already been initialized");
+		revisionCursor = new ArrayList<>(pRevisions).iterator();
+	}
+
 	/**
 	 * Returns the revisions to process. If necessary, the first call of this
 	 * method initializes the repository---for instance, cloning the repository
@@ -322,6 +827,7 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	 */
 	public List<String> listRevisions() throws IOException {
 		init();
+		fetchRevisions(Integer.MAX_VALUE);
 		return new ArrayList<>(revisions);
 	}
 
@@ -353,6 +859,102 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		});
 	}
 
+	/**
+	 * Returns the cache entry of the given file. If necessary, the contents of
+	 * the file are read and added to {@link #blobCache}. Files of the current
+	 * revision are read from disk (unless the virtual worktree mode is
+	 * enabled) and keyed by revision and path, since computing their blob key
+	 * (see {@link #createBlobKey(String, String)}) may be more expensive than
+	 * reading them. All other files are read with
+	 * {@link #readAllBytesImpl(String, String)}.
+	 */
+	private BlobCache.Entry readEntry(final VCSFile pFile)
+			throws IOException {
+		Validate.notNull(pFile);
+		final String rev = pFile.getRevision().getId();
+		init();
+		Validate.isTrue(isRevision(rev));
+		final boolean fromDisk =
+				!virtualWorktree && revision != null && revision.equals(rev);
+		final String key = fromDisk
+				? rev + ":" + pFile.getRelativePath()
+				: createBlobKey(pFile.getRelativePath(), rev);
+		IllegalReturnException.notNull(key);
+		final Optional<BlobCache.Entry> cached = blobCache.get(key);
+		if (cached.isPresent()) {
+			return cached.get();
+		}
+
+		final byte[] bytes;
+		if (fromDisk) {
+			Validate.isTrue(pFile.toFile().isFile(),
+					"'%s' is not a file", pFile.toPath());
+			bytes = Files.readAllBytes(pFile.toPath());
+		} else {
+			bytes = readAllBytesImpl(pFile.getRelativePath(), rev);
+			IllegalReturnException.notNull(bytes);
+		}
+		return blobCache.put(key, bytes);
+	}
+
+	/**
+	 * Applies the given changes (see {@link #createChangesImpl(String,
+	 * String)}) to the files in {@link #getOutput()}. Removed and relocated
+	 * files are deleted first (including directories that become empty).
+	 * Afterwards, added, modified, and relocated files are written with the
+	 * contents they have in {@code pRevision}.
+	 */
+	private void applyChanges(final Changes pChanges, final String pRevision)
+			throws IOException {
+		final Path output = getOutput();
+		final List<Path> delete = new ArrayList<>();
+		final List<Path> write = new ArrayList<>();
+		pChanges.getRemoved().forEach(r -> delete.add(Paths.get(r)));
+		pChanges.getModified().forEach(m -> write.add(Paths.get(m)));
+		pChanges.getAdded().forEach(a -> write.add(Paths.get(a)));
+		pChanges.getRelocated().forEach(r -> {
+			delete.add(Paths.get(r.getKey()));
+			write.add(Paths.get(r.getValue()));
+		});
+
+		for (final Path path : delete) {
+			Validate.validateState(path.startsWith(output),
+					"'%s' is not located in '%s'", path, output);
+			Files.deleteIfExists(path);
+			Path dir = path.getParent();
+			while (dir != null && !dir.equals(getTarget()) &&
+					dir.startsWith(getTarget()) && Files.isDirectory(dir)) {
+				try (Stream<Path> list = Files.list(dir)) {
+					if (list.findAny().isPresent()) {
+						break;
+					}
+				}
+				Files.delete(dir);
+				dir = dir.getParent();
+			}
+		}
+		for (final Path path : write) {
+			Validate.validateState(path.startsWith(output),
+					"'%s' is not located in '%s'", path, output);
+		}
+		final List<String> paths = write.stream()
+				.map(output::relativize)
+				.map(Path::toString)
+				.collect(Collectors.toList());
+		final Map<String, byte[]> contents = paths.isEmpty()
+				? Collections.emptyMap()
+				: readAllBytesImpl(paths, pRevision);
+		IllegalReturnException.notNull(contents);
+		for (int i = 0; i < write.size(); i++) {
+			final byte[] bytes = contents.get(paths.get(i));
+			IllegalReturnException.notNull(bytes);
+			Files.createDirectories(write.get(i).getParent());
+			Files.write(write.get(i), bytes);
+		}
+		log.debug("Deleted {} and wrote {} file(s)",
+				delete.size(), write.size());
+	}
+
 	private VCSFile createFile(final Path pPath, final Revision pRevision) {
 		final Path output = getOutput();
 		if (!pPath.isAbsolute()) {
@@ -366,26 +968,161 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		return getModelFactory().createVCSFile(relPath, pRevision, this);
 	}
 
+	/**
+	 * Returns the (absolute) paths of all files of the current revision. In
+	 * virtual worktree mode, the files are listed with
+	 * {@link #listFilesImpl(String)}. Otherwise, {@link #listFilesInOutput()}
+	 * is used.
+	 */
+	private List<Path> listFiles() throws IOException {
+		if (virtualWorktree) {
+			final Path output = getOutput();
+			final List<String> files = listFilesImpl(revision);
+			IllegalReturnException.noNullElements(files);
+			return files.stream()
+					.map(output::resolve)
+					.collect(Collectors.toList());
+		}
+		return listFilesInOutput();
+	}
+
 	private Revision createRevision() throws IOException {
+		Validate.validateState(fileIndex != null);
+		return getModelFactory().createRevision(revision,
+				new ArrayList<>(fileIndex), this);
+	}
+
+	/**
+	 * Lists the files of the current revision with {@link #listFiles()} and
+	 * replaces {@link #fileIndex} with the result.
+	 */
+	private SortedSet<String> resetFileIndex() throws IOException {
 		final Path output = getOutput();
-		final List<String> files = listFilesInOutput().stream()
+		final SortedSet<String> files = new TreeSet<>();
+		listFiles().stream()
 				.map(output::relativize)
 				.map(Path::toString)
-				.collect(Collectors.toList());
-		return getModelFactory().createRevision(revision, files, this);
+				.forEach(files::add);
+		fileIndex = files;
+		return fileIndex;
+	}
+
+	/**
+	 * Applies the given changes (see {@link #createChangesImpl(String,
+	 * String)}) to {@link #fileIndex} such that it contains the files of the
+	 * current revision without listing them. Every
+	 * {@link #fileIndexCheckInterval}-th revision, the files are listed with
+	 * {@link #listFiles()} instead and compared with the updated index.
+	 */
+	private void updateFileIndex(final Changes pChanges) throws IOException {
+		if (fileIndex == null) {
+			resetFileIndex();
+			return;
+		}
+		final Path output = getOutput();
+		final FilenameFilter filter = createVCSFileFilter();
+		final Function<String, Optional<String>> relativize = p -> {
+			final Path path = Paths.get(p);
+			if (!path.startsWith(output) || path.equals(output)) {
+				return Optional.empty();
+			}
+			final Path relPath = output.relativize(path);
+			if (filter != null) {
+				Path dir = output;
+				for (final Path name : relPath) {
+					if (!filter.accept(dir.toFile(), name.toString())) {
+						return Optional.empty();
+					}
+					dir = dir.resolve(name);
+				}
+			}
+			return Optional.of(relPath.toString());
+		};
+		pChanges.getRemoved().stream()
+				.map(relativize)
+				.forEach(r -> r.ifPresent(fileIndex::remove));
+		pChanges.getRelocated().stream()
+				.map(e -> relativize.apply(e.getKey()))
+				.forEach(r -> r.ifPresent(fileIndex::remove));
+		Stream.of(pChanges.getAdded(), pChanges.getModified())
+				.flatMap(List::stream)
+				.map(relativize)
+				.forEach(a -> a.ifPresent(fileIndex::add));
+		pChanges.getRelocated().stream()
+				.map(e -> relativize.apply(e.getValue()))
+				.forEach(a -> a.ifPresent(fileIndex::add));
+
+		if (fileIndexCheckInterval > 0 &&
+				revisionIdx % fileIndexCheckInterval == 0) {
+			final SortedSet<String> updated = fileIndex;
+			if (!resetFileIndex().equals(updated)) {
+				log.warn("File index of revision {} is inconsistent " +
+						"with the files in {}", revision, output);
+			}
+		}
 	}
 
 	private void init() throws IOException {
 		if (!initialized) {
 			initImpl();
-			if (revisions == null) {
-				revisions = listRevisionsImpl();
-				IllegalReturnException.noNullElements(revisions);
+			if (changesCache != null) {
+				changesCache.load(getRepository(), getRoot());
+			}
+			if (revisionCursor == null) {
+				revisionCursor = listRevisionsLazyImpl();
+				IllegalReturnException.notNull(revisionCursor);
 			}
 			initialized = true;
 		}
 	}
 
+	/**
+	 * Fetches revisions from {@link #revisionCursor} until at least
+	 * {@code pCount} revisions are available or the cursor is exhausted.
+	 * Returns whether at least {@code pCount} revisions are available.
+	 * Cursors may wrap an {@link IOException} in an
+	 * {@link UncheckedIOException}.
+	 */
+	private boolean fetchRevisions(final int pCount) throws IOException {
+		try {
+			while (revisions.size() < pCount && revisionCursor.hasNext()) {
+				final String rev = revisionCursor.next();
+				IllegalReturnException.notNull(rev);
+				revisions.add(rev);
+				revisionIndex.add(rev);
+			}
+			if (revisions.size() < pCount) {
+				revisionCursorExhausted = true;
+			}
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return revisions.size() >= pCount;
+	}
+
+	/**
+	 * Returns whether {@code pRevision} is one of the revisions to process.
+	 * Revisions not fetched yet are fetched only if {@code pRevision} is
+	 * unknown.
+	 */
+	private boolean isRevision(final String pRevision) throws IOException {
+		if (revisionIndex.contains(pRevision)) {
+			return true;
+		}
+		fetchRevisions(Integer.MAX_VALUE);
+		return revisionIndex.contains(pRevision);
+	}
+
+	/**
+	 * Returns the number of revisions to process, or "?" if it is not known
+	 * yet. Used for logging only.
+	 */
+	private String numRevisionsToString() {
+		return revisionCursorExhausted
+				? String.valueOf(revisions.size())
+				: "?";
+	}
+
 	private RevisionRange createRevisionRange(final Changes pChanges)
 			throws IOException {
 		final Revision rev = createRevision();
@@ -438,17 +1175,98 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 				currentRevision, Collections.singletonList(commit), this);
 	}
 
+	/**
+	 * Returns the changes between the given revisions. Uses
+	 * {@link #changesCache}, if available, and falls back to
+	 * {@link #createChangesImpl(String, String)}. Returns a new instance on
+	 * each call as the returned changes may be modified by the caller (see
+	 * {@link #mapChanges(Changes)}).
+	 */
+	private Changes computeChanges(final String pFrom, final String pTo)
+			throws IOException {
+		final Path target = getTarget();
+		if (changesCache != null) {
+			final Optional<Changes> cached =
+					changesCache.getChanges(pFrom, pTo);
+			if (cached.isPresent()) {
+				return mapPaths(cached.get(), target::resolve);
+			}
+		}
+		final Changes changes = createChangesImpl(pFrom, pTo);
+		IllegalReturnException.notNull(changes);
+		if (changesCache != null && Stream.of(changes.getAdded(),
+				changes.getRemoved(), changes.getModified())
+				.flatMap(List::stream)
+				.allMatch(p -> Paths.get(p).startsWith(target)) &&
+				changes.getRelocated().stream()
+				.allMatch(e -> Paths.get(e.getKey()).startsWith(target) &&
+						Paths.get(e.getValue()).startsWith(target))) {
+			changesCache.putChanges(pFrom, pTo,
+					mapPaths(changes, target::relativize));
+		}
+		return changes;
+	}
+
+	/**
+	 * Returns a copy of {@code pChanges} whose paths are mapped with
+	 * {@code pMapper}.
+	 */
+	private static Changes mapPaths(final Changes pChanges,
+			final Function<Path, Path> pMapper) {
+		final Function<String, String> mapper =
+				p -> pMapper.apply(Paths.get(p)).toString();
+		final Changes changes = new Changes();
+		pChanges.getAdded().stream().map(mapper)
+				.forEach(changes.getAdded()::add);
+		pChanges.getRemoved().stream().map(mapper)
+				.forEach(changes.getRemoved()::add);
+		pChanges.getModified().stream().map(mapper)
+				.forEach(changes.getModified()::add);
+		pChanges.getRelocated().stream()
+				.map(e -> new AbstractMap.SimpleEntry<>(
+						mapper.apply(e.getKey()),
+						mapper.apply(e.getValue())))
+				.forEach(changes.getRelocated()::add);
+		return changes;
+	}
+
 	private Commit createCommit(final List<FileChange> pFileChanges)
 			throws IOException {
-		final Commit commit = createCommitImpl(revision, pFileChanges,
-				Collections.emptyList());
-		return itEngine != null
-				? getModelFactory().createCommit(
+		final Optional<ChangesCache.CommitInfo> cached = changesCache != null
+				? changesCache.getCommit(revision)
+				: Optional.empty();
+		final Commit commit;
+		if (cached.isPresent()) {
+			final ChangesCache.CommitInfo info = cached.get();
+			commit = getModelFactory().createCommit(info.getId(),
+					info.getAuthor(), info.getMessage(), info.getDateTime(),
+					info.getParentIds(), pFileChanges,
+					Collections.emptyList(), this);
+		} else {
+			commit = createCommitImpl(revision, pFileChanges,
+					Collections.emptyList());
+			if (changesCache != null) {
+				changesCache.putCommit(new ChangesCache.CommitInfo(
 						commit.getId(), commit.getAuthor(),
 						commit.getMessage(), commit.getDateTime(),
-						commit.getParentIds(), commit.getFileChanges(),
-						itEngine.getIssuesFor(commit), commit.getVCSEngine())
-				: commit;
+						commit.getParentIds()));
+			}
+		}
+		if (itEngine == null) {
+			return commit;
+		} else if (issueResolver != null) {
+			return getModelFactory().createAsyncCommit(
+					commit.getId(), commit.getAuthor(),
+					commit.getMessage(), commit.getDateTime(),
+					commit.getParentIds(), commit.getFileChanges(),
+					issueResolver.resolve(itEngine, commit),
+					commit.getVCSEngine());
+		}
+		return getModelFactory().createCommit(
+				commit.getId(), commit.getAuthor(),
+				commit.getMessage(), commit.getDateTime(),
+				commit.getParentIds(), commit.getFileChanges(),
+				itEngine.getIssuesFor(commit), commit.getVCSEngine());
 	}
 
 	private String getPreviousRevision() {
@@ -481,10 +1299,165 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		}
 	}
 
+	/**
+	 * Returns the revision currently processed by {@link #next()} followed by
+	 * up to {@code pCount - 1} of its successors. Engines may use this method
+	 * to retrieve data of upcoming revisions---for instance, commit
+	 * metadata---at once. Fetches further revisions if necessary. Returns an
+	 * empty list if there is no current revision.
+	 *
+	 * @param pCount
+	 * 		The maximum number of revisions to return ({@code >= 1}).
+	 * @return
+	 * 		The current revision and up to {@code pCount - 1} successors.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pCount < 1}.
+	 * @throws IOException
+	 * 		If an error occurred while fetching further revisions.
+	 */
+	protected List<String> listUpcomingRevisions(final int pCount)
+			throws IllegalArgumentException, IOException {
+		Validate.isPositive(pCount, "Count < 1");
+		if (revision == null || revisionIdx < 0 ||
+				revisionIdx >= revisions.size()) {
+			return Collections.emptyList();
+		}
+		final int count = (int) Math.min(
+				(long) revisionIdx + pCount, Integer.MAX_VALUE);
+		fetchRevisions(count);
+		return new ArrayList<>(revisions.subList(revisionIdx,
+				Math.min(count, revisions.size())));
+	}
+
 	/////////////////////////// optional overrides ////////////////////////////
 
 	protected void initImpl() throws IOException {}
 
+	/**
+	 * Returns whether this engine supports the virtual worktree mode (see
+	 * {@link #setVirtualWorktree(boolean)}). Engines returning {@code true}
+	 * must implement {@link #listFilesImpl(String)}. The default
+	 * implementation returns {@code false}.
+	 *
+	 * @return
+	 * 		{@code true} if this engine supports the virtual worktree mode,
+	 * 		{@code false} otherwise.
+	 */
+	protected boolean supportsVirtualWorktree() {
+		return false;
+	}
+
+	/**
+	 * Lists the files (paths relative to {@link #getOutput()}) of the given
+	 * revision without checking it out. Used in virtual worktree mode only.
+	 * The default implementation throws an
+	 * {@link UnsupportedOperationException}.
+	 *
+	 * @param revision
+	 * 		The revision whose files are listed.
+	 * @return
+	 * 		The files of {@code revision} relative to {@link #getOutput()}.
+	 * @throws IOException
+	 * 		If an error occurred while listing the files.
+	 */
+	protected List<String> listFilesImpl(final String revision)
+			throws IOException {
+		throw new UnsupportedOperationException(String.format(
+				"%s does not support virtual worktrees",
+				getClass().getSimpleName()));
+	}
+
+	/**
+	 * Returns a key that identifies the contents of the given file in
+	 * {@link BlobCache}. Engines whose storage is content-addressed should
+	 * return the id of the corresponding object such that files with equal
+	 * contents share a cache entry across revisions. The default
+	 * implementation combines {@code revision} and {@code path}. Files of the
+	 * checked out revision, which are read from disk, are always keyed by
+	 * revision and path.
+	 *
+	 * @param path
+	 * 		The path of the file relative to {@link #getOutput()}.
+	 * @param revision
+	 * 		The revision of the file.
+	 * @return
+	 * 		The key of the contents of the given file.
+	 * @throws IOException
+	 * 		If an error occurred while computing the key.
+	 */
+	protected String createBlobKey(final String path, final String revision)
+			throws IOException {
+		return revision + ":" + path;
+	}
+
+	/**
+	 * Returns the keys (see {@link #createBlobKey(String, String)}) of the
+	 * given files of {@code revision}. Used by
+	 * {@link #readAllBytes(Collection)}. The default implementation calls
+	 * {@link #createBlobKey(String, String)} for each path.
+	 *
+	 * @param paths
+	 * 		The paths of the files relative to {@link #getOutput()}.
+	 * @param revision
+	 * 		The revision of the files.
+	 * @return
+	 * 		Path -> key of the contents of the file located at path.
+	 * @throws IOException
+	 * 		If an error occurred while computing the keys.
+	 */
+	protected Map<String, String> createBlobKeys(final List<String> paths,
+			final String revision) throws IOException {
+		final Map<String, String> keys = new HashMap<>();
+		for (final String path : paths) {
+			keys.put(path, createBlobKey(path, revision));
+		}
+		return keys;
+	}
+
+	/**
+	 * Reads the contents of the files located at {@code paths} in revision
+	 * {@code revision}. Used by {@link #readAllBytes(Collection)} and the
+	 * incremental checkout mode (see {@link #setIncrementalCheckout(boolean)})
+	 * to read many files at once. The default implementation calls
+	 * {@link #readAllBytesImpl(String, String)} for each path.
+	 *
+	 * @param paths
+	 * 		The (relative) paths of the files to read.
+	 * @param revision
+	 * 		The files' revision.
+	 * @return
+	 * 		Path -> contents of the file located at path.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents.
+	 */
+	protected Map<String, byte[]> readAllBytesImpl(final List<String> paths,
+			final String revision) throws IOException {
+		final Map<String, byte[]> contents = new HashMap<>();
+		for (final String path : paths) {
+			contents.put(path, readAllBytesImpl(path, revision));
+		}
+		return contents;
+	}
+
+	/**
+	 * Returns a cursor over the revisions to process. Other than
+	 * {@link #listRevisionsImpl()}, engines may yield revisions while
+	 * retrieving them such that the first revision range is available before
+	 * the whole history has been read. {@link #next()} advances the cursor on
+	 * demand. The default implementation iterates
+	 * {@link #listRevisionsImpl()}.
+	 *
+	 * @return
+	 * 		A cursor over the revisions to process.
+	 * @throws IOException
+	 * 		If an error occurred while retrieving the revisions to process.
+	 */
+	protected Iterator<String> listRevisionsLazyImpl() throws IOException {
+		final List<String> revs = listRevisionsImpl();
+		IllegalReturnException.noNullElements(revs);
+		return revs.iterator();
+	}
+
 	/////////////////////////// required overrides ////////////////////////////
 
 	/**
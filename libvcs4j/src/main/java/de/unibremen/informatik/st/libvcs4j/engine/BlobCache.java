@@ -0,0 +1,377 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.NonNull;
+
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A bounded, least recently used cache of file contents. Entries are
+ * identified by a key that describes the contents of a file rather than its
+ * location. For instance, {@link de.unibremen.informatik.st.libvcs4j.git.GitEngine}
+ * uses blob ids such that files with the same contents share an entry, even
+ * if they belong to different revisions. Besides the raw bytes, an entry
+ * stores the detected charset, the decoded content, and the line index of a
+ * file. The size of the cache is measured in (approximated) bytes. If the
+ * size exceeds the capacity of the cache, the least recently used entries are
+ * evicted.
+ *
+ * This class is thread-safe.
+ */
+public class BlobCache {
+
+	/**
+	 * The default capacity in bytes (64 MiB).
+	 */
+	public static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+	/**
+	 * The maximum size in bytes.
+	 */
+	private final long capacity;
+
+	/**
+	 * The current size in bytes.
+	 */
+	private long size = 0;
+
+	/**
+	 * Key -> entry. Iterates from least to most recently used.
+	 */
+	private final LinkedHashMap<String, Entry> entries =
+			new LinkedHashMap<>(16, 0.75f, true);
+
+	/* Statistics. */
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * Creates a new cache with given capacity.
+	 *
+	 * @param pCapacity
+	 * 		The capacity of the cache in bytes ({@code >= 0}).
+	 * @throws IllegalArgumentException
+	 * 		If {@code pCapacity < 0}.
+	 */
+	public BlobCache(final long pCapacity) throws IllegalArgumentException {
+		Validate.isTrue(pCapacity >= 0, "Capacity < 0");
+		capacity = pCapacity;
+	}
+
+	/**
+	 * Returns the entry with given key, if any.
+	 *
+	 * @param pKey
+	 * 		The key of the entry.
+	 * @return
+	 * 		The entry with given key.
+	 * @throws NullPointerException
+	 * 		If {@code pKey} is {@code null}.
+	 */
+	public synchronized Optional<Entry> get(@NonNull final String pKey)
+			throws NullPointerException {
+		final Entry entry = entries.get(pKey);
+		if (entry == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return Optional.ofNullable(entry);
+	}
+
+	/**
+	 * Adds an entry storing the given bytes. Replaces an existing entry with
+	 * the same key. If {@code pBytes} exceeds the capacity of this cache, the
+	 * returned entry is not added.
+	 *
+	 * @param pKey
+	 * 		The key of the entry.
+	 * @param pBytes
+	 * 		The bytes of the entry.
+	 * @return
+	 * 		The created entry.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public synchronized Entry put(@NonNull final String pKey,
+			@NonNull final byte[] pBytes) throws NullPointerException {
+		final Entry entry = new Entry(pKey, pBytes);
+		final Entry previous = entries.remove(pKey);
+		if (previous != null) {
+			size -= previous.size;
+			previous.cached = false;
+		}
+		if (entry.size <= capacity) {
+			entries.put(pKey, entry);
+			entry.cached = true;
+			size += entry.size;
+			evict();
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes all entries. Does not reset the statistics.
+	 */
+	public synchronized void clear() {
+		entries.values().forEach(e -> e.cached = false);
+		entries.clear();
+		size = 0;
+	}
+
+	/**
+	 * Returns the capacity of this cache in bytes.
+	 *
+	 * @return
+	 * 		The capacity of this cache in bytes.
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the current size of this cache in bytes.
+	 *
+	 * @return
+	 * 		The current size of this cache in bytes.
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 *
+	 * @return
+	 * 		The number of cached entries.
+	 */
+	public synchronized int getNumEntries() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of successful lookups (see {@link #get(String)}).
+	 *
+	 * @return
+	 * 		The number of successful lookups.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of failed lookups (see {@link #get(String)}).
+	 *
+	 * @return
+	 * 		The number of failed lookups.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of evicted entries.
+	 *
+	 * @return
+	 * 		The number of evicted entries.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("BlobCache(capacity=%d, size=%d, entries=%d, " +
+				"hits=%d, misses=%d, evictions=%d)", capacity, size,
+				entries.size(), hits, misses, evictions);
+	}
+
+	////////////////////////////////// Utils //////////////////////////////////
+
+	/**
+	 * Updates the size of {@code pEntry} by {@code pDelta} bytes.
+	 */
+	private synchronized void grow(final Entry pEntry, final long pDelta) {
+		pEntry.size += pDelta;
+		if (pEntry.cached) {
+			size += pDelta;
+			if (pEntry.size > capacity) {
+				entries.remove(pEntry.key);
+				pEntry.cached = false;
+				size -= pEntry.size;
+				evictions++;
+			}
+			evict();
+		}
+	}
+
+	/**
+	 * Evicts the least recently used entries until {@link #size} does not
+	 * exceed {@link #capacity}.
+	 */
+	private void evict() {
+		final Iterator<Map.Entry<String, Entry>> it =
+				entries.entrySet().iterator();
+		while (size > capacity && it.hasNext()) {
+			final Entry eldest = it.next().getValue();
+			it.remove();
+			eldest.cached = false;
+			size -= eldest.size;
+			evictions++;
+		}
+	}
+
+	/**
+	 * The contents of a file. The bytes of an entry must not be modified.
+	 */
+	public class Entry {
+
+		private final String key;
+
+		private final byte[] bytes;
+
+		private long size;
+
+		private boolean cached = false;
+
+		/**
+		 * {@code null} if the charset has not been detected yet.
+		 */
+		private Optional<Charset> charset = null;
+
+		private String content = null;
+
+		private VCSFile.LineIndex lineIndex = null;
+
+		private Entry(final String pKey, final byte[] pBytes) {
+			key = pKey;
+			bytes = pBytes;
+			size = pBytes.length;
+		}
+
+		/**
+		 * Returns the key of this entry.
+		 *
+		 * @return
+		 * 		The key of this entry.
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * Returns the bytes of this entry. The returned array must not be
+		 * modified.
+		 *
+		 * @return
+		 * 		The bytes of this entry.
+		 */
+		public byte[] getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * Returns the detected charset, if it has been set already (see
+		 * {@link #setCharset(Optional)}).
+		 *
+		 * @return
+		 * 		The detected charset or {@code null} if the charset has not been
+		 * 		set yet.
+		 */
+		public synchronized Optional<Charset> getCharset() {
+			return charset;
+		}
+
+		/**
+		 * Sets the detected charset.
+		 *
+		 * @param pCharset
+		 * 		The detected charset.
+		 * @throws NullPointerException
+		 * 		If {@code pCharset} is {@code null}.
+		 */
+		public synchronized void setCharset(
+				@NonNull final Optional<Charset> pCharset)
+				throws NullPointerException {
+			charset = pCharset;
+		}
+
+		/**
+		 * Returns the decoded content, if it has been set already (see
+		 * {@link #setContent(String)}).
+		 *
+		 * @return
+		 * 		The decoded content or {@code null} if the content has not been
+		 * 		set yet.
+		 */
+		public synchronized String getContent() {
+			return content;
+		}
+
+		/**
+		 * Sets the decoded content. Increases the size of this entry
+		 * accordingly.
+		 *
+		 * @param pContent
+		 * 		The decoded content.
+		 * @throws NullPointerException
+		 * 		If {@code pContent} is {@code null}.
+		 */
+		public void setContent(@NonNull final String pContent)
+				throws NullPointerException {
+			final long delta;
+			synchronized (this) {
+				delta = (long) pContent.length() * Character.BYTES -
+						(content == null ? 0
+								: (long) content.length() * Character.BYTES);
+				content = pContent;
+			}
+			grow(this, delta);
+		}
+
+		/**
+		 * Returns the line index, if it has been set already (see
+		 * {@link #setLineIndex(VCSFile.LineIndex)}).
+		 *
+		 * @return
+		 * 		The line index or {@code null} if the line index has not been
+		 * 		set yet.
+		 */
+		public synchronized VCSFile.LineIndex getLineIndex() {
+			return lineIndex;
+		}
+
+		/**
+		 * Sets the line index. Increases the size of this entry accordingly.
+		 *
+		 * @param pLineIndex
+		 * 		The line index.
+		 * @throws NullPointerException
+		 * 		If {@code pLineIndex} is {@code null}.
+		 */
+		public void setLineIndex(@NonNull final VCSFile.LineIndex pLineIndex)
+				throws NullPointerException {
+			final long delta;
+			synchronized (this) {
+				delta = sizeOf(pLineIndex) -
+						(lineIndex == null ? 0 : sizeOf(lineIndex));
+				lineIndex = pLineIndex;
+			}
+			grow(this, delta);
+		}
+
+		/**
+		 * Approximates the size of {@code pLineIndex} (two ints per line).
+		 */
+		private long sizeOf(final VCSFile.LineIndex pLineIndex) {
+			return 2L * Integer.BYTES * (pLineIndex.getNumLines() + 1);
+		}
+
+	}
+}
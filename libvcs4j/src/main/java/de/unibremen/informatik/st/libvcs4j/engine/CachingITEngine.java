@@ -0,0 +1,686 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.Commit;
+import de.unibremen.informatik.st.libvcs4j.ITEngine;
+import de.unibremen.informatik.st.libvcs4j.Issue;
+import de.unibremen.informatik.st.libvcs4j.IssueIdParser;
+import de.unibremen.informatik.st.libvcs4j.ItModelFactory;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link ITEngine} that caches the issues retrieved by another engine.
+ * Issues are kept in a size-bounded in-memory cache (least recently used
+ * entries are removed first) and, optionally, in a compact (gzipped) binary
+ * file (see {@link #setStore(Path)}) such that subsequent runs do not need to
+ * download them again. Ids without an issue are cached as well. Entries
+ * expire after a configurable time to live (see {@link #setTTL(Duration)}
+ * and {@link #setMissingTTL(Duration)}). Multiple issues are retrieved at
+ * once with {@link ITEngine#getIssuesById(Collection)} of the decorated
+ * engine.
+ *
+ * This class is thread-safe. The decorated engine is not called while
+ * holding the lock of this cache.
+ */
+public class CachingITEngine extends AbstractITEngine {
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(CachingITEngine.class);
+
+	/**
+	 * The default maximum number of cached entries.
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * The default time to live of cached issues.
+	 */
+	public static final Duration DEFAULT_TTL = Duration.ofDays(1);
+
+	/**
+	 * The default time to live of cached ids without an issue.
+	 */
+	public static final Duration DEFAULT_MISSING_TTL = Duration.ofHours(1);
+
+	/**
+	 * Identifies store files ("LVIT").
+	 */
+	private static final int MAGIC = 0x4C564954;
+
+	/**
+	 * The version of the file format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The decorated engine.
+	 */
+	private final ITEngine delegate;
+
+	/**
+	 * The maximum number of entries kept in {@link #entries}.
+	 */
+	private final int capacity;
+
+	/**
+	 * Id -> entry (in access order).
+	 */
+	private final LinkedHashMap<String, Entry> entries =
+			new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * The time to live of cached issues.
+	 */
+	private Duration ttl = DEFAULT_TTL;
+
+	/**
+	 * The time to live of cached ids without an issue.
+	 */
+	private Duration missingTTL = DEFAULT_MISSING_TTL;
+
+	/**
+	 * The file to load entries from and to save them to. Is {@code null} if
+	 * disabled.
+	 */
+	private Path store = null;
+
+	/**
+	 * Whether there are entries that have not been saved yet.
+	 */
+	private boolean dirty = false;
+
+	/**
+	 * Provides the current time. Replaceable for testing purposes.
+	 */
+	private Clock clock = Clock.systemUTC();
+
+	/* Statistics. */
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	private long fetches = 0;
+
+	/**
+	 * Creates a new cache with {@link #DEFAULT_CAPACITY} that decorates the
+	 * given engine.
+	 *
+	 * @param pDelegate
+	 * 		The engine to decorate.
+	 * @throws NullPointerException
+	 * 		If {@code pDelegate} is {@code null}.
+	 */
+	public CachingITEngine(final ITEngine pDelegate)
+			throws NullPointerException {
+		this(pDelegate, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new cache with given capacity that decorates the given
+	 * engine.
+	 *
+	 * @param pDelegate
+	 * 		The engine to decorate.
+	 * @param pCapacity
+	 * 		The maximum number of cached entries ({@code > 0}).
+	 * @throws NullPointerException
+	 * 		If {@code pDelegate} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pCapacity <= 0}.
+	 */
+	public CachingITEngine(@NonNull final ITEngine pDelegate,
+			final int pCapacity) throws NullPointerException,
+			IllegalArgumentException {
+		super(pDelegate.getRepository());
+		delegate = pDelegate;
+		capacity = Validate.isPositive(pCapacity, "Capacity <= 0");
+	}
+
+	/**
+	 * Returns the decorated engine.
+	 *
+	 * @return
+	 * 		The decorated engine.
+	 */
+	public ITEngine getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Sets the factory of this engine and of the decorated engine.
+	 *
+	 * @param pFactory
+	 * 		The factory used to create issue tracker model instances.
+	 * @throws NullPointerException
+	 * 		If {@code pFactory} is {@code null}.
+	 */
+	@Override
+	public void setModelFactory(@NonNull final ItModelFactory pFactory)
+			throws NullPointerException {
+		super.setModelFactory(pFactory);
+		delegate.setModelFactory(pFactory);
+	}
+
+	/**
+	 * Sets the time to live of cached issues.
+	 *
+	 * @param pTTL
+	 * 		The time to live of cached issues.
+	 * @throws NullPointerException
+	 * 		If {@code pTTL} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pTTL} is negative.
+	 */
+	public synchronized void setTTL(@NonNull final Duration pTTL)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.isTrue(!pTTL.isNegative(), "TTL < 0");
+		ttl = pTTL;
+	}
+
+	/**
+	 * Sets the time to live of cached ids without an issue.
+	 *
+	 * @param pTTL
+	 * 		The time to live of cached ids without an issue.
+	 * @throws NullPointerException
+	 * 		If {@code pTTL} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pTTL} is negative.
+	 */
+	public synchronized void setMissingTTL(@NonNull final Duration pTTL)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.isTrue(!pTTL.isNegative(), "TTL < 0");
+		missingTTL = pTTL;
+	}
+
+	/**
+	 * Sets the file to store entries in and loads the (not expired) entries
+	 * of the repository of this engine from it. If the file does not exist
+	 * or belongs to another repository, it is overwritten by the next call of
+	 * {@link #save()}.
+	 *
+	 * @param pStore
+	 * 		The file to store entries in; {@code null} to disable the store.
+	 * @throws IOException
+	 * 		If an error occurred while reading {@code pStore}.
+	 */
+	public synchronized void setStore(final Path pStore) throws IOException {
+		store = pStore == null ? null : pStore.toAbsolutePath();
+		if (store != null) {
+			final Map<String, Entry> stored = read();
+			stored.forEach(entries::putIfAbsent);
+			evict();
+			log.info("Loaded {} issue(s) from {}", stored.size(), store);
+		}
+	}
+
+	/**
+	 * Returns the file entries are stored in.
+	 *
+	 * @return
+	 * 		The file entries are stored in.
+	 */
+	public synchronized Optional<Path> getStore() {
+		return Optional.ofNullable(store);
+	}
+
+	/**
+	 * Writes all (not expired) entries to the store (see
+	 * {@link #setStore(Path)}) if there are entries that have not been saved
+	 * yet. Entries that are stored in the file, but have been evicted from
+	 * memory (or have been added by another engine in the meantime), are
+	 * kept. Does nothing if the store is disabled.
+	 *
+	 * @throws IOException
+	 * 		If an error occurred while writing the store.
+	 */
+	public synchronized void save() throws IOException {
+		if (store == null || !dirty) {
+			return;
+		}
+		final Map<String, Entry> all = new LinkedHashMap<>(read());
+		all.putAll(entries);
+		all.values().removeIf(this::isExpired);
+
+		final Path parent = store.getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		final Path tmp = Files.createTempFile(parent,
+				store.getFileName().toString(), ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(
+						Files.newOutputStream(tmp))))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, getRepository());
+			out.writeInt(all.size());
+			for (final Map.Entry<String, Entry> e : all.entrySet()) {
+				writeString(out, e.getKey());
+				final Entry entry = e.getValue();
+				out.writeLong(entry.fetchedAt);
+				out.writeBoolean(entry.issue != null);
+				if (entry.issue != null) {
+					final Issue issue = entry.issue;
+					writeString(out, issue.getId());
+					writeString(out, issue.getAuthor());
+					writeString(out, issue.getTitle());
+					writeString(out, issue.getDateTime().toString());
+					out.writeInt(issue.getComments().size());
+					for (final Issue.Comment comment : issue.getComments()) {
+						writeString(out, comment.getAuthor());
+						writeString(out, comment.getMessage());
+						writeString(out, comment.getDateTime().toString());
+					}
+				}
+			}
+		} catch (final IOException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		Files.move(tmp, store, StandardCopyOption.REPLACE_EXISTING);
+		dirty = false;
+		log.debug("Saved {} issue(s) to {}", all.size(), store);
+	}
+
+	@Override
+	public Optional<Issue> getIssueById(final String pId) throws IOException {
+		if (pId == null) {
+			return Optional.empty();
+		}
+		final Optional<Entry> cached = lookup(pId);
+		if (cached.isPresent()) {
+			return Optional.ofNullable(cached.get().issue);
+		}
+		final Optional<Issue> issue = delegate.getIssueById(pId);
+		Validate.notNull(issue);
+		put(pId, issue.orElse(null));
+		return issue;
+	}
+
+	@Override
+	public Map<String, Issue> getIssuesById(final Collection<String> pIds)
+			throws IOException {
+		final Set<String> ids = pIds == null
+				? new LinkedHashSet<>()
+				: pIds.stream()
+						.filter(Objects::nonNull)
+						.collect(Collectors.toCollection(LinkedHashSet::new));
+		final Map<String, Issue> issues = new HashMap<>();
+		final List<String> missing = new ArrayList<>();
+		for (final String id : ids) {
+			final Optional<Entry> cached = lookup(id);
+			if (cached.isPresent()) {
+				if (cached.get().issue != null) {
+					issues.put(id, cached.get().issue);
+				}
+			} else {
+				missing.add(id);
+			}
+		}
+		if (!missing.isEmpty()) {
+			final Map<String, Issue> fetched =
+					delegate.getIssuesById(missing);
+			Validate.notNull(fetched);
+			for (final String id : missing) {
+				final Issue issue = fetched.get(id);
+				put(id, issue);
+				if (issue != null) {
+					issues.put(id, issue);
+				}
+			}
+		}
+		// Keep the order of `pIds`.
+		final Map<String, Issue> result = new LinkedHashMap<>();
+		ids.stream()
+				.filter(issues::containsKey)
+				.forEach(id -> result.put(id, issues.get(id)));
+		return result;
+	}
+
+	/**
+	 * Returns the parser of the decorated engine if it is an
+	 * {@link AbstractITEngine}. Otherwise, the decorated engine parses ids
+	 * on its own (see {@link #parseIssueIds(String)}) and
+	 * {@link IssueIdParser#DEFAULT} is returned.
+	 */
+	@Override
+	public IssueIdParser getIssueIdParser() {
+		return delegate instanceof AbstractITEngine
+				? ((AbstractITEngine) delegate).getIssueIdParser()
+				: super.getIssueIdParser();
+	}
+
+	/**
+	 * Returns the styles supported by the decorated engine if it is an
+	 * {@link AbstractITEngine}. Otherwise, the default styles are returned.
+	 */
+	@Override
+	public Set<IssueIdParser.Style> getSupportedStyles() {
+		return delegate instanceof AbstractITEngine
+				? ((AbstractITEngine) delegate).getSupportedStyles()
+				: super.getSupportedStyles();
+	}
+
+	/**
+	 * Sets the parser of the decorated engine, which parses the ids of this
+	 * engine (see {@link #parseIssueIds(String)}).
+	 *
+	 * @throws UnsupportedOperationException
+	 * 		If the decorated engine is not an {@link AbstractITEngine}.
+	 */
+	@Override
+	public void setIssueIdParser(@NonNull final IssueIdParser pParser)
+			throws NullPointerException, IllegalArgumentException,
+			UnsupportedOperationException {
+		if (!(delegate instanceof AbstractITEngine)) {
+			throw new UnsupportedOperationException(
+					"The decorated engine does not support parsers");
+		}
+		((AbstractITEngine) delegate).setIssueIdParser(pParser);
+	}
+
+	/**
+	 * Delegates to the decorated engine.
+	 */
+	@Override
+	public List<String> parseIssueIds(final String pText) {
+		return delegate.parseIssueIds(pText);
+	}
+
+	/**
+	 * Retrieves the issues referenced by the commits of the given range (see
+	 * {@link RevisionRange#getCommits()}) which are not cached yet with a
+	 * single call of {@link ITEngine#getIssuesById(Collection)} of the
+	 * decorated engine.
+	 *
+	 * @param pRange
+	 * 		The range whose issues are retrieved.
+	 * @return
+	 * 		The number of ids that have been passed to the decorated engine.
+	 * @throws NullPointerException
+	 * 		If {@code pRange} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while retrieving the issues.
+	 */
+	public int prefetch(@NonNull final RevisionRange pRange)
+			throws NullPointerException, IOException {
+		return prefetch(pRange.getCommits());
+	}
+
+	/**
+	 * Retrieves the issues referenced by the given commits which are not
+	 * cached yet with a single call of
+	 * {@link ITEngine#getIssuesById(Collection)} of the decorated engine.
+	 *
+	 * @param pCommits
+	 * 		The commits whose issues are retrieved.
+	 * @return
+	 * 		The number of ids that have been passed to the decorated engine.
+	 * @throws NullPointerException
+	 * 		If {@code pCommits} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while retrieving the issues.
+	 */
+	public int prefetch(@NonNull final List<Commit> pCommits)
+			throws NullPointerException, IOException {
+		final Set<String> ids = pCommits.stream()
+				.filter(Objects::nonNull)
+				.map(Commit::getMessage)
+				.map(this::parseIssueIds)
+				.flatMap(Collection::stream)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		final long before = getFetches();
+		getIssuesById(ids);
+		return (int) (getFetches() - before);
+	}
+
+	/**
+	 * Removes all entries from memory. The store (see
+	 * {@link #setStore(Path)}) is not modified.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Returns the maximum number of cached entries.
+	 *
+	 * @return
+	 * 		The maximum number of cached entries.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 *
+	 * @return
+	 * 		The number of cached entries.
+	 */
+	public synchronized int getNumEntries() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of lookups served from the cache.
+	 *
+	 * @return
+	 * 		The number of lookups served from the cache.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that had to be passed to the decorated
+	 * engine.
+	 *
+	 * @return
+	 * 		The number of lookups that have not been served from the cache.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of entries that have been evicted from memory.
+	 *
+	 * @return
+	 * 		The number of evicted entries.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of ids whose issues have been retrieved from the
+	 * decorated engine.
+	 *
+	 * @return
+	 * 		The number of ids retrieved from the decorated engine.
+	 */
+	public synchronized long getFetches() {
+		return fetches;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("CachingITEngine(repository=%s, entries=%d, " +
+				"hits=%d, misses=%d, evictions=%d, fetches=%d)",
+				getRepository(), entries.size(), hits, misses, evictions,
+				fetches);
+	}
+
+	/**
+	 * Replaces the clock of this cache. Used for testing purposes.
+	 *
+	 * @param pClock
+	 * 		The clock to use.
+	 */
+	synchronized void setClock(@NonNull final Clock pClock) {
+		clock = pClock;
+	}
+
+	////////////////////////////////// Utils //////////////////////////////////
+
+	/**
+	 * Returns the (not expired) entry of the given id, if any. Expired
+	 * entries are removed.
+	 */
+	private synchronized Optional<Entry> lookup(final String pId) {
+		final Entry entry = entries.get(pId);
+		if (entry != null && isExpired(entry)) {
+			entries.remove(pId);
+		} else if (entry != null) {
+			hits++;
+			return Optional.of(entry);
+		}
+		misses++;
+		return Optional.empty();
+	}
+
+	/**
+	 * Caches the given issue ({@code null} if there is no such issue).
+	 */
+	private synchronized void put(final String pId, final Issue pIssue) {
+		entries.put(pId, new Entry(pIssue, clock.millis()));
+		fetches++;
+		dirty = true;
+		evict();
+	}
+
+	private void evict() {
+		while (entries.size() > capacity) {
+			final String eldest = entries.keySet().iterator().next();
+			entries.remove(eldest);
+			evictions++;
+		}
+	}
+
+	private boolean isExpired(final Entry pEntry) {
+		final Duration timeToLive = pEntry.issue == null ? missingTTL : ttl;
+		return clock.millis() - pEntry.fetchedAt > timeToLive.toMillis();
+	}
+
+	/**
+	 * Reads the entries of {@link #store}. Returns an empty map if
+	 * {@link #store} does not exist or belongs to another repository.
+	 * Expired entries are skipped.
+	 */
+	private Map<String, Entry> read() throws IOException {
+		final Map<String, Entry> result = new LinkedHashMap<>();
+		if (!Files.isRegularFile(store)) {
+			return result;
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(
+						Files.newInputStream(store))))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				log.warn("Ignoring {} (unknown format)", store);
+				return result;
+			}
+			if (!getRepository().equals(readString(in))) {
+				log.warn("Ignoring {} (other repository)", store);
+				return result;
+			}
+			final int numEntries = in.readInt();
+			for (int i = 0; i < numEntries; i++) {
+				final String key = readString(in);
+				final long fetchedAt = in.readLong();
+				Issue issue = null;
+				if (in.readBoolean()) {
+					final String id = readString(in);
+					final String author = readString(in);
+					final String title = readString(in);
+					final LocalDateTime dateTime =
+							LocalDateTime.parse(readString(in));
+					final int numComments = in.readInt();
+					final List<Issue.Comment> comments = new ArrayList<>();
+					for (int j = 0; j < numComments; j++) {
+						comments.add(getModelFactory().createComment(
+								readString(in), readString(in),
+								LocalDateTime.parse(readString(in)), this));
+					}
+					issue = getModelFactory().createIssue(id, author, title,
+							dateTime, comments, this);
+				}
+				final Entry entry = new Entry(issue, fetchedAt);
+				if (!isExpired(entry)) {
+					result.put(key, entry);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@link DataOutputStream#writeUTF(String)} is limited to 64k bytes.
+	 */
+	private static void writeString(final DataOutputStream pOut,
+			final String pString) throws IOException {
+		final byte[] bytes = pString.getBytes(StandardCharsets.UTF_8);
+		pOut.writeInt(bytes.length);
+		pOut.write(bytes);
+	}
+
+	private static String readString(final DataInputStream pIn)
+			throws IOException {
+		final byte[] bytes = new byte[pIn.readInt()];
+		pIn.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A cached issue.
+	 */
+	private static class Entry {
+
+		/**
+		 * The cached issue. Is {@code null} if there is no such issue.
+		 */
+		private final Issue issue;
+
+		/**
+		 * The time (in milliseconds since epoch) the issue was retrieved.
+		 */
+		private final long fetchedAt;
+
+		private Entry(final Issue pIssue, final long pFetchedAt) {
+			issue = pIssue;
+			fetchedAt = pFetchedAt;
+		}
+	}
+}
@@ -0,0 +1,488 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A persistent cache of the {@link Changes} between two revisions and the
+ * metadata of commits. The cache is stored in a compact (gzipped) binary file
+ * such that subsequent runs on the same repository do not need to compute
+ * the changes of already processed revisions again. A cache file belongs to
+ * a single repository and root (see {@link #load(String, String)}). Paths
+ * are stored relative to the target directory of an engine.
+ *
+ * This class is thread-safe.
+ */
+public class ChangesCache {
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(ChangesCache.class);
+
+	/**
+	 * Identifies cache files ("LV4J").
+	 */
+	private static final int MAGIC = 0x4C56344A;
+
+	/**
+	 * The version of the file format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The file to load the cache from and to save it to.
+	 */
+	private final Path file;
+
+	/**
+	 * The repository of the cached entries.
+	 */
+	private String repository = null;
+
+	/**
+	 * The root of the cached entries.
+	 */
+	private String root = null;
+
+	/**
+	 * "fromRev toRev" -> changes.
+	 */
+	private final Map<String, Changes> changes = new HashMap<>();
+
+	/**
+	 * Revision -> metadata.
+	 */
+	private final Map<String, CommitInfo> commits = new HashMap<>();
+
+	/**
+	 * Whether there are entries that have not been saved yet.
+	 */
+	private boolean dirty = false;
+
+	/* Statistics. */
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * Creates a new cache that is stored in the given file. The file is read
+	 * by {@link #load(String, String)}.
+	 *
+	 * @param pFile
+	 * 		The file to load the cache from and to save it to.
+	 * @throws NullPointerException
+	 * 		If {@code pFile} is {@code null}.
+	 */
+	public ChangesCache(@NonNull final Path pFile)
+			throws NullPointerException {
+		file = pFile.toAbsolutePath();
+	}
+
+	/**
+	 * Loads the entries of the given repository and root from
+	 * {@link #getFile()}. If the file does not exist or belongs to another
+	 * repository or root, the cache starts empty and the file is overwritten
+	 * by the next call of {@link #save()}.
+	 *
+	 * @param pRepository
+	 * 		The repository of the entries to load.
+	 * @param pRoot
+	 * 		The root of the entries to load.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading {@link #getFile()}.
+	 */
+	public synchronized void load(@NonNull final String pRepository,
+			@NonNull final String pRoot) throws NullPointerException,
+			IOException {
+		repository = pRepository;
+		root = pRoot;
+		changes.clear();
+		commits.clear();
+		dirty = false;
+		if (read(changes, commits)) {
+			log.info("Loaded {} change set(s) and {} commit(s) from {}",
+					changes.size(), commits.size(), file);
+		}
+	}
+
+	/**
+	 * Writes all entries to {@link #getFile()} if there are entries that have
+	 * not been saved yet. Entries that have been added to the file in the
+	 * meantime (for instance, by an engine processing another interval of the
+	 * same repository) are merged.
+	 *
+	 * @throws IllegalStateException
+	 * 		If this cache has not been loaded yet.
+	 * @throws IOException
+	 * 		If an error occurred while writing {@link #getFile()}.
+	 */
+	public synchronized void save() throws IllegalStateException,
+			IOException {
+		Validate.validateState(repository != null, "Cache has not been loaded");
+		if (!dirty) {
+			return;
+		}
+		final Map<String, Changes> otherChanges = new HashMap<>();
+		final Map<String, CommitInfo> otherCommits = new HashMap<>();
+		read(otherChanges, otherCommits);
+		otherChanges.forEach(changes::putIfAbsent);
+		otherCommits.forEach(commits::putIfAbsent);
+
+		final Path parent = file.getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		final Path tmp = Files.createTempFile(parent,
+				file.getFileName().toString(), ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(
+						Files.newOutputStream(tmp))))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, repository);
+			writeString(out, root);
+			out.writeInt(changes.size());
+			for (final Entry<String, Changes> entry : changes.entrySet()) {
+				writeString(out, entry.getKey());
+				final Changes c = entry.getValue();
+				writeStrings(out, c.getAdded());
+				writeStrings(out, c.getRemoved());
+				writeStrings(out, c.getModified());
+				out.writeInt(c.getRelocated().size());
+				for (final Entry<String, String> r : c.getRelocated()) {
+					writeString(out, r.getKey());
+					writeString(out, r.getValue());
+				}
+			}
+			out.writeInt(commits.size());
+			for (final CommitInfo commit : commits.values()) {
+				writeString(out, commit.getId());
+				writeString(out, commit.getAuthor());
+				writeString(out, commit.getMessage());
+				writeString(out, commit.getDateTime().toString());
+				writeStrings(out, commit.getParentIds());
+			}
+		} catch (final IOException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		dirty = false;
+		log.debug("Saved {} change set(s) and {} commit(s) to {}",
+				changes.size(), commits.size(), file);
+	}
+
+	/**
+	 * Returns the changes between the given revisions, if any. Paths are
+	 * relative to the target directory of an engine. The returned instance
+	 * may be modified.
+	 *
+	 * @param pFrom
+	 * 		The older revision.
+	 * @param pTo
+	 * 		The newer revision.
+	 * @return
+	 * 		A copy of the cached changes.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public synchronized Optional<Changes> getChanges(
+			@NonNull final String pFrom, @NonNull final String pTo)
+			throws NullPointerException {
+		final Changes cached = changes.get(createKey(pFrom, pTo));
+		if (cached == null) {
+			misses++;
+			return Optional.empty();
+		}
+		hits++;
+		return Optional.of(copy(cached));
+	}
+
+	/**
+	 * Adds the changes between the given revisions. Paths must be relative to
+	 * the target directory of an engine.
+	 *
+	 * @param pFrom
+	 * 		The older revision.
+	 * @param pTo
+	 * 		The newer revision.
+	 * @param pChanges
+	 * 		The changes between {@code pFrom} and {@code pTo}.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public synchronized void putChanges(@NonNull final String pFrom,
+			@NonNull final String pTo, @NonNull final Changes pChanges)
+			throws NullPointerException {
+		changes.put(createKey(pFrom, pTo), copy(pChanges));
+		dirty = true;
+	}
+
+	/**
+	 * Returns the metadata of the given commit, if any.
+	 *
+	 * @param pRevision
+	 * 		The revision of the commit.
+	 * @return
+	 * 		The metadata of the commit.
+	 * @throws NullPointerException
+	 * 		If {@code pRevision} is {@code null}.
+	 */
+	public synchronized Optional<CommitInfo> getCommit(
+			@NonNull final String pRevision) throws NullPointerException {
+		return Optional.ofNullable(commits.get(pRevision));
+	}
+
+	/**
+	 * Adds the metadata of a commit.
+	 *
+	 * @param pCommit
+	 * 		The metadata to add.
+	 * @throws NullPointerException
+	 * 		If {@code pCommit} is {@code null}.
+	 */
+	public synchronized void putCommit(@NonNull final CommitInfo pCommit)
+			throws NullPointerException {
+		commits.put(pCommit.getId(), pCommit);
+		dirty = true;
+	}
+
+	/**
+	 * Returns the file this cache is stored in.
+	 *
+	 * @return
+	 * 		The file this cache is stored in.
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the number of cached change sets.
+	 *
+	 * @return
+	 * 		The number of cached change sets.
+	 */
+	public synchronized int getNumChanges() {
+		return changes.size();
+	}
+
+	/**
+	 * Returns the number of successful lookups (see
+	 * {@link #getChanges(String, String)}).
+	 *
+	 * @return
+	 * 		The number of successful lookups.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of failed lookups (see
+	 * {@link #getChanges(String, String)}).
+	 *
+	 * @return
+	 * 		The number of failed lookups.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("ChangesCache(file=%s, changes=%d, commits=%d, " +
+				"hits=%d, misses=%d)", file, changes.size(), commits.size(),
+				hits, misses);
+	}
+
+	////////////////////////////////// Utils //////////////////////////////////
+
+	/**
+	 * Reads the entries of {@link #file} into the given maps. Returns
+	 * {@code false} if {@link #file} does not exist or belongs to another
+	 * repository or root.
+	 */
+	private boolean read(final Map<String, Changes> pChanges,
+			final Map<String, CommitInfo> pCommits) throws IOException {
+		if (!Files.isRegularFile(file)) {
+			return false;
+		}
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(
+						Files.newInputStream(file))))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				log.warn("Ignoring {} (unknown format)", file);
+				return false;
+			}
+			if (!repository.equals(readString(in)) ||
+					!root.equals(readString(in))) {
+				log.warn("Ignoring {} (other repository or root)", file);
+				return false;
+			}
+			final int numChanges = in.readInt();
+			for (int i = 0; i < numChanges; i++) {
+				final String key = readString(in);
+				final Changes c = new Changes();
+				c.getAdded().addAll(readStrings(in));
+				c.getRemoved().addAll(readStrings(in));
+				c.getModified().addAll(readStrings(in));
+				final int numRelocated = in.readInt();
+				for (int j = 0; j < numRelocated; j++) {
+					c.getRelocated().add(new SimpleEntry<>(
+							readString(in), readString(in)));
+				}
+				pChanges.put(key, c);
+			}
+			final int numCommits = in.readInt();
+			for (int i = 0; i < numCommits; i++) {
+				final CommitInfo commit = new CommitInfo(readString(in),
+						readString(in), readString(in),
+						LocalDateTime.parse(readString(in)),
+						readStrings(in));
+				pCommits.put(commit.getId(), commit);
+			}
+			return true;
+		}
+	}
+
+	private static String createKey(final String pFrom, final String pTo) {
+		return pFrom + " " + pTo;
+	}
+
+	private static Changes copy(final Changes pChanges) {
+		final Changes copy = new Changes();
+		copy.getAdded().addAll(pChanges.getAdded());
+		copy.getRemoved().addAll(pChanges.getRemoved());
+		copy.getModified().addAll(pChanges.getModified());
+		pChanges.getRelocated().forEach(r -> copy.getRelocated().add(
+				new SimpleEntry<>(r.getKey(), r.getValue())));
+		return copy;
+	}
+
+	/**
+	 * {@link DataOutputStream#writeUTF(String)} is limited to 64k bytes.
+	 */
+	private static void writeString(final DataOutputStream pOut,
+			final String pString) throws IOException {
+		final byte[] bytes = pString.getBytes(StandardCharsets.UTF_8);
+		pOut.writeInt(bytes.length);
+		pOut.write(bytes);
+	}
+
+	private static String readString(final DataInputStream pIn)
+			throws IOException {
+		final byte[] bytes = new byte[pIn.readInt()];
+		pIn.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeStrings(final DataOutputStream pOut,
+			final List<String> pStrings) throws IOException {
+		pOut.writeInt(pStrings.size());
+		for (final String string : pStrings) {
+			writeString(pOut, string);
+		}
+	}
+
+	private static List<String> readStrings(final DataInputStream pIn)
+			throws IOException {
+		final int size = pIn.readInt();
+		final List<String> strings = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			strings.add(readString(pIn));
+		}
+		return strings;
+	}
+
+	/**
+	 * The metadata of a commit.
+	 */
+	public static class CommitInfo {
+
+		private final String id;
+
+		private final String author;
+
+		private final String message;
+
+		private final LocalDateTime dateTime;
+
+		private final List<String> parentIds;
+
+		/**
+		 * Creates new commit metadata.
+		 *
+		 * @param pId
+		 * 		The id of the commit.
+		 * @param pAuthor
+		 * 		The author of the commit.
+		 * @param pMessage
+		 * 		The message of the commit.
+		 * @param pDateTime
+		 * 		The datetime of the commit.
+		 * @param pParentIds
+		 * 		The ids of the parents of the commit.
+		 * @throws NullPointerException
+		 * 		If any of the given arguments is {@code null}.
+		 */
+		public CommitInfo(@NonNull final String pId,
+				@NonNull final String pAuthor, @NonNull final String pMessage,
+				@NonNull final LocalDateTime pDateTime,
+				@NonNull final List<String> pParentIds)
+				throws NullPointerException {
+			id = pId;
+			author = pAuthor;
+			message = pMessage;
+			dateTime = pDateTime;
+			parentIds = Collections.unmodifiableList(
+					new ArrayList<>(pParentIds));
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getAuthor() {
+			return author;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public LocalDateTime getDateTime() {
+			return dateTime;
+		}
+
+		public List<String> getParentIds() {
+			return parentIds;
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.Commit;
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.diff.DiffAlgorithm;
+import de.unibremen.informatik.st.libvcs4j.diff.HistogramDiff;
+import de.unibremen.informatik.st.libvcs4j.diff.LineInterner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Carries the line attribution (blame) of files forward from one revision to
+ * the next. The attribution of a file is computed with the underlying VCS
+ * once (see {@link #put(VCSFile, List)}) and, afterwards, is updated with the
+ * line diff of the file whenever it changes (see
+ * {@link #update(RevisionRange)}). Inserted lines are attributed to the
+ * latest commit of a range. Added files (which may have been copied or
+ * relocated without being reported as such) are blamed with the underlying
+ * VCS. Thus, the costs of blaming all files of all revisions are linear in
+ * the number of changes rather than in the length of the history.
+ *
+ * Lines are numbered according to {@link VCSFile#readLines()}. Files whose
+ * attribution does not match the number of lines of a file are blamed with
+ * the underlying VCS again. Keep in mind that the lines changed by a merge
+ * commit are attributed to the merge commit rather than to the commits of the
+ * merged branch.
+ *
+ * This class is thread-safe.
+ */
+class IncrementalBlame {
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(IncrementalBlame.class);
+
+	/**
+	 * Diffs the lines of changed files. JGit (and thus {@link
+	 * de.unibremen.informatik.st.libvcs4j.git.GitEngine}) blames with the
+	 * histogram diff algorithm. Using the same algorithm attributes ambiguous
+	 * lines (empty lines, closing braces, ...) the way a full blame does.
+	 */
+	private static final DiffAlgorithm DIFF_ALGORITHM = new HistogramDiff();
+
+	/**
+	 * The number of origins below which unreferenced origins are kept (see
+	 * {@link #evictOrigins()}).
+	 */
+	private static final int MIN_EVICTION_THRESHOLD = 1024;
+
+	/**
+	 * The revision {@link #files} belongs to.
+	 */
+	private String revision = null;
+
+	/**
+	 * Relative path -> origin of each line.
+	 */
+	private final Map<String, List<Origin>> files = new HashMap<>();
+
+	/**
+	 * Commit id -> origin. Shares origins among all lines of all files.
+	 */
+	private final Map<String, Origin> origins = new HashMap<>();
+
+	/**
+	 * The number of origins at which {@link #evictOrigins()} drops the
+	 * origins that are no longer referenced by any line.
+	 */
+	private int evictionThreshold = MIN_EVICTION_THRESHOLD;
+
+	/**
+	 * Returns the line information of the given file, if its attribution is
+	 * known.
+	 *
+	 * @param pFile
+	 * 		The file whose line information is requested.
+	 * @param pEngine
+	 * 		The engine whose model factory is used to create line information.
+	 * @return
+	 * 		The line information of {@code pFile}.
+	 * @throws IOException
+	 * 		If an error occurred while reading {@code pFile}.
+	 */
+	synchronized Optional<List<LineInfo>> get(final VCSFile pFile,
+			final VCSEngine pEngine) throws IOException {
+		if (!pFile.getRevision().getId().equals(revision)) {
+			return Optional.empty();
+		}
+		final List<Origin> lineOrigins = files.get(pFile.getRelativePath());
+		if (lineOrigins == null) {
+			return Optional.empty();
+		}
+		final List<String> lines = pFile.readLines();
+		if (lineOrigins.size() != lines.size()) {
+			log.debug("Dropping stale attribution of {}",
+					pFile.getRelativePath());
+			files.remove(pFile.getRelativePath());
+			return Optional.empty();
+		}
+		final List<LineInfo> lineInfo = new ArrayList<>(lines.size());
+		for (int i = 0; i < lines.size(); i++) {
+			final Origin origin = lineOrigins.get(i);
+			lineInfo.add(pEngine.getModelFactory().createLineInfo(
+					origin.id, origin.author, origin.message,
+					origin.dateTime, i + 1, lines.get(i), pFile, pEngine));
+		}
+		return Optional.of(lineInfo);
+	}
+
+	/**
+	 * Stores the line information of the given file (as computed by the
+	 * underlying VCS). Has no effect if {@code pFile} does not belong to the
+	 * current revision or if {@code pLineInfo} does not match the lines of
+	 * {@code pFile}.
+	 *
+	 * @param pFile
+	 * 		The file the line information belongs to.
+	 * @param pLineInfo
+	 * 		The line information of {@code pFile}.
+	 * @throws IOException
+	 * 		If an error occurred while reading {@code pFile}.
+	 */
+	synchronized void put(final VCSFile pFile,
+			final List<LineInfo> pLineInfo) throws IOException {
+		if (!pFile.getRevision().getId().equals(revision) ||
+				pFile.readLines().size() != pLineInfo.size()) {
+			return;
+		}
+		final List<Origin> lineOrigins = new ArrayList<>(pLineInfo.size());
+		for (final LineInfo li : pLineInfo) {
+			lineOrigins.add(origins.computeIfAbsent(li.getId(), __ ->
+					new Origin(li.getId(), li.getAuthor(), li.getMessage(),
+							li.getDateTime())));
+		}
+		files.put(pFile.getRelativePath(), lineOrigins);
+		evictOrigins();
+	}
+
+	/**
+	 * Carries the attribution of the predecessor revision of {@code pRange}
+	 * forward to the revision of {@code pRange}. If the predecessor revision
+	 * is not the revision of the stored attribution, all attribution is
+	 * discarded.
+	 *
+	 * @param pRange
+	 * 		The range to apply.
+	 * @throws IOException
+	 * 		If an error occurred while reading a changed file.
+	 */
+	synchronized void update(final RevisionRange pRange)
+			throws IOException {
+		final Optional<String> predecessor = pRange.getPredecessorRevision()
+				.map(Revision::getId);
+		if (!predecessor.isPresent() ||
+				!predecessor.get().equals(revision)) {
+			files.clear();
+			origins.clear();
+			revision = pRange.getRevision().getId();
+			return;
+		}
+
+		final Commit commit = pRange.getLatestCommit();
+		final Origin origin = origins.computeIfAbsent(commit.getId(), __ ->
+				new Origin(commit.getId(), commit.getAuthor(),
+						commit.getMessage(), commit.getDateTime()));
+		// Changes are applied to a copy as removed and relocated paths may
+		// be reused by other changes.
+		final Map<String, List<Origin>> updated = new HashMap<>(files);
+		for (final FileChange fileChange : pRange.getFileChanges()) {
+			fileChange.getOldFile()
+					.map(VCSFile::getRelativePath)
+					.ifPresent(updated::remove);
+		}
+		for (final FileChange fileChange : pRange.getFileChanges()) {
+			final Optional<VCSFile> old = fileChange.getOldFile();
+			final Optional<VCSFile> nev = fileChange.getNewFile();
+			if (!old.isPresent() || !nev.isPresent()) {
+				continue;
+			}
+			final List<Origin> oldOrigins =
+					files.get(old.get().getRelativePath());
+			if (oldOrigins == null ||
+					old.get().isBinary() || nev.get().isBinary()) {
+				continue;
+			}
+			final List<String> oldLines = old.get().readLines();
+			if (oldOrigins.size() != oldLines.size()) {
+				continue;
+			}
+			updated.put(nev.get().getRelativePath(), apply(
+					oldOrigins, oldLines, nev.get().readLines(), origin));
+		}
+		files.clear();
+		files.putAll(updated);
+		revision = pRange.getRevision().getId();
+		evictOrigins();
+	}
+
+	/**
+	 * Returns the number of files whose attribution is known.
+	 *
+	 * @return
+	 * 		The number of files whose attribution is known.
+	 */
+	synchronized int size() {
+		return files.size();
+	}
+
+	////////////////////////////////// Utils //////////////////////////////////
+
+	/**
+	 * Removes the origins that are no longer referenced by any line of any
+	 * file (the lines they were attributed to have been changed or removed).
+	 * As this visits all lines of all files, it runs only if the number of
+	 * origins has doubled since the last run.
+	 */
+	private void evictOrigins() {
+		if (origins.size() < evictionThreshold) {
+			return;
+		}
+		final Set<Origin> referenced =
+				Collections.newSetFromMap(new IdentityHashMap<>());
+		files.values().forEach(referenced::addAll);
+		origins.values().removeIf(origin -> !referenced.contains(origin));
+		evictionThreshold = Math.max(
+				MIN_EVICTION_THRESHOLD, 2 * origins.size());
+		log.debug("Keeping {} referenced origins", origins.size());
+	}
+
+	/**
+	 * Diffs {@code pOldLines} with {@code pNewLines} and returns the origins
+	 * of {@code pNewLines}. Unchanged lines keep their origin, inserted lines
+	 * are attributed to {@code pOrigin}.
+	 */
+	private static List<Origin> apply(final List<Origin> pOldOrigins,
+			final List<String> pOldLines, final List<String> pNewLines,
+			final Origin pOrigin) {
+		final LineInterner interner = new LineInterner();
+		final int[] a = new int[pOldLines.size()];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = interner.internLine(pOldLines.get(i));
+		}
+		final int[] b = new int[pNewLines.size()];
+		for (int i = 0; i < b.length; i++) {
+			b[i] = interner.internLine(pNewLines.get(i));
+		}
+
+		final List<Origin> newOrigins = new ArrayList<>(b.length);
+		int pos = 0;
+		for (final DiffAlgorithm.Edit edit : DIFF_ALGORITHM.diff(a, b)) {
+			newOrigins.addAll(pOldOrigins.subList(pos, edit.getBeginA()));
+			for (int i = edit.getBeginB(); i < edit.getEndB(); i++) {
+				newOrigins.add(pOrigin);
+			}
+			pos = edit.getEndA();
+		}
+		newOrigins.addAll(pOldOrigins.subList(pos, pOldOrigins.size()));
+		return newOrigins;
+	}
+
+	/**
+	 * The commit a line originates from.
+	 */
+	private static final class Origin {
+
+		private final String id;
+
+		private final String author;
+
+		private final String message;
+
+		private final LocalDateTime dateTime;
+
+		private Origin(final String pId, final String pAuthor,
+				final String pMessage, final LocalDateTime pDateTime) {
+			id = pId;
+			author = pAuthor;
+			message = pMessage;
+			dateTime = pDateTime;
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.Commit;
+import de.unibremen.informatik.st.libvcs4j.ITEngine;
+import de.unibremen.informatik.st.libvcs4j.Issue;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves the issues referenced by commits (see
+ * {@link ITEngine#getIssuesFor(Commit)}) in the background such that the
+ * latency of issue trackers does not add to the time it takes to process a
+ * revision. At most {@link #getMaxConcurrency()} requests are sent at the
+ * same time, which keeps the load of an issue tracker (and therefore the
+ * risk of exceeding its rate limit) under control. Pending lookups are
+ * queued in submission order. At most {@link #QUEUE_CAPACITY_PER_LOOKUP}
+ * times {@link #getMaxConcurrency()} lookups are queued. If the queue is
+ * full (or this resolver has been closed concurrently), the thread calling
+ * {@link #resolve(ITEngine, Commit)} performs the lookup itself, which
+ * throttles clients that create commits faster than their issues can be
+ * resolved.
+ *
+ * The worker threads are daemon threads that terminate after being idle for
+ * a while. Thus, it is not mandatory to call {@link #close()}.
+ *
+ * This class is thread-safe. The {@link ITEngine} passed to
+ * {@link #resolve(ITEngine, Commit)} must be thread-safe if
+ * {@link #getMaxConcurrency()} is greater than 1.
+ */
+public class IssueResolver implements AutoCloseable {
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(IssueResolver.class);
+
+	/**
+	 * The default maximum number of concurrent lookups.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+	/**
+	 * The number of lookups queued per concurrent lookup.
+	 */
+	public static final int QUEUE_CAPACITY_PER_LOOKUP = 64;
+
+	/**
+	 * Seconds after which idle worker threads terminate.
+	 */
+	private static final long KEEP_ALIVE = 10;
+
+	/**
+	 * Numbers the worker threads of all resolvers.
+	 */
+	private static final AtomicInteger threadCounter = new AtomicInteger();
+
+	/**
+	 * The maximum number of concurrent lookups.
+	 */
+	private final int maxConcurrency;
+
+	/**
+	 * Runs the lookups.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The number of submitted lookups that have not been completed yet.
+	 */
+	private final AtomicInteger pending = new AtomicInteger();
+
+	/**
+	 * Creates a new resolver with {@link #DEFAULT_MAX_CONCURRENCY}.
+	 */
+	public IssueResolver() {
+		this(DEFAULT_MAX_CONCURRENCY);
+	}
+
+	/**
+	 * Creates a new resolver that sends at most {@code pMaxConcurrency}
+	 * requests at the same time.
+	 *
+	 * @param pMaxConcurrency
+	 * 		The maximum number of concurrent lookups ({@code > 0}).
+	 * @throws IllegalArgumentException
+	 * 		If {@code pMaxConcurrency <= 0}.
+	 */
+	public IssueResolver(final int pMaxConcurrency)
+			throws IllegalArgumentException {
+		maxConcurrency = Validate.isPositive(pMaxConcurrency,
+				"Max concurrency <= 0");
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+				maxConcurrency, maxConcurrency,
+				KEEP_ALIVE, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(
+						maxConcurrency * QUEUE_CAPACITY_PER_LOOKUP),
+				runnable -> {
+					final Thread thread = new Thread(runnable,
+							"libvcs4j-issues-" +
+									threadCounter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				// Unlike ThreadPoolExecutor.CallerRunsPolicy, run rejected
+				// lookups after shutdown, too. Otherwise, their futures would
+				// never complete.
+				(runnable, __) -> runnable.run());
+		pool.allowCoreThreadTimeOut(true);
+		executor = pool;
+	}
+
+	/**
+	 * Returns the maximum number of concurrent lookups.
+	 *
+	 * @return
+	 * 		The maximum number of concurrent lookups.
+	 */
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * Returns the number of lookups that have been submitted, but not
+	 * completed yet.
+	 *
+	 * @return
+	 * 		The number of pending lookups.
+	 */
+	public int getNumPending() {
+		return pending.get();
+	}
+
+	/**
+	 * Submits the lookup of the issues referenced by {@code pCommit}. Runs
+	 * the lookup in the calling thread if the queue of this resolver is full
+	 * (see {@link #QUEUE_CAPACITY_PER_LOOKUP}). The returned future is
+	 * completed exceptionally with an {@link UncheckedIOException} if
+	 * {@code pITEngine} throws an {@link IOException}.
+	 *
+	 * @param pITEngine
+	 * 		The engine used to look up the issues.
+	 * @param pCommit
+	 * 		The commit whose issues are looked up.
+	 * @return
+	 * 		The issues referenced by {@code pCommit}.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IllegalStateException
+	 * 		If this resolver has been closed.
+	 */
+	public CompletableFuture<List<Issue>> resolve(
+			@NonNull final ITEngine pITEngine, @NonNull final Commit pCommit)
+			throws NullPointerException, IllegalStateException {
+		Validate.validateState(!executor.isShutdown(),
+				"Resolver has been closed");
+		pending.incrementAndGet();
+		final CompletableFuture<List<Issue>> issues =
+				CompletableFuture.supplyAsync(() -> {
+			try {
+				return pITEngine.getIssuesFor(pCommit);
+			} catch (final IOException e) {
+				log.warn("Unable to resolve issues of commit '{}'",
+						pCommit.getId());
+				throw new UncheckedIOException(e);
+			}
+		}, executor);
+		issues.whenComplete((__, ___) -> pending.decrementAndGet());
+		return issues;
+	}
+
+	/**
+	 * Rejects further lookups. Lookups that have already been submitted are
+	 * still completed.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,460 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Processes the revisions of a repository with multiple workers. The
+ * revisions to process (see {@link AbstractVSCEngine#listRevisions()}) are
+ * split into contiguous slices. Each slice is processed by a dedicated
+ * {@link VCSEngine} that has its own target directory. The engines run on a
+ * fixed size executor, apply a user-defined mapper to each
+ * {@link RevisionRange} of their slice, and pass the results to a bounded
+ * queue. The results are handed over to a consumer on the calling thread,
+ * either in revision order (see {@link #setOrdered(boolean)}) or as they
+ * complete.
+ *
+ * Note: The files of a {@link RevisionRange} are available until its engine
+ * proceeds to the next revision only. That is why the mapper, which runs on
+ * the worker threads, must extract everything it needs from a range.
+ */
+public class ParallelRevisionWalker {
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(ParallelRevisionWalker.class);
+
+	/**
+	 * The default capacity of the result queue (see
+	 * {@link #setCapacity(int)}).
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	/**
+	 * Creates the builders of the engines. Must return a new builder on each
+	 * call.
+	 */
+	private final Supplier<VCSEngineBuilder> builderSupplier;
+
+	/**
+	 * The number of workers.
+	 */
+	private final int numWorkers;
+
+	/**
+	 * Whether results are passed to the consumer in revision order.
+	 */
+	private boolean ordered = true;
+
+	/**
+	 * The capacity of the result queue.
+	 */
+	private int capacity = DEFAULT_CAPACITY;
+
+	/**
+	 * Creates a new walker. {@code pBuilderSupplier} must return a new
+	 * {@link VCSEngineBuilder} on each call such that each worker has its own
+	 * target directory (see {@link VCSEngineBuilder#withTarget(String)}). The
+	 * interval of the first builder determines the revisions to process. The
+	 * engines of all other builders process the revisions of the
+	 * corresponding slice as listed by the first engine, regardless of their
+	 * interval. Thus, slices of non-linear histories are processed as if
+	 * walked sequentially.
+	 *
+	 * @param pBuilderSupplier
+	 * 		Creates the builders of the engines.
+	 * @param pNumWorkers
+	 * 		The number of workers ({@code >= 1}).
+	 * @throws NullPointerException
+	 * 		If {@code pBuilderSupplier} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pNumWorkers < 1}.
+	 */
+	public ParallelRevisionWalker(
+			@NonNull final Supplier<VCSEngineBuilder> pBuilderSupplier,
+			final int pNumWorkers) throws NullPointerException,
+			IllegalArgumentException {
+		builderSupplier = pBuilderSupplier;
+		numWorkers = Validate.isPositive(pNumWorkers,
+				"Number of workers < 1");
+	}
+
+	/**
+	 * Returns the number of workers.
+	 *
+	 * @return
+	 * 		The number of workers.
+	 */
+	public int getNumWorkers() {
+		return numWorkers;
+	}
+
+	/**
+	 * Returns whether results are passed to the consumer in revision order.
+	 *
+	 * @return
+	 * 		{@code true} if results are passed in revision order,
+	 * 		{@code false} if results are passed as they complete.
+	 */
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	/**
+	 * Sets whether results are passed to the consumer in revision order
+	 * (default) or as they complete. In the former case, the results of
+	 * later slices are buffered until all results of the preceding slices
+	 * have been consumed. At most {@link #getCapacity()} results are
+	 * buffered; a worker that is that far ahead of the next result to
+	 * consume waits until the consumer catches up.
+	 *
+	 * @param pOrdered
+	 * 		{@code true} to pass results in revision order, {@code false} to
+	 * 		pass results as they complete.
+	 */
+	public void setOrdered(final boolean pOrdered) {
+		ordered = pOrdered;
+	}
+
+	/**
+	 * Returns the capacity of the result queue.
+	 *
+	 * @return
+	 * 		The capacity of the result queue.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Sets the capacity of the result queue. If the queue is full, workers
+	 * wait until the consumer catches up. In ordered mode (see
+	 * {@link #setOrdered(boolean)}), the capacity bounds the number of
+	 * buffered results as well.
+	 *
+	 * @param pCapacity
+	 * 		The capacity of the result queue ({@code >= 1}).
+	 * @throws IllegalArgumentException
+	 * 		If {@code pCapacity < 1}.
+	 */
+	public void setCapacity(final int pCapacity)
+			throws IllegalArgumentException {
+		capacity = Validate.isPositive(pCapacity, "Capacity < 1");
+	}
+
+	/**
+	 * Applies {@code pMapper} to all revisions (on the worker threads) and
+	 * passes the results to {@code pConsumer} (on the calling thread). Blocks
+	 * until all revisions have been processed or an error occurred. In the
+	 * latter case, all workers are cancelled.
+	 *
+	 * @param pMapper
+	 * 		Maps a {@link RevisionRange} to a result. Must be thread-safe.
+	 * 		{@code null} results are permitted.
+	 * @param pConsumer
+	 * 		Consumes the results.
+	 * @param <T>
+	 * 		The type of the results.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while processing the revisions, or if the
+	 * 		calling thread has been interrupted
+	 * 		({@link InterruptedIOException}).
+	 */
+	public <T> void walk(@NonNull final Function<RevisionRange, T> pMapper,
+			@NonNull final Consumer<T> pConsumer) throws NullPointerException,
+			IOException {
+		final VCSEngine first = builderSupplier.get().build();
+		final List<String> revisions;
+		try {
+			revisions = toAbstractEngine(first).listRevisions();
+		} catch (final IOException | RuntimeException e) {
+			first.close();
+			throw e;
+		}
+		if (revisions.isEmpty()) {
+			first.close();
+			return;
+		}
+
+		final int numSlices = Math.min(numWorkers, revisions.size());
+		final int sliceSize = revisions.size() / numSlices;
+		final int remainder = revisions.size() % numSlices;
+		log.info("Processing {} revision(s) with {} worker(s)",
+				revisions.size(), numSlices);
+
+		final BlockingQueue<Result<T>> queue =
+				new ArrayBlockingQueue<>(capacity);
+		final Window window = ordered ? new Window(capacity) : null;
+		final ExecutorService executor =
+				Executors.newFixedThreadPool(numSlices);
+		try {
+			int from = 0;
+			for (int i = 0; i < numSlices; i++) {
+				final int to = from + sliceSize + (i < remainder ? 1 : 0);
+				final Worker<T> worker = new Worker<>(revisions, from, to,
+						i == 0 ? first : null, pMapper, queue, window);
+				executor.execute(worker);
+				from = to;
+			}
+			Validate.validateState(from == revisions.size());
+			consume(revisions.size(), queue, window, pConsumer);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"Interrupted while waiting for workers");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Applies {@code pConsumer} to all revisions. Since {@code pConsumer} is
+	 * called on the worker threads, the ranges are consumed as they complete
+	 * regardless of {@link #isOrdered()}.
+	 *
+	 * @param pConsumer
+	 * 		Consumes the ranges. Must be thread-safe.
+	 * @throws NullPointerException
+	 * 		If {@code pConsumer} is {@code null}.
+	 * @throws IOException
+	 * 		See {@link #walk(Function, Consumer)}.
+	 */
+	public void walk(@NonNull final Consumer<RevisionRange> pConsumer)
+			throws NullPointerException, IOException {
+		walk(range -> {
+			pConsumer.accept(range);
+			return null;
+		}, __ -> {});
+	}
+
+	////////////////////////////////// Utils //////////////////////////////////
+
+	private <T> void consume(final int pNumResults,
+			final BlockingQueue<Result<T>> pQueue, final Window pWindow,
+			final Consumer<T> pConsumer)
+			throws InterruptedException, IOException {
+		// index -> result (ordered mode only)
+		final Map<Integer, T> pending = new HashMap<>();
+		int next = 0;
+		int received = 0;
+		while (received < pNumResults) {
+			final Result<T> result = pQueue.take();
+			if (result.error != null) {
+				if (result.error instanceof IOException) {
+					throw (IOException) result.error;
+				} else if (result.error instanceof UncheckedIOException) {
+					throw ((UncheckedIOException) result.error).getCause();
+				} else if (result.error instanceof RuntimeException) {
+					throw (RuntimeException) result.error;
+				} else if (result.error instanceof Error) {
+					throw (Error) result.error;
+				}
+				throw new IOException(result.error);
+			}
+			received++;
+			if (ordered) {
+				pending.put(result.index, result.value);
+				while (pending.containsKey(next)) {
+					pConsumer.accept(pending.remove(next));
+					next++;
+				}
+				pWindow.advance(next);
+			} else {
+				pConsumer.accept(result.value);
+			}
+		}
+		Validate.validateState(pending.isEmpty());
+	}
+
+	private static AbstractVSCEngine toAbstractEngine(
+			final VCSEngine pEngine) {
+		Validate.validateState(pEngine instanceof AbstractVSCEngine,
+				"%s is not supported", pEngine.getClass().getSimpleName());
+		return (AbstractVSCEngine) pEngine;
+	}
+
+	/**
+	 * A result (or error) of a worker.
+	 */
+	private static class Result<T> {
+
+		private final int index;
+
+		private final T value;
+
+		private final Throwable error;
+
+		private Result(final int pIndex, final T pValue,
+				final Throwable pError) {
+			index = pIndex;
+			value = pValue;
+			error = pError;
+		}
+	}
+
+	/**
+	 * Bounds the results that are buffered in ordered mode. The result of
+	 * revision {@code index} must not be produced before the results of all
+	 * revisions preceding {@code index - size} have been consumed. The worker
+	 * producing the next result to consume never waits. Hence, the consumer
+	 * buffers at most {@code size} results.
+	 */
+	private static class Window {
+
+		private final int size;
+
+		/**
+		 * The index of the next result to consume.
+		 */
+		private int next = 0;
+
+		private Window(final int pSize) {
+			size = pSize;
+		}
+
+		/**
+		 * Waits until the result of revision {@code pIndex} may be produced.
+		 */
+		private synchronized void await(final int pIndex)
+				throws InterruptedException {
+			while (pIndex >= next + size) {
+				wait();
+			}
+		}
+
+		/**
+		 * Sets the index of the next result to consume.
+		 */
+		private synchronized void advance(final int pNext) {
+			if (pNext != next) {
+				next = pNext;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Processes the revisions {@code [from, to)}. Except for the first slice,
+	 * the engine of a worker starts at revision {@code from - 1} such that
+	 * the changes of revision {@code from} are computed properly. The range of
+	 * revision {@code from - 1} is skipped.
+	 */
+	private class Worker<T> implements Runnable {
+
+		private final List<String> revisions;
+
+		private final int from;
+
+		private final int to;
+
+		private VCSEngine engine;
+
+		private final Function<RevisionRange, T> mapper;
+
+		private final BlockingQueue<Result<T>> queue;
+
+		/**
+		 * {@code null} in unordered mode.
+		 */
+		private final Window window;
+
+		private Worker(final List<String> pRevisions, final int pFrom,
+				final int pTo, final VCSEngine pEngine,
+				final Function<RevisionRange, T> pMapper,
+				final BlockingQueue<Result<T>> pQueue,
+				final Window pWindow) {
+			revisions = pRevisions;
+			from = pFrom;
+			to = pTo;
+			engine = pEngine;
+			mapper = pMapper;
+			queue = pQueue;
+			window = pWindow;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (engine == null) {
+					engine = createEngine();
+				}
+				int index = from == 0 ? 0 : from - 1;
+				final Iterator<RevisionRange> it = engine.iterator();
+				while (index < to && it.hasNext()) {
+					if (Thread.currentThread().isInterrupted()) {
+						return;
+					}
+					final RevisionRange range = it.next();
+					Validate.validateState(range.getRevision().getId()
+							.equals(revisions.get(index)));
+					if (index >= from) {
+						if (window != null) {
+							window.await(index);
+						}
+						queue.put(new Result<>(
+								index, mapper.apply(range), null));
+					}
+					index++;
+				}
+				Validate.validateState(index == to,
+						"Slice [%d, %d) ended at %d", from, to, index);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (final Throwable e) {
+				try {
+					queue.put(new Result<>(-1, null, e));
+				} catch (final InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			} finally {
+				if (engine != null) {
+					try {
+						engine.close();
+					} catch (final IOException e) {
+						log.warn("Unable to close engine", e);
+					}
+				}
+			}
+		}
+
+		private VCSEngine createEngine() throws IOException {
+			final VCSEngine vcs = builderSupplier.get().build();
+			try {
+				final AbstractVSCEngine abstractEngine = toAbstractEngine(vcs);
+				// Re-enumerating the interval of a slice may yield different
+				// revisions if the history is not linear.
+				abstractEngine.setRevisions(revisions.subList(from - 1, to));
+				// The ordinal of revision `from - 1` is `from`.
+				abstractEngine.setOrdinal(from);
+			} catch (final RuntimeException e) {
+				vcs.close();
+				throw e;
+			}
+			return vcs;
+		}
+	}
+}
@@ -24,11 +24,16 @@ import org.eclipse.jgit.blame.BlameResult;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.RenameDetector;
 import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.AsyncObjectLoaderQueue;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.MutableObjectId;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
@@ -36,6 +41,7 @@ import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,6 +59,19 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
+ * An {@link VCSEngine} that is supposed to extract file changes from Git
+ * repositories. All operations share a single repository handle which is
+ * kept open until {@link #close()} is called.
+ *
+ * Like any {@link AbstractIntervalVCSEngine}, this engine is NOT threadsafe.
+ * That is, neither iterating revisions nor reading files (see
+ * {@link VCSFile#readAllBytes()}) must be done from multiple threads
+ * concurrently. Nevertheless, the state that is specific to this engine
+ * (the repository handle and the resolved blob ids) is guarded, and each
+ * operation opens its own {@link ObjectReader} and {@link RevWalk}, such that
+ * callers that serialize their access to this engine may do so from
+ * different threads.
+ *
  * @author Marcel Steinbeck
  */
 public class GitEngine extends AbstractIntervalVCSEngine {
@@ -67,11 +86,47 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 
 	private static final String DEFAULT_BRANCH = "master";
 
+	/**
+	 * The maximum number of revisions whose resolved blob ids are memorized
+	 * (see {@link #resolvedBlobs}).
+	 */
+	private static final int MAX_RESOLVED_REVISIONS = 4;
+
 	/**
 	 * Examined branch, for instance, 'master'.
 	 */
 	private final String branch;
 
+	/**
+	 * The repository handle shared by all operations of this engine. Opened
+	 * on demand (see {@link #openRepository()}) and released by
+	 * {@link #close()}.
+	 */
+	private Git git = null;
+
+	/**
+	 * Counts how often the repository has been opened.
+	 */
+	private int numRepositoryOpens = 0;
+
+	/**
+	 * Revision -> resolved blob ids (path -> id) of the revisions most
+	 * recently resolved by {@link #resolveBlobs(List, String)}. Keeping more
+	 * than one revision avoids walking the same trees again if, for example,
+	 * the files of a range's old and new revision are read alternately (see
+	 * {@link #computeDiff(FileChange)}). Iterates from least to most recently
+	 * used. Guarded by itself.
+	 */
+	private final LinkedHashMap<String, Map<String, ObjectId>> resolvedBlobs =
+			new LinkedHashMap<String, Map<String, ObjectId>>(
+					16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<String,
+						Map<String, ObjectId>> eldest) {
+					return size() > MAX_RESOLVED_REVISIONS;
+				}
+			};
+
 	/**
 	 * Creates a new Git engine that processes all commits of the given root
 	 * directory and branch. Use {@link VCSEngineBuilder} for convenience.
@@ -277,8 +332,21 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 		return id;
 	}
 
-	private Git openRepository() throws IOException {
-		return Git.open(getTarget().toFile());
+	/**
+	 * Returns the repository handle shared by all operations of this engine.
+	 * Opens the repository if necessary.
+	 *
+	 * @return
+	 * 		The shared repository handle.
+	 * @throws IOException
+	 * 		If an error occurred while opening the repository.
+	 */
+	private synchronized Git openRepository() throws IOException {
+		if (git == null) {
+			git = Git.open(getTarget().toFile());
+			numRepositoryOpens++;
+		}
+		return git;
 	}
 
 	private String toGitPath(final String pPath) {
@@ -360,7 +428,7 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 
 			final RenameDetector rd = new RenameDetector(repo);
 			rd.addAll(diffEntries);
-			rd.compute().stream()
+			rd.compute(reader, NullProgressMonitor.INSTANCE).stream()
 					.filter(entry -> entry.getScore() >= rd.getRenameScore())
 					.forEach(rename -> {
 						final boolean removed = changes.getRemoved().remove(
@@ -558,24 +626,91 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 	@Override
 	protected byte[] readAllBytesImpl(final String pPath,
 			final String pRevision) throws IOException {
-		final String path = toGitPath(pPath);
+		final ObjectId id = resolveBlob(pPath, pRevision);
+		try (ObjectReader reader = openRepository().getRepository()
+				.newObjectReader()) {
+			return reader.open(id).getBytes();
+		}
+	}
+
+	@Override
+	protected String createBlobKey(final String pPath,
+			final String pRevision) throws IOException {
+		return "blob:" + resolveBlob(pPath, pRevision).name();
+	}
+
+	@Override
+	protected Map<String, String> createBlobKeys(final List<String> pPaths,
+			final String pRevision) throws IOException {
+		final Map<String, String> keys = new HashMap<>();
+		resolveBlobs(pPaths, pRevision).forEach((path, id) ->
+				keys.put(path, "blob:" + id.name()));
+		return keys;
+	}
+
+	@Override
+	protected Map<String, byte[]> readAllBytesImpl(final List<String> pPaths,
+			final String pRevision) throws IOException {
+		final Map<String, ObjectId> blobs = resolveBlobs(pPaths, pRevision);
+		final Map<ObjectId, List<String>> id2Paths = new HashMap<>();
+		blobs.forEach((path, id) -> id2Paths
+				.computeIfAbsent(id, __ -> new ArrayList<>())
+				.add(path));
+
+		final Map<String, byte[]> contents = new HashMap<>();
+		try (ObjectReader reader = openRepository().getRepository()
+				.newObjectReader()) {
+			final AsyncObjectLoaderQueue<ObjectId> queue = reader.open(
+					id2Paths.keySet(), true);
+			try {
+				while (queue.next()) {
+					final byte[] bytes = queue.open().getBytes();
+					id2Paths.get(queue.getObjectId())
+							.forEach(path -> contents.put(path, bytes));
+				}
+			} finally {
+				queue.release();
+			}
+		}
+		return contents;
+	}
+
+	@Override
+	protected boolean supportsVirtualWorktree() {
+		return true;
+	}
+
+	@Override
+	protected List<String> listFilesImpl(final String pRevision)
+			throws IOException {
 		final AnyObjectId rev = createId(pRevision);
 		final Repository repo = openRepository().getRepository();
+		final String root = getRoot();
 
-		try (RevWalk revWalk = new RevWalk(repo)) {
-			final RevCommit commit = revWalk.parseCommit(rev);
-			final RevTree tree = commit.getTree();
-
-			try (TreeWalk treeWalk = new TreeWalk(repo)) {
-				treeWalk.addTree(tree);
-				treeWalk.setRecursive(true);
-				treeWalk.setFilter(PathFilter.create(path));
-				Validate.isTrue(treeWalk.next(), "Unable to find '%s'", pPath);
-				final ObjectId id = treeWalk.getObjectId(0);
-				final ObjectLoader loader = repo.open(id);
-				return loader.getBytes();
+		final List<String> files = new ArrayList<>();
+		try (RevWalk revWalk = new RevWalk(repo);
+			 TreeWalk treeWalk = new TreeWalk(repo)) {
+			final RevTree tree = revWalk.parseCommit(rev).getTree();
+			treeWalk.addTree(tree);
+			treeWalk.setRecursive(true);
+			if (!root.isEmpty()) {
+				treeWalk.setFilter(PathFilter.create(root));
+			}
+			while (treeWalk.next()) {
+				if (treeWalk.getFileMode(0) == FileMode.GITLINK) {
+					continue; // submodules are not checked out either
+				}
+				final String path = treeWalk.getPathString();
+				if (root.isEmpty()) {
+					files.add(path);
+				} else if (path.equals(root)) { // root is a file
+					files.add("");
+				} else {
+					files.add(path.substring(root.length() + 1));
+				}
 			}
 		}
+		return files;
 	}
 
 	@Override
@@ -631,26 +766,15 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 			final List<FileChange> pFileChanges, final List<Issue> pIssues)
 			throws IllegalArgumentException, IOException {
 		final AnyObjectId rev = createId(pRevision);
-		final List<RevCommit> commits = new ArrayList<>();
-
-		try {
-			openRepository()
-					.log()
-					.setMaxCount(1)
-					.add(rev)
-					.call()
-					.forEach(commits::add);
-		} catch (final GitAPIException e) {
-			throw new IOException(e);
+		final RevCommit rc;
+		try (RevWalk revWalk = new RevWalk(
+				openRepository().getRepository())) {
+			rc = revWalk.parseCommit(rev);
 		}
-		Validate.validateState(commits.size() == 1, String.format(
-				"Unexpected number of commits: Expected %d, Actual %d",
-				1, commits.size()));
-		Validate.validateState(commits.get(0).getName().equals(pRevision),
+		Validate.validateState(rc.getName().equals(pRevision),
 				String.format("Unexpected revision: Expected '%s', Actual '%s'",
-				pRevision, commits.get(0).getName()));
+				pRevision, rc.getName()));
 
-		final RevCommit rc = commits.get(0);
 		final List<String> parentIds =
 				Arrays.stream(rc.getParents())
 						.map(AnyObjectId::getName)
@@ -666,20 +790,151 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 	}
 
 	@Override
-	protected void initImpl() throws IOException {
+	protected synchronized void initImpl() throws IOException {
 		try {
 			log.info("Cloning {} to {}", getRepository(), getTarget());
-			Git.cloneRepository()
+			Validate.validateState(git == null);
+			git = Git.cloneRepository()
 					.setURI(getRepository())
 					.setDirectory(getTarget().toFile())
 					.setBranchesToClone(Collections.singleton(branch))
 					.setBranch(branch)
+					.setNoCheckout(isVirtualWorktree())
 					.call();
+			numRepositoryOpens++;
+			if (isVirtualWorktree()) {
+				linkHead();
+			}
 		} catch (final GitAPIException e) {
 			throw new IOException(e);
 		}
 	}
 
+	/**
+	 * Returns the id of the blob of the given file (see
+	 * {@link #resolveBlobs(List, String)}).
+	 */
+	private ObjectId resolveBlob(final String pPath, final String pRevision)
+			throws IOException {
+		return resolveBlobs(Collections.singletonList(pPath), pRevision)
+				.get(pPath);
+	}
+
+	/**
+	 * Returns the ids of the blobs of the given files (path -> id). Walks the
+	 * tree of the given revision only once. The ids of the most recently
+	 * resolved revisions are memorized (see {@link #resolvedBlobs}) such that
+	 * {@link #createBlobKey(String, String)} and a subsequent
+	 * {@link #readAllBytesImpl(String, String)} walk the tree only once, too.
+	 */
+	private Map<String, ObjectId> resolveBlobs(final List<String> pPaths,
+			final String pRevision) throws IOException {
+		final Map<String, ObjectId> blobs = new HashMap<>();
+		final Map<String, String> unresolved = new HashMap<>();
+		synchronized (resolvedBlobs) {
+			final Map<String, ObjectId> memo = resolvedBlobs.computeIfAbsent(
+					pRevision, __ -> new HashMap<>());
+			for (final String path : pPaths) {
+				final ObjectId id = memo.get(path);
+				if (id != null) {
+					blobs.put(path, id);
+				} else {
+					unresolved.put(toGitPath(path), path);
+				}
+			}
+		}
+
+		if (!unresolved.isEmpty()) {
+			final AnyObjectId rev = createId(pRevision);
+			final Repository repo = openRepository().getRepository();
+			final Map<String, ObjectId> resolved = new HashMap<>();
+			try (RevWalk revWalk = new RevWalk(repo);
+				 TreeWalk treeWalk = new TreeWalk(repo)) {
+				final RevTree tree = revWalk.parseCommit(rev).getTree();
+				treeWalk.addTree(tree);
+				treeWalk.setRecursive(true);
+				treeWalk.setFilter(unresolved.size() == 1
+						? PathFilter.create(unresolved.keySet()
+								.iterator().next())
+						: PathFilterGroup.createFromStrings(
+								unresolved.keySet()));
+				while (treeWalk.next()) {
+					final String path = unresolved.remove(
+							treeWalk.getPathString());
+					if (path != null) {
+						resolved.put(path, treeWalk.getObjectId(0));
+					}
+				}
+			}
+			Validate.isTrue(unresolved.isEmpty(), "Unable to find %s",
+					unresolved.values());
+			blobs.putAll(resolved);
+			synchronized (resolvedBlobs) {
+				resolvedBlobs.computeIfAbsent(pRevision, __ -> new HashMap<>())
+						.putAll(resolved);
+			}
+		}
+		return blobs;
+	}
+
+	/**
+	 * A clone without checkout neither creates the local branch nor points
+	 * HEAD to it. Both are required to enumerate the revisions to process.
+	 */
+	private void linkHead() throws IOException {
+		final Repository repository = git.getRepository();
+		final String name = Repository.shortenRefName(branch);
+		final Ref remote = repository.exactRef(Constants.R_REMOTES +
+				Constants.DEFAULT_REMOTE_NAME + "/" + name);
+		Validate.validateState(remote != null,
+				"Missing remote branch '%s'", name);
+		final RefUpdate local = repository.updateRef(
+				Constants.R_HEADS + name);
+		local.setNewObjectId(remote.getObjectId());
+		local.update();
+		final RefUpdate head = repository.updateRef(Constants.HEAD);
+		head.disableRefLog();
+		head.link(Constants.R_HEADS + name);
+	}
+
+	/**
+	 * Releases the shared repository handle. It is reopened on demand if this
+	 * engine is used afterwards.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		super.close();
+		if (git != null) {
+			log.debug("Closing {} (repository opens: {})",
+					getTarget(), numRepositoryOpens);
+			git.close();
+			git = null;
+		}
+	}
+
+	/**
+	 * Returns whether the shared repository handle is currently open.
+	 *
+	 * @return
+	 * 		{@code true} if the shared repository handle is open,
+	 * 		{@code false} otherwise.
+	 */
+	public synchronized boolean isRepositoryOpen() {
+		return git != null;
+	}
+
+	/**
+	 * Returns how often this engine has opened the repository. Unless
+	 * {@link #close()} has been called in between, this value should never
+	 * exceed 1.
+	 *
+	 * @return
+	 * 		The number of times the repository has been opened.
+	 */
+	public synchronized int getNumRepositoryOpens() {
+		return numRepositoryOpens;
+	}
+
 	@Override
 	public FilenameFilter createVCSFileFilter() {
 		return (pDir, pName) -> !pName.equals(".git");
@@ -2,6 +2,7 @@ package de.unibremen.informatik.st.libvcs4j.github;
 
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.Issue.Comment;
+import de.unibremen.informatik.st.libvcs4j.IssueIdParser;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import de.unibremen.informatik.st.libvcs4j.engine.AbstractITEngine;
 import org.kohsuke.github.*;
@@ -10,11 +11,30 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 public class GithubEngine extends AbstractITEngine {
 
+	/**
+	 * The number of issues requested per page when listing issues (see
+	 * {@link #getIssuesById(Collection)}).
+	 */
+	private static final int PAGE_SIZE = 100;
+
+	/**
+	 * The maximum number of pages requested when listing issues (see
+	 * {@link #getIssuesById(Collection)}).
+	 */
+	private static final int MAX_PAGES = 10;
+
 	private final GHRepository github;
 
 	/**
@@ -61,11 +81,36 @@ public class GithubEngine extends AbstractITEngine {
 				.getRepository(pRepository);
 	}
 
+	/**
+	 * Creates a new engine that uses the given client. Allows to connect to
+	 * other endpoints than api.github.com (see {@link GitHubBuilder}).
+	 *
+	 * @param pGitHub
+	 *      The client to use.
+	 * @param pRepository
+	 *      The repository to track.
+	 * @throws IOException
+	 *      If an error occurred while connecting to the given repository.
+	 */
+	public GithubEngine(final GitHub pGitHub, final String pRepository)
+			throws IOException {
+		super(pRepository);
+		github = Validate.notNull(pGitHub).getRepository(pRepository);
+	}
+
+	/**
+	 * Returns the issue with the given id. Returns an empty {@link Optional}
+	 * for ids that are not of style {@link IssueIdParser.Style#HASH} as
+	 * Github does not support such references.
+	 */
 	@Override
 	public Optional<Issue> getIssueById(final String pId)
 			throws NullPointerException, IllegalArgumentException,
 			IOException {
 		Validate.notEmpty(pId);
+		if (!isSupported(pId)) {
+			return Optional.empty();
+		}
 		try {
 			final int id = Integer.parseInt(pId);
 			GHIssue ghIssue = github.getIssue(id);
@@ -77,6 +122,87 @@ public class GithubEngine extends AbstractITEngine {
 		}
 	}
 
+	/**
+	 * Retrieves multiple issues with a single paged listing of all issues of
+	 * the repository (newest first). The listing stops as soon as all issues
+	 * have been found, the issue numbers fall below the smallest requested
+	 * id, {@link #MAX_PAGES} pages have been requested, or the pages down to
+	 * the smallest id outnumber the missing issues (that is, if the requested
+	 * ids are sparse or far below the newest issue, where paging costs more
+	 * requests than retrieving the issues one by one). Issues that have not
+	 * been found in the listing are retrieved with
+	 * {@link #getIssueById(String)}. Ids that are not of style
+	 * {@link IssueIdParser.Style#HASH} are skipped.
+	 */
+	@Override
+	public Map<String, Issue> getIssuesById(final Collection<String> pIds)
+			throws IllegalArgumentException, IOException {
+		final Set<Integer> ids = new HashSet<>();
+		if (pIds != null) {
+			try {
+				pIds.stream()
+						.filter(Objects::nonNull)
+						.filter(this::isSupported)
+						.map(Integer::parseInt)
+						.forEach(ids::add);
+			} catch (final NumberFormatException e) {
+				throw new IllegalArgumentException(e.getMessage());
+			}
+		}
+		if (ids.size() <= 1) {
+			return super.getIssuesById(pIds);
+		}
+
+		final int min = Collections.min(ids);
+		final Map<Integer, Issue> issues = new LinkedHashMap<>();
+		try {
+			int listed = 0;
+			for (final GHIssue ghIssue : github
+					.listIssues(GHIssueState.ALL)
+					.withPageSize(PAGE_SIZE)) {
+				final int number = ghIssue.getNumber();
+				if (ids.remove(number)) {
+					issues.put(number, createIssue(ghIssue));
+				}
+				listed++;
+				if (ids.isEmpty() || number < min) {
+					break;
+				}
+				// Stop at the end of a page if paging down to the smallest
+				// id takes more requests than retrieving the missing issues
+				// one by one.
+				if (listed % PAGE_SIZE == 0 &&
+						(listed / PAGE_SIZE >= MAX_PAGES ||
+						(number - min) / PAGE_SIZE + 1 > ids.size())) {
+					break;
+				}
+			}
+		} catch (final RuntimeException e) {
+			// Paged iterators wrap I/O errors.
+			throw new IOException(e);
+		}
+		for (final Integer id : ids) {
+			getIssueById(String.valueOf(id))
+					.ifPresent(issue -> issues.put(id, issue));
+		}
+
+		final Map<String, Issue> result = new LinkedHashMap<>();
+		pIds.stream()
+				.filter(Objects::nonNull)
+				.filter(this::isSupported)
+				.forEach(id -> {
+					final Issue issue = issues.get(Integer.parseInt(id));
+					if (issue != null) {
+						result.put(id, issue);
+					}
+				});
+		return result;
+	}
+
+	private boolean isSupported(final String pId) {
+		return getSupportedStyles().contains(IssueIdParser.styleOf(pId));
+	}
+
 	private Issue createIssue(final GHIssue pGHIssue) throws IOException {
 		String author = pGHIssue.getUser().getName();
 		if (author == null) {
@@ -88,8 +214,11 @@ public class GithubEngine extends AbstractITEngine {
 				.atZone(ZoneId.systemDefault())
 				.toLocalDateTime();
 		final List<Comment> comments = new ArrayList<>();
-		for (final GHIssueComment c : pGHIssue.getComments()) {
-			comments.add(createComment(c));
+		// Avoid a request for issues without comments.
+		if (pGHIssue.getCommentsCount() > 0) {
+			for (final GHIssueComment c : pGHIssue.getComments()) {
+				comments.add(createComment(c));
+			}
 		}
 		return getModelFactory().createIssue(
 				String.valueOf(pGHIssue.getNumber()), author,
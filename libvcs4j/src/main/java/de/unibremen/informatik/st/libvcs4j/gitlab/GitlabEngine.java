@@ -1,17 +1,23 @@
 package de.unibremen.informatik.st.libvcs4j.gitlab;
 
 import de.unibremen.informatik.st.libvcs4j.Issue;
+import de.unibremen.informatik.st.libvcs4j.IssueIdParser;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import de.unibremen.informatik.st.libvcs4j.engine.AbstractITEngine;
 import org.gitlab.api.GitlabAPI;
 import org.gitlab.api.models.GitlabIssue;
+import org.gitlab.api.models.GitlabMergeRequest;
+import org.gitlab.api.models.GitlabUser;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public class GitlabEngine extends AbstractITEngine {
 
@@ -30,13 +36,42 @@ public class GitlabEngine extends AbstractITEngine {
 		return host;
 	}
 
+	/**
+	 * Supports '#6' references of issues and '!6' references of merge
+	 * requests.
+	 */
+	@Override
+	public Set<IssueIdParser.Style> getSupportedStyles() {
+		return EnumSet.of(IssueIdParser.Style.HASH,
+				IssueIdParser.Style.MERGE_REQUEST);
+	}
+
+	/**
+	 * Returns the issue with the given id. Ids of the form '!6' (see
+	 * {@link IssueIdParser.Style#MERGE_REQUEST}) are resolved as merge
+	 * requests. The id of the returned issue is the given id.
+	 */
 	@Override
 	public Optional<Issue> getIssueById(final String pId) throws IOException {
 		Validate.notEmpty(pId);
 		try {
+			if (IssueIdParser.styleOf(pId) ==
+					IssueIdParser.Style.MERGE_REQUEST) {
+				final GitlabMergeRequest glMergeRequest =
+						gitlab.getMergeRequestByIid(getRepository(),
+								Integer.parseInt(pId.substring(1)));
+				return Optional.of(createIssue(pId,
+						glMergeRequest.getAuthor(),
+						glMergeRequest.getTitle(),
+						glMergeRequest.getDescription(),
+						glMergeRequest.getCreatedAt()));
+			}
 			final GitlabIssue glIssue = gitlab.getIssue(
 					getRepository(), Integer.parseInt(pId));
-			return Optional.of(createIssue(glIssue));
+			return Optional.of(createIssue(
+					String.valueOf(glIssue.getId()), glIssue.getAuthor(),
+					glIssue.getTitle(), glIssue.getDescription(),
+					glIssue.getCreatedAt()));
 		} catch (final NumberFormatException e) {
 			throw new IllegalArgumentException(e.getMessage());
 		} catch (final FileNotFoundException e) {
@@ -44,21 +79,20 @@ public class GitlabEngine extends AbstractITEngine {
 		}
 	}
 
-	private Issue createIssue(final GitlabIssue pGLIssue) {
-		String author = pGLIssue.getAuthor().getName();
+	private Issue createIssue(final String pId, final GitlabUser pAuthor,
+			final String pTitle, final String pDescription,
+			final Date pCreatedAt) {
+		String author = pAuthor.getName();
 		if (author == null) {
-			author = pGLIssue.getAuthor().getUsername();
+			author = pAuthor.getUsername();
 		}
-		final LocalDateTime dateTime = pGLIssue
-				.getCreatedAt()
+		final LocalDateTime dateTime = pCreatedAt
 				.toInstant()
 				.atZone(ZoneId.systemDefault())
 				.toLocalDateTime();
 		final Issue.Comment comment = getModelFactory().createComment(
-				author, pGLIssue.getDescription(), dateTime, this);
-		return getModelFactory().createIssue(
-				String.valueOf(pGLIssue.getId()),
-				author, pGLIssue.getTitle(), dateTime,
+				author, pDescription, dateTime, this);
+		return getModelFactory().createIssue(pId, author, pTitle, dateTime,
 				Collections.singletonList(comment), this);
 	}
 }
@@ -43,6 +43,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -78,10 +79,41 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 	private static final Predicate<String> FILE_PROTOCOL =
 			Pattern.compile("file://.*").asPredicate();
 
+	/**
+	 * The number of upcoming revisions whose changesets are retrieved at once
+	 * when creating commits (see {@link #getChangeset(String)}).
+	 */
+	private static final int COMMIT_LOG_WINDOW = 64;
+
+	/**
+	 * The maximum number of entries kept in {@link #changesets}. Each
+	 * changeset is stored by id and number.
+	 */
+	private static final int MAX_CHANGESETS = 4 * COMMIT_LOG_WINDOW;
+
 	private final String branch;
 
 	private Repository repository = null;
 
+	/**
+	 * Revision (id or number) -> changeset. Filled in windows of
+	 * {@link #COMMIT_LOG_WINDOW} upcoming revisions and limited to
+	 * {@link #MAX_CHANGESETS} (least recently used entries are removed first).
+	 */
+	private final Map<String, Changeset> changesets =
+			new LinkedHashMap<String, Changeset>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(
+						final Map.Entry<String, Changeset> pEldest) {
+					return size() > MAX_CHANGESETS;
+				}
+			};
+
+	/**
+	 * Counts the log commands executed to retrieve commit metadata.
+	 */
+	private int numCommitLogRequests = 0;
+
 	/**
 	 * Creates a new Mercurial engine that processes all commits of the given
 	 * root directory and branch. Use {@link VCSEngineBuilder} for convenience.
@@ -413,17 +445,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 			throws IllegalArgumentException, IOException {
 		Validate.validateState(repository != null);
 
-		final List<Changeset> changes;
-		try {
-			final LogCommand cmd = LogCommandFlags.on(repository);
-			changes = cmd.rev(pRevision).execute();
-		} catch (final RuntimeException e) {
-			throw new IOException(e);
-		}
-		Validate.validateState(changes.size() == 1,
-				"Unexpected number of log entries: Expected %d, Actual %d",
-				1, changes.size());
-		final Changeset changeset = changes.get(0);
+		final Changeset changeset = getChangeset(pRevision);
 
 		final LocalDateTime dateTime = LocalDateTime.ofInstant(
 				changeset.getTimestamp().getDate().toInstant(),
@@ -440,6 +462,73 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 				pIssues, this);
 	}
 
+	/**
+	 * Returns the changeset of the given revision. Changesets are retrieved
+	 * in windows of {@link #COMMIT_LOG_WINDOW} upcoming revisions (see
+	 * {@link #listUpcomingRevisions(int)}) with a single log command, such
+	 * that subsequent revisions are served without further commands. Falls
+	 * back to a single revision command if the window does not contain
+	 * {@code pRevision}.
+	 */
+	private Changeset getChangeset(final String pRevision)
+			throws IOException {
+		Changeset changeset = changesets.get(pRevision);
+		if (changeset != null) {
+			return changeset;
+		}
+		final List<String> window = listUpcomingRevisions(COMMIT_LOG_WINDOW);
+		if (window.contains(pRevision)) {
+			log(window);
+			changeset = changesets.get(pRevision);
+		}
+		if (changeset == null) {
+			final List<Changeset> changes =
+					log(Collections.singletonList(pRevision));
+			Validate.validateState(changes.size() == 1,
+					"Unexpected number of log entries: Expected %d, Actual %d",
+					1, changes.size());
+			changeset = changes.get(0);
+			changesets.put(pRevision, changeset);
+		}
+		return changeset;
+	}
+
+	/**
+	 * Retrieves the changesets of the given revisions with a single log
+	 * command and stores them in {@link #changesets} (by id and number).
+	 */
+	private List<Changeset> log(final List<String> pRevisions)
+			throws IOException {
+		Validate.validateState(repository != null);
+
+		final List<Changeset> changes;
+		try {
+			final LogCommand cmd = LogCommandFlags.on(repository);
+			changes = cmd.rev(pRevisions.toArray(new String[0])).execute();
+		} catch (final RuntimeException e) {
+			throw new IOException(e);
+		}
+		numCommitLogRequests++;
+		changes.forEach(cs -> {
+			changesets.put(cs.getNode(), cs);
+			changesets.put(String.valueOf(cs.getRevision()), cs);
+		});
+		return changes;
+	}
+
+	/**
+	 * Returns the number of log commands this engine has executed to
+	 * retrieve commit metadata. As changesets are retrieved in windows of
+	 * {@value #COMMIT_LOG_WINDOW} revisions, this value is usually much
+	 * smaller than the number of created commits.
+	 *
+	 * @return
+	 * 		The number of log commands executed to retrieve commit metadata.
+	 */
+	public int getNumCommitLogRequests() {
+		return numCommitLogRequests;
+	}
+
 	@Override
 	protected Optional<String> getLatestRevision() throws IOException {
 		// Keep in mind that 'hg log' returns changesets in the following
@@ -1,5 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j.svn;
 
+import com.google.common.collect.AbstractIterator;
 import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
@@ -20,11 +21,13 @@ import lombok.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNLogEntry;
 import org.tmatesoft.svn.core.SVNNodeKind;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepository;
 import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
 import org.tmatesoft.svn.core.wc.ISVNAnnotateHandler;
-import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNLogClient;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 import org.tmatesoft.svn.core.wc.SVNStatusType;
 import org.tmatesoft.svn.core.wc2.SvnCat;
@@ -47,7 +50,10 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -55,7 +61,9 @@ import java.util.stream.Collectors;
 
 /**
  * An {@link VCSEngine} that is supposed to extract file changes from SVN
- * repositories.
+ * repositories. All operations share a single operation factory (and thus
+ * its pooled sessions) and a single repository session which are kept open
+ * until {@link #close()} is called.
  *
  * @author Marcel Steinbeck
  */
@@ -71,9 +79,77 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 			.compile("file://.*")
 			.asPredicate();
 
+	/**
+	 * The number of log entries retrieved at once while iterating the
+	 * revisions to process (see {@link #listRevisionsLazy(long, long)}).
+	 */
+	private static final int LOG_PAGE_SIZE = 512;
+
+	/**
+	 * The number of revisions whose log entries are retrieved at once when
+	 * creating commits (see {@link #getLogEntry(long)}).
+	 */
+	private static final int COMMIT_LOG_WINDOW = 128;
+
+	/**
+	 * The maximum number of log entries kept in {@link #logEntries}.
+	 */
+	private static final int MAX_LOG_ENTRIES = 4 * COMMIT_LOG_WINDOW;
+
 	public static final LocalDateTime MINIMUM_DATETIME =
 			LocalDateTime.of(1980, 1, 1, 0, 0, 0);
 
+	/**
+	 * The operation factory shared by all operations of this engine. Pools
+	 * the sessions of the operations it runs. Created on demand (see
+	 * {@link #getOperationFactory()}) and disposed by {@link #close()}.
+	 */
+	private SvnOperationFactory operationFactory = null;
+
+	/**
+	 * The repository session (of {@link #getInput()}) shared by all
+	 * operations of this engine that query the repository directly. Created
+	 * on demand (see {@link #getSession()}) and closed by {@link #close()}.
+	 */
+	private SVNRepository session = null;
+
+	/**
+	 * The latest revision of the repository as seen by
+	 * {@link #getLogEntry(long)}.
+	 */
+	private long headRevision = -1;
+
+	/**
+	 * Revision -> log entry. Filled in windows of {@link #COMMIT_LOG_WINDOW}
+	 * revisions and limited to {@link #MAX_LOG_ENTRIES} (least recently used
+	 * entries are removed first).
+	 */
+	private final Map<Long, SVNLogEntry> logEntries =
+			new LinkedHashMap<Long, SVNLogEntry>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(
+						final Map.Entry<Long, SVNLogEntry> pEldest) {
+					return size() > MAX_LOG_ENTRIES;
+				}
+			};
+
+	/**
+	 * Counts how often a session (operation factory or repository session)
+	 * has been created.
+	 */
+	private int numSessionOpens = 0;
+
+	/**
+	 * Counts how often an existing session (operation factory or repository
+	 * session) has been reused.
+	 */
+	private int numSessionReuses = 0;
+
+	/**
+	 * Counts the log requests sent to retrieve commit metadata.
+	 */
+	private int numCommitLogRequests = 0;
+
 	/**
 	 * Creates a new SVN engine that processes all commits of the given root
 	 * directory. Use {@link VCSEngineBuilder} for convenience.
@@ -273,25 +349,126 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 		return SVNURL.parseURIEncoded(pURL);
 	}
 
+	/**
+	 * Returns the shared operation factory. Creates it if necessary.
+	 */
+	private SvnOperationFactory getOperationFactory() {
+		if (operationFactory == null) {
+			operationFactory = new SvnOperationFactory();
+			numSessionOpens++;
+		} else {
+			numSessionReuses++;
+		}
+		return operationFactory;
+	}
+
+	/**
+	 * Returns the shared repository session. Opens it if necessary.
+	 */
+	private SVNRepository getSession() throws IOException {
+		if (session == null) {
+			try {
+				session = SVNRepositoryFactory.create(
+						createSVNURL(getInput()));
+			} catch (final SVNException e) {
+				throw new IOException(e);
+			}
+			numSessionOpens++;
+		} else {
+			numSessionReuses++;
+		}
+		return session;
+	}
+
+	/**
+	 * Returns the log entry of the given revision. Log entries are retrieved
+	 * in windows of {@link #COMMIT_LOG_WINDOW} revisions (starting with
+	 * {@code pRevision}), such that subsequent revisions are served without
+	 * further requests. Falls back to a single revision request if the window
+	 * does not contain {@code pRevision}.
+	 */
+	private SVNLogEntry getLogEntry(final long pRevision) throws IOException {
+		SVNLogEntry entry = logEntries.get(pRevision);
+		if (entry != null) {
+			return entry;
+		}
+		try {
+			if (headRevision < pRevision) {
+				headRevision = getSession().getLatestRevision();
+			}
+			final long to = Math.min(
+					pRevision + COMMIT_LOG_WINDOW - 1, headRevision);
+			if (to > pRevision) {
+				// Peg revision HEAD.
+				fetchLogEntries(
+						SvnTarget.fromURL(createSVNURL(getRepository())),
+						pRevision, to);
+				entry = logEntries.get(pRevision);
+			}
+		} catch (final SVNException e) {
+			log.debug("Unable to retrieve log window of revision {}",
+					pRevision, e);
+		}
+		if (entry == null) {
+			try {
+				fetchLogEntries(SvnTarget.fromURL(createSVNURL(getRepository()),
+						SVNRevision.create(pRevision)), pRevision, pRevision);
+			} catch (final SVNException e) {
+				throw new IOException(e);
+			}
+			entry = logEntries.get(pRevision);
+		}
+		Validate.isTrue(entry != null,
+				"Unable to create commit for revision '%d'", pRevision);
+		return entry;
+	}
+
+	/**
+	 * Retrieves the log entries of {@code pTarget} in range
+	 * {@code [pFrom, pTo]} and stores them in {@link #logEntries}.
+	 */
+	private void fetchLogEntries(final SvnTarget pTarget,
+			final long pFrom, final long pTo) throws SVNException {
+		final SvnLog svnLog = getOperationFactory().createLog();
+		svnLog.addRange(SvnRevisionRange.create(
+				SVNRevision.create(pFrom), SVNRevision.create(pTo)));
+		svnLog.setSingleTarget(pTarget);
+		svnLog.setReceiver((__, entry) ->
+				logEntries.put(entry.getRevision(), entry));
+		numCommitLogRequests++;
+		svnLog.run();
+	}
+
 	private File createTargetFile() {
 		return getTarget().toFile();
 	}
 
 	private List<String> listRevisions(final SVNRevision from,
 			final SVNRevision to) throws IOException {
-		final SvnOperationFactory factory = new SvnOperationFactory();
-		final List<String> revs = new ArrayList<>();
+		return fetchLog(from, to, 0).stream()
+				.filter(rev -> rev != 0)
+				.map(String::valueOf)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the revision numbers (including 0) of the log entries of
+	 * {@link #getInput()} in the given range. Returns at most {@code limit}
+	 * entries if {@code limit > 0}.
+	 */
+	private List<Long> fetchLog(final SVNRevision from,
+			final SVNRevision to, final long limit) throws IOException {
+		final List<Long> revs = new ArrayList<>();
 		try {
 			final SVNURL inputUrl = createSVNURL(getInput());
 			final SvnTarget input = SvnTarget.fromURL(inputUrl);
-			final SvnLog svnLog = factory.createLog();
+			final SvnLog svnLog = getOperationFactory().createLog();
 			svnLog.addRange(SvnRevisionRange.create(from, to));
 			svnLog.setSingleTarget(input);
-			svnLog.setReceiver((__, entry) -> {
-				if (entry.getRevision() != 0) {
-					revs.add(String.valueOf(entry.getRevision()));
-				}
-			});
+			if (limit > 0) {
+				svnLog.setLimit(limit);
+			}
+			svnLog.setReceiver((__, entry) -> revs.add(entry.getRevision()));
 			svnLog.run();
 		} catch (final SVNException e) {
 			// Avoid file not found exception which is thrown if there is not
@@ -303,18 +480,58 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 				return Collections.emptyList();
 			}
 			throw new IOException(e);
-		} finally {
-			factory.dispose();
 		}
 		return revs;
 	}
 
+	/**
+	 * Returns a cursor over the revisions of {@link #getInput()} in range
+	 * {@code [from, to]} (ascending). The log is retrieved in pages of
+	 * {@link #LOG_PAGE_SIZE} entries while iterating. An {@link IOException}
+	 * is wrapped in an {@link UncheckedIOException}.
+	 */
+	private Iterator<String> listRevisionsLazy(final long from,
+			final long to) {
+		return new AbstractIterator<String>() {
+			private long next = from;
+			private Iterator<Long> page = Collections.emptyIterator();
+
+			@Override
+			protected String computeNext() {
+				while (true) {
+					while (page.hasNext()) {
+						final long rev = page.next();
+						if (rev != 0) {
+							return String.valueOf(rev);
+						}
+					}
+					if (next > to) {
+						return endOfData();
+					}
+					final List<Long> revs;
+					try {
+						revs = fetchLog(SVNRevision.create(next),
+								SVNRevision.create(to), LOG_PAGE_SIZE);
+					} catch (final IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					next = revs.size() < LOG_PAGE_SIZE
+							? to + 1
+							: revs.get(revs.size() - 1) + 1;
+					page = revs.iterator();
+				}
+			}
+		};
+	}
+
 	@AllArgsConstructor
 	private class AnnotateHandler implements ISVNAnnotateHandler {
 
 		@NonNull
 		private final String revision;
 
+		private final String message;
+
 		@NonNull
 		private final VCSFile file;
 
@@ -334,18 +551,12 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 				final Date pMergedDate, final long mergedRevision,
 				final String pMergedAuthor, final String pMergedPath,
 				final int pLineNumber) throws SVNException {
-			try {
-				final LineInfo li = getModelFactory().createLineInfo(
-						revision, pAuthor,
-						createCommitImpl(revision, Collections.emptyList(),
-								Collections.emptyList()).getMessage(),
-						LocalDateTime.ofInstant(pDate.toInstant(),
-								ZoneId.systemDefault()),
-						pLineNumber + 1, pLine, file, SVNEngine.this);
-				lineInfoList.add(li);
-			} catch (final IOException e) {
-				throw new UncheckedIOException(e);
-			}
+			final LineInfo li = getModelFactory().createLineInfo(
+					revision, pAuthor, message,
+					LocalDateTime.ofInstant(pDate.toInstant(),
+							ZoneId.systemDefault()),
+					pLineNumber + 1, pLine, file, SVNEngine.this);
+			lineInfoList.add(li);
 		}
 
 		@Override
@@ -370,8 +581,6 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 
 	@Override
 	protected void checkoutImpl(final String pRevision) throws IOException {
-		final SvnOperationFactory factory = new SvnOperationFactory();
-
 		try {
 			final SVNRevision revision = createSVNRevision(pRevision);
 			final SvnTarget input = SvnTarget.fromURL(
@@ -379,7 +588,8 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 			final SvnTarget target = SvnTarget.fromFile(
 					createTargetFile());
 
-			final SvnCheckout checkout = factory.createCheckout();
+			final SvnCheckout checkout = getOperationFactory()
+					.createCheckout();
 			checkout.setRevision(revision);
 			checkout.setSource(input);
 			checkout.setSingleTarget(target);
@@ -390,16 +600,12 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 					.getCode() != 155000) {
 				throw new IOException(e);
 			}
-		} finally {
-			factory.dispose();
 		}
 	}
 
 	@Override
 	protected Changes createChangesImpl(final String fromRev,
 			final String toRev) throws IOException {
-		final SvnOperationFactory factory = new SvnOperationFactory();
-
 		final Changes changes = new Changes();
 		try {
 			final SVNRevision from = createSVNRevision(fromRev);
@@ -407,7 +613,8 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 			final SvnTarget input = SvnTarget.fromURL(
 					createSVNURL(getInput()), from);
 
-			final SvnDiffSummarize diff = factory.createDiffSummarize();
+			final SvnDiffSummarize diff = getOperationFactory()
+					.createDiffSummarize();
 			diff.setSource(input, from, to);
 			diff.setRecurseIntoDeletedDirectories(true);
 			diff.setReceiver((__, entry) -> {
@@ -429,8 +636,6 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 			diff.run();
 		} catch (final SVNException e) {
 			throw new IOException(e);
-		} finally {
-			factory.dispose();
 		}
 		return changes;
 	}
@@ -452,14 +657,35 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 		return listRevisions(since, until);
 	}
 
+	@Override
+	protected Iterator<String> listRevisionsLazyImpl(
+			final LocalDateTime pSince, final LocalDateTime pUntil)
+			throws IOException {
+		final SVNRepository repository = getSession();
+		try {
+			// Resolve the dates as `svn log` does.
+			final long since = repository.getDatedRevision(toDate(pSince));
+			final long until = repository.getDatedRevision(toDate(pUntil));
+			return listRevisionsLazy(since, until);
+		} catch (final SVNException e) {
+			throw new IOException(e);
+		}
+	}
+
 	@Override
 	protected List<String> listRevisionsImpl(final String pFrom,
 			final String pTo) throws IOException {
+		final List<String> revs = new ArrayList<>();
+		listRevisionsLazyImpl(pFrom, pTo).forEachRemaining(revs::add);
+		return revs;
+	}
+
+	@Override
+	protected Iterator<String> listRevisionsLazyImpl(final String pFrom,
+			final String pTo) throws IOException {
 		final long head;
 		try {
-			head = SVNRepositoryFactory
-					.create(createSVNURL(getInput()))
-					.getLatestRevision();
+			head = getSession().getLatestRevision();
 		} catch (final SVNException e) {
 			throw new IOException(e);
 		}
@@ -468,25 +694,20 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 		long to = pTo.isEmpty() ? head : Long.parseLong(pTo);
 		to = Math.min(to, head);
 		if (from > to) {
-			return Collections.emptyList();
+			return Collections.emptyIterator();
 		}
-
-		final SVNRevision fromRev = createSVNRevision(String.valueOf(from));
-		final SVNRevision toRev = createSVNRevision(String.valueOf(to));
-		return listRevisions(fromRev, toRev);
+		return listRevisionsLazy(from, to);
 	}
 
 	@Override
 	protected byte[] readAllBytesImpl(final String pPath,
 			final String pRevision) throws IOException {
-		final SvnOperationFactory factory = new SvnOperationFactory();
-
 		try(final ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
 			final SVNRevision revision = createSVNRevision(pRevision);
 			final SvnTarget path = SvnTarget.fromURL(
 					createSVNURL(toSVNPath(pPath)), revision);
 
-			final SvnCat cat = factory.createCat();
+			final SvnCat cat = getOperationFactory().createCat();
 			cat.setRevision(revision);
 			cat.setSingleTarget(path);
 			cat.setOutput(bos);
@@ -494,8 +715,6 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 			return bos.toByteArray();
 		} catch (final SVNException e) {
 			throw new IOException(e);
-		} finally {
-			factory.dispose();
 		}
 	}
 
@@ -503,19 +722,20 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 	public List<LineInfo> readLineInfoImpl(final VCSFile pFile)
 			throws NullPointerException, IllegalArgumentException,
 			IOException {
-		final SvnOperationFactory factory = new SvnOperationFactory();
-
 		try {
 			final String rev = pFile.getRevision().getId();
 			final String relPath = pFile.getRelativePath();
 			final SVNRevision revision = createSVNRevision(rev);
 			final SvnTarget path = SvnTarget.fromURL(
 					createSVNURL(toSVNPath(relPath)), revision);
-			final AnnotateHandler handler = new AnnotateHandler(rev, pFile);
-
-			SVNClientManager
-					.newInstance()
-					.getLogClient()
+			// Resolve the message upfront as the handler must not run
+			// further operations while the annotate operation is running.
+			final String message =
+					getLogEntry(Long.parseLong(rev)).getMessage();
+			final AnnotateHandler handler =
+					new AnnotateHandler(rev, message, pFile);
+
+			new SVNLogClient(getOperationFactory())
 					.doAnnotate(path.getURL(), revision,
 					SVNRevision.create(0), revision, handler);
 			final List<String> lines = pFile.readLinesWithEOL();
@@ -524,8 +744,6 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 			return lineInfoList;
 		} catch (final SVNException | UncheckedIOException e) {
 			throw new IOException(e);
-		} finally {
-			factory.dispose();
 		}
 	}
 
@@ -533,41 +751,78 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 	protected Commit createCommitImpl(final String pRevision,
 			final List<FileChange> pFileChanges, final List<Issue> pIssues)
 			throws IllegalArgumentException, IOException {
-		final SvnOperationFactory factory = new SvnOperationFactory();
-
-		try {
-			final SVNRevision revision = createSVNRevision(pRevision);
-			final SvnTarget input = SvnTarget.fromURL(
-					createSVNURL(getRepository()), revision);
+		final SVNLogEntry entry = getLogEntry(Long.parseLong(pRevision));
+		final String author = entry.getAuthor() == null
+				? "(no author)" : entry.getAuthor();
+		final LocalDateTime dt = LocalDateTime.ofInstant(
+				entry.getDate().toInstant(), ZoneId.systemDefault());
+		final List<String> parentIds = new ArrayList<>();
+		if (entry.getRevision() > 1) {
+			parentIds.add(String.valueOf(entry.getRevision() - 1));
+		}
+		return getModelFactory().createCommit(pRevision, author,
+				entry.getMessage(), dt, parentIds, pFileChanges, pIssues,
+				this);
+	}
 
-			final List<Commit> commits = new ArrayList<>();
-			final SvnLog svnLog = factory.createLog();
-			svnLog.addRange(SvnRevisionRange.create(revision, revision));
-			svnLog.setSingleTarget(input);
-			svnLog.setReceiver((__, entry) -> {
-				final String author = entry.getAuthor() == null
-						? "(no author)" : entry.getAuthor();
-				final LocalDateTime dt = LocalDateTime.ofInstant(
-						entry.getDate().toInstant(),
-						ZoneId.systemDefault());
-				final List<String> parentIds = new ArrayList<>();
-				if (entry.getRevision() > 1) {
-					parentIds.add(String.valueOf(entry.getRevision() - 1));
-				}
-				commits.add(getModelFactory().createCommit(pRevision, author,
-						entry.getMessage(), dt, parentIds, pFileChanges,
-						pIssues, this));
-			});
-			svnLog.run();
-			Validate.isTrue(commits.size() == 1,
-					"Unable to create commit for revision '%s'",
-					pRevision);
-			return commits.get(0);
-		} catch (final SVNException e) {
-			throw new IOException(e);
-		} finally {
-			factory.dispose();
+	/**
+	 * Disposes the shared operation factory and closes the shared repository
+	 * session. They are recreated on demand if this engine is used
+	 * afterwards.
+	 */
+	@Override
+	public void close() throws IOException {
+		super.close();
+		if (operationFactory != null || session != null) {
+			log.debug("Closing {} (session opens: {}, session reuses: {})",
+					getRepository(), numSessionOpens, numSessionReuses);
+		}
+		if (operationFactory != null) {
+			operationFactory.dispose();
+			operationFactory = null;
 		}
+		if (session != null) {
+			session.closeSession();
+			session = null;
+		}
+		logEntries.clear();
+		headRevision = -1;
+	}
+
+	/**
+	 * Returns how often this engine has created a session (operation
+	 * factory or repository session). Unless {@link #close()} has been
+	 * called in between, this value should never exceed 2.
+	 *
+	 * @return
+	 * 		The number of created sessions.
+	 */
+	public int getNumSessionOpens() {
+		return numSessionOpens;
+	}
+
+	/**
+	 * Returns how often this engine has reused an existing session
+	 * (operation factory or repository session).
+	 *
+	 * @return
+	 * 		The number of session reuses.
+	 */
+	public int getNumSessionReuses() {
+		return numSessionReuses;
+	}
+
+	/**
+	 * Returns the number of log requests this engine has sent to retrieve
+	 * commit metadata. As log entries are retrieved in windows of
+	 * {@value #COMMIT_LOG_WINDOW} revisions, this value is usually much
+	 * smaller than the number of created commits.
+	 *
+	 * @return
+	 * 		The number of log requests sent to retrieve commit metadata.
+	 */
+	public int getNumCommitLogRequests() {
+		return numCommitLogRequests;
 	}
 
 	@Override
@@ -1,5 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j;
 
+import de.unibremen.informatik.st.libvcs4j.diff.MyersDiff;
 import de.unibremen.informatik.st.libvcs4j.engine.AbstractVSCEngine;
 import lombok.NonNull;
 import lombok.Value;
@@ -47,8 +48,9 @@ public class RangeTest {
 
 	private FileChange createFileChangeFromResource(String oldFile,
 			String newFile) throws IOException {
-		VCSEngine engine = mock(AbstractVSCEngine.class);
+		AbstractVSCEngine engine = mock(AbstractVSCEngine.class);
 		when(engine.getModelFactory()).thenReturn(modelFactory);
+		when(engine.getDiffAlgorithm()).thenReturn(new MyersDiff());
 		when(engine.computeDiff(any())).thenCallRealMethod();
 		Revision revision1 = mock(Revision.class);
 		when(revision1.getId()).thenReturn("1");
@@ -0,0 +1,144 @@
+package de.unibremen.informatik.st.libvcs4j.diff;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DiffAlgorithmTest {
+
+	private static final List<DiffAlgorithm> ALGORITHMS = Arrays.asList(
+			new MyersDiff(), new HistogramDiff(), new HistogramDiff(1));
+
+	/**
+	 * Applies {@code edits} to {@code a}.
+	 */
+	private static int[] apply(final int[] a, final int[] b,
+			final List<DiffAlgorithm.Edit> edits) {
+		final List<Integer> result = new ArrayList<>();
+		int pos = 0;
+		DiffAlgorithm.Edit last = null;
+		for (final DiffAlgorithm.Edit edit : edits) {
+			if (last != null) {
+				// Sorted, not overlapping, and not adjacent.
+				assertTrue(edit.getBeginA() > last.getEndA() ||
+						edit.getBeginB() > last.getEndB());
+				assertTrue(edit.getBeginA() >= last.getEndA());
+				assertTrue(edit.getBeginB() >= last.getEndB());
+			}
+			for (; pos < edit.getBeginA(); pos++) {
+				result.add(a[pos]);
+			}
+			for (int i = edit.getBeginB(); i < edit.getEndB(); i++) {
+				result.add(b[i]);
+			}
+			pos = edit.getEndA();
+			last = edit;
+		}
+		for (; pos < a.length; pos++) {
+			result.add(a[pos]);
+		}
+		return result.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static int cost(final List<DiffAlgorithm.Edit> edits) {
+		return edits.stream()
+				.mapToInt(e -> e.getLengthA() + e.getLengthB())
+				.sum();
+	}
+
+	private static int lcs(final int[] a, final int[] b) {
+		final int[][] table = new int[a.length + 1][b.length + 1];
+		for (int i = a.length - 1; i >= 0; i--) {
+			for (int j = b.length - 1; j >= 0; j--) {
+				table[i][j] = a[i] == b[j]
+						? table[i + 1][j + 1] + 1
+						: Math.max(table[i + 1][j], table[i][j + 1]);
+			}
+		}
+		return table[0][0];
+	}
+
+	private static int[] random(final Random random, final int alphabet) {
+		final int[] lines = new int[random.nextInt(40)];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = random.nextInt(alphabet);
+		}
+		return lines;
+	}
+
+	@Test
+	public void trivialInputs() {
+		final int[] empty = new int[0];
+		final int[] abc = { 1, 2, 3 };
+		for (final DiffAlgorithm algorithm : ALGORITHMS) {
+			assertTrue(algorithm.diff(empty, empty).isEmpty());
+			assertTrue(algorithm.diff(abc, abc).isEmpty());
+			assertEquals(Arrays.asList(new DiffAlgorithm.Edit(0, 0, 0, 3)),
+					algorithm.diff(empty, abc));
+			assertEquals(Arrays.asList(new DiffAlgorithm.Edit(0, 3, 0, 0)),
+					algorithm.diff(abc, empty));
+			assertEquals(Arrays.asList(new DiffAlgorithm.Edit(1, 2, 1, 1)),
+					algorithm.diff(abc, new int[] { 1, 3 }));
+		}
+	}
+
+	@Test
+	public void randomInputs() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			final int alphabet = 1 + random.nextInt(8);
+			final int[] a = random(random, alphabet);
+			final int[] b = random(random, alphabet);
+			final int minimal = a.length + b.length - 2 * lcs(a, b);
+			for (final DiffAlgorithm algorithm : ALGORITHMS) {
+				final List<DiffAlgorithm.Edit> edits = algorithm.diff(a, b);
+				assertArrayEquals(b, apply(a, b, edits));
+				if (algorithm instanceof MyersDiff) {
+					assertEquals(minimal, cost(edits));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void histogramPrefersRareLines() {
+		// a: x } } }   b: } } } x
+		final int[] a = { 1, 2, 2, 2 };
+		final int[] b = { 2, 2, 2, 1 };
+		final List<DiffAlgorithm.Edit> myers = new MyersDiff().diff(a, b);
+		assertEquals(2, cost(myers));
+		final List<DiffAlgorithm.Edit> histogram =
+				new HistogramDiff().diff(a, b);
+		assertArrayEquals(b, apply(a, b, histogram));
+		// Line x is unique and, thus, is used as anchor.
+		for (final DiffAlgorithm.Edit edit : histogram) {
+			assertTrue(edit.getEndA() <= 0 || edit.getBeginA() >= 1);
+		}
+		assertEquals(6, cost(histogram));
+	}
+
+	@Test
+	public void largeInput() {
+		final int size = 200_000;
+		final int[] a = new int[size];
+		for (int i = 0; i < size; i++) {
+			a[i] = i;
+		}
+		final int[] b = a.clone();
+		for (int i = 0; i < size; i += 1000) {
+			b[i] = -i - 1;
+		}
+		for (final DiffAlgorithm algorithm : ALGORITHMS) {
+			final List<DiffAlgorithm.Edit> edits = algorithm.diff(a, b);
+			assertEquals(size / 1000, edits.size());
+			assertArrayEquals(b, apply(a, b, edits));
+		}
+	}
+}
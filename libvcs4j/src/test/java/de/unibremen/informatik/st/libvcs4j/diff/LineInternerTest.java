@@ -0,0 +1,63 @@
+package de.unibremen.informatik.st.libvcs4j.diff;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class LineInternerTest {
+
+	@Test
+	public void splitLikeRegex() {
+		final List<String> texts = Arrays.asList("", "a", "\n", "\r\n",
+				"a\nb", "a\r\nb\r\n", "a\n\n\n", "\na\n\nb", "a\rb\n",
+				"a\r", "\r\n\r\nx\r\n\r\n", " \n \n");
+		for (final String text : texts) {
+			final String[] expected = text.split("\\r?\\n");
+			final LineInterner.Lines lines = new LineInterner().intern(text);
+			assertEquals(text, expected.length, lines.size());
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(text, expected[i], lines.getLine(i));
+			}
+		}
+	}
+
+	@Test
+	public void shareIds() {
+		final LineInterner interner = new LineInterner();
+		final LineInterner.Lines a = interner.intern("x\ny\r\nz\n");
+		final LineInterner.Lines b = interner.intern("z\nx\ny\nw");
+		assertEquals(a.getIds()[0], b.getIds()[1]);
+		assertEquals(a.getIds()[1], b.getIds()[2]);
+		assertEquals(a.getIds()[2], b.getIds()[0]);
+		assertNotEquals(a.getIds()[0], b.getIds()[3]);
+		assertEquals(4, interner.size());
+	}
+
+	@Test
+	public void internLine() {
+		final LineInterner interner = new LineInterner();
+		final LineInterner.Lines lines = interner.intern("x\ny\n");
+		assertEquals(lines.getIds()[1], interner.internLine("y"));
+		assertEquals(lines.getIds()[0], interner.internLine("x"));
+		assertEquals(2, interner.internLine(""));
+		assertEquals(3, interner.size());
+	}
+
+	@Test
+	public void manyLines() {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			builder.append(i % 1000).append('\n');
+		}
+		final LineInterner interner = new LineInterner();
+		final LineInterner.Lines lines = interner.intern(builder.toString());
+		assertEquals(10_000, lines.size());
+		assertEquals(1000, interner.size());
+		assertEquals(lines.getIds()[5], lines.getIds()[1005]);
+		assertEquals("999", lines.getLine(9999));
+	}
+}
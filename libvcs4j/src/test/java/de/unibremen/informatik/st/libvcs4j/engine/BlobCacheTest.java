@@ -0,0 +1,63 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BlobCacheTest {
+
+	@Test
+	public void hitsAndMisses() {
+		final BlobCache cache = new BlobCache(100);
+		assertFalse(cache.get("a").isPresent());
+		final BlobCache.Entry entry = cache.put("a", new byte[10]);
+		assertSame(entry, cache.get("a").orElse(null));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(10, cache.getSize());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		final BlobCache cache = new BlobCache(30);
+		cache.put("a", new byte[10]);
+		cache.put("b", new byte[10]);
+		cache.put("c", new byte[10]);
+		// `a` becomes the most recently used entry.
+		assertTrue(cache.get("a").isPresent());
+		cache.put("d", new byte[10]);
+		assertFalse(cache.get("b").isPresent());
+		assertTrue(cache.get("a").isPresent());
+		assertTrue(cache.get("c").isPresent());
+		assertTrue(cache.get("d").isPresent());
+		assertEquals(1, cache.getEvictions());
+		assertEquals(30, cache.getSize());
+	}
+
+	@Test
+	public void skipOversizedEntries() {
+		final BlobCache cache = new BlobCache(5);
+		final BlobCache.Entry entry = cache.put("a", new byte[10]);
+		assertEquals(10, entry.getBytes().length);
+		assertFalse(cache.get("a").isPresent());
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void contentCountsTowardsSize() {
+		final BlobCache cache = new BlobCache(100);
+		final byte[] bytes = "foo".getBytes(StandardCharsets.UTF_8);
+		final BlobCache.Entry entry = cache.put("a", bytes);
+		entry.setCharset(Optional.of(StandardCharsets.UTF_8));
+		entry.setContent("foo");
+		assertEquals(3 + 3 * Character.BYTES, cache.getSize());
+		assertEquals(Optional.of(StandardCharsets.UTF_8), entry.getCharset());
+		assertEquals("foo", entry.getContent());
+	}
+}
@@ -0,0 +1,245 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.unibremen.informatik.st.libvcs4j.Issue;
+import de.unibremen.informatik.st.libvcs4j.IssueIdParser;
+import de.unibremen.informatik.st.libvcs4j.github.GithubEngine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kohsuke.github.GitHubBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link CachingITEngine} with a {@link GithubEngine} connected to a
+ * local stub of the Github API that serves the issues #1 to #5.
+ */
+public class CachingITEngineTest {
+
+	private static final String REPOSITORY = "owner/repo";
+
+	private static final String USER = "{\"login\": \"user\", " +
+			"\"name\": \"User\", \"created_at\": \"2019-01-01T00:00:00Z\"}";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private HttpServer server;
+
+	private String endpoint;
+
+	/**
+	 * Kind of request -> number of requests.
+	 */
+	private final Map<String, AtomicInteger> requests =
+			new ConcurrentHashMap<>();
+
+	@Before
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+		endpoint = "http://localhost:" + server.getAddress().getPort();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	private void handle(final HttpExchange pExchange) throws IOException {
+		final String path = pExchange.getRequestURI().getPath();
+		final String base = "/repos/" + REPOSITORY;
+		String body = null;
+		if (path.equals(base)) {
+			count("repository");
+			body = String.format("{\"name\": \"repo\", " +
+					"\"full_name\": \"%s\", \"url\": \"%s%s\", " +
+					"\"owner\": {\"login\": \"owner\"}}",
+					REPOSITORY, endpoint, base);
+		} else if (path.equals(base + "/issues")) {
+			count("listing");
+			final StringBuilder issues = new StringBuilder("[");
+			for (int i = 5; i >= 1; i--) {
+				issues.append(issue(i)).append(i > 1 ? "," : "]");
+			}
+			body = issues.toString();
+		} else if (path.matches(base + "/issues/\\d+/comments")) {
+			count("comments");
+			body = "[{\"id\": 1, \"body\": \"comment\", " +
+					"\"created_at\": \"2019-02-01T00:00:00Z\", " +
+					"\"user\": " + USER + "}]";
+		} else if (path.matches(base + "/issues/\\d+")) {
+			count("issue");
+			final int number = Integer.parseInt(
+					path.substring(path.lastIndexOf('/') + 1));
+			if (number >= 1 && number <= 5) {
+				body = issue(number);
+			}
+		}
+
+		final byte[] bytes = (body == null
+				? "{\"message\": \"Not Found\"}"
+				: body).getBytes(StandardCharsets.UTF_8);
+		pExchange.getResponseHeaders().add(
+				"Content-Type", "application/json; charset=utf-8");
+		pExchange.sendResponseHeaders(body == null ? 404 : 200, bytes.length);
+		try (OutputStream os = pExchange.getResponseBody()) {
+			os.write(bytes);
+		}
+	}
+
+	private String issue(final int pNumber) {
+		return String.format("{\"number\": %d, \"title\": \"Issue %d\", " +
+				"\"url\": \"%s/repos/%s/issues/%d\", " +
+				"\"created_at\": \"2019-01-0%dT00:00:00Z\", " +
+				"\"comments\": %d, \"user\": %s}",
+				pNumber, pNumber, endpoint, REPOSITORY, pNumber, pNumber,
+				pNumber == 3 ? 1 : 0, USER);
+	}
+
+	private void count(final String pKey) {
+		requests.computeIfAbsent(pKey, __ -> new AtomicInteger()).incrementAndGet();
+	}
+
+	private int requests(final String pKey) {
+		final AtomicInteger counter = requests.get(pKey);
+		return counter == null ? 0 : counter.get();
+	}
+
+	private CachingITEngine createEngine(final int pCapacity)
+			throws IOException {
+		return new CachingITEngine(new GithubEngine(new GitHubBuilder()
+				.withEndpoint(endpoint).build(), REPOSITORY), pCapacity);
+	}
+
+	@Test
+	public void bulkFetch() throws IOException {
+		final CachingITEngine engine = createEngine(16);
+
+		final Map<String, Issue> issues =
+				engine.getIssuesById(Arrays.asList("3", "1", "5", "3"));
+		assertEquals(Arrays.asList("3", "1", "5"),
+				new ArrayList<>(issues.keySet()));
+		assertEquals("Issue 3", issues.get("3").getTitle());
+		assertEquals("User", issues.get("3").getAuthor());
+		assertEquals(1, issues.get("3").getComments().size());
+		assertTrue(issues.get("1").getComments().isEmpty());
+		assertEquals(1, requests("listing"));
+		assertEquals(0, requests("issue"));
+		assertEquals(1, requests("comments"));
+
+		engine.getIssuesById(Arrays.asList("1", "3", "5"));
+		assertTrue(engine.getIssueById("5").isPresent());
+		assertEquals(1, requests("listing"));
+		assertEquals(0, requests("issue"));
+		assertEquals(1, requests("comments"));
+		assertEquals(3, engine.getFetches());
+		assertEquals(4, engine.getHits());
+	}
+
+	@Test
+	public void missingIssuesExpire() throws IOException {
+		final Instant now = Instant.parse("2019-06-01T00:00:00Z");
+		final CachingITEngine engine = createEngine(16);
+		engine.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		engine.setTTL(Duration.ofHours(2));
+		engine.setMissingTTL(Duration.ofMinutes(1));
+
+		assertFalse(engine.getIssueById("42").isPresent());
+		assertTrue(engine.getIssueById("2").isPresent());
+		assertFalse(engine.getIssueById("42").isPresent());
+		assertEquals(2, requests("issue"));
+
+		engine.setClock(Clock.fixed(
+				now.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+		assertFalse(engine.getIssueById("42").isPresent());
+		assertTrue(engine.getIssueById("2").isPresent());
+		assertEquals(3, requests("issue"));
+
+		engine.setClock(Clock.fixed(
+				now.plus(Duration.ofHours(3)), ZoneOffset.UTC));
+		assertTrue(engine.getIssueById("2").isPresent());
+		assertEquals(4, requests("issue"));
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() throws IOException {
+		final CachingITEngine engine = createEngine(2);
+
+		engine.getIssueById("1");
+		engine.getIssueById("2");
+		engine.getIssueById("1");
+		engine.getIssueById("3");
+		assertEquals(2, engine.getNumEntries());
+		assertEquals(1, engine.getEvictions());
+
+		engine.getIssueById("1");
+		assertEquals(3, requests("issue"));
+		engine.getIssueById("2");
+		assertEquals(4, requests("issue"));
+	}
+
+	@Test
+	public void issueIdParserIsForwarded() throws IOException {
+		final CachingITEngine engine = createEngine(16);
+		final IssueIdParser parser = IssueIdParser.of(IssueIdParser.Style.HASH);
+		engine.setIssueIdParser(parser);
+		assertSame(parser, engine.getIssueIdParser());
+		assertEquals(Collections.singletonList("1"),
+				engine.parseIssueIds("Fixes #1 (see #1)"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedIssueIdStyle() throws IOException {
+		createEngine(16).setIssueIdParser(IssueIdParser.of(
+				IssueIdParser.Style.HASH, IssueIdParser.Style.KEY));
+	}
+
+	@Test
+	public void store() throws IOException {
+		final Path store = folder.getRoot().toPath().resolve("issues.bin");
+
+		final CachingITEngine engine = createEngine(16);
+		engine.setStore(store);
+		engine.getIssuesById(Arrays.asList("3", "4", "42"));
+		engine.save();
+		final int numRequests = requests("issue") + requests("listing");
+
+		final CachingITEngine loaded = createEngine(16);
+		loaded.setStore(store);
+		final Issue issue = loaded.getIssueById("3")
+				.orElseThrow(AssertionError::new);
+		assertEquals("Issue 3", issue.getTitle());
+		assertEquals("comment", issue.getComments().get(0).getMessage());
+		assertTrue(loaded.getIssueById("4").isPresent());
+		assertFalse(loaded.getIssueById("42").isPresent());
+		assertEquals(numRequests,
+				requests("issue") + requests("listing"));
+		assertEquals(Collections.emptyMap(),
+				loaded.getIssuesById(Collections.singletonList(null)));
+	}
+}
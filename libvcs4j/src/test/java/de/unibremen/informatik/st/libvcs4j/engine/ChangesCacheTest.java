@@ -0,0 +1,109 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChangesCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static Changes createChanges() {
+		final Changes changes = new Changes();
+		changes.getAdded().add("src/A.java");
+		changes.getRemoved().add("src/B.java");
+		changes.getModified().add("src/C.java");
+		changes.getRelocated().add(
+				new SimpleEntry<>("src/D.java", "src/E.java"));
+		return changes;
+	}
+
+	@Test
+	public void roundTrip() throws IOException {
+		final Path file = folder.getRoot().toPath().resolve("changes.bin");
+		final LocalDateTime dateTime = LocalDateTime.of(2018, 1, 2, 3, 4, 5);
+
+		final ChangesCache cache = new ChangesCache(file);
+		cache.load("repo", "root");
+		cache.putChanges("1", "2", createChanges());
+		cache.putCommit(new ChangesCache.CommitInfo("2", "author",
+				"message\nwith two lines", dateTime,
+				Collections.singletonList("1")));
+		cache.save();
+
+		final ChangesCache loaded = new ChangesCache(file);
+		loaded.load("repo", "root");
+		final Changes changes = loaded.getChanges("1", "2").orElse(null);
+		final Changes expected = createChanges();
+		assertEquals(expected.getAdded(), changes.getAdded());
+		assertEquals(expected.getRemoved(), changes.getRemoved());
+		assertEquals(expected.getModified(), changes.getModified());
+		assertEquals(expected.getRelocated(), changes.getRelocated());
+		assertFalse(loaded.getChanges("2", "3").isPresent());
+		assertEquals(1, loaded.getHits());
+		assertEquals(1, loaded.getMisses());
+
+		final ChangesCache.CommitInfo commit =
+				loaded.getCommit("2").orElse(null);
+		assertEquals("author", commit.getAuthor());
+		assertEquals("message\nwith two lines", commit.getMessage());
+		assertEquals(dateTime, commit.getDateTime());
+		assertEquals(Collections.singletonList("1"), commit.getParentIds());
+	}
+
+	@Test
+	public void ignoreOtherRepository() throws IOException {
+		final Path file = folder.getRoot().toPath().resolve("changes.bin");
+		final ChangesCache cache = new ChangesCache(file);
+		cache.load("repo", "root");
+		cache.putChanges("1", "2", createChanges());
+		cache.save();
+
+		final ChangesCache other = new ChangesCache(file);
+		other.load("other", "root");
+		assertEquals(0, other.getNumChanges());
+	}
+
+	@Test
+	public void mergeOnSave() throws IOException {
+		final Path file = folder.getRoot().toPath().resolve("changes.bin");
+		final ChangesCache first = new ChangesCache(file);
+		final ChangesCache second = new ChangesCache(file);
+		first.load("repo", "root");
+		second.load("repo", "root");
+		first.putChanges("1", "2", createChanges());
+		second.putChanges("2", "3", createChanges());
+		first.save();
+		second.save();
+
+		final ChangesCache loaded = new ChangesCache(file);
+		loaded.load("repo", "root");
+		assertEquals(2, loaded.getNumChanges());
+		for (final String[] key : Arrays.asList(
+				new String[] { "1", "2" }, new String[] { "2", "3" })) {
+			assertTrue(loaded.getChanges(key[0], key[1]).isPresent());
+		}
+	}
+
+	@Test
+	public void returnCopies() throws IOException {
+		final ChangesCache cache = new ChangesCache(
+				folder.getRoot().toPath().resolve("changes.bin"));
+		cache.load("repo", "root");
+		cache.putChanges("1", "2", createChanges());
+		cache.getChanges("1", "2").get().getAdded().clear();
+		assertEquals(1, cache.getChanges("1", "2").get().getAdded().size());
+	}
+}
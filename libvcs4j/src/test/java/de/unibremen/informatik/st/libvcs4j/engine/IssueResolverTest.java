@@ -0,0 +1,130 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.Commit;
+import de.unibremen.informatik.st.libvcs4j.Issue;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSModelFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class IssueResolverTest {
+
+	private final VCSEngine vcsEngine = mock(VCSEngine.class);
+
+	/**
+	 * Blocks each lookup until {@link #release} is counted down and records
+	 * the maximum number of concurrent lookups. Issue #13 does not exist,
+	 * looking up issue #666 fails.
+	 */
+	private static class SlowITEngine extends AbstractITEngine {
+
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final AtomicInteger active = new AtomicInteger();
+		private final AtomicInteger maxActive = new AtomicInteger();
+
+		private SlowITEngine() {
+			super("slow");
+		}
+
+		@Override
+		public Optional<Issue> getIssueById(final String pId)
+				throws IOException {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			try {
+				if (!release.await(10, TimeUnit.SECONDS)) {
+					throw new IOException("Timeout");
+				}
+			} catch (final InterruptedException e) {
+				throw new InterruptedIOException();
+			} finally {
+				active.decrementAndGet();
+			}
+			if (pId.equals("666")) {
+				throw new IOException("Tracker unavailable");
+			}
+			return pId.equals("13")
+					? Optional.empty()
+					: Optional.of(getModelFactory().createIssue(pId, "author",
+							"Issue " + pId, LocalDateTime.of(2020, 1, 1, 0, 0),
+							Collections.emptyList(), this));
+		}
+	}
+
+	private Commit createCommit(final String pMessage) {
+		return new VCSModelFactory() {}.createCommit("c", "author", pMessage,
+				LocalDateTime.of(2020, 1, 2, 0, 0), Collections.emptyList(),
+				Collections.emptyList(), Collections.emptyList(), vcsEngine);
+	}
+
+	@Test
+	public void concurrencyIsLimited() throws Exception {
+		final SlowITEngine itEngine = new SlowITEngine();
+		final VCSModelFactory factory = new VCSModelFactory() {};
+		try (IssueResolver resolver = new IssueResolver(2)) {
+			final List<Commit> commits = new ArrayList<>();
+			for (int i = 1; i <= 6; i++) {
+				final Commit commit = createCommit("Fix #" + i + " and #13");
+				commits.add(factory.createAsyncCommit(commit.getId(),
+						commit.getAuthor(), commit.getMessage(),
+						commit.getDateTime(), commit.getParentIds(),
+						commit.getFileChanges(),
+						resolver.resolve(itEngine, commit), vcsEngine));
+			}
+			// Creating commits does not wait for their issues.
+			assertFalse(commits.get(0).getIssuesAsync().isDone());
+			assertEquals(6, resolver.getNumPending());
+			itEngine.release.countDown();
+
+			for (int i = 1; i <= 6; i++) {
+				final List<String> ids = commits.get(i - 1).getIssues()
+						.stream()
+						.map(Issue::getId)
+						.collect(Collectors.toList());
+				assertEquals(Collections.singletonList(String.valueOf(i)), ids);
+			}
+			assertTrue(itEngine.maxActive.get() <= 2);
+		}
+	}
+
+	@Test
+	public void failureIsReportedByGetIssues() {
+		final SlowITEngine itEngine = new SlowITEngine();
+		itEngine.release.countDown();
+		final IssueResolver resolver = new IssueResolver(1);
+		final Commit commit = new VCSModelFactory() {}.createAsyncCommit(
+				"c", "author", "#666", LocalDateTime.of(2020, 1, 2, 0, 0),
+				null, null,
+				resolver.resolve(itEngine, createCommit("#666")), vcsEngine);
+		try {
+			commit.getIssues();
+			fail("Expected UncheckedIOException");
+		} catch (final UncheckedIOException e) {
+			assertEquals("Tracker unavailable", e.getCause().getMessage());
+		}
+		resolver.close();
+		try {
+			resolver.resolve(itEngine, commit);
+			fail("Expected IllegalStateException");
+		} catch (final IllegalStateException e) {
+			// expected
+		}
+	}
+}
@@ -1,27 +1,289 @@
 package de.unibremen.informatik.st.libvcs4j.engine;
 
+import de.unibremen.informatik.st.libvcs4j.LineInfo;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.git.GitEngine;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class JsonSurferTest {
 
-	@Test
-	public void createOutputDirectory() {
-		final String repo = getClass()
-				.getResource("/jsonsurfer/jsonsurfer.bundle")
-				.getFile();
+	private final String repo = getClass()
+			.getResource("/jsonsurfer/jsonsurfer.bundle")
+			.getFile();
 
-		final VCSEngine vcs = VCSEngineBuilder
+	/**
+	 * Creates a builder of an engine that processes the first
+	 * {@code pEndIdx} revisions of 'jsurfer-core/src/main'.
+	 */
+	private VCSEngineBuilder builder(final int pEndIdx) {
+		return VCSEngineBuilder
+				.ofGit(repo)
+				.withRoot("jsurfer-core/src/main")
+				.withEndIdx(pEndIdx);
+	}
+
+	@Test
+	public void createOutputDirectory() throws IOException {
+		try (VCSEngine vcs = VCSEngineBuilder
 				.ofGit(repo)
 				.withRoot("jsurfer-core/src/main")
+				.build()) {
+			for (RevisionRange range : vcs) {
+				assertTrue(range.getRevision().getOutput().toFile().exists());
+			}
+		}
+	}
+
+	@Test
+	public void reuseRepository() throws IOException {
+		final GitEngine vcs = (GitEngine) VCSEngineBuilder
+				.ofGit(repo)
+				.withEndIdx(10)
 				.build();
 
+		RevisionRange prev = null;
 		for (RevisionRange range : vcs) {
-			assertTrue(range.getRevision().getOutput().toFile().exists());
+			if (prev != null) {
+				// Read files of a revision that is not checked out.
+				for (VCSFile file : prev.getRevision().getFiles()) {
+					file.readAllBytes();
+				}
+			}
+			prev = range;
 		}
+		assertEquals(1, vcs.getNumRepositoryOpens());
+		assertTrue(vcs.isRepositoryOpen());
+
+		vcs.close();
+		assertFalse(vcs.isRepositoryOpen());
+	}
+
+	@Test
+	public void virtualWorktree() throws IOException {
+		try (VCSEngine checkout = builder(10).build();
+				VCSEngine virtual = builder(10)
+						.withVirtualWorktree()
+						.build()) {
+			assertSameRanges(checkout, virtual, (expected, actual) -> {
+				final List<VCSFile> expectedFiles = sortByPath(expected
+						.getRevision().getFilesBySuffix(".java"));
+				final List<VCSFile> actualFiles = sortByPath(actual
+						.getRevision().getFilesBySuffix(".java"));
+				assertEquals(expectedFiles.size(), actualFiles.size());
+				for (int i = 0; i < expectedFiles.size(); i++) {
+					assertEquals(expectedFiles.get(i).getRelativePath(),
+							actualFiles.get(i).getRelativePath());
+					assertArrayEquals(expectedFiles.get(i).readAllBytes(),
+							actualFiles.get(i).readAllBytes());
+				}
+			});
+
+			// Nothing but the repository itself has been written.
+			try (Stream<java.nio.file.Path> files =
+					Files.list(virtual.getTarget())) {
+				assertEquals(Collections.singletonList(".git"), files
+						.map(p -> p.getFileName().toString())
+						.collect(Collectors.toList()));
+			}
+		}
+	}
+
+	@Test
+	public void incrementalCheckout() throws IOException {
+		try (VCSEngine checkout = builder(30).build();
+				VCSEngine incremental = builder(30)
+						.withIncrementalCheckout()
+						.build()) {
+			assertSameRanges(checkout, incremental, (expected, actual) -> {
+				final List<VCSFile> expectedFiles = sortByPath(
+						expected.getRevision().getFiles());
+				final List<VCSFile> actualFiles = sortByPath(
+						actual.getRevision().getFiles());
+				assertEquals(expectedFiles.size(), actualFiles.size());
+				for (int i = 0; i < expectedFiles.size(); i++) {
+					assertEquals(expectedFiles.get(i).getRelativePath(),
+							actualFiles.get(i).getRelativePath());
+					assertArrayEquals(
+							Files.readAllBytes(expectedFiles.get(i).toPath()),
+							Files.readAllBytes(actualFiles.get(i).toPath()));
+				}
+			});
+		}
+	}
+
+	@Test
+	public void shareBlobsAmongRevisions() throws IOException {
+		// Read all files from the object database (see createBlobKey).
+		try (GitEngine vcs = (GitEngine) builder(10)
+				.withVirtualWorktree()
+				.build()) {
+			final Set<String> contents = new HashSet<>();
+			int numReads = 0;
+			for (RevisionRange range : vcs) {
+				for (VCSFile file : range.getRevision().getFiles()) {
+					final String content = file.readContent();
+					assertEquals(new String(file.readAllBytes(),
+							file.guessCharset().get()), content);
+					contents.add(content);
+					numReads++;
+				}
+			}
+			final BlobCache cache = vcs.getBlobCache();
+			assertEquals(0, cache.getEvictions());
+			// Files with the same blob id share an entry.
+			assertEquals(contents.size(), cache.getNumEntries());
+			assertTrue(cache.getNumEntries() < numReads);
+		}
+	}
+
+	@Test
+	public void readAllBytesInBulk() throws IOException {
+		try (VCSEngine vcs = builder(10).build()) {
+			List<VCSFile> prevFiles = null;
+			List<byte[]> prevBytes = null;
+			for (RevisionRange range : vcs) {
+				if (prevFiles != null) {
+					// Read files of a revision that is not checked out.
+					final Map<VCSFile, byte[]> contents =
+							vcs.readAllBytes(prevFiles);
+					assertEquals(prevFiles,
+							new ArrayList<>(contents.keySet()));
+					for (int i = 0; i < prevFiles.size(); i++) {
+						assertArrayEquals(prevBytes.get(i),
+								contents.get(prevFiles.get(i)));
+					}
+				}
+				prevFiles = range.getRevision().getFilesBySuffix(".java");
+				prevBytes = new ArrayList<>();
+				for (VCSFile file : prevFiles) {
+					prevBytes.add(Files.readAllBytes(file.toPath()));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void changesCache() throws IOException {
+		final java.nio.file.Path file =
+				Files.createTempDirectory("changes").resolve("cache.bin");
+
+		final List<RevisionRange> expected = new ArrayList<>();
+		try (VCSEngine first = builder(20).withChangesCache(file).build()) {
+			first.forEach(expected::add);
+		}
+		assertTrue(Files.exists(file));
+
+		try (VCSEngine second = builder(20).withChangesCache(file).build()) {
+			final Iterator<RevisionRange> it = expected.iterator();
+			for (RevisionRange actual : second) {
+				assertTrue(it.hasNext());
+				final RevisionRange range = it.next();
+				assertEquals(range.getRevision().getId(),
+						actual.getRevision().getId());
+				assertEquals(range.getFileChanges().size(),
+						actual.getFileChanges().size());
+				assertEquals(range.getLatestCommit().getAuthor(),
+						actual.getLatestCommit().getAuthor());
+				assertEquals(range.getLatestCommit().getMessage(),
+						actual.getLatestCommit().getMessage());
+				assertEquals(range.getLatestCommit().getDateTime(),
+						actual.getLatestCommit().getDateTime());
+			}
+			assertFalse(it.hasNext());
+
+			final ChangesCache cache = ((AbstractVSCEngine) second)
+					.getChangesCache().orElse(null);
+			assertEquals(19, cache.getHits());
+			assertEquals(0, cache.getMisses());
+		}
+	}
+
+	@Test
+	public void incrementalBlame() throws IOException {
+		try (VCSEngine full = builder(30).build();
+				VCSEngine incremental = builder(30)
+						.withIncrementalBlame()
+						.build()) {
+			final int[] numLines = {0};
+			assertSameRanges(full, incremental, (expected, actual) -> {
+				final List<VCSFile> expectedFiles = sortByPath(
+						expected.getRevision().getFilesBySuffix(".java"));
+				final List<VCSFile> actualFiles = sortByPath(
+						actual.getRevision().getFilesBySuffix(".java"));
+				assertEquals(expectedFiles.size(), actualFiles.size());
+				for (int i = 0; i < expectedFiles.size(); i++) {
+					final List<LineInfo> expectedInfo =
+							expectedFiles.get(i).readLineInfo();
+					final List<LineInfo> actualInfo =
+							actualFiles.get(i).readLineInfo();
+					assertEquals(expectedInfo.size(), actualInfo.size());
+					for (int j = 0; j < expectedInfo.size(); j++) {
+						assertEquals(expectedInfo.get(j).getId(),
+								actualInfo.get(j).getId());
+						assertEquals(expectedInfo.get(j).getAuthor(),
+								actualInfo.get(j).getAuthor());
+						assertEquals(expectedInfo.get(j).getContent(),
+								actualInfo.get(j).getContent());
+						assertEquals(j + 1, actualInfo.get(j).getLine());
+						numLines[0]++;
+					}
+				}
+			});
+			assertTrue(numLines[0] > 0);
+		}
+	}
+
+	/**
+	 * Walks {@code pExpected} and {@code pActual} in lockstep, asserts that
+	 * both yield the same revisions with the same number of file changes,
+	 * and passes each pair of ranges to {@code pAssertion}.
+	 */
+	private static void assertSameRanges(final VCSEngine pExpected,
+			final VCSEngine pActual, final RangeAssertion pAssertion)
+			throws IOException {
+		final Iterator<RevisionRange> it = pActual.iterator();
+		for (RevisionRange expected : pExpected) {
+			assertTrue(it.hasNext());
+			final RevisionRange actual = it.next();
+			assertEquals(expected.getRevision().getId(),
+					actual.getRevision().getId());
+			assertEquals(expected.getFileChanges().size(),
+					actual.getFileChanges().size());
+			pAssertion.check(expected, actual);
+		}
+		assertFalse(it.hasNext());
+	}
+
+	@FunctionalInterface
+	private interface RangeAssertion {
+		void check(RevisionRange pExpected, RevisionRange pActual)
+				throws IOException;
+	}
+
+	private List<VCSFile> sortByPath(final List<VCSFile> files) {
+		return files.stream()
+				.sorted(Comparator.comparing(VCSFile::getRelativePath))
+				.collect(Collectors.toList());
 	}
 }
@@ -0,0 +1,121 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelRevisionWalkerTest {
+
+	private final String repo = getClass()
+			.getResource("/jsonsurfer/jsonsurfer.bundle")
+			.getFile();
+
+	private final Supplier<VCSEngineBuilder> builder = () -> VCSEngineBuilder
+			.ofGit(repo)
+			.withRoot("jsurfer-core/src/main")
+			.withEndIdx(25);
+
+	/**
+	 * A non-linear part of the history that contains merge commits.
+	 */
+	private final Supplier<VCSEngineBuilder> mergesBuilder = () ->
+			VCSEngineBuilder
+					.ofGit(repo)
+					.withStartIdx(40)
+					.withEndIdx(60);
+
+	private List<String> sequential() throws IOException {
+		return sequential(builder);
+	}
+
+	private static List<String> sequential(
+			final Supplier<VCSEngineBuilder> pBuilder) throws IOException {
+		final List<String> ranges = new ArrayList<>();
+		try (VCSEngine engine = pBuilder.get().build()) {
+			for (RevisionRange range : engine) {
+				ranges.add(summarize(range));
+			}
+		}
+		return ranges;
+	}
+
+	private static String summarize(final RevisionRange range) {
+		return range.getOrdinal() + ":" +
+				range.getRevision().getId() + ":" +
+				range.getFileChanges().size() + ":" +
+				range.getRevision().getFiles().size();
+	}
+
+	@Test
+	public void ordered() throws IOException {
+		final ParallelRevisionWalker walker =
+				new ParallelRevisionWalker(builder, 3);
+		final List<String> ranges = new ArrayList<>();
+		walker.walk(ParallelRevisionWalkerTest::summarize, ranges::add);
+		assertEquals(sequential(), ranges);
+	}
+
+	@Test
+	public void orderedWithBoundedBuffer() throws IOException {
+		final ParallelRevisionWalker walker =
+				new ParallelRevisionWalker(builder, 4);
+		walker.setCapacity(2);
+		final AtomicInteger mapped = new AtomicInteger();
+		final List<Integer> ahead = new ArrayList<>();
+		final List<String> ranges = new ArrayList<>();
+		walker.walk(range -> {
+			mapped.incrementAndGet();
+			return summarize(range);
+		}, summary -> {
+			ahead.add(mapped.get() - ranges.size());
+			ranges.add(summary);
+		});
+		assertEquals(sequential(), ranges);
+		assertTrue(ahead.stream().allMatch(n -> n <= 2));
+	}
+
+	@Test
+	public void asCompleted() throws IOException {
+		final ParallelRevisionWalker walker =
+				new ParallelRevisionWalker(builder, 4);
+		walker.setOrdered(false);
+		walker.setCapacity(1);
+		final List<String> ranges =
+				Collections.synchronizedList(new ArrayList<>());
+		walker.walk(range -> {
+			ranges.add(summarize(range));
+		});
+		final List<String> expected = sequential();
+		assertEquals(expected.size(), ranges.size());
+		assertTrue(ranges.containsAll(expected));
+	}
+
+	@Test
+	public void orderedWithMerges() throws IOException {
+		final ParallelRevisionWalker walker =
+				new ParallelRevisionWalker(mergesBuilder, 5);
+		final List<String> ranges = new ArrayList<>();
+		walker.walk(ParallelRevisionWalkerTest::summarize, ranges::add);
+		assertEquals(sequential(mergesBuilder), ranges);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void propagateError() throws IOException {
+		final ParallelRevisionWalker walker =
+				new ParallelRevisionWalker(builder, 2);
+		walker.walk(range -> {
+			throw new IllegalStateException();
+		}, __ -> {});
+	}
+}
@@ -297,4 +297,25 @@ public class JavaCPPTest extends VCSBaseTest {
 				buildMojo,
 				lineInfo.get(1).getFile());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void fileIndexMatchesOutput() throws IOException {
+		VCSEngine engine = createBuilder()
+				.withStartIdx(0)
+				.withEndIdx(40)
+				.build();
+
+		for (RevisionRange range : engine) {
+			Path output = engine.getOutput();
+			List<String> expected = engine.listFilesInOutput().stream()
+					.map(output::relativize)
+					.map(Path::toString)
+					.sorted()
+					.collect(Collectors.toList());
+			List<String> actual = range.getRevision().getFiles().stream()
+					.map(VCSFile::getRelativePath)
+					.collect(Collectors.toList());
+			assertEquals(expected, actual);
+		}
+	}
+}
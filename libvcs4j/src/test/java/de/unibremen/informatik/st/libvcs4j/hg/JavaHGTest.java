@@ -193,4 +193,21 @@ public class JavaHGTest extends VCSBaseTest {
 				addCommandTest,
 				lineInfo.get(38).getFile());
 	}
+
+	@Test
+	public void batchedCommitMetadata() throws IOException {
+		HGEngine engine = (HGEngine) createBuilder()
+				.withFrom("800")
+				.withTo("820")
+				.build();
+
+		int numCommits = 0;
+		for (RevisionRange range : engine) {
+			Commit commit = range.getLatestCommit();
+			assertEquals(range.getRevision().getId(), commit.getId());
+			numCommits++;
+		}
+		assertTrue(numCommits > 1);
+		assertTrue(engine.getNumCommitLogRequests() < numCommits);
+	}
 }
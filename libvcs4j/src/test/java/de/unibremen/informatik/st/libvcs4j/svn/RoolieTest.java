@@ -6,7 +6,9 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -156,4 +158,77 @@ public class RoolieTest extends VCSBaseTest {
 				.build();
 		assertThat(engine.listRevisions()).hasSize(64);
 	}
+
+	@Test
+	public void listRevisionsLazily() throws IOException {
+		final SVNEngine engine = new SVNEngine(
+				"file://" + getInput().toString(), "", getTarget(),
+				SVNEngine.MINIMUM_DATETIME,
+				VCSEngineBuilder.DEFAULT_UNTIL);
+		final List<String> expected = engine.listRevisionsImpl(
+				SVNEngine.MINIMUM_DATETIME,
+				VCSEngineBuilder.DEFAULT_UNTIL);
+		final List<String> actual = new ArrayList<>();
+		engine.listRevisionsLazyImpl(
+				SVNEngine.MINIMUM_DATETIME,
+				VCSEngineBuilder.DEFAULT_UNTIL).forEachRemaining(actual::add);
+		assertThat(actual).isNotEmpty().isEqualTo(expected);
+		assertThat(engine.listRevisions()).isEqualTo(expected);
+	}
+
+	/////////////////////////// Incremental checkout ///////////////////////////
+
+	@Test
+	public void incrementalCheckout() throws IOException {
+		final VCSEngine incremental = createBuilder()
+				.withFrom("20")
+				.withTo("45")
+				.withIncrementalCheckout()
+				.build();
+		RevisionRange last = null;
+		for (RevisionRange range : incremental) {
+			last = range;
+		}
+		assertThat(last).isNotNull();
+
+		final Path target = Files.createTempDirectory(null);
+		Files.delete(target);
+		final VCSEngine checkout = createBuilder()
+				.withTarget(target)
+				.withFrom(last.getRevision().getId())
+				.withTo(last.getRevision().getId())
+				.build();
+		final Revision expected = checkout.next().get().getRevision();
+		final List<VCSFile> files = last.getRevision().getFiles();
+		assertThat(files).hasSameSizeAs(expected.getFiles());
+		for (final VCSFile file : files) {
+			assertThat(file.readAllBytes()).isEqualTo(Files.readAllBytes(
+					target.resolve(file.getRelativePath())));
+		}
+	}
+
+	////////////////////////////// Session reuse ///////////////////////////////
+
+	@Test
+	public void reuseSession() throws IOException {
+		final SVNEngine engine = createProvider("", "20", "45");
+		int numCommits = 0;
+		for (RevisionRange range : engine) {
+			assertThat(range.getLatestCommit().getMessage()).isNotNull();
+			numCommits++;
+		}
+		final VCSFile file = engine.getRevision().get().getFiles().get(0);
+		assertThat(file.readLineInfo()).isNotEmpty();
+		assertThat(file.readLineInfo()).isNotEmpty();
+
+		assertThat(numCommits).isGreaterThan(1);
+		assertThat(engine.getNumSessionOpens()).isLessThanOrEqualTo(2);
+		assertThat(engine.getNumSessionReuses()).isGreaterThan(numCommits);
+		assertThat(engine.getNumCommitLogRequests()).isLessThan(numCommits);
+
+		engine.close();
+		final int numSessionOpens = engine.getNumSessionOpens();
+		assertThat(file.readLineInfo()).isNotEmpty();
+		assertThat(engine.getNumSessionOpens()).isGreaterThan(numSessionOpens);
+	}
 }